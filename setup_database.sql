@@ -104,6 +104,12 @@ CREATE TABLE IF NOT EXISTS employees (
     payment_method VARCHAR(20) DEFAULT 'BANK_TRANSFER',
     payment_frequency VARCHAR(20) DEFAULT 'MONTHLY',
     
+    -- Government Membership Numbers
+    sss_number VARCHAR(20),
+    philhealth_number VARCHAR(20),
+    pagibig_number VARCHAR(20),
+    tin VARCHAR(20),
+    
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
 );
@@ -206,15 +212,67 @@ CREATE TABLE IF NOT EXISTS payroll (
     total_allowances DECIMAL(10, 2) DEFAULT 0,
     total_custom_deductions DECIMAL(10, 2) DEFAULT 0,
     total_custom_bonuses DECIMAL(10, 2) DEFAULT 0,
+    overtime_pay DECIMAL(10, 2) DEFAULT 0,
+    sss_contribution DECIMAL(10, 2) DEFAULT 0,
+    philhealth_contribution DECIMAL(10, 2) DEFAULT 0,
+    pagibig_contribution DECIMAL(10, 2) DEFAULT 0,
+    sss_employer_contribution DECIMAL(10, 2) DEFAULT 0,
+    philhealth_employer_contribution DECIMAL(10, 2) DEFAULT 0,
+    pagibig_employer_contribution DECIMAL(10, 2) DEFAULT 0,
     gross_pay DECIMAL(10, 2) NOT NULL,
     tax_deduction DECIMAL(10, 2) DEFAULT 0,
     net_pay DECIMAL(10, 2) NOT NULL,
-    status VARCHAR(20) DEFAULT 'PENDING',
+    status VARCHAR(20) DEFAULT 'PENDING', -- PENDING, FINALIZED
+    pay_date DATE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_payroll_period_start (pay_period_start),
     FOREIGN KEY (employee_id) REFERENCES employees(employee_id) ON DELETE CASCADE
 );
 
+-- Payroll run journal (batch runs and the employees each run has finished)
+CREATE TABLE IF NOT EXISTS payroll_runs (
+    run_id INT AUTO_INCREMENT PRIMARY KEY,
+    pay_period_start DATE NOT NULL,
+    pay_period_end DATE,
+    pay_date DATE,
+    status VARCHAR(20) NOT NULL DEFAULT 'RUNNING', -- RUNNING, CANCELLED, FAILED, COMPLETED
+    total_employees INT DEFAULT 0,
+    processed_employees INT DEFAULT 0,
+    started_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP NULL,
+    INDEX idx_payroll_runs_period (pay_period_start, status)
+);
+
+CREATE TABLE IF NOT EXISTS payroll_run_items (
+    run_id INT NOT NULL,
+    employee_id VARCHAR(20) NOT NULL,
+    payroll_id INT NOT NULL,
+    PRIMARY KEY (run_id, employee_id),
+    FOREIGN KEY (run_id) REFERENCES payroll_runs(run_id) ON DELETE CASCADE
+);
+
+-- Year-to-date ledger (running totals of finalized payrolls per employee and tax year)
+CREATE TABLE IF NOT EXISTS payroll_ytd (
+    employee_id VARCHAR(20) NOT NULL,
+    tax_year INT NOT NULL,
+    payroll_count INT DEFAULT 0,
+    basic_pay DECIMAL(14, 2) DEFAULT 0,
+    gross_pay DECIMAL(14, 2) DEFAULT 0,
+    taxable_income DECIMAL(14, 2) DEFAULT 0,
+    tax_withheld DECIMAL(14, 2) DEFAULT 0,
+    sss_contribution DECIMAL(14, 2) DEFAULT 0,
+    philhealth_contribution DECIMAL(14, 2) DEFAULT 0,
+    pagibig_contribution DECIMAL(14, 2) DEFAULT 0,
+    sss_employer_contribution DECIMAL(14, 2) DEFAULT 0,
+    philhealth_employer_contribution DECIMAL(14, 2) DEFAULT 0,
+    pagibig_employer_contribution DECIMAL(14, 2) DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (employee_id, tax_year),
+    INDEX idx_payroll_ytd_year (tax_year)
+);
+
 -- Salary Components table
 CREATE TABLE IF NOT EXISTS salary_components (
     id INT AUTO_INCREMENT PRIMARY KEY,
@@ -223,6 +281,8 @@ CREATE TABLE IF NOT EXISTS salary_components (
     type VARCHAR(20) NOT NULL, -- EARNING, DEDUCTION, ALLOWANCE, BONUS
     amount DECIMAL(10, 2) NOT NULL DEFAULT 0,
     is_percentage BOOLEAN DEFAULT FALSE,
+    formula TEXT, -- Optional amount formula, e.g. min(base * 10%, 5000); overrides amount
+    version INT DEFAULT 1, -- Incremented on every update
     is_active BOOLEAN DEFAULT TRUE,
     created_date DATE DEFAULT (CURRENT_DATE),
     last_modified DATE DEFAULT (CURRENT_DATE),
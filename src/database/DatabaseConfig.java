@@ -23,18 +23,52 @@ public class DatabaseConfig {
     public static final String QUERY_INSERT_USER = "INSERT INTO users (username, password, role) VALUES (?, ?, ?)";
     public static final String QUERY_SELECT_ALL_EMPLOYEES = "SELECT * FROM employees WHERE status = 'ACTIVE'";
     public static final String QUERY_SELECT_ALL_EMPLOYEES_FOR_ID_CHECK = "SELECT * FROM employees"; // For ID generation - check all employees
-    public static final String QUERY_INSERT_EMPLOYEE = "INSERT INTO employees (employee_id, comprehensive_employee_id, first_name, last_name, email, phone, department, position, job_title, manager, hire_date, salary, employment_status, joining_date, probation_end_date, exit_date, exit_reason, bank_name, account_number, account_holder_name, bank_branch, routing_number, payment_method, payment_frequency) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-    public static final String QUERY_UPDATE_EMPLOYEE = "UPDATE employees SET comprehensive_employee_id = ?, first_name = ?, last_name = ?, email = ?, phone = ?, department = ?, position = ?, job_title = ?, manager = ?, hire_date = ?, salary = ?, employment_status = ?, joining_date = ?, probation_end_date = ?, exit_date = ?, exit_reason = ?, bank_name = ?, account_number = ?, account_holder_name = ?, bank_branch = ?, routing_number = ?, payment_method = ?, payment_frequency = ? WHERE employee_id = ?";
+    public static final String QUERY_INSERT_EMPLOYEE = "INSERT INTO employees (employee_id, comprehensive_employee_id, first_name, last_name, email, phone, department, position, job_title, manager, hire_date, salary, employment_status, joining_date, probation_end_date, exit_date, exit_reason, bank_name, account_number, account_holder_name, bank_branch, routing_number, payment_method, payment_frequency, sss_number, philhealth_number, pagibig_number, tin) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    public static final String QUERY_UPDATE_EMPLOYEE = "UPDATE employees SET comprehensive_employee_id = ?, first_name = ?, last_name = ?, email = ?, phone = ?, department = ?, position = ?, job_title = ?, manager = ?, hire_date = ?, salary = ?, employment_status = ?, joining_date = ?, probation_end_date = ?, exit_date = ?, exit_reason = ?, bank_name = ?, account_number = ?, account_holder_name = ?, bank_branch = ?, routing_number = ?, payment_method = ?, payment_frequency = ?, sss_number = ?, philhealth_number = ?, pagibig_number = ?, tin = ? WHERE employee_id = ?";
     public static final String QUERY_DELETE_EMPLOYEE = "UPDATE employees SET status = 'INACTIVE' WHERE employee_id = ?";
     public static final String QUERY_SELECT_EMPLOYEE_BY_ID = "SELECT * FROM employees WHERE employee_id = ? AND status = 'ACTIVE'";
 
     // Payroll queries
-    public static final String QUERY_INSERT_PAYROLL = "INSERT INTO payroll (employee_id, pay_period_start, pay_period_end, basic_salary, overtime_hours, overtime_rate, bonus, deductions, gross_pay, tax_deduction, net_pay, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    public static final String PAYROLL_COLUMNS = "employee_id, pay_period_start, pay_period_end, basic_salary, overtime_hours, overtime_rate, bonus, deductions, gross_pay, tax_deduction, net_pay, status, pay_date, overtime_pay, total_allowances, total_custom_deductions, total_custom_bonuses, sss_contribution, philhealth_contribution, pagibig_contribution, sss_employer_contribution, philhealth_employer_contribution, pagibig_employer_contribution";
+    public static final int PAYROLL_COLUMN_COUNT = 23;
+    public static final String QUERY_INSERT_PAYROLL = "INSERT INTO payroll (" + PAYROLL_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    public static final String QUERY_INSERT_PAYROLL_WITH_ID = "INSERT INTO payroll (" + PAYROLL_COLUMNS + ", id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
     public static final String QUERY_SELECT_PAYROLL_BY_EMPLOYEE = "SELECT * FROM payroll WHERE employee_id = ? ORDER BY pay_period_start DESC";
     public static final String QUERY_SELECT_ALL_PAYROLL = "SELECT p.*, e.first_name, e.last_name FROM payroll p JOIN employees e ON p.employee_id = e.employee_id WHERE e.status = 'ACTIVE' ORDER BY p.pay_period_start DESC";
-    public static final String QUERY_UPDATE_PAYROLL = "UPDATE payroll SET basic_salary = ?, overtime_hours = ?, overtime_rate = ?, bonus = ?, deductions = ?, gross_pay = ?, tax_deduction = ?, net_pay = ?, status = ? WHERE id = ?";
+    public static final String QUERY_UPDATE_PAYROLL = "UPDATE payroll SET employee_id = ?, pay_period_start = ?, pay_period_end = ?, basic_salary = ?, overtime_hours = ?, overtime_rate = ?, bonus = ?, deductions = ?, gross_pay = ?, tax_deduction = ?, net_pay = ?, status = ?, pay_date = ?, overtime_pay = ?, total_allowances = ?, total_custom_deductions = ?, total_custom_bonuses = ?, sss_contribution = ?, philhealth_contribution = ?, pagibig_contribution = ?, sss_employer_contribution = ?, philhealth_employer_contribution = ?, pagibig_employer_contribution = ? WHERE id = ?";
+    public static final String QUERY_SELECT_PAYROLL_BY_ID = "SELECT * FROM payroll WHERE id = ?";
+    public static final String QUERY_SELECT_PAYROLL_BY_PERIOD = "SELECT * FROM payroll WHERE pay_period_start >= ? AND pay_period_start <= ? ORDER BY id";
+    public static final String QUERY_SELECT_MAX_PAYROLL_ID = "SELECT COALESCE(MAX(id), 0) FROM payroll";
     public static final String QUERY_DELETE_PAYROLL = "DELETE FROM payroll WHERE id = ?";
 
+    // Payroll run journal queries
+    public static final String QUERY_INSERT_PAYROLL_RUN = "INSERT INTO payroll_runs (pay_period_start, pay_period_end, pay_date, status, total_employees, processed_employees) VALUES (?, ?, ?, ?, ?, ?)";
+    public static final String QUERY_SELECT_RESUMABLE_PAYROLL_RUN = "SELECT * FROM payroll_runs WHERE pay_period_start = ? AND COALESCE(pay_period_end, LAST_DAY(pay_period_start)) = ? AND status <> 'COMPLETED' ORDER BY run_id DESC LIMIT 1";
+    public static final String QUERY_UPDATE_PAYROLL_RUN = "UPDATE payroll_runs SET status = ?, total_employees = ?, completed_at = ? WHERE run_id = ?";
+    public static final String QUERY_ADVANCE_PAYROLL_RUN = "UPDATE payroll_runs SET processed_employees = processed_employees + ? WHERE run_id = ?";
+    public static final String QUERY_INSERT_PAYROLL_RUN_ITEM = "INSERT INTO payroll_run_items (run_id, employee_id, payroll_id) VALUES (?, ?, ?)";
+    public static final String QUERY_SELECT_PAYROLL_RUN_EMPLOYEES = "SELECT employee_id FROM payroll_run_items WHERE run_id = ?";
+
+    // Year-to-date ledger queries (one row per employee per tax year, maintained as payrolls are finalized)
+    public static final String QUERY_FINALIZE_PAYROLL = QUERY_UPDATE_PAYROLL + " AND (status IS NULL OR status <> 'FINALIZED')";
+    public static final String QUERY_ADD_PAYROLL_YTD = "INSERT INTO payroll_ytd (employee_id, tax_year, payroll_count, basic_pay, gross_pay, taxable_income, tax_withheld, sss_contribution, philhealth_contribution, pagibig_contribution, sss_employer_contribution, philhealth_employer_contribution, pagibig_employer_contribution) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE payroll_count = payroll_count + VALUES(payroll_count), basic_pay = basic_pay + VALUES(basic_pay), gross_pay = gross_pay + VALUES(gross_pay), " +
+        "taxable_income = taxable_income + VALUES(taxable_income), tax_withheld = tax_withheld + VALUES(tax_withheld), sss_contribution = sss_contribution + VALUES(sss_contribution), " +
+        "philhealth_contribution = philhealth_contribution + VALUES(philhealth_contribution), pagibig_contribution = pagibig_contribution + VALUES(pagibig_contribution), " +
+        "sss_employer_contribution = sss_employer_contribution + VALUES(sss_employer_contribution), philhealth_employer_contribution = philhealth_employer_contribution + VALUES(philhealth_employer_contribution), " +
+        "pagibig_employer_contribution = pagibig_employer_contribution + VALUES(pagibig_employer_contribution)";
+    public static final String QUERY_SELECT_PAYROLL_YTD_BY_YEAR = "SELECT * FROM payroll_ytd WHERE tax_year = ?";
+
+    // Streaming export queries (read with a forward-only cursor, one row at a time)
+    public static final String QUERY_STREAM_EMPLOYEES = "SELECT * FROM employees ORDER BY employee_id";
+    public static final String QUERY_STREAM_PAYROLL = "SELECT * FROM payroll ORDER BY id";
+    public static final String QUERY_STREAM_PAYROLL_BY_PERIOD = "SELECT * FROM payroll WHERE pay_period_start >= ? AND pay_period_start <= ? ORDER BY employee_id, id";
+    public static final String QUERY_STREAM_EMPLOYEE_SALARY_COMPONENTS = "SELECT esc.id, esc.employee_id, esc.salary_component_id, esc.custom_amount, " +
+        "esc.is_percentage, esc.is_active, esc.effective_date, esc.end_date, esc.created_date, esc.created_by, esc.remarks, " +
+        "sc.name AS component_name, sc.type AS component_type, sc.formula AS component_formula, sc.version AS component_version " +
+        "FROM employee_salary_components esc JOIN salary_components sc ON esc.salary_component_id = sc.id " +
+        "ORDER BY esc.employee_id, esc.effective_date";
+
     // Database initialization
     public static final String CREATE_DATABASE = "CREATE DATABASE IF NOT EXISTS " + DB_NAME;
 }
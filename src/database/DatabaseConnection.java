@@ -1,18 +1,29 @@
 package database;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.*;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 /**
  * Database Connection Manager for Payroll Management System
+ *
+ * Connections come from a small pool of at most {@link DatabaseConfig#MAX_CONNECTIONS}. Each
+ * {@link #getConnection()} hands out a connection no other thread is using, and closing it returns it
+ * to the pool, so the UI, the payroll write-behind thread and background runs and exports never share
+ * a statement, a streaming result set or a transaction.
  */
 public class DatabaseConnection {
-    private static Connection connection;
-    private static boolean initialized = false;
+    private static final Deque<PooledConnection> idleConnections = new ArrayDeque<>();
+    private static final Object poolLock = new Object();
+    private static int openConnections;
+    private static volatile boolean initialized = false;
     
     /**
      * Initialize the database connection and create tables if they don't exist
      */
-    public static void initializeDatabase() throws SQLException {
+    public static synchronized void initializeDatabase() throws SQLException {
         if (initialized) {
             return;
         }
@@ -24,15 +35,10 @@ public class DatabaseConnection {
             // First, create the database if it doesn't exist
             createDatabaseIfNotExists();
             
-            // Then connect to the specific database
-            connection = DriverManager.getConnection(
-                DatabaseConfig.DB_URL,
-                DatabaseConfig.DB_USERNAME,
-                DatabaseConfig.DB_PASSWORD
-            );
-            
-            // Create tables if they don't exist
-            createTables();
+            // Then connect to the specific database and create tables if they don't exist
+            try (Connection connection = openConnection()) {
+                createTables(connection);
+            }
             
             initialized = true;
             System.out.println("Database connection initialized successfully!");
@@ -46,23 +52,85 @@ public class DatabaseConnection {
     }
     
     /**
-     * Get a database connection
+     * Get a database connection for the caller's own use; close it (try-with-resources) to return it
+     * to the pool. Waits up to {@link DatabaseConfig#CONNECTION_TIMEOUT} ms when all are in use.
      */
     public static Connection getConnection() throws SQLException {
         if (!initialized) {
             initializeDatabase();
         }
         
-        // Check if connection is still valid
-        if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(
-                DatabaseConfig.DB_URL,
-                DatabaseConfig.DB_USERNAME,
-                DatabaseConfig.DB_PASSWORD
-            );
+        PooledConnection pooled = null;
+        long deadline = System.currentTimeMillis() + DatabaseConfig.CONNECTION_TIMEOUT;
+        synchronized (poolLock) {
+            while (pooled == null) {
+                if (!idleConnections.isEmpty()) {
+                    pooled = idleConnections.pop();
+                } else if (openConnections < DatabaseConfig.MAX_CONNECTIONS) {
+                    openConnections++;
+                    break;
+                } else {
+                    long wait = deadline - System.currentTimeMillis();
+                    if (wait <= 0) {
+                        throw new SQLException("Timed out waiting for a database connection ("
+                                               + DatabaseConfig.MAX_CONNECTIONS + " in use)");
+                    }
+                    try {
+                        poolLock.wait(wait);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted waiting for a database connection", e);
+                    }
+                }
+            }
         }
         
-        return connection;
+        try {
+            if (pooled == null) {
+                pooled = new PooledConnection(openConnection());
+            } else if (!pooled.isUsable()) {
+                // Dropped by the server while idle: replace it
+                closeQuietly(pooled.connection);
+                pooled = new PooledConnection(openConnection());
+            }
+        } catch (SQLException | RuntimeException e) {
+            release(null);
+            throw e;
+        }
+        return pooled.handOut();
+    }
+    
+    private static Connection openConnection() throws SQLException {
+        return DriverManager.getConnection(
+            DatabaseConfig.DB_URL,
+            DatabaseConfig.DB_USERNAME,
+            DatabaseConfig.DB_PASSWORD
+        );
+    }
+    
+    /**
+     * Put a connection back in the pool, or give up its slot if it is null or no longer usable
+     */
+    private static void release(PooledConnection pooled) {
+        synchronized (poolLock) {
+            if (pooled != null && initialized) {
+                idleConnections.push(pooled);
+            } else {
+                openConnections--;
+                if (pooled != null) {
+                    closeQuietly(pooled.connection);
+                }
+            }
+            poolLock.notifyAll();
+        }
+    }
+    
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // Already unusable
+        }
     }
     
     /**
@@ -85,7 +153,7 @@ public class DatabaseConnection {
     /**
      * Create necessary tables if they don't exist
      */
-    private static void createTables() throws SQLException {
+    private static void createTables(Connection connection) throws SQLException {
         try (Statement stmt = connection.createStatement()) {
             
             // Check if enhanced users table already exists
@@ -188,6 +256,12 @@ public class DatabaseConnection {
                 ")";
             stmt.executeUpdate(createEmployeesTable);
             
+            // Government membership numbers used in remittance and year-end reports
+            addColumnIfMissing(stmt, "employees", "sss_number", "VARCHAR(20)");
+            addColumnIfMissing(stmt, "employees", "philhealth_number", "VARCHAR(20)");
+            addColumnIfMissing(stmt, "employees", "pagibig_number", "VARCHAR(20)");
+            addColumnIfMissing(stmt, "employees", "tin", "VARCHAR(20)");
+            
             // Create payroll table
             String createPayrollTable = "CREATE TABLE IF NOT EXISTS payroll (" +
                 "id INT AUTO_INCREMENT PRIMARY KEY, " +
@@ -203,12 +277,93 @@ public class DatabaseConnection {
                 "tax_deduction DECIMAL(10,2) DEFAULT 0, " +
                 "net_pay DECIMAL(10,2) NOT NULL, " +
                 "status VARCHAR(20) DEFAULT 'DRAFT', " +
+                "pay_date DATE, " +
+                "overtime_pay DECIMAL(10,2) DEFAULT 0, " +
+                "total_allowances DECIMAL(10,2) DEFAULT 0, " +
+                "total_custom_deductions DECIMAL(10,2) DEFAULT 0, " +
+                "total_custom_bonuses DECIMAL(10,2) DEFAULT 0, " +
+                "sss_contribution DECIMAL(10,2) DEFAULT 0, " +
+                "philhealth_contribution DECIMAL(10,2) DEFAULT 0, " +
+                "pagibig_contribution DECIMAL(10,2) DEFAULT 0, " +
+                "sss_employer_contribution DECIMAL(10,2) DEFAULT 0, " +
+                "philhealth_employer_contribution DECIMAL(10,2) DEFAULT 0, " +
+                "pagibig_employer_contribution DECIMAL(10,2) DEFAULT 0, " +
                 "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
                 "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, " +
                 "FOREIGN KEY (employee_id) REFERENCES employees(employee_id)" +
                 ")";
             stmt.executeUpdate(createPayrollTable);
             
+            // Older payroll tables lack the columns needed to restore a payroll exactly as it was computed
+            addColumnIfMissing(stmt, "payroll", "pay_date", "DATE");
+            addColumnIfMissing(stmt, "payroll", "overtime_pay", "DECIMAL(10,2) DEFAULT 0");
+            addColumnIfMissing(stmt, "payroll", "total_allowances", "DECIMAL(10,2) DEFAULT 0");
+            addColumnIfMissing(stmt, "payroll", "total_custom_deductions", "DECIMAL(10,2) DEFAULT 0");
+            addColumnIfMissing(stmt, "payroll", "total_custom_bonuses", "DECIMAL(10,2) DEFAULT 0");
+            addColumnIfMissing(stmt, "payroll", "sss_contribution", "DECIMAL(10,2) DEFAULT 0");
+            addColumnIfMissing(stmt, "payroll", "philhealth_contribution", "DECIMAL(10,2) DEFAULT 0");
+            addColumnIfMissing(stmt, "payroll", "pagibig_contribution", "DECIMAL(10,2) DEFAULT 0");
+            addColumnIfMissing(stmt, "payroll", "sss_employer_contribution", "DECIMAL(10,2) DEFAULT 0");
+            addColumnIfMissing(stmt, "payroll", "philhealth_employer_contribution", "DECIMAL(10,2) DEFAULT 0");
+            addColumnIfMissing(stmt, "payroll", "pagibig_employer_contribution", "DECIMAL(10,2) DEFAULT 0");
+            
+            // Index used when the payroll working set is loaded one pay period at a time
+            try {
+                stmt.executeUpdate("CREATE INDEX idx_payroll_period_start ON payroll (pay_period_start)");
+            } catch (SQLException e) {
+                // Index already exists
+            }
+            
+            // Payroll run journal: one row per batch run, plus the employees each run has finished.
+            // Items are written in the same transaction as the payroll rows they describe.
+            String createPayrollRunsTable = "CREATE TABLE IF NOT EXISTS payroll_runs (" +
+                "run_id INT AUTO_INCREMENT PRIMARY KEY, " +
+                "pay_period_start DATE NOT NULL, " +
+                "pay_period_end DATE, " +
+                "pay_date DATE, " +
+                "status VARCHAR(20) NOT NULL DEFAULT 'RUNNING', " +
+                "total_employees INT DEFAULT 0, " +
+                "processed_employees INT DEFAULT 0, " +
+                "started_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, " +
+                "completed_at TIMESTAMP NULL, " +
+                "INDEX idx_payroll_runs_period (pay_period_start, status)" +
+                ")";
+            stmt.executeUpdate(createPayrollRunsTable);
+            // Runs are journalled per pay period; runs of older tables without an end covered a month
+            addColumnIfMissing(stmt, "payroll_runs", "pay_period_end", "DATE");
+            
+            String createPayrollRunItemsTable = "CREATE TABLE IF NOT EXISTS payroll_run_items (" +
+                "run_id INT NOT NULL, " +
+                "employee_id VARCHAR(20) NOT NULL, " +
+                "payroll_id INT NOT NULL, " +
+                "PRIMARY KEY (run_id, employee_id), " +
+                "FOREIGN KEY (run_id) REFERENCES payroll_runs(run_id) ON DELETE CASCADE" +
+                ")";
+            stmt.executeUpdate(createPayrollRunItemsTable);
+            
+            // Year-to-date ledger: running totals of each employee's finalized payrolls per tax year.
+            // Rows are incremented in the same transaction that finalizes the payrolls they count.
+            String createPayrollYtdTable = "CREATE TABLE IF NOT EXISTS payroll_ytd (" +
+                "employee_id VARCHAR(20) NOT NULL, " +
+                "tax_year INT NOT NULL, " +
+                "payroll_count INT DEFAULT 0, " +
+                "basic_pay DECIMAL(14,2) DEFAULT 0, " +
+                "gross_pay DECIMAL(14,2) DEFAULT 0, " +
+                "taxable_income DECIMAL(14,2) DEFAULT 0, " +
+                "tax_withheld DECIMAL(14,2) DEFAULT 0, " +
+                "sss_contribution DECIMAL(14,2) DEFAULT 0, " +
+                "philhealth_contribution DECIMAL(14,2) DEFAULT 0, " +
+                "pagibig_contribution DECIMAL(14,2) DEFAULT 0, " +
+                "sss_employer_contribution DECIMAL(14,2) DEFAULT 0, " +
+                "philhealth_employer_contribution DECIMAL(14,2) DEFAULT 0, " +
+                "pagibig_employer_contribution DECIMAL(14,2) DEFAULT 0, " +
+                "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, " +
+                "PRIMARY KEY (employee_id, tax_year), " +
+                "INDEX idx_payroll_ytd_year (tax_year)" +
+                ")";
+            stmt.executeUpdate(createPayrollYtdTable);
+            
             // Create employee contact information table
             String createContactInfoTable = "CREATE TABLE IF NOT EXISTS employee_contact_info (" +
                 "id INT AUTO_INCREMENT PRIMARY KEY, " +
@@ -313,6 +468,8 @@ public class DatabaseConnection {
                 "type VARCHAR(20) NOT NULL, " +
                 "amount DECIMAL(10,2) NOT NULL DEFAULT 0, " +
                 "is_percentage BOOLEAN DEFAULT FALSE, " +
+                "formula TEXT, " +
+                "version INT DEFAULT 1, " +
                 "is_active BOOLEAN DEFAULT TRUE, " +
                 "created_date DATE DEFAULT (CURRENT_DATE), " +
                 "last_modified DATE DEFAULT (CURRENT_DATE), " +
@@ -322,6 +479,10 @@ public class DatabaseConnection {
                 ")";
             stmt.executeUpdate(createSalaryComponentsTable);
             
+            // Amount formulas, and a version that identifies each saved state of a component's formula
+            addColumnIfMissing(stmt, "salary_components", "formula", "TEXT");
+            addColumnIfMissing(stmt, "salary_components", "version", "INT DEFAULT 1");
+            
             // Create employee salary components table
             String createEmployeeSalaryComponentsTable = "CREATE TABLE IF NOT EXISTS employee_salary_components (" +
                 "id INT AUTO_INCREMENT PRIMARY KEY, " +
@@ -348,19 +509,29 @@ public class DatabaseConnection {
         }
     }
     
+    /**
+     * Add a column to an existing table if it is not there yet
+     */
+    private static void addColumnIfMissing(Statement stmt, String table, String column, String definition) throws SQLException {
+        boolean exists;
+        try (ResultSet columns = stmt.executeQuery("SHOW COLUMNS FROM " + table + " LIKE '" + column + "'")) {
+            exists = columns.next();
+        }
+        if (!exists) {
+            System.out.println("Adding column " + table + "." + column + "...");
+            stmt.executeUpdate("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        }
+    }
+    
     /**
      * Test if the database connection is working
      */
     public static boolean testConnection() {
-        try {
-            Connection conn = getConnection();
-            if (conn != null && !conn.isClosed()) {
-                // Test with a simple query
-                try (Statement stmt = conn.createStatement();
-                     ResultSet rs = stmt.executeQuery("SELECT 1")) {
-                    return rs.next();
-                }
-            }
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT 1")) {
+            // Test with a simple query
+            return rs.next();
         } catch (SQLException e) {
             System.err.println("Database connection test failed: " + e.getMessage());
         }
@@ -368,17 +539,98 @@ public class DatabaseConnection {
     }
     
     /**
-     * Close the database connection
+     * Close the pooled database connections; connections still in use are closed when they are returned
      */
     public static void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                initialized = false;
-                System.out.println("Database connection closed.");
+        synchronized (poolLock) {
+            if (!initialized) {
+                return;
+            }
+            initialized = false;
+            while (!idleConnections.isEmpty()) {
+                closeQuietly(idleConnections.pop().connection);
+                openConnections--;
+            }
+            poolLock.notifyAll();
+        }
+        System.out.println("Database connection closed.");
+    }
+    
+    /**
+     * A pooled physical connection. Callers get a proxy of it whose close() returns it to the pool
+     * with autocommit restored, so each handle can only be closed once.
+     */
+    private static final class PooledConnection {
+        private final Connection connection;
+        private long lastUsed = System.currentTimeMillis();
+        
+        PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+        
+        /**
+         * Check a connection that has been idle a while before handing it out again
+         */
+        boolean isUsable() {
+            try {
+                if (connection.isClosed()) {
+                    return false;
+                }
+                return System.currentTimeMillis() - lastUsed < DatabaseConfig.CONNECTION_TIMEOUT || connection.isValid(5);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+        
+        Connection handOut() {
+            boolean[] closed = new boolean[1];
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    synchronized (closed) {
+                        if (name.equals("close")) {
+                            if (!closed[0]) {
+                                closed[0] = true;
+                                giveBack();
+                            }
+                            return null;
+                        }
+                        if (name.equals("isClosed")) {
+                            return closed[0] || connection.isClosed();
+                        }
+                        if (closed[0] && !name.equals("equals") && !name.equals("hashCode") && !name.equals("toString")) {
+                            throw new SQLException("Connection is closed");
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        }
+        
+        private void giveBack() {
+            try {
+                if (!connection.isClosed() && !connection.getAutoCommit()) {
+                    // Left in a transaction: nothing of it may leak into the next user's work
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                closeQuietly(connection);
+            }
+            lastUsed = System.currentTimeMillis();
+            boolean usable;
+            try {
+                usable = !connection.isClosed();
+            } catch (SQLException e) {
+                usable = false;
+            }
+            release(usable ? this : null);
+            if (!usable) {
+                closeQuietly(connection);
             }
-        } catch (SQLException e) {
-            System.err.println("Error closing database connection: " + e.getMessage());
         }
     }
 }
@@ -1,11 +1,15 @@
 package database;
 
 import models.Employee;
+import models.PayPeriod;
 import models.Payroll;
+import models.PayrollRun;
+import models.YearToDate;
 import models.User;
 import models.SalaryComponent;
 import models.EmployeeSalaryComponent;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object interface for database operations
@@ -20,6 +24,7 @@ public interface DatabaseDAO {
     List<Employee> getAllEmployeesForIdCheck(); // Get all employees (including inactive) for ID conflict checking
     Employee getEmployeeById(String employeeId);
     boolean insertEmployee(Employee employee);
+    int[] insertEmployeesBatch(List<Employee> employees); // Batched insert; per-row update counts, Statement.EXECUTE_FAILED for rejected rows
     boolean updateEmployee(Employee employee);
     boolean deleteEmployee(String employeeId);
     
@@ -29,6 +34,25 @@ public interface DatabaseDAO {
     boolean insertPayroll(Payroll payroll);
     boolean updatePayroll(Payroll payroll);
     boolean deletePayroll(int payrollId);
+    Payroll getPayrollById(int payrollId);
+    List<Payroll> getPayrollByPeriod(java.util.Date periodFrom, java.util.Date periodTo); // pay_period_start within [from, to]
+    int getMaxPayrollId();
+    // Apply a batch of writes with caller-assigned ids in one transaction; all or nothing
+    boolean savePayrollBatch(List<Payroll> inserts, List<Payroll> updates, List<Integer> deletes);
+    
+    // Payroll run journal operations
+    int createPayrollRun(PayrollRun run); // Returns the generated run id, or -1 on error
+    PayrollRun getResumablePayrollRun(PayPeriod period); // Latest run for the period that did not complete, or null
+    boolean updatePayrollRun(PayrollRun run); // Status, total employees and completion time
+    List<Integer> getPayrollRunEmployees(int runId); // Employees the run has already finished, or null on error
+    // Insert a batch of payrolls and record them against the run in one transaction; all or nothing
+    boolean savePayrollRunBatch(int runId, List<Payroll> payrolls);
+    
+    // Year-to-date ledger operations
+    // Save payrolls as finalized and add them to the ledger in one transaction; payrolls already finalized are
+    // skipped. Returns the IDs this call finalized, or null on error (nothing is changed)
+    List<Integer> finalizePayrolls(List<Payroll> payrolls);
+    List<YearToDate> getYearToDate(int year); // Ledger rows of one tax year, or null on error
     
     // Salary Component operations
     List<SalaryComponent> getAllSalaryComponents();
@@ -43,6 +67,13 @@ public interface DatabaseDAO {
     boolean updateEmployeeSalaryComponent(EmployeeSalaryComponent empComponent);
     boolean deleteEmployeeSalaryComponent(int id);
     
+    // Streaming reads for exports: rows are passed to the consumer one at a time from a
+    // forward-only cursor, so memory use does not depend on table size. Return the row count, or -1 on error.
+    long streamEmployees(Consumer<Employee> consumer);
+    long streamPayroll(Consumer<Payroll> consumer);
+    long streamPayrollByPeriod(java.util.Date periodFrom, java.util.Date periodTo, Consumer<Payroll> consumer); // pay_period_start within [from, to], by employee
+    long streamEmployeeSalaryComponents(Consumer<EmployeeSalaryComponent> consumer);
+    
     // Database management
     boolean testConnection();
     void closeConnection();
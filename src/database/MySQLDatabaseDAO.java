@@ -3,12 +3,19 @@ package database;
 import models.Employee;
 import models.EmployeeDocument;
 import models.Payroll;
+import models.Money;
+import models.PayPeriod;
+import models.PayrollRun;
+import models.YearToDate;
 import models.User;
 import models.SalaryComponent;
 import models.EmployeeSalaryComponent;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.math.BigDecimal;
 
 /**
@@ -143,6 +150,8 @@ public class MySQLDatabaseDAO implements DatabaseDAO {
                             employee.setPaymentFrequency(paymentFrequency);
                         }
                         
+                        mapGovernmentIds(rs, employee);
+                        
                     } catch (SQLException e) {
                         // New columns might not exist in older database versions
                         System.out.println("Note: Some employment or payment columns not found. Using default values.");
@@ -291,6 +300,8 @@ public class MySQLDatabaseDAO implements DatabaseDAO {
                             employee.setPaymentFrequency(paymentFrequency);
                         }
                         
+                        mapGovernmentIds(rs, employee);
+                        
                     } catch (SQLException e) {
                         // New columns might not exist in older database versions
                         System.out.println("Note: Some employment or payment columns not found in getEmployeeById. Using default values.");
@@ -329,46 +340,7 @@ public class MySQLDatabaseDAO implements DatabaseDAO {
                 int currentId = originalId + attempt;
                 String employeeIdString = String.format("EMP%03d", currentId);
                 
-                stmt.setString(1, employeeIdString);
-                
-                if (hasComprehensiveIdColumn) {
-                    stmt.setString(2, employee.getComprehensiveEmployeeId());
-                    stmt.setString(3, employee.getFirstName());
-                    stmt.setString(4, employee.getLastName());
-                    stmt.setString(5, employee.getEmail());
-                    stmt.setString(6, employee.getPhone() == null || employee.getPhone().trim().isEmpty() ? null : employee.getPhone());
-                    stmt.setString(7, employee.getDepartment());
-                    stmt.setString(8, employee.getPosition());
-                    stmt.setString(9, employee.getJobTitle());
-                    stmt.setString(10, employee.getManager());
-                    stmt.setDate(11, java.sql.Date.valueOf(employee.getHireDate()));
-                    stmt.setDouble(12, employee.getSalary());
-                    
-                    // Set new employment status and dates
-                    stmt.setString(13, employee.getEmploymentStatus());
-                    stmt.setDate(14, employee.getJoiningDate() != null ? java.sql.Date.valueOf(employee.getJoiningDate()) : null);
-                    stmt.setDate(15, employee.getProbationEndDate() != null ? java.sql.Date.valueOf(employee.getProbationEndDate()) : null);
-                    stmt.setDate(16, employee.getExitDate() != null ? java.sql.Date.valueOf(employee.getExitDate()) : null);
-                    stmt.setString(17, employee.getExitReason());
-                    
-                    // Set bank and payment details
-                    stmt.setString(18, employee.getBankName());
-                    stmt.setString(19, employee.getAccountNumber());
-                    stmt.setString(20, employee.getAccountHolderName());
-                    stmt.setString(21, employee.getBankBranch());
-                    stmt.setString(22, employee.getRoutingNumber());
-                    stmt.setString(23, employee.getPaymentMethod());
-                    stmt.setString(24, employee.getPaymentFrequency());
-                } else {
-                    stmt.setString(2, employee.getFirstName());
-                    stmt.setString(3, employee.getLastName());
-                    stmt.setString(4, employee.getEmail());
-                    stmt.setString(5, employee.getPhone() == null || employee.getPhone().trim().isEmpty() ? null : employee.getPhone());
-                    stmt.setString(6, employee.getDepartment());
-                    stmt.setString(7, employee.getPosition());
-                    stmt.setDate(8, java.sql.Date.valueOf(employee.getHireDate()));
-                    stmt.setDouble(9, employee.getSalary());
-                }
+                bindEmployeeInsert(stmt, employee, employeeIdString, hasComprehensiveIdColumn);
                 
                 int rowsAffected = stmt.executeUpdate();
                 if (rowsAffected > 0) {
@@ -396,6 +368,105 @@ public class MySQLDatabaseDAO implements DatabaseDAO {
         return false;
     }
     
+    @Override
+    public int[] insertEmployeesBatch(List<Employee> employees) {
+        int[] results = new int[employees.size()];
+        if (employees.isEmpty()) {
+            return results;
+        }
+        
+        boolean hasComprehensiveIdColumn = checkComprehensiveIdColumnExists();
+        String insertQuery = hasComprehensiveIdColumn ? 
+            DatabaseConfig.QUERY_INSERT_EMPLOYEE : 
+            "INSERT INTO employees (employee_id, first_name, last_name, email, phone, department, position, hire_date, salary) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(insertQuery)) {
+            
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                for (Employee employee : employees) {
+                    bindEmployeeInsert(stmt, employee, String.format("EMP%03d", employee.getEmployeeId()), 
+                                       hasComprehensiveIdColumn);
+                    stmt.addBatch();
+                }
+                
+                try {
+                    results = stmt.executeBatch();
+                } catch (BatchUpdateException e) {
+                    // The driver keeps going after a failed row; report per-row outcome to the caller
+                    System.err.println("Some employees in batch were rejected: " + e.getMessage());
+                    int[] counts = e.getUpdateCounts();
+                    java.util.Arrays.fill(results, Statement.EXECUTE_FAILED);
+                    System.arraycopy(counts, 0, results, 0, Math.min(counts.length, results.length));
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error inserting employee batch: " + e.getMessage());
+            e.printStackTrace();
+            java.util.Arrays.fill(results, Statement.EXECUTE_FAILED);
+        }
+        return results;
+    }
+    
+    /**
+     * Bind employee fields to an insert statement built from QUERY_INSERT_EMPLOYEE (or the legacy column list)
+     */
+    private void bindEmployeeInsert(PreparedStatement stmt, Employee employee, String employeeIdString, 
+                                    boolean hasComprehensiveIdColumn) throws SQLException {
+        stmt.setString(1, employeeIdString);
+        
+        if (hasComprehensiveIdColumn) {
+            stmt.setString(2, employee.getComprehensiveEmployeeId());
+            stmt.setString(3, employee.getFirstName());
+            stmt.setString(4, employee.getLastName());
+            stmt.setString(5, employee.getEmail());
+            stmt.setString(6, employee.getPhone() == null || employee.getPhone().trim().isEmpty() ? null : employee.getPhone());
+            stmt.setString(7, employee.getDepartment());
+            stmt.setString(8, employee.getPosition());
+            stmt.setString(9, employee.getJobTitle());
+            stmt.setString(10, employee.getManager());
+            stmt.setDate(11, java.sql.Date.valueOf(employee.getHireDate()));
+            stmt.setDouble(12, employee.getSalary());
+            
+            // Set new employment status and dates
+            stmt.setString(13, employee.getEmploymentStatus());
+            stmt.setDate(14, employee.getJoiningDate() != null ? java.sql.Date.valueOf(employee.getJoiningDate()) : null);
+            stmt.setDate(15, employee.getProbationEndDate() != null ? java.sql.Date.valueOf(employee.getProbationEndDate()) : null);
+            stmt.setDate(16, employee.getExitDate() != null ? java.sql.Date.valueOf(employee.getExitDate()) : null);
+            stmt.setString(17, employee.getExitReason());
+            
+            // Set bank and payment details
+            stmt.setString(18, employee.getBankName());
+            stmt.setString(19, employee.getAccountNumber());
+            stmt.setString(20, employee.getAccountHolderName());
+            stmt.setString(21, employee.getBankBranch());
+            stmt.setString(22, employee.getRoutingNumber());
+            stmt.setString(23, employee.getPaymentMethod());
+            stmt.setString(24, employee.getPaymentFrequency());
+            stmt.setString(25, employee.getSssNumber());
+            stmt.setString(26, employee.getPhilHealthNumber());
+            stmt.setString(27, employee.getPagIbigNumber());
+            stmt.setString(28, employee.getTin());
+        } else {
+            stmt.setString(2, employee.getFirstName());
+            stmt.setString(3, employee.getLastName());
+            stmt.setString(4, employee.getEmail());
+            stmt.setString(5, employee.getPhone() == null || employee.getPhone().trim().isEmpty() ? null : employee.getPhone());
+            stmt.setString(6, employee.getDepartment());
+            stmt.setString(7, employee.getPosition());
+            stmt.setDate(8, java.sql.Date.valueOf(employee.getHireDate()));
+            stmt.setDouble(9, employee.getSalary());
+        }
+    }
+    
     @Override
     public boolean updateEmployee(Employee employee) {
         System.out.println("Updating employee: " + employee.getFullName() + 
@@ -440,9 +511,13 @@ public class MySQLDatabaseDAO implements DatabaseDAO {
                 stmt.setString(21, employee.getRoutingNumber());
                 stmt.setString(22, employee.getPaymentMethod());
                 stmt.setString(23, employee.getPaymentFrequency());
+                stmt.setString(24, employee.getSssNumber());
+                stmt.setString(25, employee.getPhilHealthNumber());
+                stmt.setString(26, employee.getPagIbigNumber());
+                stmt.setString(27, employee.getTin());
                 
                 String empIdString = String.format("EMP%03d", employee.getEmployeeId());
-                stmt.setString(24, empIdString);
+                stmt.setString(28, empIdString);
             } else {
                 stmt.setString(1, employee.getFirstName());
                 stmt.setString(2, employee.getLastName());
@@ -515,19 +590,10 @@ public class MySQLDatabaseDAO implements DatabaseDAO {
              PreparedStatement stmt = conn.prepareStatement(DatabaseConfig.QUERY_SELECT_ALL_PAYROLL);
              ResultSet rs = stmt.executeQuery()) {
             
+            boolean hasPayDateColumns = hasColumn(rs, "pay_date");
+            boolean hasContributionColumns = hasColumn(rs, "sss_contribution");
             while (rs.next()) {
-                Payroll payroll = new Payroll(
-                    rs.getString("employee_id"),
-                    rs.getDate("pay_period_start"),
-                    rs.getDate("pay_period_end"),
-                    rs.getDouble("basic_salary"),
-                    rs.getDouble("overtime_hours"),
-                    rs.getDouble("overtime_rate"),
-                    rs.getDouble("bonus"),
-                    rs.getDouble("deductions")
-                );
-                payroll.setId(rs.getInt("id"));
-                payroll.setStatus(rs.getString("status"));
+                Payroll payroll = mapPayrollRow(rs, hasPayDateColumns, hasContributionColumns);
                 payrolls.add(payroll);
             }
         } catch (SQLException e) {
@@ -545,19 +611,10 @@ public class MySQLDatabaseDAO implements DatabaseDAO {
             
             stmt.setString(1, employeeId);
             try (ResultSet rs = stmt.executeQuery()) {
+                boolean hasPayDateColumns = hasColumn(rs, "pay_date");
+                boolean hasContributionColumns = hasColumn(rs, "sss_contribution");
                 while (rs.next()) {
-                    Payroll payroll = new Payroll(
-                        rs.getString("employee_id"),
-                        rs.getDate("pay_period_start"),
-                        rs.getDate("pay_period_end"),
-                        rs.getDouble("basic_salary"),
-                        rs.getDouble("overtime_hours"),
-                        rs.getDouble("overtime_rate"),
-                        rs.getDouble("bonus"),
-                        rs.getDouble("deductions")
-                    );
-                    payroll.setId(rs.getInt("id"));
-                    payroll.setStatus(rs.getString("status"));
+                    Payroll payroll = mapPayrollRow(rs, hasPayDateColumns, hasContributionColumns);
                     payrolls.add(payroll);
                 }
             }
@@ -573,18 +630,7 @@ public class MySQLDatabaseDAO implements DatabaseDAO {
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(DatabaseConfig.QUERY_INSERT_PAYROLL)) {
             
-            stmt.setString(1, String.valueOf(payroll.getEmployeeId()));
-            stmt.setDate(2, new java.sql.Date(payroll.getPayPeriodStart().getTime()));
-            stmt.setDate(3, new java.sql.Date(payroll.getPayPeriodEnd().getTime()));
-            stmt.setDouble(4, payroll.getBasicSalary());
-            stmt.setDouble(5, payroll.getOvertimeHours());
-            stmt.setDouble(6, payroll.getOvertimeRate());
-            stmt.setDouble(7, payroll.getBonus());
-            stmt.setDouble(8, payroll.getDeductions());
-            stmt.setDouble(9, payroll.getGrossPay());
-            stmt.setDouble(10, payroll.getTaxDeduction());
-            stmt.setDouble(11, payroll.getNetPay());
-            stmt.setString(12, payroll.getStatus());
+            bindPayroll(stmt, payroll);
             
             int rowsAffected = stmt.executeUpdate();
             return rowsAffected > 0;
@@ -600,16 +646,8 @@ public class MySQLDatabaseDAO implements DatabaseDAO {
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(DatabaseConfig.QUERY_UPDATE_PAYROLL)) {
             
-            stmt.setDouble(1, payroll.getBasicSalary());
-            stmt.setDouble(2, payroll.getOvertimeHours());
-            stmt.setDouble(3, payroll.getOvertimeRate());
-            stmt.setDouble(4, payroll.getBonus());
-            stmt.setDouble(5, payroll.getDeductions());
-            stmt.setDouble(6, payroll.getGrossPay());
-            stmt.setDouble(7, payroll.getTaxDeduction());
-            stmt.setDouble(8, payroll.getNetPay());
-            stmt.setString(9, payroll.getStatus());
-            stmt.setInt(10, payroll.getId());
+            bindPayroll(stmt, payroll);
+            stmt.setInt(DatabaseConfig.PAYROLL_COLUMN_COUNT + 1, payroll.getId());
             
             int rowsAffected = stmt.executeUpdate();
             return rowsAffected > 0;
@@ -635,6 +673,632 @@ public class MySQLDatabaseDAO implements DatabaseDAO {
         return false;
     }
     
+    @Override
+    public Payroll getPayrollById(int payrollId) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(DatabaseConfig.QUERY_SELECT_PAYROLL_BY_ID)) {
+            
+            stmt.setInt(1, payrollId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapPayrollRow(rs, hasColumn(rs, "pay_date"), hasColumn(rs, "sss_contribution"));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error fetching payroll record by ID: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return null;
+    }
+    
+    @Override
+    public List<Payroll> getPayrollByPeriod(java.util.Date periodFrom, java.util.Date periodTo) {
+        List<Payroll> payrolls = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(DatabaseConfig.QUERY_SELECT_PAYROLL_BY_PERIOD)) {
+            
+            stmt.setDate(1, new java.sql.Date(periodFrom.getTime()));
+            stmt.setDate(2, new java.sql.Date(periodTo.getTime()));
+            try (ResultSet rs = stmt.executeQuery()) {
+                boolean hasPayDateColumns = hasColumn(rs, "pay_date");
+                boolean hasContributionColumns = hasColumn(rs, "sss_contribution");
+                while (rs.next()) {
+                    payrolls.add(mapPayrollRow(rs, hasPayDateColumns, hasContributionColumns));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error fetching payroll records for period: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return payrolls;
+    }
+    
+    @Override
+    public int getMaxPayrollId() {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(DatabaseConfig.QUERY_SELECT_MAX_PAYROLL_ID);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error fetching maximum payroll ID: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return -1;
+    }
+    
+    @Override
+    public boolean savePayrollBatch(List<Payroll> inserts, List<Payroll> updates, List<Integer> deletes) {
+        if (inserts.isEmpty() && updates.isEmpty() && deletes.isEmpty()) {
+            return true;
+        }
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                if (!inserts.isEmpty()) {
+                    try (PreparedStatement stmt = conn.prepareStatement(DatabaseConfig.QUERY_INSERT_PAYROLL_WITH_ID)) {
+                        for (Payroll payroll : inserts) {
+                            bindPayroll(stmt, payroll);
+                            stmt.setInt(DatabaseConfig.PAYROLL_COLUMN_COUNT + 1, payroll.getId());
+                            stmt.addBatch();
+                        }
+                        stmt.executeBatch();
+                    }
+                }
+                if (!updates.isEmpty()) {
+                    try (PreparedStatement stmt = conn.prepareStatement(DatabaseConfig.QUERY_UPDATE_PAYROLL)) {
+                        for (Payroll payroll : updates) {
+                            bindPayroll(stmt, payroll);
+                            stmt.setInt(DatabaseConfig.PAYROLL_COLUMN_COUNT + 1, payroll.getId());
+                            stmt.addBatch();
+                        }
+                        stmt.executeBatch();
+                    }
+                }
+                if (!deletes.isEmpty()) {
+                    try (PreparedStatement stmt = conn.prepareStatement(DatabaseConfig.QUERY_DELETE_PAYROLL)) {
+                        for (Integer payrollId : deletes) {
+                            stmt.setInt(1, payrollId);
+                            stmt.addBatch();
+                        }
+                        stmt.executeBatch();
+                    }
+                }
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error saving payroll batch: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+    
+    @Override
+    public int createPayrollRun(PayrollRun run) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(DatabaseConfig.QUERY_INSERT_PAYROLL_RUN, Statement.RETURN_GENERATED_KEYS)) {
+            
+            stmt.setDate(1, java.sql.Date.valueOf(run.getPeriod().getStart()));
+            stmt.setDate(2, java.sql.Date.valueOf(run.getPeriod().getEnd()));
+            stmt.setDate(3, run.getPayDate() != null ? java.sql.Date.valueOf(run.getPayDate()) : null);
+            stmt.setString(4, run.getStatus());
+            stmt.setLong(5, run.getTotalEmployees());
+            stmt.setLong(6, run.getProcessedEmployees());
+            stmt.executeUpdate();
+            
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    run.setRunId(generatedKeys.getInt(1));
+                    return run.getRunId();
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error creating payroll run: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return -1;
+    }
+    
+    @Override
+    public PayrollRun getResumablePayrollRun(PayPeriod period) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(DatabaseConfig.QUERY_SELECT_RESUMABLE_PAYROLL_RUN)) {
+            
+            stmt.setDate(1, java.sql.Date.valueOf(period.getStart()));
+            stmt.setDate(2, java.sql.Date.valueOf(period.getEnd()));
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    PayrollRun run = new PayrollRun();
+                    run.setRunId(rs.getInt("run_id"));
+                    run.setPeriod(period);
+                    java.sql.Date payDate = rs.getDate("pay_date");
+                    run.setPayDate(payDate != null ? payDate.toLocalDate() : null);
+                    run.setStatus(rs.getString("status"));
+                    run.setTotalEmployees(rs.getLong("total_employees"));
+                    run.setProcessedEmployees(rs.getLong("processed_employees"));
+                    Timestamp startedAt = rs.getTimestamp("started_at");
+                    run.setStartedAt(startedAt != null ? startedAt.toLocalDateTime() : null);
+                    Timestamp updatedAt = rs.getTimestamp("updated_at");
+                    run.setUpdatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : null);
+                    return run;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting resumable payroll run: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return null;
+    }
+    
+    @Override
+    public boolean updatePayrollRun(PayrollRun run) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(DatabaseConfig.QUERY_UPDATE_PAYROLL_RUN)) {
+            
+            stmt.setString(1, run.getStatus());
+            stmt.setLong(2, run.getTotalEmployees());
+            stmt.setTimestamp(3, run.getCompletedAt() != null ? Timestamp.valueOf(run.getCompletedAt()) : null);
+            stmt.setInt(4, run.getRunId());
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.err.println("Error updating payroll run: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+    
+    @Override
+    public List<Integer> getPayrollRunEmployees(int runId) {
+        List<Integer> employeeIds = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(DatabaseConfig.QUERY_SELECT_PAYROLL_RUN_EMPLOYEES)) {
+            
+            stmt.setInt(1, runId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String employeeId = rs.getString("employee_id");
+                    employeeIds.add(Integer.parseInt(employeeId.startsWith("EMP") ? employeeId.substring(3) : employeeId));
+                }
+            }
+        } catch (SQLException | NumberFormatException e) {
+            System.err.println("Error getting payroll run employees: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+        return employeeIds;
+    }
+    
+    @Override
+    public boolean savePayrollRunBatch(int runId, List<Payroll> payrolls) {
+        if (payrolls.isEmpty()) {
+            return true;
+        }
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(DatabaseConfig.QUERY_INSERT_PAYROLL_WITH_ID)) {
+                    for (Payroll payroll : payrolls) {
+                        bindPayroll(stmt, payroll);
+                        stmt.setInt(DatabaseConfig.PAYROLL_COLUMN_COUNT + 1, payroll.getId());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                // The journal entry commits or rolls back together with the payroll rows, so a
+                // resumed run never sees an employee as finished without their payroll (or vice versa)
+                try (PreparedStatement stmt = conn.prepareStatement(DatabaseConfig.QUERY_INSERT_PAYROLL_RUN_ITEM)) {
+                    for (Payroll payroll : payrolls) {
+                        stmt.setInt(1, runId);
+                        stmt.setString(2, String.format("EMP%03d", payroll.getEmployeeId()));
+                        stmt.setInt(3, payroll.getId());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(DatabaseConfig.QUERY_ADVANCE_PAYROLL_RUN)) {
+                    stmt.setInt(1, payrolls.size());
+                    stmt.setInt(2, runId);
+                    stmt.executeUpdate();
+                }
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error saving payroll run batch: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+    
+    @Override
+    public long streamEmployees(Consumer<Employee> consumer) {
+        long count = 0;
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = prepareStreamingStatement(conn, DatabaseConfig.QUERY_STREAM_EMPLOYEES);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            boolean hasExtendedColumns = hasColumn(rs, "payment_frequency");
+            while (rs.next()) {
+                consumer.accept(mapEmployeeRow(rs, hasExtendedColumns));
+                count++;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error streaming employees: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+        return count;
+    }
+    
+    @Override
+    public long streamPayroll(Consumer<Payroll> consumer) {
+        long count = 0;
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = prepareStreamingStatement(conn, DatabaseConfig.QUERY_STREAM_PAYROLL);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            boolean hasPayDateColumns = hasColumn(rs, "pay_date");
+            boolean hasContributionColumns = hasColumn(rs, "sss_contribution");
+            while (rs.next()) {
+                Payroll payroll = mapPayrollRow(rs, hasPayDateColumns, hasContributionColumns);
+                consumer.accept(payroll);
+                count++;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error streaming payroll records: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+        return count;
+    }
+    
+    @Override
+    public long streamPayrollByPeriod(java.util.Date periodFrom, java.util.Date periodTo, Consumer<Payroll> consumer) {
+        long count = 0;
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = prepareStreamingStatement(conn, DatabaseConfig.QUERY_STREAM_PAYROLL_BY_PERIOD)) {
+            
+            stmt.setDate(1, new java.sql.Date(periodFrom.getTime()));
+            stmt.setDate(2, new java.sql.Date(periodTo.getTime()));
+            try (ResultSet rs = stmt.executeQuery()) {
+                boolean hasPayDateColumns = hasColumn(rs, "pay_date");
+                boolean hasContributionColumns = hasColumn(rs, "sss_contribution");
+                while (rs.next()) {
+                    consumer.accept(mapPayrollRow(rs, hasPayDateColumns, hasContributionColumns));
+                    count++;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error streaming payroll records for period: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+        return count;
+    }
+    
+    @Override
+    public long streamEmployeeSalaryComponents(Consumer<EmployeeSalaryComponent> consumer) {
+        long count = 0;
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = prepareStreamingStatement(conn, DatabaseConfig.QUERY_STREAM_EMPLOYEE_SALARY_COMPONENTS);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            while (rs.next()) {
+                EmployeeSalaryComponent empComponent = new EmployeeSalaryComponent(
+                    rs.getString("employee_id"),
+                    rs.getInt("salary_component_id"),
+                    rs.getBigDecimal("custom_amount")
+                );
+                empComponent.setId(rs.getInt("id"));
+                empComponent.setPercentage(rs.getBoolean("is_percentage"));
+                empComponent.setActive(rs.getBoolean("is_active"));
+                if (rs.getDate("effective_date") != null) {
+                    empComponent.setEffectiveDate(rs.getDate("effective_date").toLocalDate());
+                }
+                if (rs.getDate("end_date") != null) {
+                    empComponent.setEndDate(rs.getDate("end_date").toLocalDate());
+                }
+                if (rs.getDate("created_date") != null) {
+                    empComponent.setCreatedDate(rs.getDate("created_date").toLocalDate());
+                }
+                empComponent.setCreatedBy(rs.getString("created_by"));
+                empComponent.setRemarks(rs.getString("remarks"));
+                
+                SalaryComponent salaryComponent = new SalaryComponent();
+                salaryComponent.setId(rs.getInt("salary_component_id"));
+                salaryComponent.setName(rs.getString("component_name"));
+                salaryComponent.setType(rs.getString("component_type"));
+                salaryComponent.setFormula(rs.getString("component_formula"));
+                salaryComponent.setVersion(rs.getInt("component_version"));
+                empComponent.setSalaryComponent(salaryComponent);
+                
+                consumer.accept(empComponent);
+                count++;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error streaming employee salary components: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+        return count;
+    }
+    
+    @Override
+    public List<Integer> finalizePayrolls(List<Payroll> payrolls) {
+        List<Integer> finalized = new ArrayList<>();
+        if (payrolls.isEmpty()) {
+            return finalized;
+        }
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                int[] counts;
+                try (PreparedStatement stmt = conn.prepareStatement(DatabaseConfig.QUERY_FINALIZE_PAYROLL)) {
+                    for (Payroll payroll : payrolls) {
+                        bindPayroll(stmt, payroll);
+                        stmt.setInt(DatabaseConfig.PAYROLL_COLUMN_COUNT + 1, payroll.getId());
+                        stmt.addBatch();
+                    }
+                    counts = stmt.executeBatch();
+                }
+                
+                // Only rows this transaction moved to FINALIZED are added, so finalizing twice never counts twice
+                Map<String, YearToDate> increments = new LinkedHashMap<>();
+                for (int i = 0; i < payrolls.size(); i++) {
+                    if (counts[i] > 0) {
+                        Payroll payroll = payrolls.get(i);
+                        finalized.add(payroll.getPayrollId());
+                        increments.merge(payroll.getEmployeeId() + "/" + YearToDate.yearOf(payroll),
+                                         YearToDate.of(payroll), YearToDate::plus);
+                    }
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(DatabaseConfig.QUERY_ADD_PAYROLL_YTD)) {
+                    for (YearToDate increment : increments.values()) {
+                        stmt.setString(1, String.format("EMP%03d", increment.getEmployeeId()));
+                        stmt.setInt(2, increment.getYear());
+                        stmt.setInt(3, increment.getPayrollCount());
+                        stmt.setBigDecimal(4, increment.getBasicPay().toBigDecimal());
+                        stmt.setBigDecimal(5, increment.getGrossPay().toBigDecimal());
+                        stmt.setBigDecimal(6, increment.getTaxableIncome().toBigDecimal());
+                        stmt.setBigDecimal(7, increment.getTaxWithheld().toBigDecimal());
+                        stmt.setBigDecimal(8, increment.getSssContribution().toBigDecimal());
+                        stmt.setBigDecimal(9, increment.getPhilHealthContribution().toBigDecimal());
+                        stmt.setBigDecimal(10, increment.getPagIbigContribution().toBigDecimal());
+                        stmt.setBigDecimal(11, increment.getSssEmployerContribution().toBigDecimal());
+                        stmt.setBigDecimal(12, increment.getPhilHealthEmployerContribution().toBigDecimal());
+                        stmt.setBigDecimal(13, increment.getPagIbigEmployerContribution().toBigDecimal());
+                        stmt.addBatch();
+                    }
+                    if (!increments.isEmpty()) {
+                        stmt.executeBatch();
+                    }
+                }
+                conn.commit();
+                return finalized;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error finalizing payrolls: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return null;
+    }
+    
+    @Override
+    public List<YearToDate> getYearToDate(int year) {
+        List<YearToDate> totals = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(DatabaseConfig.QUERY_SELECT_PAYROLL_YTD_BY_YEAR)) {
+            
+            stmt.setInt(1, year);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String employeeId = rs.getString("employee_id");
+                    totals.add(new YearToDate(
+                        Integer.parseInt(employeeId.startsWith("EMP") ? employeeId.substring(3) : employeeId),
+                        rs.getInt("tax_year"),
+                        rs.getInt("payroll_count"),
+                        toCentavos(rs.getBigDecimal("basic_pay")),
+                        toCentavos(rs.getBigDecimal("gross_pay")),
+                        toCentavos(rs.getBigDecimal("taxable_income")),
+                        toCentavos(rs.getBigDecimal("tax_withheld")),
+                        toCentavos(rs.getBigDecimal("sss_contribution")),
+                        toCentavos(rs.getBigDecimal("philhealth_contribution")),
+                        toCentavos(rs.getBigDecimal("pagibig_contribution")),
+                        toCentavos(rs.getBigDecimal("sss_employer_contribution")),
+                        toCentavos(rs.getBigDecimal("philhealth_employer_contribution")),
+                        toCentavos(rs.getBigDecimal("pagibig_employer_contribution"))
+                    ));
+                }
+            }
+            return totals;
+        } catch (SQLException | NumberFormatException e) {
+            System.err.println("Error getting year-to-date totals: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return null;
+    }
+    
+    private static long toCentavos(BigDecimal amount) {
+        return amount != null ? Money.toCentavos(amount, Money.DEFAULT_ROUNDING) : 0;
+    }
+    
+    /**
+     * Bind the payroll columns (DatabaseConfig.PAYROLL_COLUMNS) shared by QUERY_INSERT_PAYROLL, QUERY_INSERT_PAYROLL_WITH_ID and QUERY_UPDATE_PAYROLL
+     */
+    private void bindPayroll(PreparedStatement stmt, Payroll payroll) throws SQLException {
+        stmt.setString(1, String.format("EMP%03d", payroll.getEmployeeId()));
+        stmt.setDate(2, new java.sql.Date(payroll.getPayPeriodStart().getTime()));
+        stmt.setDate(3, new java.sql.Date(payroll.getPayPeriodEnd().getTime()));
+        stmt.setDouble(4, payroll.getBasicSalary());
+        stmt.setDouble(5, payroll.getOvertimeHours());
+        stmt.setDouble(6, payroll.getOvertimeRate());
+        stmt.setDouble(7, payroll.getBonus());
+        stmt.setDouble(8, payroll.getDeductions());
+        stmt.setDouble(9, payroll.getGrossPay());
+        stmt.setDouble(10, payroll.getTaxDeduction());
+        stmt.setDouble(11, payroll.getNetPay());
+        stmt.setString(12, payroll.getStatus());
+        stmt.setDate(13, payroll.getPayDate() != null ? java.sql.Date.valueOf(payroll.getPayDate()) : null);
+        stmt.setDouble(14, payroll.getOvertime());
+        stmt.setDouble(15, payroll.getTotalAllowances());
+        stmt.setDouble(16, payroll.getTotalCustomDeductions());
+        stmt.setDouble(17, payroll.getTotalCustomBonuses());
+        stmt.setDouble(18, payroll.getSssContribution());
+        stmt.setDouble(19, payroll.getPhilHealthContribution());
+        stmt.setDouble(20, payroll.getPagIbigContribution());
+        stmt.setDouble(21, payroll.getSssEmployerContribution());
+        stmt.setDouble(22, payroll.getPhilHealthEmployerContribution());
+        stmt.setDouble(23, payroll.getPagIbigEmployerContribution());
+    }
+    
+    /**
+     * Map the current payroll row, restoring the pay period, pay date and component totals when present
+     */
+    private Payroll mapPayrollRow(ResultSet rs, boolean hasPayDateColumns, boolean hasContributionColumns) throws SQLException {
+        Payroll payroll = new Payroll(
+            rs.getString("employee_id"),
+            rs.getDate("pay_period_start"),
+            rs.getDate("pay_period_end"),
+            rs.getDouble("basic_salary"),
+            rs.getDouble("overtime_hours"),
+            rs.getDouble("overtime_rate"),
+            rs.getDouble("bonus"),
+            rs.getDouble("deductions")
+        );
+        payroll.setId(rs.getInt("id"));
+        payroll.setPayrollId(payroll.getId());
+        payroll.setStatus(rs.getString("status"));
+        
+        java.sql.Date periodStart = rs.getDate("pay_period_start");
+        java.sql.Date periodEnd = rs.getDate("pay_period_end");
+        PayPeriod period = null;
+        if (periodStart != null) {
+            period = PayPeriod.of(periodStart.toLocalDate(), periodEnd != null && !periodEnd.before(periodStart)
+                                                             ? periodEnd.toLocalDate() : periodStart.toLocalDate());
+            payroll.setPayPeriod(period.getKey());
+        }
+        if (hasPayDateColumns) {
+            java.sql.Date payDate = rs.getDate("pay_date");
+            payroll.setPayDate(payDate != null ? payDate.toLocalDate() : periodEnd != null ? periodEnd.toLocalDate() : null);
+            double overtimePay = rs.getDouble("overtime_pay");
+            if (overtimePay > 0) {
+                payroll.setOvertime(overtimePay);
+            }
+            payroll.setTotalAllowances(rs.getDouble("total_allowances"));
+            payroll.setTotalCustomDeductions(rs.getDouble("total_custom_deductions"));
+            payroll.setTotalCustomBonuses(rs.getDouble("total_custom_bonuses"));
+        }
+        if (hasContributionColumns) {
+            double sss = rs.getDouble("sss_contribution");
+            double philHealth = rs.getDouble("philhealth_contribution");
+            double pagIbig = rs.getDouble("pagibig_contribution");
+            if (sss + philHealth + pagIbig > 0 || period != null && !period.closesMonth()) {
+                // Computed by a payroll run (which deducts contributions in the period closing the month only):
+                // keep the withheld tax instead of the flat rate
+                payroll.setStatutoryDeductions(sss, philHealth, pagIbig, rs.getDouble("tax_deduction"));
+                payroll.setEmployerContributions(rs.getDouble("sss_employer_contribution"),
+                                                 rs.getDouble("philhealth_employer_contribution"),
+                                                 rs.getDouble("pagibig_employer_contribution"));
+            }
+        }
+        return payroll;
+    }
+    
+    /**
+     * Prepare a forward-only, read-only statement that Connector/J streams row by row
+     * instead of buffering the whole result set in memory
+     */
+    private PreparedStatement prepareStreamingStatement(Connection conn, String query) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        stmt.setFetchSize(Integer.MIN_VALUE);
+        return stmt;
+    }
+    
+    /**
+     * Set the SSS, PhilHealth, Pag-IBIG and TIN numbers of the current employees row
+     */
+    private void mapGovernmentIds(ResultSet rs, Employee employee) throws SQLException {
+        if (rs.getString("sss_number") != null) employee.setSssNumber(rs.getString("sss_number"));
+        if (rs.getString("philhealth_number") != null) employee.setPhilHealthNumber(rs.getString("philhealth_number"));
+        if (rs.getString("pagibig_number") != null) employee.setPagIbigNumber(rs.getString("pagibig_number"));
+        if (rs.getString("tin") != null) employee.setTin(rs.getString("tin"));
+    }
+    
+    private boolean hasColumn(ResultSet rs, String column) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (column.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Map the current employees row, including employment and payment columns when present
+     */
+    private Employee mapEmployeeRow(ResultSet rs, boolean hasExtendedColumns) throws SQLException {
+        Employee employee = new Employee(
+            rs.getString("employee_id"),
+            rs.getString("first_name"),
+            rs.getString("last_name"),
+            rs.getString("email"),
+            rs.getString("phone"),
+            rs.getString("department"),
+            rs.getString("position"),
+            rs.getString("job_title"),
+            rs.getString("manager"),
+            rs.getDate("hire_date"),
+            rs.getDouble("salary")
+        );
+        String comprehensiveId = rs.getString("comprehensive_employee_id");
+        if (comprehensiveId != null && !comprehensiveId.trim().isEmpty()) {
+            employee.setComprehensiveEmployeeId(comprehensiveId);
+        }
+        employee.setActive(!"INACTIVE".equalsIgnoreCase(rs.getString("status")));
+        
+        if (hasExtendedColumns) {
+            if (rs.getString("employment_status") != null) employee.setEmploymentStatus(rs.getString("employment_status"));
+            if (rs.getDate("joining_date") != null) employee.setJoiningDate(rs.getDate("joining_date").toLocalDate());
+            if (rs.getDate("probation_end_date") != null) employee.setProbationEndDate(rs.getDate("probation_end_date").toLocalDate());
+            if (rs.getDate("exit_date") != null) employee.setExitDate(rs.getDate("exit_date").toLocalDate());
+            if (rs.getString("exit_reason") != null) employee.setExitReason(rs.getString("exit_reason"));
+            if (rs.getString("bank_name") != null) employee.setBankName(rs.getString("bank_name"));
+            if (rs.getString("account_number") != null) employee.setAccountNumber(rs.getString("account_number"));
+            if (rs.getString("account_holder_name") != null) employee.setAccountHolderName(rs.getString("account_holder_name"));
+            if (rs.getString("bank_branch") != null) employee.setBankBranch(rs.getString("bank_branch"));
+            if (rs.getString("routing_number") != null) employee.setRoutingNumber(rs.getString("routing_number"));
+            if (rs.getString("payment_method") != null) employee.setPaymentMethod(rs.getString("payment_method"));
+            if (rs.getString("payment_frequency") != null) employee.setPaymentFrequency(rs.getString("payment_frequency"));
+            mapGovernmentIds(rs, employee);
+        }
+        return employee;
+    }
+    
     @Override
     public boolean testConnection() {
         return DatabaseConnection.testConnection();
@@ -874,7 +1538,7 @@ public class MySQLDatabaseDAO implements DatabaseDAO {
     @Override
     public List<SalaryComponent> getAllSalaryComponents() {
         List<SalaryComponent> components = new ArrayList<>();
-        String query = "SELECT id, name, description, type, amount, is_percentage, is_active, " +
+        String query = "SELECT id, name, description, type, amount, is_percentage, formula, version, is_active, " +
                       "created_date, last_modified, created_by, modified_by " +
                       "FROM salary_components " +
                       "ORDER BY name";
@@ -903,6 +1567,8 @@ public class MySQLDatabaseDAO implements DatabaseDAO {
                 }
                 component.setCreatedBy(rs.getString("created_by"));
                 component.setModifiedBy(rs.getString("modified_by"));
+                component.setFormula(rs.getString("formula"));
+                component.setVersion(rs.getInt("version"));
                 
                 components.add(component);
             }
@@ -915,7 +1581,7 @@ public class MySQLDatabaseDAO implements DatabaseDAO {
     
     @Override
     public SalaryComponent getSalaryComponentById(int id) {
-        String query = "SELECT id, name, description, type, amount, is_percentage, is_active, " +
+        String query = "SELECT id, name, description, type, amount, is_percentage, formula, version, is_active, " +
                       "created_date, last_modified, created_by, modified_by " +
                       "FROM salary_components WHERE id = ?";
         
@@ -944,6 +1610,8 @@ public class MySQLDatabaseDAO implements DatabaseDAO {
                     }
                     component.setCreatedBy(rs.getString("created_by"));
                     component.setModifiedBy(rs.getString("modified_by"));
+                    component.setFormula(rs.getString("formula"));
+                    component.setVersion(rs.getInt("version"));
                     
                     return component;
                 }
@@ -958,7 +1626,7 @@ public class MySQLDatabaseDAO implements DatabaseDAO {
     @Override
     public boolean insertSalaryComponent(SalaryComponent component) {
         String query = "INSERT INTO salary_components (name, description, type, amount, is_percentage, " +
-                      "is_active, created_date, created_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+                      "is_active, created_date, created_by, formula) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
@@ -971,6 +1639,7 @@ public class MySQLDatabaseDAO implements DatabaseDAO {
             stmt.setBoolean(6, component.isActive());
             stmt.setDate(7, java.sql.Date.valueOf(component.getCreatedDate()));
             stmt.setString(8, component.getCreatedBy());
+            stmt.setString(9, component.hasFormula() ? component.getFormula().trim() : null);
             
             int rowsAffected = stmt.executeUpdate();
             return rowsAffected > 0;
@@ -985,7 +1654,7 @@ public class MySQLDatabaseDAO implements DatabaseDAO {
     public boolean updateSalaryComponent(SalaryComponent component) {
         String query = "UPDATE salary_components SET name = ?, description = ?, type = ?, " +
                       "amount = ?, is_percentage = ?, is_active = ?, last_modified = ?, " +
-                      "modified_by = ? WHERE id = ?";
+                      "modified_by = ?, formula = ?, version = version + 1 WHERE id = ?";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
@@ -998,9 +1667,13 @@ public class MySQLDatabaseDAO implements DatabaseDAO {
             stmt.setBoolean(6, component.isActive());
             stmt.setDate(7, java.sql.Date.valueOf(component.getLastModified()));
             stmt.setString(8, component.getModifiedBy());
-            stmt.setInt(9, component.getId());
+            stmt.setString(9, component.hasFormula() ? component.getFormula().trim() : null);
+            stmt.setInt(10, component.getId());
             
             int rowsAffected = stmt.executeUpdate();
+            if (rowsAffected > 0) {
+                component.setVersion(component.getVersion() + 1);
+            }
             return rowsAffected > 0;
         } catch (SQLException e) {
             System.err.println("Error updating salary component: " + e.getMessage());
@@ -1033,7 +1706,8 @@ public class MySQLDatabaseDAO implements DatabaseDAO {
         String query = "SELECT esc.id, esc.employee_id, esc.salary_component_id, esc.custom_amount, " +
                       "esc.is_percentage, esc.is_active, esc.effective_date, esc.end_date, " +
                       "esc.created_date, esc.created_by, esc.remarks, " +
-                      "sc.name AS component_name, sc.type AS component_type " +
+                      "sc.name AS component_name, sc.type AS component_type, " +
+                      "sc.formula AS component_formula, sc.version AS component_version " +
                       "FROM employee_salary_components esc " +
                       "JOIN salary_components sc ON esc.salary_component_id = sc.id " +
                       "WHERE esc.employee_id = ? " +
@@ -1074,6 +1748,8 @@ public class MySQLDatabaseDAO implements DatabaseDAO {
                     salaryComponent.setId(rs.getInt("salary_component_id"));
                     salaryComponent.setName(rs.getString("component_name"));
                     salaryComponent.setType(rs.getString("component_type"));
+                    salaryComponent.setFormula(rs.getString("component_formula"));
+                    salaryComponent.setVersion(rs.getInt("component_version"));
                     empComponent.setSalaryComponent(salaryComponent);
                     
                     components.add(empComponent);
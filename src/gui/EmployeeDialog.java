@@ -69,6 +69,10 @@ public class EmployeeDialog extends JDialog {
     private JTextField routingNumberField;
     private JComboBox<String> paymentMethodComboBox;
     private JComboBox<String> paymentFrequencyComboBox;
+    private JTextField sssNumberField;
+    private JTextField philHealthNumberField;
+    private JTextField pagIbigNumberField;
+    private JTextField tinField;
     
     // Documents Tab
     private JTable documentsTable;
@@ -241,6 +245,16 @@ public class EmployeeDialog extends JDialog {
         accountNumberField.setToolTipText("Bank account number");
         routingNumberField.setToolTipText("Bank routing/sort code");
         bankBranchField.setToolTipText("Bank branch name or code");
+        
+        // Government membership numbers
+        sssNumberField = new JTextField(20);
+        philHealthNumberField = new JTextField(20);
+        pagIbigNumberField = new JTextField(20);
+        tinField = new JTextField(20);
+        sssNumberField.setToolTipText("SSS number, e.g. 34-1234567-8");
+        philHealthNumberField.setToolTipText("PhilHealth identification number (PIN)");
+        pagIbigNumberField.setToolTipText("Pag-IBIG MID number");
+        tinField.setToolTipText("BIR taxpayer identification number");
     }
     
     private void initializeDocumentsComponents() {
@@ -576,6 +590,34 @@ public class EmployeeDialog extends JDialog {
         panel.add(new JLabel("Payment Frequency:"), gbc);
         gbc.gridx = 1;
         panel.add(paymentFrequencyComboBox, gbc);
+        row++;
+        
+        // SSS Number
+        gbc.gridx = 0; gbc.gridy = row;
+        panel.add(new JLabel("SSS Number:"), gbc);
+        gbc.gridx = 1;
+        panel.add(sssNumberField, gbc);
+        row++;
+        
+        // PhilHealth Number
+        gbc.gridx = 0; gbc.gridy = row;
+        panel.add(new JLabel("PhilHealth Number:"), gbc);
+        gbc.gridx = 1;
+        panel.add(philHealthNumberField, gbc);
+        row++;
+        
+        // Pag-IBIG Number
+        gbc.gridx = 0; gbc.gridy = row;
+        panel.add(new JLabel("Pag-IBIG Number:"), gbc);
+        gbc.gridx = 1;
+        panel.add(pagIbigNumberField, gbc);
+        row++;
+        
+        // TIN
+        gbc.gridx = 0; gbc.gridy = row;
+        panel.add(new JLabel("TIN:"), gbc);
+        gbc.gridx = 1;
+        panel.add(tinField, gbc);
         
         return panel;
     }
@@ -787,6 +829,11 @@ public class EmployeeDialog extends JDialog {
         
         paymentMethodComboBox.setSelectedItem(employee.getPaymentMethod() != null ? employee.getPaymentMethod() : "BANK_TRANSFER");
         paymentFrequencyComboBox.setSelectedItem(employee.getPaymentFrequency() != null ? employee.getPaymentFrequency() : "MONTHLY");
+        
+        sssNumberField.setText(employee.getSssNumber() != null ? employee.getSssNumber() : "");
+        philHealthNumberField.setText(employee.getPhilHealthNumber() != null ? employee.getPhilHealthNumber() : "");
+        pagIbigNumberField.setText(employee.getPagIbigNumber() != null ? employee.getPagIbigNumber() : "");
+        tinField.setText(employee.getTin() != null ? employee.getTin() : "");
     }
     
     private void refreshDocumentsTable() {
@@ -940,6 +987,10 @@ public class EmployeeDialog extends JDialog {
         emp.setRoutingNumber(routingNumberField.getText().trim());
         emp.setPaymentMethod((String) paymentMethodComboBox.getSelectedItem());
         emp.setPaymentFrequency((String) paymentFrequencyComboBox.getSelectedItem());
+        emp.setSssNumber(sssNumberField.getText().trim());
+        emp.setPhilHealthNumber(philHealthNumberField.getText().trim());
+        emp.setPagIbigNumber(pagIbigNumberField.getText().trim());
+        emp.setTin(tinField.getText().trim());
     }
     
     private LocalDate parseDate(String dateString) {
@@ -19,7 +19,7 @@ public class EmployeePanel extends JPanel {
     private JTable employeeTable;
     private DefaultTableModel tableModel;
     private JButton addButton, editButton, deleteButton, searchButton, backButton;
-    private JButton viewButton, refreshButton, toggleStatusButton, salaryComponentsButton;
+    private JButton viewButton, refreshButton, toggleStatusButton, salaryComponentsButton, importButton;
     private JTextField searchField;
     
     public EmployeePanel(PayrollManagementSystemGUI mainApp) {
@@ -61,6 +61,9 @@ public class EmployeePanel extends JPanel {
         salaryComponentsButton = new JButton("Manage Salary");
         salaryComponentsButton.setToolTipText("Manage employee salary components and allowances");
         
+        importButton = new JButton("Import CSV");
+        importButton.setToolTipText("Bulk import employees from a CSV file");
+        
         // Search field
         searchField = new JTextField(20);
         searchField.setToolTipText("Search by name, email, phone, department, position, or ID");
@@ -104,6 +107,10 @@ public class EmployeePanel extends JPanel {
         salaryComponentsButton.setFont(buttonFont);
         salaryComponentsButton.setBackground(new Color(32, 178, 170));
         salaryComponentsButton.setForeground(Color.WHITE);
+        
+        importButton.setFont(buttonFont);
+        importButton.setBackground(new Color(34, 139, 34));
+        importButton.setForeground(Color.WHITE);
     }
     
     private void setupLayout() {
@@ -135,6 +142,8 @@ public class EmployeePanel extends JPanel {
         controlPanel.add(searchButton, gbc);
         gbc.gridx = 3;
         controlPanel.add(refreshButton, gbc);
+        gbc.gridx = 4;
+        controlPanel.add(importButton, gbc);
         
         // Button row
         gbc.gridx = 0; gbc.gridy = 1;
@@ -226,6 +235,74 @@ public class EmployeePanel extends JPanel {
                 toggleEmployeeStatus();
             }
         });
+        
+        importButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                importEmployeesFromCsv();
+            }
+        });
+    }
+    
+    private void importEmployeesFromCsv() {
+        if (!mainApp.getAuthManager().hasAdminOrHRRole()) {
+            JOptionPane.showMessageDialog(this, "Access denied. Admin or HR privileges required.", 
+                                        "Access Denied", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Select Employee CSV File");
+        fileChooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("CSV files", "csv"));
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        
+        java.nio.file.Path csvFile = fileChooser.getSelectedFile().toPath();
+        java.nio.file.Path errorReport = csvFile.resolveSibling(
+            csvFile.getFileName().toString().replaceFirst("\\.csv$", "") + "_errors.csv");
+        
+        importButton.setEnabled(false);
+        importButton.setText("Importing...");
+        
+        // Run the import off the event dispatch thread
+        SwingWorker<managers.EmployeeImportManager.ImportResult, Long> worker = 
+            new SwingWorker<managers.EmployeeImportManager.ImportResult, Long>() {
+            @Override
+            protected managers.EmployeeImportManager.ImportResult doInBackground() throws Exception {
+                managers.EmployeeImportManager importManager = new managers.EmployeeImportManager();
+                return importManager.importEmployees(csvFile, errorReport, (completed, total) -> publish(completed));
+            }
+            
+            @Override
+            protected void process(List<Long> chunks) {
+                importButton.setText("Importing... " + chunks.get(chunks.size() - 1));
+            }
+            
+            @Override
+            protected void done() {
+                importButton.setEnabled(true);
+                importButton.setText("Import CSV");
+                try {
+                    managers.EmployeeImportManager.ImportResult result = get();
+                    String message = "Import complete.\n\n" +
+                                   "Rows read: " + result.getRowsRead() + "\n" +
+                                   "Imported: " + result.getImported() + "\n" +
+                                   "Rejected: " + result.getRejected();
+                    if (result.getRejected() > 0) {
+                        message += "\n\nRejected rows were written to:\n" + result.getErrorReport();
+                    }
+                    JOptionPane.showMessageDialog(EmployeePanel.this, message, 
+                                                "Import Employees", JOptionPane.INFORMATION_MESSAGE);
+                    refreshTable();
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(EmployeePanel.this, "Import failed: " + cause.getMessage(), 
+                                                "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.execute();
     }
     
     private void refreshTable() {
@@ -198,9 +198,10 @@ public class EmployeeSalaryComponentDialog extends JDialog {
     
     private void updateSalaryBreakdown() {
         double baseSalary = employee.getBaseSalary();
-        double totalAllowances = salaryComponentManager.calculateTotalAllowances(employee.getEmployeeId(), baseSalary);
-        double totalDeductions = salaryComponentManager.calculateTotalDeductions(employee.getEmployeeId(), baseSalary);
-        double totalBonuses = salaryComponentManager.calculateTotalBonuses(employee.getEmployeeId(), baseSalary);
+        SalaryComponentManager.ComponentBreakdown components = salaryComponentManager.getComponentBreakdown(employee.getEmployeeId(), baseSalary);
+        double totalAllowances = components.getTotalAllowances().doubleValue();
+        double totalDeductions = components.getTotalDeductions().doubleValue();
+        double totalBonuses = components.getTotalBonuses().doubleValue();
         
         double grossSalary = baseSalary + totalAllowances + totalBonuses;
         double netSalary = grossSalary - totalDeductions;
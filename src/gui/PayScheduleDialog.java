@@ -0,0 +1,190 @@
+package gui;
+
+import managers.PayrollScheduler;
+import models.PayFrequency;
+import models.PayPeriod;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dialog showing the scheduled payroll runs and the pay calendar of each payment frequency in use
+ */
+public class PayScheduleDialog extends JDialog {
+    private static final long serialVersionUID = 1L;
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final int CALENDAR_MONTHS = 2;
+    
+    private transient PayrollScheduler scheduler;
+    private transient List<PayrollScheduler.ScheduledRun> shownRuns;
+    private JTable runTable;
+    private DefaultTableModel runTableModel;
+    private DefaultTableModel calendarTableModel;
+    private JButton runNowButton;
+    private JButton resumeRunButton;
+    private JButton cancelRunButton;
+    private JButton closeButton;
+    
+    public PayScheduleDialog(Window parent, PayrollScheduler scheduler) {
+        super(parent, "Pay Schedule", Dialog.ModalityType.MODELESS);
+        this.scheduler = scheduler;
+        
+        initializeComponents();
+        setupLayout();
+        setupEventListeners();
+        refreshRuns();
+        loadCalendar();
+        
+        setSize(950, 500);
+        setLocationRelativeTo(parent);
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+    }
+    
+    private void initializeComponents() {
+        String[] runColumns = {"Frequency", "Payroll Month", "Period", "Cutoff", "Pay Date", "Starts", "Status", "Progress"};
+        runTableModel = new DefaultTableModel(runColumns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        runTable = new JTable(runTableModel);
+        runTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        runTable.getTableHeader().setReorderingAllowed(false);
+        
+        String[] calendarColumns = {"Frequency", "Period", "Cutoff", "Pay Date", "Contributions"};
+        calendarTableModel = new DefaultTableModel(calendarColumns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        
+        runNowButton = new JButton("Run Now");
+        runNowButton.setToolTipText("Start the selected queued run without waiting for its cutoff");
+        resumeRunButton = new JButton("Resume");
+        resumeRunButton.setToolTipText("Run the selected cancelled or failed run again, continuing where it stopped");
+        cancelRunButton = new JButton("Cancel Run");
+        closeButton = new JButton("Close");
+        
+        runNowButton.setBackground(new Color(34, 139, 34));
+        runNowButton.setForeground(Color.WHITE);
+        resumeRunButton.setBackground(new Color(70, 130, 180));
+        resumeRunButton.setForeground(Color.WHITE);
+        cancelRunButton.setBackground(new Color(220, 20, 60));
+        cancelRunButton.setForeground(Color.WHITE);
+        closeButton.setBackground(new Color(158, 158, 158));
+        closeButton.setForeground(Color.WHITE);
+    }
+    
+    private void setupLayout() {
+        setLayout(new BorderLayout());
+        
+        JTable calendarTable = new JTable(calendarTableModel);
+        calendarTable.getTableHeader().setReorderingAllowed(false);
+        
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.addTab("Scheduled Runs", new JScrollPane(runTable));
+        tabs.addTab("Pay Calendar", new JScrollPane(calendarTable));
+        add(tabs, BorderLayout.CENTER);
+        
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.add(runNowButton);
+        buttonPanel.add(resumeRunButton);
+        buttonPanel.add(cancelRunButton);
+        buttonPanel.add(closeButton);
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+    
+    private void setupEventListeners() {
+        runNowButton.addActionListener(e -> {
+            PayrollScheduler.ScheduledRun run = selectedRun();
+            if (run != null) {
+                scheduler.runNow(run);
+                refreshRuns();
+            }
+        });
+        
+        resumeRunButton.addActionListener(e -> {
+            PayrollScheduler.ScheduledRun run = selectedRun();
+            if (run != null) {
+                PayrollScheduler.ScheduledRun resumed = scheduler.resume(run);
+                refreshRuns();
+                int row = shownRuns.indexOf(resumed);
+                if (row >= 0) {
+                    runTable.setRowSelectionInterval(row, row);
+                }
+            }
+        });
+        
+        cancelRunButton.addActionListener(e -> {
+            PayrollScheduler.ScheduledRun run = selectedRun();
+            if (run != null && !run.getStatus().isFinished()) {
+                int confirm = JOptionPane.showConfirmDialog(this,
+                    "Cancel the " + run.getFrequency() + " run for " + run.getPeriod().getLabel() + "?\n" +
+                    "A run in progress stops after its current batch and can be resumed with Resume.",
+                    "Cancel Run", JOptionPane.YES_NO_OPTION);
+                if (confirm == JOptionPane.YES_OPTION) {
+                    scheduler.cancel(run);
+                    refreshRuns();
+                }
+            }
+        });
+        
+        closeButton.addActionListener(e -> dispose());
+    }
+    
+    /**
+     * Reload the runs table, keeping the selection. Called on the event dispatch thread.
+     */
+    void refreshRuns() {
+        PayrollScheduler.ScheduledRun selected = selectedRun();
+        shownRuns = scheduler.getRuns();
+        runTableModel.setRowCount(0);
+        for (PayrollScheduler.ScheduledRun run : shownRuns) {
+            PayPeriod period = run.getPeriod();
+            String progress = run.getTotal() < 0 ? "" : run.getCompleted() + " / " + run.getTotal();
+            if (run.getError() != null) {
+                progress = run.getError();
+            }
+            runTableModel.addRow(new Object[] {
+                period.getFrequency(),
+                period.getPayrollMonth(),
+                period.getLabel(),
+                period.getCutoff(),
+                period.getPayDate(),
+                run.getScheduledFor().format(DATE_TIME_FORMAT),
+                run.getStatus(),
+                progress
+            });
+        }
+        int row = selected != null ? shownRuns.indexOf(selected) : -1;
+        if (row >= 0) {
+            runTable.setRowSelectionInterval(row, row);
+        }
+    }
+    
+    private void loadCalendar() {
+        calendarTableModel.setRowCount(0);
+        for (Map.Entry<PayFrequency, List<PayPeriod>> entry : scheduler.getCalendar(CALENDAR_MONTHS).entrySet()) {
+            for (PayPeriod period : entry.getValue()) {
+                calendarTableModel.addRow(new Object[] {
+                    entry.getKey(),
+                    period.getLabel(),
+                    period.getCutoff(),
+                    period.getPayDate(),
+                    period.closesMonth() ? "Deducts " + period.getPayrollMonth() + " contributions" : ""
+                });
+            }
+        }
+    }
+    
+    private PayrollScheduler.ScheduledRun selectedRun() {
+        int row = runTable.getSelectedRow();
+        return row >= 0 && shownRuns != null && row < shownRuns.size() ? shownRuns.get(row) : null;
+    }
+}
@@ -316,9 +316,17 @@ public class PayrollDialog extends JDialog {
                     String.format("Payroll created successfully!\nGross Pay: $%.2f\nNet Pay: $%.2f", 
                                 newPayroll.getGrossPay(), newPayroll.getNetPay()));
             } else {
-                // Update existing payroll
-                payrollManager.updatePayroll(payroll.getPayrollId(), payPeriod, basePay, 
-                                           overtime, bonuses, deductions, payDate);
+                // Update existing payroll; finalized payrolls are locked
+                if (!payrollManager.updatePayroll(payroll.getPayrollId(), payPeriod, basePay, 
+                                                overtime, bonuses, deductions, payDate)) {
+                    Payroll current = payrollManager.getPayroll(payroll.getPayrollId());
+                    String reason = current != null && current.isFinalized() 
+                                    ? "This payroll has been finalized and can no longer be edited." 
+                                    : "The payroll no longer exists.";
+                    JOptionPane.showMessageDialog(this, "Payroll not updated. " + reason, 
+                                                "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
                 JOptionPane.showMessageDialog(this, "Payroll updated successfully!");
             }
             
@@ -3,6 +3,8 @@ package gui;
 import managers.AuthenticationManager;
 import managers.EmployeeManager;
 import managers.PayrollManager;
+import managers.PayrollRecalculator;
+import managers.PayrollScheduler;
 import managers.SalaryComponentManager;
 import managers.UserManager;
 import database.DatabaseConnection;
@@ -20,6 +22,8 @@ public class PayrollManagementSystemGUI extends JFrame {
     private transient EmployeeManager employeeManager;
     private transient PayrollManager payrollManager;
     private transient SalaryComponentManager salaryComponentManager;
+    private transient PayrollRecalculator payrollRecalculator;
+    private transient PayrollScheduler payrollScheduler;
     private transient UserManager userManager;
     private JPanel mainPanel;
     private CardLayout cardLayout;
@@ -54,6 +58,16 @@ public class PayrollManagementSystemGUI extends JFrame {
         // Set up dependencies
         payrollManager.setSalaryComponentManager(salaryComponentManager);
         
+        // Recalculate draft payrolls when the components or salaries they depend on change
+        payrollRecalculator = new PayrollRecalculator(payrollManager, salaryComponentManager);
+        salaryComponentManager.addChangeListener(payrollRecalculator);
+        employeeManager.addChangeListener(salaryComponentManager.getCacheInvalidator());
+        employeeManager.addChangeListener(payrollRecalculator);
+        
+        // Run payroll on each payment frequency's pay calendar in the background
+        payrollScheduler = new PayrollScheduler(payrollManager);
+        payrollScheduler.setEmployeeManager(employeeManager);
+        
         initializeGUI();
         showLoginPanel();
     }
@@ -61,6 +75,15 @@ public class PayrollManagementSystemGUI extends JFrame {
     private void initializeGUI() {
         setTitle("Payroll Management System");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosing(java.awt.event.WindowEvent e) {
+                // Finish pending recalculations and write any queued payroll changes before the application exits
+                payrollScheduler.shutdown();
+                payrollRecalculator.shutdown();
+                payrollManager.shutdown();
+            }
+        });
         setSize(1200, 800);
         setLocationRelativeTo(null);
         
@@ -72,6 +95,9 @@ public class PayrollManagementSystemGUI extends JFrame {
         MainMenuPanel mainMenuPanel = new MainMenuPanel(this);
         EmployeePanel employeePanel = new EmployeePanel(this);
         PayrollPanel payrollPanel = new PayrollPanel(this);
+        payrollRecalculator.addListener(report -> SwingUtilities.invokeLater(() -> payrollPanel.showRecalculation(report)));
+        payrollScheduler.addListener(run -> SwingUtilities.invokeLater(() -> payrollPanel.showScheduledRun(run)));
+        payrollScheduler.start();
         ReportsPanel reportsPanel = new ReportsPanel(this);
         SalaryComponentPanel salaryComponentPanel = new SalaryComponentPanel(this);
         UserManagementPanel userManagementPanel = new UserManagementPanel(this);
@@ -135,6 +161,10 @@ public class PayrollManagementSystemGUI extends JFrame {
         return payrollManager;
     }
     
+    public PayrollScheduler getPayrollScheduler() {
+        return payrollScheduler;
+    }
+    
     public SalaryComponentManager getSalaryComponentManager() {
         return salaryComponentManager;
     }
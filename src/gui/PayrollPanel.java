@@ -1,14 +1,34 @@
 package gui;
 
+import managers.AttendanceIngestor;
+import managers.DisbursementFileGenerator;
+import managers.PayCalendar;
+import managers.PayrollRecalculator;
+import managers.PayrollRunEngine;
+import managers.PayrollScheduler;
+import managers.PayslipBatchGenerator;
+import managers.PayslipGenerator;
+import managers.RemittanceReportGenerator;
 import models.Employee;
+import models.Money;
+import models.PayFrequency;
+import models.PayPeriod;
 import models.Payroll;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Payroll Management Panel
@@ -19,6 +39,12 @@ public class PayrollPanel extends JPanel {
     private JTable payrollTable;
     private DefaultTableModel tableModel;
     private JButton editButton, deleteButton, viewByEmployeeButton, backButton, philippinePayrollButton, viewPayslipButton;
+    private JButton runPayrollButton, finalizeButton, scheduleButton, bankFilesButton, remittanceButton,
+                    bulkPayslipsButton;
+    private JLabel scheduleStatusLabel;
+    private PayScheduleDialog scheduleDialog;
+    private transient SwingWorker<PayrollRunEngine.RunResult, Long> payrollRunWorker;
+    private final AtomicBoolean payrollRunCancelled = new AtomicBoolean();
     private JTextField employeeIdField;
     
     public PayrollPanel(PayrollManagementSystemGUI mainApp) {
@@ -50,7 +76,20 @@ public class PayrollPanel extends JPanel {
         viewByEmployeeButton = new JButton("View by Employee");
         philippinePayrollButton = new JButton("Create Payroll");
         viewPayslipButton = new JButton("View Payslip");
+        runPayrollButton = new JButton("Run Payroll");
+        runPayrollButton.setToolTipText("Compute this period's payroll for every active employee");
+        scheduleButton = new JButton("Pay Schedule");
+        scheduleButton.setToolTipText("Payroll runs scheduled from each payment frequency's pay calendar");
+        finalizeButton = new JButton("Finalize Period");
+        finalizeButton.setToolTipText("Lock the selected payroll's pay period and add it to year-to-date totals");
+        bankFilesButton = new JButton("Bank Files");
+        bankFilesButton.setToolTipText("Write the bank disbursement files for the selected payroll's finalized period");
+        remittanceButton = new JButton("Remittances");
+        remittanceButton.setToolTipText("Write the SSS, PhilHealth and Pag-IBIG remittance files for the selected payroll's finalized period");
+        bulkPayslipsButton = new JButton("Bulk Payslips");
+        bulkPayslipsButton.setToolTipText("Write the payslips of every finalized payroll in the selected payroll's period");
         backButton = new JButton("Back to Main Menu");
+        scheduleStatusLabel = new JLabel("No scheduled payroll runs");
         
         // Employee ID field
         employeeIdField = new JTextField(10);
@@ -80,6 +119,30 @@ public class PayrollPanel extends JPanel {
         viewPayslipButton.setBackground(new Color(255, 165, 0));
         viewPayslipButton.setForeground(Color.WHITE);
         
+        runPayrollButton.setFont(buttonFont);
+        runPayrollButton.setBackground(new Color(34, 139, 34));
+        runPayrollButton.setForeground(Color.WHITE);
+        
+        scheduleButton.setFont(buttonFont);
+        scheduleButton.setBackground(new Color(34, 139, 34));
+        scheduleButton.setForeground(Color.WHITE);
+        
+        finalizeButton.setFont(buttonFont);
+        finalizeButton.setBackground(new Color(75, 0, 130));
+        finalizeButton.setForeground(Color.WHITE);
+        
+        bankFilesButton.setFont(buttonFont);
+        bankFilesButton.setBackground(new Color(75, 0, 130));
+        bankFilesButton.setForeground(Color.WHITE);
+        
+        remittanceButton.setFont(buttonFont);
+        remittanceButton.setBackground(new Color(75, 0, 130));
+        remittanceButton.setForeground(Color.WHITE);
+        
+        bulkPayslipsButton.setFont(buttonFont);
+        bulkPayslipsButton.setBackground(new Color(75, 0, 130));
+        bulkPayslipsButton.setForeground(Color.WHITE);
+        
         backButton.setFont(buttonFont);
         backButton.setBackground(new Color(128, 128, 128));
         backButton.setForeground(Color.WHITE);
@@ -113,13 +176,20 @@ public class PayrollPanel extends JPanel {
         // Action buttons panel (middle row) 
         JPanel actionPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 5));
         actionPanel.add(philippinePayrollButton);
+        actionPanel.add(runPayrollButton);
+        actionPanel.add(scheduleButton);
         actionPanel.add(editButton);
         actionPanel.add(viewPayslipButton);
+        actionPanel.add(finalizeButton);
+        actionPanel.add(bankFilesButton);
+        actionPanel.add(remittanceButton);
+        actionPanel.add(bulkPayslipsButton);
         actionPanel.add(deleteButton);
         
         // Navigation panel (bottom row)
-        JPanel navigationPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
-        navigationPanel.add(backButton);
+        JPanel navigationPanel = new JPanel(new BorderLayout());
+        navigationPanel.add(scheduleStatusLabel, BorderLayout.WEST);
+        navigationPanel.add(backButton, BorderLayout.EAST);
         
         controlPanel.add(searchPanel, BorderLayout.NORTH);
         controlPanel.add(actionPanel, BorderLayout.CENTER);
@@ -164,6 +234,53 @@ public class PayrollPanel extends JPanel {
             }
         });
         
+        runPayrollButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (payrollRunWorker != null && !payrollRunWorker.isDone()) {
+                    payrollRunCancelled.set(true);
+                    runPayrollButton.setText("Cancelling...");
+                } else {
+                    runPayroll();
+                }
+            }
+        });
+        
+        scheduleButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                showPaySchedule();
+            }
+        });
+        
+        finalizeButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                finalizeSelectedPeriod();
+            }
+        });
+        
+        bankFilesButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                writeBankFiles();
+            }
+        });
+        
+        remittanceButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                writeRemittanceFiles();
+            }
+        });
+        
+        bulkPayslipsButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                writeBulkPayslips();
+            }
+        });
+        
         backButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
@@ -172,6 +289,200 @@ public class PayrollPanel extends JPanel {
         });
     }
     
+    private void runPayroll() {
+        String periodText = JOptionPane.showInputDialog(this, "Pay period (YYYY-MM):", 
+                                                       YearMonth.now().toString());
+        if (periodText == null) {
+            return;
+        }
+        
+        YearMonth period;
+        try {
+            period = YearMonth.parse(periodText.trim());
+        } catch (DateTimeParseException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid pay period. Use YYYY-MM.", 
+                                        "Validation Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        LocalDate payDate = period.atEndOfMonth();
+        
+        int confirm = JOptionPane.showConfirmDialog(this, 
+            "Compute " + period + " payroll for all active monthly-paid employees (pay date " + payDate + ")?\n" +
+            "Weekly, biweekly and semi-monthly employees are paid by the pay schedule.\n" +
+            "Employees who already have a payroll for this period are skipped, and an\n" +
+            "unfinished run for the period is resumed where it stopped.", 
+            "Run Payroll", JOptionPane.YES_NO_OPTION);
+        if (confirm != JOptionPane.YES_OPTION) {
+            return;
+        }
+        
+        // Overtime, night differential and holiday premiums come from a time clock punch log, if there is one
+        File attendanceFile = null;
+        int useAttendance = JOptionPane.showConfirmDialog(this, 
+            "Pay overtime, night differential and holiday premiums from a time clock punch log?", 
+            "Run Payroll", JOptionPane.YES_NO_CANCEL_OPTION);
+        if (useAttendance == JOptionPane.CANCEL_OPTION || useAttendance == JOptionPane.CLOSED_OPTION) {
+            return;
+        }
+        if (useAttendance == JOptionPane.YES_OPTION) {
+            JFileChooser fileChooser = new JFileChooser();
+            fileChooser.setDialogTitle("Punch Log (employee_id,timestamp,direction)");
+            if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+            attendanceFile = fileChooser.getSelectedFile();
+        }
+        File punchLog = attendanceFile;
+        
+        payrollRunCancelled.set(false);
+        runPayrollButton.setText("Cancel Run");
+        PayrollRunEngine engine = new PayrollRunEngine(mainApp.getPayrollManager());
+        // Other frequencies are paid per pay period by the scheduler, under their own period keys
+        engine.setEmployeeFilter(employee -> PayCalendar.scheduledFrequency(PayFrequency.fromString(employee.getPaymentFrequency()))
+                                             == PayFrequency.MONTHLY);
+        
+        payrollRunWorker = new SwingWorker<PayrollRunEngine.RunResult, Long>() {
+            private long total;
+            private AttendanceIngestor.IngestResult ingested;
+            
+            @Override
+            protected PayrollRunEngine.RunResult doInBackground() throws Exception {
+                AttendanceIngestor.IngestResult attendance = null;
+                if (punchLog != null) {
+                    Map<Integer, String> regions = new HashMap<>();
+                    for (Employee employee : mainApp.getEmployeeManager().getAllEmployeesWithContactInfo()) {
+                        if (employee.getProvinceState() != null) {
+                            regions.put(employee.getEmployeeId(), employee.getProvinceState());
+                        }
+                    }
+                    attendance = new AttendanceIngestor().ingest(punchLog.toPath(), period, regions);
+                    ingested = attendance;
+                }
+                return engine.run(period, payDate, attendance, (completed, total) -> {
+                    this.total = total;
+                    publish(completed);
+                }, payrollRunCancelled::get);
+            }
+            
+            @Override
+            protected void process(List<Long> chunks) {
+                if (!payrollRunCancelled.get()) {
+                    runPayrollButton.setText("Cancel Run (" + chunks.get(chunks.size() - 1) + "/" + total + ")");
+                }
+            }
+            
+            @Override
+            protected void done() {
+                runPayrollButton.setText("Run Payroll");
+                try {
+                    PayrollRunEngine.RunResult result = get();
+                    StringBuilder message = new StringBuilder();
+                    message.append(result.isCancelled() ? "Payroll run cancelled." 
+                                 : result.isAborted() ? "Payroll run stopped." : "Payroll run complete.");
+                    if (result.isCancelled() || result.isAborted()) {
+                        message.append(" Run it again to resume.");
+                    }
+                    message.append("\n\n");
+                    if (result.isResumed()) {
+                        message.append("Resumed run #").append(result.getRunId()).append(" (")
+                               .append(result.getAlreadyCompleted()).append(" employees already done)\n");
+                    }
+                    message.append("Saved: ").append(result.getSaved()).append("\n");
+                    message.append("Skipped (already paid): ").append(result.getSkipped()).append("\n");
+                    message.append("Failed: ").append(result.getFailed()).append("\n");
+                    if (ingested != null) {
+                        message.append("Attendance: ").append(ingested.getSummaries().size()).append(" employees, ")
+                               .append(ingested.getRejected()).append(" rejected lines, ")
+                               .append(ingested.getUnpairedPunches()).append(" unpaired punches\n");
+                    }
+                    message.append(String.format("Total net pay: ₱%,.2f\n", result.getTotalNet()));
+                    message.append(String.format("Time: %.1f s", result.getElapsedMillis() / 1000.0));
+                    if (!result.getErrors().isEmpty()) {
+                        message.append("\n\nFirst error: ").append(result.getErrors().get(0));
+                    }
+                    JOptionPane.showMessageDialog(PayrollPanel.this, message.toString(), "Run Payroll", 
+                                                result.getFailed() > 0 ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(PayrollPanel.this, "Payroll run failed: " + cause.getMessage(), 
+                                                "Error", JOptionPane.ERROR_MESSAGE);
+                }
+                refreshTable();
+            }
+        };
+        payrollRunWorker.execute();
+    }
+    
+    private void showPaySchedule() {
+        if (scheduleDialog == null || !scheduleDialog.isDisplayable()) {
+            scheduleDialog = new PayScheduleDialog(SwingUtilities.getWindowAncestor(this), mainApp.getPayrollScheduler());
+        }
+        scheduleDialog.setVisible(true);
+        scheduleDialog.toFront();
+    }
+    
+    /**
+     * Show a scheduled run's status and progress, and refresh the table once it has finished
+     */
+    void showScheduledRun(PayrollScheduler.ScheduledRun run) {
+        if (run.getStatus().isFinished()) {
+            scheduleStatusLabel.setText("Scheduled run " + run.getFrequency() + " " + run.getPeriod().getLabel() + ": "
+                                        + run.getStatus() + (run.getError() != null ? " - " + run.getError() : ""));
+            refreshTable();
+        } else {
+            // Show the run in progress, or else the next one to start
+            PayrollScheduler.ScheduledRun shown = null;
+            for (PayrollScheduler.ScheduledRun scheduled : mainApp.getPayrollScheduler().getRuns()) {
+                if (scheduled.getStatus() == PayrollScheduler.Status.RUNNING) {
+                    shown = scheduled;
+                    break;
+                }
+                if (shown == null && scheduled.getStatus() == PayrollScheduler.Status.QUEUED) {
+                    shown = scheduled;
+                }
+            }
+            if (shown == null) {
+                shown = run;
+            }
+            String period = shown.getFrequency() + " " + shown.getPeriod().getLabel();
+            if (shown.getStatus() == PayrollScheduler.Status.RUNNING) {
+                scheduleStatusLabel.setText("Running " + period + " payroll"
+                                            + (shown.getTotal() >= 0 ? " (" + shown.getCompleted() + "/" + shown.getTotal() + ")" : "..."));
+            } else {
+                scheduleStatusLabel.setText("Next scheduled run: " + period + ", starts " + shown.getScheduledFor().toLocalDate()
+                                            + ", pay date " + shown.getPeriod().getPayDate());
+            }
+        }
+        if (scheduleDialog != null && scheduleDialog.isDisplayable()) {
+            scheduleDialog.refreshRuns();
+        }
+    }
+    
+    /**
+     * Refresh the table after draft payrolls were recalculated in the background, and show the
+     * change in net pay per employee
+     */
+    void showRecalculation(PayrollRecalculator.Report report) {
+        refreshTable();
+        
+        StringBuilder message = new StringBuilder("Draft payrolls were recalculated after a salary or component change.\n\n");
+        int shown = 0;
+        for (Map.Entry<Integer, Money> delta : report.getNetPayDeltaByEmployee().entrySet()) {
+            if (shown++ == 10) {
+                message.append("... and ").append(report.getNetPayDeltaByEmployee().size() - 10).append(" more employees\n");
+                break;
+            }
+            Employee employee = mainApp.getEmployeeManager().getEmployee(delta.getKey());
+            String employeeName = employee != null ? employee.getFullName() : String.format("EMP%03d", delta.getKey());
+            message.append(String.format("%s: net pay %+,.2f\n", employeeName, delta.getValue().toBigDecimal()));
+        }
+        if (!report.getFailedEmployees().isEmpty()) {
+            message.append("\nCould not recalculate ").append(report.getFailedEmployees().size()).append(" employees; see the log.");
+        }
+        JOptionPane.showMessageDialog(this, message.toString(), "Payroll Recalculated",
+                                    report.getFailedEmployees().isEmpty() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
+    }
+    
     private void refreshTable() {
         tableModel.setRowCount(0);
         List<Payroll> payrolls = mainApp.getPayrollManager().getAllPayrolls();
@@ -265,6 +576,290 @@ public class PayrollPanel extends JPanel {
         }
     }
     
+    private void finalizeSelectedPeriod() {
+        if (!mainApp.getAuthManager().hasAdminOrHROrPayrollRole()) {
+            JOptionPane.showMessageDialog(this, "Access denied. Admin, HR, or Payroll privileges required.", 
+                                        "Access Denied", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
+        int selectedRow = payrollTable.getSelectedRow();
+        if (selectedRow == -1) {
+            JOptionPane.showMessageDialog(this, "Please select a payroll record of the period to finalize.", 
+                                        "No Selection", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        
+        String payPeriod = (String) tableModel.getValueAt(selectedRow, 2);
+        List<Integer> pending = new ArrayList<>();
+        for (Payroll payroll : mainApp.getPayrollManager().getPayrollsByPeriod(payPeriod)) {
+            if (!payroll.isFinalized()) {
+                pending.add(payroll.getPayrollId());
+            }
+        }
+        if (pending.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "All payrolls for " + payPeriod + " are already finalized.");
+            return;
+        }
+        
+        int confirm = JOptionPane.showConfirmDialog(this, 
+                "Finalize " + pending.size() + " payroll(s) for " + payPeriod + "?\n" +
+                "Finalized payrolls are added to year-to-date totals and can no longer be edited or deleted.", 
+                "Confirm Finalize", JOptionPane.YES_NO_OPTION);
+        
+        if (confirm == JOptionPane.YES_OPTION) {
+            int finalized = mainApp.getPayrollManager().finalizePayrolls(pending);
+            if (finalized >= 0) {
+                JOptionPane.showMessageDialog(this, finalized + " payroll(s) finalized for " + payPeriod + ".");
+                refreshTable();
+            } else {
+                JOptionPane.showMessageDialog(this, "Failed to finalize payrolls.", 
+                                            "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+    
+    private void writeBankFiles() {
+        if (!mainApp.getAuthManager().hasAdminOrHROrPayrollRole()) {
+            JOptionPane.showMessageDialog(this, "Access denied. Admin, HR, or Payroll privileges required.", 
+                                        "Access Denied", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
+        int selectedRow = payrollTable.getSelectedRow();
+        if (selectedRow == -1) {
+            JOptionPane.showMessageDialog(this, "Please select a payroll record of the period to disburse.", 
+                                        "No Selection", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        
+        String payPeriod = (String) tableModel.getValueAt(selectedRow, 2);
+        PayPeriod period;
+        try {
+            period = PayPeriod.parse(payPeriod);
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, "The selected payroll has no valid pay period.", 
+                                        "Validation Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Folder for " + period.getLabel() + " bank files");
+        fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File directory = fileChooser.getSelectedFile();
+        
+        bankFilesButton.setEnabled(false);
+        DisbursementFileGenerator generator = new DisbursementFileGenerator(mainApp.getPayrollManager());
+        new SwingWorker<DisbursementFileGenerator.Result, Void>() {
+            @Override
+            protected DisbursementFileGenerator.Result doInBackground() throws Exception {
+                return generator.generate(period, directory.toPath(), null);
+            }
+            
+            @Override
+            protected void done() {
+                bankFilesButton.setEnabled(true);
+                try {
+                    DisbursementFileGenerator.Result result = get();
+                    StringBuilder message = new StringBuilder();
+                    if (result.getFiles().isEmpty()) {
+                        message.append("No finalized bank transfers for ").append(period.getLabel()).append(".\n");
+                    } else {
+                        message.append("Bank files for ").append(period.getLabel()).append(":\n\n");
+                        for (DisbursementFileGenerator.BankFile file : result.getFiles()) {
+                            message.append(file.getPath().getFileName()).append("\n")
+                                   .append(String.format("    %s, %d records, total ₱%,.2f, hash total %d\n", file.getFormat(),
+                                           file.getRecords(), file.getTotalAmount().toBigDecimal(), file.getHashTotal()));
+                        }
+                        message.append(String.format("\nTotal: %d records, ₱%,.2f\n", result.getRecords(),
+                                                     result.getTotalAmount().toBigDecimal()));
+                    }
+                    if (!result.getSkipped().isEmpty()) {
+                        message.append("\nNot disbursed:\n");
+                        for (Map.Entry<String, Long> skipped : result.getSkipped().entrySet()) {
+                            message.append("    ").append(skipped.getKey()).append(": ").append(skipped.getValue()).append("\n");
+                        }
+                    }
+                    JOptionPane.showMessageDialog(PayrollPanel.this, message.toString(), "Bank Files", 
+                                                JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(PayrollPanel.this, "Could not write bank files: " + cause.getMessage(), 
+                                                "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+    
+    private void writeRemittanceFiles() {
+        if (!mainApp.getAuthManager().hasAdminOrHROrPayrollRole()) {
+            JOptionPane.showMessageDialog(this, "Access denied. Admin, HR, or Payroll privileges required.", 
+                                        "Access Denied", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
+        int selectedRow = payrollTable.getSelectedRow();
+        if (selectedRow == -1) {
+            JOptionPane.showMessageDialog(this, "Please select a payroll record of the period to remit.", 
+                                        "No Selection", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        
+        String payPeriod = (String) tableModel.getValueAt(selectedRow, 2);
+        YearMonth period;
+        try {
+            period = PayPeriod.parse(payPeriod).getPayrollMonth();
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, "The selected payroll has no valid pay period.", 
+                                        "Validation Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Folder for " + period + " remittance files");
+        fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File directory = fileChooser.getSelectedFile();
+        
+        remittanceButton.setEnabled(false);
+        RemittanceReportGenerator generator = new RemittanceReportGenerator(mainApp.getPayrollManager());
+        new SwingWorker<RemittanceReportGenerator.Result, Void>() {
+            @Override
+            protected RemittanceReportGenerator.Result doInBackground() throws Exception {
+                return generator.generate(period, directory.toPath(), null);
+            }
+            
+            @Override
+            protected void done() {
+                remittanceButton.setEnabled(true);
+                try {
+                    RemittanceReportGenerator.Result result = get();
+                    StringBuilder message = new StringBuilder();
+                    message.append("Remittance files for ").append(period).append(" (")
+                           .append(result.getEmployees()).append(" employees):\n\n");
+                    for (RemittanceReportGenerator.AgencyFile file : result.getFiles()) {
+                        message.append(file.getPath().getFileName()).append("\n")
+                               .append(String.format("    %d members, EE ₱%,.2f + ER ₱%,.2f = ₱%,.2f\n", file.getRecords(),
+                                       file.getEmployeeShare().toBigDecimal(), file.getEmployerShare().toBigDecimal(),
+                                       file.getTotalAmount().toBigDecimal()));
+                    }
+                    message.append(String.format("\nTotal to remit: ₱%,.2f\n", result.getTotalAmount().toBigDecimal()));
+                    if (!result.getSkipped().isEmpty()) {
+                        message.append("\nNot remitted:\n");
+                        for (Map.Entry<String, Long> skipped : result.getSkipped().entrySet()) {
+                            message.append(String.format("    %s: %d (₱%,.2f)\n", skipped.getKey(), skipped.getValue(),
+                                           result.getSkippedAmount(skipped.getKey()).toBigDecimal()));
+                        }
+                    }
+                    JOptionPane.showMessageDialog(PayrollPanel.this, message.toString(), "Remittances", 
+                                                JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(PayrollPanel.this, "Could not write remittance files: " + cause.getMessage(), 
+                                                "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+    
+    private void writeBulkPayslips() {
+        if (!mainApp.getAuthManager().hasAdminOrHROrPayrollRole()) {
+            JOptionPane.showMessageDialog(this, "Access denied. Admin, HR, or Payroll privileges required.", 
+                                        "Access Denied", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
+        int selectedRow = payrollTable.getSelectedRow();
+        if (selectedRow == -1) {
+            JOptionPane.showMessageDialog(this, "Please select a payroll record of the period to write payslips for.", 
+                                        "No Selection", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        
+        String payPeriod = (String) tableModel.getValueAt(selectedRow, 2);
+        YearMonth period;
+        try {
+            period = PayPeriod.parse(payPeriod).getPayrollMonth();
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, "The selected payroll has no valid pay period.", 
+                                        "Validation Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
+        String[] options = {"One File per Employee", "Single ZIP Archive", "PDF Bundle", "Cancel"};
+        int choice = JOptionPane.showOptionDialog(this, "How should the " + period + " payslips be written?\n" +
+                                                "Files and archives continue where an interrupted run stopped; a PDF bundle is written again from the start.", 
+                                                "Bulk Payslips", JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, 
+                                                null, options, options[0]);
+        if (choice < 0 || choice > 2) {
+            return;
+        }
+        PayslipBatchGenerator.Output output = PayslipBatchGenerator.Output.values()[choice];
+        
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Folder for " + period + " payslips");
+        fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File directory = fileChooser.getSelectedFile();
+        
+        bulkPayslipsButton.setEnabled(false);
+        PayslipGenerator payslipGenerator = new PayslipGenerator(mainApp.getEmployeeManager());
+        payslipGenerator.setArchive(mainApp.getPayrollManager().getPayslipArchive());
+        PayslipBatchGenerator generator = new PayslipBatchGenerator(mainApp.getPayrollManager(), payslipGenerator);
+        new SwingWorker<PayslipBatchGenerator.Result, Long>() {
+            @Override
+            protected PayslipBatchGenerator.Result doInBackground() throws Exception {
+                PayslipBatchGenerator.Result result = generator.generate(period, directory.toPath(), output, 
+                                                                         (done, total) -> publish(done), null);
+                mainApp.getPayrollManager().getPayslipArchive().flush();
+                return result;
+            }
+            
+            @Override
+            protected void process(List<Long> chunks) {
+                bulkPayslipsButton.setText("Payslips: " + chunks.get(chunks.size() - 1));
+            }
+            
+            @Override
+            protected void done() {
+                bulkPayslipsButton.setText("Bulk Payslips");
+                bulkPayslipsButton.setEnabled(true);
+                try {
+                    PayslipBatchGenerator.Result result = get();
+                    StringBuilder message = new StringBuilder();
+                    message.append(result.getWritten()).append(" payslips for ").append(period)
+                           .append(result.isResumed() ? " added to " : " written to ").append(result.getPath())
+                           .append(String.format(" in %.1f s\n", result.getElapsedMillis() / 1000.0));
+                    if (!result.getSkipped().isEmpty()) {
+                        message.append("\nNot written:\n");
+                        for (Map.Entry<String, Long> skipped : result.getSkipped().entrySet()) {
+                            message.append("    ").append(skipped.getKey()).append(": ").append(skipped.getValue()).append("\n");
+                        }
+                    }
+                    if (result.getFailed() > 0) {
+                        message.append("\n").append(result.getFailed()).append(" payslips failed; run again to retry them:\n");
+                        for (String error : result.getErrors()) {
+                            message.append("    ").append(error).append("\n");
+                        }
+                    }
+                    JOptionPane.showMessageDialog(PayrollPanel.this, message.toString(), "Bulk Payslips", 
+                                                result.getFailed() > 0 ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(PayrollPanel.this, "Could not write payslips: " + cause.getMessage(), 
+                                                "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+    
     private void viewSelectedPayslip() {
         int selectedRow = payrollTable.getSelectedRow();
         if (selectedRow == -1) {
@@ -278,6 +873,7 @@ public class PayrollPanel extends JPanel {
         
         if (payroll != null) {
             managers.PayslipGenerator payslipGenerator = new managers.PayslipGenerator(mainApp.getEmployeeManager());
+            payslipGenerator.setArchive(mainApp.getPayrollManager().getPayslipArchive());
             PayslipDialog.showPayslipDialog(SwingUtilities.getWindowAncestor(this), 
                                           mainApp.getEmployeeManager(), payslipGenerator, payroll);
         } else {
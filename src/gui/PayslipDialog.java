@@ -4,6 +4,7 @@ import models.Employee;
 import models.Payroll;
 import managers.EmployeeManager;
 import managers.PayslipGenerator;
+import managers.PayslipPdfWriter;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
@@ -22,6 +23,7 @@ public class PayslipDialog extends JDialog {
     private JTextArea payslipTextArea;
     private JButton printButton;
     private JButton saveButton;
+    private JButton pdfButton;
     private JButton closeButton;
     private String payslipContent;
     
@@ -48,6 +50,7 @@ public class PayslipDialog extends JDialog {
         
         printButton = new JButton("Print Payslip");
         saveButton = new JButton("Save as Text");
+        pdfButton = new JButton("Save as PDF");
         closeButton = new JButton("Close");
         
         // Style buttons
@@ -61,6 +64,10 @@ public class PayslipDialog extends JDialog {
         saveButton.setBackground(new Color(32, 178, 170));
         saveButton.setForeground(Color.WHITE);
         
+        pdfButton.setFont(buttonFont);
+        pdfButton.setBackground(new Color(32, 178, 170));
+        pdfButton.setForeground(Color.WHITE);
+        
         closeButton.setFont(buttonFont);
         closeButton.setBackground(new Color(128, 128, 128));
         closeButton.setForeground(Color.WHITE);
@@ -85,6 +92,7 @@ public class PayslipDialog extends JDialog {
         JPanel buttonPanel = new JPanel(new FlowLayout());
         buttonPanel.add(printButton);
         buttonPanel.add(saveButton);
+        buttonPanel.add(pdfButton);
         buttonPanel.add(closeButton);
         add(buttonPanel, BorderLayout.SOUTH);
     }
@@ -104,6 +112,13 @@ public class PayslipDialog extends JDialog {
             }
         });
         
+        pdfButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                savePayslipAsPdf();
+            }
+        });
+        
         closeButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
@@ -211,6 +226,38 @@ public class PayslipDialog extends JDialog {
         }
     }
     
+    /**
+     * Save payslip as a PDF file
+     */
+    private void savePayslipAsPdf() {
+        if (payslipContent == null || payslipContent.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "No payslip to save.", 
+                                        "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Save Payslip as PDF");
+        fileChooser.setSelectedFile(new java.io.File("payslip.pdf"));
+        
+        int result = fileChooser.showSaveDialog(this);
+        if (result == JFileChooser.APPROVE_OPTION) {
+            java.io.File file = fileChooser.getSelectedFile();
+            try (PayslipPdfWriter pdf = new PayslipPdfWriter(java.nio.channels.FileChannel.open(file.toPath(),
+                     java.nio.file.StandardOpenOption.CREATE, java.nio.file.StandardOpenOption.TRUNCATE_EXISTING,
+                     java.nio.file.StandardOpenOption.WRITE))) {
+                pdf.setTitle(getTitle());
+                pdf.writePayslip(payslipContent);
+            } catch (Exception ex) {
+                JOptionPane.showMessageDialog(this, "Error saving payslip: " + ex.getMessage(), 
+                                            "Save Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            JOptionPane.showMessageDialog(this, "Payslip saved successfully to: " + file.getAbsolutePath(), 
+                                        "Save Success", JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
+    
     /**
      * Static method to show payslip dialog
      */
@@ -3,6 +3,7 @@ package gui;
 import models.Employee;
 import models.Payroll;
 import managers.EmployeeManager;
+import managers.HolidayCalendar;
 import managers.PayrollManager;
 import managers.SalaryComponentManager;
 import javax.swing.*;
@@ -10,7 +11,9 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 /**
  * Philippine Payroll Dialog with specific calculations for Philippine labor laws
@@ -174,7 +177,7 @@ public class PhilippinePayrollDialog extends JDialog {
         basePayField.setToolTipText("Monthly basic salary in ₱ - Auto-populated when employee is selected");
         overtimeHoursField.setToolTipText("Total overtime hours worked - Auto-calculates on entry");
         nightDiffHoursField.setToolTipText("Total night shift hours (for 10% differential) - Auto-calculates on entry");
-        holidayDaysField.setToolTipText("Number of holiday days - Auto-calculates on entry");
+        holidayDaysField.setToolTipText("Number of holiday days - Filled in from the holiday calendar when the pay period is entered");
         payDateField.setToolTipText("Format: YYYY-MM-DD - Defaults to today");
         
         // Add tooltips for summary fields
@@ -418,6 +421,14 @@ public class PhilippinePayrollDialog extends JDialog {
             }
         };
         
+        payPeriodField.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                fillHolidaysFromCalendar();
+                autoCalculateIfReady();
+            }
+        });
+        
         basePayField.addActionListener(autoCalculateListener);
         overtimeHoursField.addActionListener(autoCalculateListener);
         nightDiffHoursField.addActionListener(autoCalculateListener);
@@ -476,6 +487,37 @@ public class PhilippinePayrollDialog extends JDialog {
         }
     }
     
+    /**
+     * Fill in the holiday days and type of the pay period from the holiday calendar, for the
+     * employee's region if an employee is selected. A period with regular holidays counts those;
+     * otherwise its special non-working days.
+     */
+    private void fillHolidaysFromCalendar() {
+        YearMonth period;
+        try {
+            period = YearMonth.parse(payPeriodField.getText().trim());
+        } catch (DateTimeParseException ex) {
+            return;
+        }
+        
+        Employee employee = employeeManager.getEmployeeByFormattedId(employeeIdField.getText().trim());
+        String region = employee != null ? employee.getProvinceState() : null;
+        HolidayCalendar.YearCalendar calendar = HolidayCalendar.getDefault().forYear(period.getYear(), region);
+        int regularHolidays = calendar.countRegularHolidays(period.atDay(1), period.atEndOfMonth());
+        int specialHolidays = calendar.countSpecialHolidays(period.atDay(1), period.atEndOfMonth());
+        
+        isRegularHolidayBox.setSelected(regularHolidays > 0);
+        holidayDaysField.setText(String.valueOf(regularHolidays > 0 ? regularHolidays : specialHolidays));
+        
+        StringBuilder holidays = new StringBuilder("<html>Holidays in " + period + ":");
+        for (HolidayCalendar.Holiday holiday : calendar.getHolidays()) {
+            if (YearMonth.from(holiday.getDate()).equals(period)) {
+                holidays.append("<br>").append(holiday);
+            }
+        }
+        holidayDaysField.setToolTipText(holidays.append("</html>").toString());
+    }
+    
     private void updateEmployeeName() {
         try {
             String employeeIdText = employeeIdField.getText().trim();
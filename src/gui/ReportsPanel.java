@@ -1,5 +1,7 @@
 package gui;
 
+import managers.DataExportManager;
+import managers.YearEndReportGenerator;
 import models.Employee;
 import models.Payroll;
 import javax.swing.*;
@@ -21,6 +23,8 @@ public class ReportsPanel extends JPanel {
     private JButton payrollSummaryButton;
     private JButton departmentReportButton;
     private JButton monthlyReportButton;
+    private JButton exportButton;
+    private JButton yearEndButton;
     private JButton backButton;
     private JTextField monthField;
     
@@ -46,6 +50,10 @@ public class ReportsPanel extends JPanel {
         payrollSummaryButton = new JButton("Payroll Summary");
         departmentReportButton = new JButton("Department Report");
         monthlyReportButton = new JButton("Monthly Report");
+        exportButton = new JButton("Export Data");
+        exportButton.setToolTipText("Export employees, payroll or salary components to CSV or Excel");
+        yearEndButton = new JButton("Year-End (2316)");
+        yearEndButton.setToolTipText("Write the alphalist and each employee's BIR 2316 certificate for a year");
         backButton = new JButton("Back to Main Menu");
         
         // Month field for monthly report
@@ -72,6 +80,14 @@ public class ReportsPanel extends JPanel {
         monthlyReportButton.setBackground(buttonColor);
         monthlyReportButton.setForeground(Color.WHITE);
         
+        exportButton.setFont(buttonFont);
+        exportButton.setBackground(new Color(34, 139, 34));
+        exportButton.setForeground(Color.WHITE);
+        
+        yearEndButton.setFont(buttonFont);
+        yearEndButton.setBackground(new Color(34, 139, 34));
+        yearEndButton.setForeground(Color.WHITE);
+        
         backButton.setFont(buttonFont);
         backButton.setBackground(new Color(128, 128, 128));
         backButton.setForeground(Color.WHITE);
@@ -102,6 +118,9 @@ public class ReportsPanel extends JPanel {
         controlPanel.add(monthField);
         controlPanel.add(monthlyReportButton);
         controlPanel.add(Box.createHorizontalStrut(20));
+        controlPanel.add(exportButton);
+        controlPanel.add(yearEndButton);
+        controlPanel.add(Box.createHorizontalStrut(20));
         controlPanel.add(backButton);
         
         add(controlPanel, BorderLayout.SOUTH);
@@ -136,6 +155,20 @@ public class ReportsPanel extends JPanel {
             }
         });
         
+        exportButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                exportData();
+            }
+        });
+        
+        yearEndButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                generateYearEndReports();
+            }
+        });
+        
         backButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
@@ -144,6 +177,136 @@ public class ReportsPanel extends JPanel {
         });
     }
     
+    private void exportData() {
+        JComboBox<DataExportManager.Dataset> datasetBox = new JComboBox<>(DataExportManager.Dataset.values());
+        JComboBox<DataExportManager.Format> formatBox = new JComboBox<>(DataExportManager.Format.values());
+        JPanel optionsPanel = new JPanel(new GridLayout(2, 2, 5, 5));
+        optionsPanel.add(new JLabel("Data:"));
+        optionsPanel.add(datasetBox);
+        optionsPanel.add(new JLabel("Format:"));
+        optionsPanel.add(formatBox);
+        
+        int choice = JOptionPane.showConfirmDialog(this, optionsPanel, "Export Data", 
+                                                 JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (choice != JOptionPane.OK_OPTION) {
+            return;
+        }
+        
+        DataExportManager.Dataset dataset = (DataExportManager.Dataset) datasetBox.getSelectedItem();
+        DataExportManager.Format format = (DataExportManager.Format) formatBox.getSelectedItem();
+        
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Save Export As");
+        fileChooser.setSelectedFile(new java.io.File(dataset.name().toLowerCase() + "." + format.getExtension()));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        java.nio.file.Path file = fileChooser.getSelectedFile().toPath();
+        
+        exportButton.setEnabled(false);
+        exportButton.setText("Exporting...");
+        
+        // Stream the export on a background thread so the UI stays responsive
+        SwingWorker<Long, Long> worker = new SwingWorker<Long, Long>() {
+            @Override
+            protected Long doInBackground() throws Exception {
+                return new DataExportManager().export(dataset, format, file, (completed, total) -> publish(completed));
+            }
+            
+            @Override
+            protected void process(List<Long> chunks) {
+                exportButton.setText("Exporting... " + chunks.get(chunks.size() - 1));
+            }
+            
+            @Override
+            protected void done() {
+                exportButton.setEnabled(true);
+                exportButton.setText("Export Data");
+                try {
+                    long rows = get();
+                    JOptionPane.showMessageDialog(ReportsPanel.this, 
+                        "Exported " + rows + " rows to:\n" + file, "Export Complete", JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(ReportsPanel.this, "Export failed: " + cause.getMessage(), 
+                                                "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.execute();
+    }
+    
+    private void generateYearEndReports() {
+        java.time.LocalDate today = java.time.LocalDate.now();
+        int defaultYear = today.getMonthValue() <= 2 ? today.getYear() - 1 : today.getYear();
+        String input = JOptionPane.showInputDialog(this, "Tax year:", String.valueOf(defaultYear));
+        if (input == null) {
+            return;
+        }
+        int year;
+        try {
+            year = Integer.parseInt(input.trim());
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Please enter a year, e.g. " + defaultYear, 
+                                        "Validation Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Folder for the " + year + " alphalist and 2316 certificates");
+        fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        java.nio.file.Path directory = fileChooser.getSelectedFile().toPath();
+        
+        yearEndButton.setEnabled(false);
+        yearEndButton.setText("Generating...");
+        YearEndReportGenerator generator = new YearEndReportGenerator(mainApp.getPayrollManager());
+        
+        // A generation interrupted by an error or by closing the application resumes where it stopped
+        SwingWorker<YearEndReportGenerator.Result, Long> worker = new SwingWorker<YearEndReportGenerator.Result, Long>() {
+            @Override
+            protected YearEndReportGenerator.Result doInBackground() throws Exception {
+                return generator.generate(year, directory, (completed, total) -> publish(completed, total), null);
+            }
+            
+            @Override
+            protected void process(List<Long> chunks) {
+                yearEndButton.setText("Generating... " + chunks.get(chunks.size() - 2) + " / " + chunks.get(chunks.size() - 1));
+            }
+            
+            @Override
+            protected void done() {
+                yearEndButton.setEnabled(true);
+                yearEndButton.setText("Year-End (2316)");
+                try {
+                    YearEndReportGenerator.Result result = get();
+                    StringBuilder message = new StringBuilder();
+                    message.append("Year-end reports for ").append(year).append(result.isResumed() ? " (resumed)" : "").append(":\n\n");
+                    message.append("Alphalist: ").append(result.getAlphalist()).append("\n");
+                    message.append("2316 certificates: ").append(result.getCertificates()).append("\n\n");
+                    message.append(String.format("Employees: %d\n", result.getEmployees()));
+                    message.append(String.format("Gross compensation: ₱%,.2f\n", result.getGrossCompensation().toBigDecimal()));
+                    message.append(String.format("Taxable compensation: ₱%,.2f\n", result.getTaxableCompensation().toBigDecimal()));
+                    message.append(String.format("Tax due: ₱%,.2f\n", result.getTaxDue().toBigDecimal()));
+                    message.append(String.format("Tax withheld: ₱%,.2f\n", result.getTaxWithheld().toBigDecimal()));
+                    for (Map.Entry<String, Long> skipped : result.getSkipped().entrySet()) {
+                        message.append("\nNot certified - ").append(skipped.getKey()).append(": ").append(skipped.getValue());
+                    }
+                    JOptionPane.showMessageDialog(ReportsPanel.this, message.toString(), "Year-End Reports", 
+                                                JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(ReportsPanel.this, "Year-end generation stopped: " + cause.getMessage() + 
+                                                "\nGenerate the same year into the same folder again to resume.", 
+                                                "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.execute();
+    }
+    
     private void generateEmployeeSummaryReport() {
         StringBuilder report = new StringBuilder();
         report.append("EMPLOYEE SUMMARY REPORT\n");
@@ -286,13 +449,13 @@ public class ReportsPanel extends JPanel {
         report.append("MONTHLY PAYROLL REPORT (").append(month).append(")\n");
         report.append("=" .repeat(50)).append("\n\n");
         
-        List<Payroll> payrolls = mainApp.getPayrollManager().getAllPayrolls();
-        java.util.List<Payroll> monthlyPayrolls = new java.util.ArrayList<>();
-        
-        for (Payroll payroll : payrolls) {
-            if (payroll.getPayPeriod().equals(month)) {
-                monthlyPayrolls.add(payroll);
-            }
+        List<Payroll> monthlyPayrolls;
+        try {
+            monthlyPayrolls = mainApp.getPayrollManager().getPayrollsByMonth(java.time.YearMonth.parse(month));
+        } catch (java.time.format.DateTimeParseException e) {
+            JOptionPane.showMessageDialog(this, "Invalid month format. Use YYYY-MM.", 
+                                        "Validation Error", JOptionPane.ERROR_MESSAGE);
+            return;
         }
         
         if (monthlyPayrolls.isEmpty()) {
@@ -2,6 +2,7 @@ package gui;
 
 import models.SalaryComponent;
 import managers.SalaryComponentManager;
+import managers.SalaryFormula;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -21,6 +22,7 @@ public class SalaryComponentDialog extends JDialog {
     private JComboBox<String> typeComboBox;
     private JTextField amountField;
     private JTextField descriptionField;
+    private JTextField formulaField;
     private JCheckBox isPercentageCheckBox;
     private JCheckBox isActiveCheckBox;
     
@@ -49,6 +51,7 @@ public class SalaryComponentDialog extends JDialog {
         typeComboBox = new JComboBox<>(new String[]{"ALLOWANCE", "DEDUCTION", "BONUS"});
         amountField = new JTextField(20);
         descriptionField = new JTextField(20);
+        formulaField = new JTextField(20);
         isPercentageCheckBox = new JCheckBox("Is Percentage");
         isActiveCheckBox = new JCheckBox("Active");
         
@@ -71,6 +74,9 @@ public class SalaryComponentDialog extends JDialog {
         amountField.setToolTipText("Enter amount (fixed amount or percentage)");
         isPercentageCheckBox.setToolTipText("Check if amount is percentage of base salary");
         descriptionField.setToolTipText("Enter description of the component");
+        formulaField.setToolTipText("Optional, e.g. min(base * 10%, 5000) or dailyRate * daysPresent. "
+                                  + "Variables: base, amount, dailyRate, hourlyRate, workingDays, daysPresent, "
+                                  + "daysAbsent, tenureYears, tenureMonths");
     }
     
     private void setupLayout() {
@@ -107,6 +113,11 @@ public class SalaryComponentDialog extends JDialog {
         formPanel.add(descriptionField, gbc);
         
         gbc.gridx = 0; gbc.gridy = 5;
+        formPanel.add(new JLabel("Formula:"), gbc);
+        gbc.gridx = 1;
+        formPanel.add(formulaField, gbc);
+        
+        gbc.gridx = 0; gbc.gridy = 6;
         formPanel.add(new JLabel(""), gbc);
         gbc.gridx = 1;
         formPanel.add(isActiveCheckBox, gbc);
@@ -154,6 +165,7 @@ public class SalaryComponentDialog extends JDialog {
             typeComboBox.setSelectedItem(salaryComponent.getType());
             amountField.setText(String.valueOf(salaryComponent.getAmount()));
             descriptionField.setText(salaryComponent.getDescription());
+            formulaField.setText(salaryComponent.getFormula() != null ? salaryComponent.getFormula() : "");
             isPercentageCheckBox.setSelected(salaryComponent.isPercentage());
             isActiveCheckBox.setSelected(salaryComponent.isActive());
         }
@@ -165,6 +177,7 @@ public class SalaryComponentDialog extends JDialog {
             String type = (String) typeComboBox.getSelectedItem();
             double amount = Double.parseDouble(amountField.getText().trim());
             String description = descriptionField.getText().trim();
+            String formula = formulaField.getText().trim();
             boolean isPercentage = isPercentageCheckBox.isSelected();
             boolean isActive = isActiveCheckBox.isSelected();
             
@@ -187,18 +200,35 @@ public class SalaryComponentDialog extends JDialog {
                 return;
             }
             
+            if (!formula.isEmpty()) {
+                try {
+                    SalaryFormula.compile(formula);
+                } catch (IllegalArgumentException ex) {
+                    JOptionPane.showMessageDialog(this, ex.getMessage(), 
+                                                "Invalid Formula", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+            }
+            
             if (salaryComponent == null) {
                 // Create new component
-                salaryComponent = salaryComponentManager.createSalaryComponent(name, type, amount, description, isPercentage);
-                if (!isActive) {
-                    salaryComponent.setActive(false);
+                SalaryComponent component = new SalaryComponent(name, type, BigDecimal.valueOf(amount), description);
+                component.setPercentage(isPercentage);
+                component.setFormula(formula.isEmpty() ? null : formula);
+                component.setActive(isActive);
+                if (!salaryComponentManager.addSalaryComponent(component)) {
+                    JOptionPane.showMessageDialog(this, "Failed to save salary component.", 
+                                                "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
                 }
+                salaryComponent = component;
             } else {
                 // Update existing component
                 salaryComponent.setName(name);
                 salaryComponent.setType(type);
                 salaryComponent.setAmount(BigDecimal.valueOf(amount));
                 salaryComponent.setDescription(description);
+                salaryComponent.setFormula(formula.isEmpty() ? null : formula);
                 salaryComponent.setPercentage(isPercentage);
                 salaryComponent.setActive(isActive);
                 salaryComponentManager.updateSalaryComponent(salaryComponent);
@@ -0,0 +1,735 @@
+package managers;
+
+import models.AttendanceSummary;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Time-and-attendance ingestion: turns a biometric or DTR punch log into one AttendanceSummary per
+ * employee for a pay period.
+ *
+ * The log is memory-mapped and cut into chunks at line boundaries, and the chunks are parsed in
+ * parallel straight from the mapped bytes into packed longs (employee, minute, in/out), so a file of
+ * millions of lines creates no String or LocalDateTime per line. The packed punches of the period
+ * (plus a day either side, for shifts crossing midnight at the edges) are sorted together, which
+ * groups them by employee in time order, and employees are then summarized in parallel.
+ *
+ * Each line holds an employee ID ({@code EMP001} or {@code 1}), a timestamp
+ * ({@code yyyy-MM-dd HH:mm[:ss]}, with '-', '/' or '.' between date parts and ' ' or 'T' before the
+ * time) and a direction: IN/OUT, I/O, or the device codes 0 (check-in), 1 (check-out), 2 (break-out),
+ * 3 (break-in), 4 (overtime-in) and 5 (overtime-out). See {@link Layout} for where the fields are.
+ *
+ * Pairing: an in punch is closed by the next out punch of the employee within 24 hours. A repeated
+ * punch within 5 minutes of the one before it in the same direction is a double tap and ignored; any
+ * other punch that cannot be paired is counted as unpaired. A shift belongs to the day it starts
+ * on. The first 8 hours worked on a day are regular and the rest overtime; minutes between 22:00 and
+ * 06:00 count towards night differential, and minutes falling on a holiday of the HolidayCalendar
+ * towards that holiday's type.
+ */
+public class AttendanceIngestor {
+    public static final int STANDARD_DAY_MINUTES = PhilippinePayrollCalculator.STANDARD_WORKING_HOURS_PER_DAY * 60;
+    public static final int NIGHT_START_MINUTE = 22 * 60;
+    public static final int NIGHT_END_MINUTE = 6 * 60;
+    public static final int MAX_SHIFT_MINUTES = 24 * 60;
+    public static final int DOUBLE_TAP_MINUTES = 5;
+    
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int MIN_CHUNK_BYTES = 1 << 20;
+    private static final int MAX_CHUNK_BYTES = 256 << 20;
+    private static final int MAX_LINE_BYTES = 64 * 1024;
+    private static final int MAX_REPORTED_ERRORS = 20;
+    
+    // Minutes are counted from 2000-01-01T00:00
+    private static final long EPOCH_DAY_OFFSET = LocalDate.of(2000, 1, 1).toEpochDay();
+    // Packed punch: employee ID (24 bits) | minute (38 bits) | out flag (1 bit)
+    private static final int MAX_EMPLOYEE_ID = (1 << 24) - 1;
+    private static final int EMPLOYEE_SHIFT = 39;
+    
+    private static final byte ORDINARY_DAY = 0;
+    private static final byte SPECIAL_HOLIDAY = 1;
+    private static final byte REGULAR_HOLIDAY = 2;
+    
+    private final Layout layout;
+    private final HolidayCalendar holidays;
+    private final int parallelism;
+    
+    public AttendanceIngestor() {
+        this(Layout.csv(','), HolidayCalendar.getDefault(), Runtime.getRuntime().availableProcessors());
+    }
+    
+    public AttendanceIngestor(Layout layout, HolidayCalendar holidays, int parallelism) {
+        this.layout = layout;
+        this.holidays = holidays;
+        this.parallelism = Math.max(1, parallelism);
+    }
+    
+    /**
+     * Summarize a punch log for one pay period with nationwide holidays
+     */
+    public IngestResult ingest(Path file, YearMonth period) throws IOException {
+        return ingest(file, period, Collections.emptyMap());
+    }
+    
+    /**
+     * Summarize a punch log for one calendar month
+     * @param regions Province or state of employees with regional holidays, by employee ID
+     * @return Summaries of every employee with a punch in the period, and parsing statistics
+     * @throws IOException if the file cannot be read
+     */
+    public IngestResult ingest(Path file, YearMonth period, Map<Integer, String> regions) throws IOException {
+        return ingest(Collections.singletonList(file), period.atDay(1), period.atEndOfMonth(), regions);
+    }
+    
+    /**
+     * Summarize the shifts starting between two days, e.g. a weekly pay period, from the punch logs
+     * covering them (a period running into another month needs both months' logs)
+     * @param from First day of the period
+     * @param to Last day of the period
+     * @throws IOException if a file cannot be read
+     */
+    public IngestResult ingest(List<Path> files, LocalDate from, LocalDate to, Map<Integer, String> regions) throws IOException {
+        long startTime = System.currentTimeMillis();
+        IngestResult result = new IngestResult(from, to);
+        int periodStart = minuteOf(from, 0);
+        int periodEnd = minuteOf(to.plusDays(1), 0);
+        
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        List<FileChannel> channels = new ArrayList<>();
+        try {
+            List<Future<ChunkResult>> parsing = new ArrayList<>();
+            for (Path file : files) {
+                FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                channels.add(channel);
+                long size = channel.size();
+                long chunkSize = Math.max(MIN_CHUNK_BYTES, Math.min(MAX_CHUNK_BYTES, size / (parallelism * 4L) + 1));
+                for (long start = 0; start < size; start += chunkSize) {
+                    long chunkStart = start;
+                    long chunkEnd = Math.min(size, start + chunkSize);
+                    parsing.add(pool.submit(() -> parseChunk(channel, size, chunkStart, chunkEnd,
+                                                             periodStart - MAX_SHIFT_MINUTES, periodEnd + MAX_SHIFT_MINUTES)));
+                }
+            }
+            
+            List<ChunkResult> chunks = new ArrayList<>();
+            int punchCount = 0;
+            for (Future<ChunkResult> future : parsing) {
+                ChunkResult chunk = future.get();
+                chunks.add(chunk);
+                punchCount += chunk.punches.size;
+                result.linesRead += chunk.linesRead;
+                result.rejected += chunk.rejected;
+                for (String error : chunk.errors) {
+                    result.addError(error);
+                }
+            }
+            
+            long[] punches = new long[punchCount];
+            int offset = 0;
+            for (ChunkResult chunk : chunks) {
+                System.arraycopy(chunk.punches.values, 0, punches, offset, chunk.punches.size);
+                offset += chunk.punches.size;
+            }
+            chunks.clear();
+            Arrays.parallelSort(punches);
+            result.punches = punchCount;
+            
+            summarize(pool, punches, result.getPeriod(), periodStart, periodEnd, regions, result);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Attendance ingestion interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Attendance ingestion failed: " + cause.getMessage(), cause);
+        } finally {
+            pool.shutdownNow();
+            for (FileChannel channel : channels) {
+                channel.close();
+            }
+        }
+        result.elapsedMillis = System.currentTimeMillis() - startTime;
+        return result;
+    }
+    
+    /**
+     * Parse the lines starting in [start, end) of the file, keeping punches in [fromMinute, toMinute)
+     */
+    private ChunkResult parseChunk(FileChannel channel, long size, long start, long end,
+                                   int fromMinute, int toMinute) throws IOException {
+        // Map one byte before the chunk to see whether it starts a line, and enough after it to finish the last line
+        long mapStart = Math.max(0, start - 1);
+        long mapEnd = Math.min(size, end + MAX_LINE_BYTES);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+        ChunkResult chunk = new ChunkResult();
+        
+        int limit = (int) (end - mapStart);
+        int position = (int) (start - mapStart);
+        if (start > 0 && buffer.get(position - 1) != '\n') {
+            while (position < buffer.limit() && buffer.get(position) != '\n') {
+                position++;
+            }
+            position++;
+        }
+        
+        while (position < limit) {
+            int lineEnd = position;
+            while (lineEnd < buffer.limit() && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            if (lineEnd == buffer.limit() && mapEnd < size) {
+                chunk.reject(mapStart + position, "line longer than " + MAX_LINE_BYTES + " bytes");
+                break;
+            }
+            int contentEnd = lineEnd;
+            if (contentEnd > position && buffer.get(contentEnd - 1) == '\r') {
+                contentEnd--;
+            }
+            if (contentEnd > position) {
+                chunk.linesRead++;
+                long punch = layout.parse(buffer, position, contentEnd);
+                if (punch < 0) {
+                    // A header line is expected at the top of the file, not counted as rejected
+                    if (mapStart + position != 0) {
+                        chunk.reject(mapStart + position, PARSE_ERRORS[(int) -punch]);
+                    }
+                } else {
+                    int minute = minuteOfPunch(punch);
+                    if (minute >= fromMinute && minute < toMinute) {
+                        chunk.punches.add(punch);
+                    }
+                }
+            }
+            position = lineEnd + 1;
+        }
+        return chunk;
+    }
+    
+    private void summarize(ForkJoinPool pool, long[] punches, YearMonth period, int periodStart, int periodEnd,
+                           Map<Integer, String> regions, IngestResult result) throws InterruptedException, ExecutionException {
+        // Day types of the days a shift of the period can touch, resolved once per region
+        int firstDay = periodStart / MINUTES_PER_DAY;
+        int days = (periodEnd + MAX_SHIFT_MINUTES) / MINUTES_PER_DAY - firstDay + 1;
+        Map<String, byte[]> dayTypesByRegion = new HashMap<>();
+        dayTypesByRegion.put(null, dayTypes(null, firstDay, days));
+        for (String region : regions.values()) {
+            if (region != null && !dayTypesByRegion.containsKey(region)) {
+                dayTypesByRegion.put(region, dayTypes(region, firstDay, days));
+            }
+        }
+        
+        // Split the sorted punches into ranges that never cut through an employee
+        int ranges = Math.max(1, Math.min(parallelism * 4, punches.length / 1024));
+        List<Future<List<AttendanceSummary>>> summarizing = new ArrayList<>();
+        int from = 0;
+        for (int i = 1; i <= ranges && from < punches.length; i++) {
+            int to = i == ranges ? punches.length : Math.max(from, (int) ((long) punches.length * i / ranges));
+            while (to < punches.length && to > 0 && employeeOf(punches[to]) == employeeOf(punches[to - 1])) {
+                to++;
+            }
+            if (to <= from) {
+                continue;
+            }
+            int rangeFrom = from;
+            int rangeTo = to;
+            summarizing.add(pool.submit((Callable<List<AttendanceSummary>>) () -> {
+                List<AttendanceSummary> summaries = new ArrayList<>();
+                int employeeFrom = rangeFrom;
+                while (employeeFrom < rangeTo) {
+                    int employeeId = employeeOf(punches[employeeFrom]);
+                    int employeeTo = employeeFrom + 1;
+                    while (employeeTo < rangeTo && employeeOf(punches[employeeTo]) == employeeId) {
+                        employeeTo++;
+                    }
+                    byte[] dayTypes = dayTypesByRegion.getOrDefault(regions.get(employeeId), dayTypesByRegion.get(null));
+                    AttendanceSummary summary = summarizeEmployee(punches, employeeFrom, employeeTo, employeeId, period,
+                                                                  periodStart, periodEnd, dayTypes, firstDay);
+                    if (summary != null) {
+                        summaries.add(summary);
+                    }
+                    employeeFrom = employeeTo;
+                }
+                return summaries;
+            }));
+            from = to;
+        }
+        
+        for (Future<List<AttendanceSummary>> future : summarizing) {
+            for (AttendanceSummary summary : future.get()) {
+                result.summaries.put(summary.getEmployeeId(), summary);
+                result.unpairedPunches += summary.getUnpairedPunches();
+            }
+        }
+    }
+    
+    private byte[] dayTypes(String region, int firstDay, int days) {
+        byte[] types = new byte[days];
+        HolidayCalendar.YearCalendar calendar = null;
+        for (int i = 0; i < days; i++) {
+            LocalDate date = dateOf(firstDay + i);
+            if (calendar == null || calendar.getYear() != date.getYear()) {
+                calendar = holidays.forYear(date.getYear(), region);
+            }
+            HolidayCalendar.DayType type = calendar.dayType(date);
+            types[i] = type == HolidayCalendar.DayType.REGULAR_HOLIDAY ? REGULAR_HOLIDAY
+                     : type == HolidayCalendar.DayType.SPECIAL_HOLIDAY ? SPECIAL_HOLIDAY : ORDINARY_DAY;
+        }
+        return types;
+    }
+    
+    /**
+     * Pair one employee's punches (sorted by time) and total the shifts that start in the period
+     * @return The summary, or null if the employee has no shift or unpaired punch in the period
+     */
+    static AttendanceSummary summarizeEmployee(long[] punches, int from, int to, int employeeId, YearMonth period,
+                                               int periodStart, int periodEnd, byte[] dayTypes, int firstDay) {
+        int open = -1;
+        int lastOut = Integer.MIN_VALUE / 2;
+        int unpaired = 0;
+        int workDay = -1;
+        int workDayMinutes = 0;
+        int daysPresent = 0;
+        int regular = 0;
+        int overtime = 0;
+        int night = 0;
+        int regularHoliday = 0;
+        int specialHoliday = 0;
+        int regularHolidaysWorked = 0;
+        int specialHolidaysWorked = 0;
+        int lastHolidayDay = -1;
+        
+        for (int i = from; i < to; i++) {
+            int minute = minuteOfPunch(punches[i]);
+            boolean inPeriod = minute >= periodStart && minute < periodEnd;
+            if ((punches[i] & 1) == 0) {
+                if (open >= 0) {
+                    if (minute - open <= DOUBLE_TAP_MINUTES) {
+                        continue;
+                    }
+                    if (open >= periodStart && open < periodEnd) {
+                        unpaired++;
+                    }
+                }
+                open = minute;
+                continue;
+            }
+            
+            if (open < 0) {
+                if (minute - lastOut > DOUBLE_TAP_MINUTES && inPeriod) {
+                    unpaired++;
+                }
+                continue;
+            }
+            int shiftStart = open;
+            open = -1;
+            if (minute - shiftStart > MAX_SHIFT_MINUTES) {
+                if (shiftStart >= periodStart && shiftStart < periodEnd) {
+                    unpaired++;
+                }
+                if (inPeriod) {
+                    unpaired++;
+                }
+                continue;
+            }
+            lastOut = minute;
+            if (shiftStart < periodStart || shiftStart >= periodEnd) {
+                continue;
+            }
+            
+            // Regular and overtime: the first 8 hours of the day the shift starts on are regular
+            int length = minute - shiftStart;
+            int day = shiftStart / MINUTES_PER_DAY;
+            if (day != workDay) {
+                workDay = day;
+                workDayMinutes = 0;
+                daysPresent++;
+            }
+            int regularPart = Math.min(length, Math.max(0, STANDARD_DAY_MINUTES - workDayMinutes));
+            regular += regularPart;
+            overtime += length - regularPart;
+            workDayMinutes += length;
+            
+            // Night differential and holidays, one calendar day of the shift at a time
+            for (int d = day; d * MINUTES_PER_DAY < minute; d++) {
+                int dayStart = d * MINUTES_PER_DAY;
+                int segmentStart = Math.max(shiftStart, dayStart);
+                int segmentEnd = Math.min(minute, dayStart + MINUTES_PER_DAY);
+                night += overlap(segmentStart, segmentEnd, dayStart, dayStart + NIGHT_END_MINUTE)
+                       + overlap(segmentStart, segmentEnd, dayStart + NIGHT_START_MINUTE, dayStart + MINUTES_PER_DAY);
+                
+                byte dayType = dayTypes[d - firstDay];
+                if (dayType != ORDINARY_DAY && segmentEnd > segmentStart) {
+                    boolean regularDay = dayType == REGULAR_HOLIDAY;
+                    if (regularDay) {
+                        regularHoliday += segmentEnd - segmentStart;
+                    } else {
+                        specialHoliday += segmentEnd - segmentStart;
+                    }
+                    if (d != lastHolidayDay) {
+                        lastHolidayDay = d;
+                        if (regularDay) {
+                            regularHolidaysWorked++;
+                        } else {
+                            specialHolidaysWorked++;
+                        }
+                    }
+                }
+            }
+        }
+        if (open >= periodStart && open < periodEnd) {
+            unpaired++;
+        }
+        
+        if (daysPresent == 0 && unpaired == 0) {
+            return null;
+        }
+        return new AttendanceSummary(employeeId, period, daysPresent, regular, overtime, night, regularHoliday,
+                                     specialHoliday, regularHolidaysWorked, specialHolidaysWorked, unpaired);
+    }
+    
+    private static int overlap(int start, int end, int windowStart, int windowEnd) {
+        return Math.max(0, Math.min(end, windowEnd) - Math.max(start, windowStart));
+    }
+    
+    static long pack(int employeeId, int minute, boolean out) {
+        return ((long) employeeId << EMPLOYEE_SHIFT) | ((long) minute << 1) | (out ? 1 : 0);
+    }
+    
+    static int employeeOf(long punch) {
+        return (int) (punch >>> EMPLOYEE_SHIFT);
+    }
+    
+    static int minuteOfPunch(long punch) {
+        return (int) ((punch >>> 1) & ((1L << (EMPLOYEE_SHIFT - 1)) - 1));
+    }
+    
+    static int minuteOf(LocalDate date, int minuteOfDay) {
+        return (int) (date.toEpochDay() - EPOCH_DAY_OFFSET) * MINUTES_PER_DAY + minuteOfDay;
+    }
+    
+    private static LocalDate dateOf(int day) {
+        return LocalDate.ofEpochDay(EPOCH_DAY_OFFSET + day);
+    }
+    
+    // Reasons a line is rejected, indexed by the negated result of Layout.parse
+    private static final String[] PARSE_ERRORS = {
+        "", "missing field", "invalid employee ID", "invalid timestamp", "invalid direction"
+    };
+    private static final long MISSING_FIELD = -1;
+    private static final long INVALID_EMPLOYEE = -2;
+    private static final long INVALID_TIMESTAMP = -3;
+    private static final long INVALID_DIRECTION = -4;
+    
+    /**
+     * Where the employee ID, timestamp and direction are on a line: delimited columns, or fixed
+     * byte positions. Text is read as ASCII; fields may be padded with spaces or quoted.
+     */
+    public static final class Layout {
+        private final char delimiter;
+        private final int[] columns;
+        private final int[] starts;
+        private final int[] lengths;
+        
+        private Layout(char delimiter, int[] columns, int[] starts, int[] lengths) {
+            this.delimiter = delimiter;
+            this.columns = columns;
+            this.starts = starts;
+            this.lengths = lengths;
+        }
+        
+        /**
+         * Delimited lines of employee ID, timestamp and direction, in that order
+         */
+        public static Layout csv(char delimiter) {
+            return csv(delimiter, 0, 1, 2);
+        }
+        
+        /**
+         * Delimited lines with the fields in the given zero-based columns
+         */
+        public static Layout csv(char delimiter, int employeeColumn, int timestampColumn, int directionColumn) {
+            return new Layout(delimiter, new int[] {employeeColumn, timestampColumn, directionColumn}, null, null);
+        }
+        
+        /**
+         * Fixed-width lines with each field at a zero-based byte offset and length
+         */
+        public static Layout fixedWidth(int employeeStart, int employeeLength, int timestampStart, int timestampLength,
+                                        int directionStart, int directionLength) {
+            return new Layout('\0', null, new int[] {employeeStart, timestampStart, directionStart},
+                              new int[] {employeeLength, timestampLength, directionLength});
+        }
+        
+        /**
+         * Parse one line (without its line terminator) into a packed punch
+         * @return The packed punch, or a negative error code
+         */
+        long parse(MappedByteBuffer buffer, int start, int end) {
+            int employeeStart = -1;
+            int employeeEnd = -1;
+            int timestampStart = -1;
+            int timestampEnd = -1;
+            int directionStart = -1;
+            int directionEnd = -1;
+            if (columns != null) {
+                int column = 0;
+                int fieldStart = start;
+                for (int position = start; position <= end; position++) {
+                    if (position == end || buffer.get(position) == delimiter) {
+                        if (column == columns[0]) {
+                            employeeStart = fieldStart;
+                            employeeEnd = position;
+                        } else if (column == columns[1]) {
+                            timestampStart = fieldStart;
+                            timestampEnd = position;
+                        } else if (column == columns[2]) {
+                            directionStart = fieldStart;
+                            directionEnd = position;
+                        }
+                        column++;
+                        fieldStart = position + 1;
+                    }
+                }
+                if (employeeStart < 0 || timestampStart < 0 || directionStart < 0) {
+                    return MISSING_FIELD;
+                }
+            } else {
+                if (start + starts[0] + lengths[0] > end || start + starts[1] + lengths[1] > end
+                        || start + starts[2] + lengths[2] > end) {
+                    return MISSING_FIELD;
+                }
+                employeeStart = start + starts[0];
+                employeeEnd = employeeStart + lengths[0];
+                timestampStart = start + starts[1];
+                timestampEnd = timestampStart + lengths[1];
+                directionStart = start + starts[2];
+                directionEnd = directionStart + lengths[2];
+            }
+            
+            int employeeId = parseEmployeeId(buffer, employeeStart, employeeEnd);
+            if (employeeId <= 0) {
+                return INVALID_EMPLOYEE;
+            }
+            int minute = parseTimestamp(buffer, timestampStart, timestampEnd);
+            if (minute < 0) {
+                return INVALID_TIMESTAMP;
+            }
+            int direction = parseDirection(buffer, directionStart, directionEnd);
+            if (direction < 0) {
+                return INVALID_DIRECTION;
+            }
+            return pack(employeeId, minute, direction == 1);
+        }
+        
+        private static int parseEmployeeId(MappedByteBuffer buffer, int start, int end) {
+            long id = 0;
+            int digits = 0;
+            for (int position = start; position < end; position++) {
+                byte b = buffer.get(position);
+                if (b >= '0' && b <= '9') {
+                    id = id * 10 + (b - '0');
+                    digits++;
+                    if (id > MAX_EMPLOYEE_ID) {
+                        return -1;
+                    }
+                } else if (digits > 0 && b != ' ' && b != '"') {
+                    return -1;
+                }
+            }
+            return digits > 0 ? (int) id : -1;
+        }
+        
+        /**
+         * Minutes since 2000-01-01T00:00 of a yyyy-MM-dd HH:mm[:ss] timestamp, or -1
+         */
+        private static int parseTimestamp(MappedByteBuffer buffer, int start, int end) {
+            while (start < end && (buffer.get(start) == ' ' || buffer.get(start) == '"')) {
+                start++;
+            }
+            if (end - start < 16) {
+                return -1;
+            }
+            int year = digits(buffer, start, 4);
+            int month = digits(buffer, start + 5, 2);
+            int day = digits(buffer, start + 8, 2);
+            int hour = digits(buffer, start + 11, 2);
+            int minute = digits(buffer, start + 14, 2);
+            byte dateSeparator = buffer.get(start + 4);
+            byte timeSeparator = buffer.get(start + 10);
+            if (year < 2000 || month < 1 || month > 12 || day < 1 || hour < 0 || hour > 23 || minute < 0 || minute > 59
+                    || buffer.get(start + 7) != dateSeparator || (dateSeparator != '-' && dateSeparator != '/' && dateSeparator != '.')
+                    || (timeSeparator != ' ' && timeSeparator != 'T') || buffer.get(start + 13) != ':') {
+                return -1;
+            }
+            if (day > daysInMonth(year, month)) {
+                return -1;
+            }
+            long epochDay = daysFromCivil(year, month, day) - EPOCH_DAY_OFFSET;
+            if (epochDay * MINUTES_PER_DAY > Integer.MAX_VALUE - MINUTES_PER_DAY) {
+                return -1;
+            }
+            return (int) epochDay * MINUTES_PER_DAY + hour * 60 + minute;
+        }
+        
+        /**
+         * 0 for an in punch, 1 for an out punch, or -1
+         */
+        private static int parseDirection(MappedByteBuffer buffer, int start, int end) {
+            while (start < end && (buffer.get(start) == ' ' || buffer.get(start) == '"')) {
+                start++;
+            }
+            if (start == end) {
+                return -1;
+            }
+            switch (buffer.get(start)) {
+                case 'I': case 'i': case '0': case '3': case '4':
+                    return 0;
+                case 'O': case 'o': case '1': case '2': case '5':
+                    return 1;
+                default:
+                    return -1;
+            }
+        }
+        
+        private static int digits(MappedByteBuffer buffer, int start, int count) {
+            int value = 0;
+            for (int i = 0; i < count; i++) {
+                byte b = buffer.get(start + i);
+                if (b < '0' || b > '9') {
+                    return -1;
+                }
+                value = value * 10 + (b - '0');
+            }
+            return value;
+        }
+        
+        private static int daysInMonth(int year, int month) {
+            if (month == 2) {
+                return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            }
+            return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+        }
+        
+        /**
+         * Days since 1970-01-01 of a proleptic Gregorian date, without creating a LocalDate
+         */
+        private static long daysFromCivil(int year, int month, int day) {
+            int y = month <= 2 ? year - 1 : year;
+            int era = y / 400;
+            int yearOfEra = y - era * 400;
+            int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+            int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+            return era * 146097L + dayOfEra - 719468;
+        }
+    }
+    
+    /**
+     * Growable array of packed punches
+     */
+    private static final class PunchBuffer {
+        long[] values = new long[1024];
+        int size;
+        
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size + (size >> 1));
+            }
+            values[size++] = value;
+        }
+    }
+    
+    private static final class ChunkResult {
+        final PunchBuffer punches = new PunchBuffer();
+        final List<String> errors = new ArrayList<>();
+        long linesRead;
+        long rejected;
+        
+        void reject(long byteOffset, String reason) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("byte " + byteOffset + ": " + reason);
+            }
+        }
+    }
+    
+    /**
+     * Outcome of ingesting the punch logs of one period
+     */
+    public static class IngestResult {
+        private final LocalDate from;
+        private final LocalDate to;
+        private final YearMonth period;
+        private final Map<Integer, AttendanceSummary> summaries = new HashMap<>();
+        private final List<String> errors = new ArrayList<>();
+        private long linesRead;
+        private long rejected;
+        private long punches;
+        private long unpairedPunches;
+        private long elapsedMillis;
+        
+        IngestResult(LocalDate from, LocalDate to) {
+            this.from = from;
+            this.to = to;
+            this.period = YearMonth.from(to);
+        }
+        
+        void addError(String error) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+        
+        public LocalDate getFrom() { return from; }
+        public LocalDate getTo() { return to; }
+        
+        /**
+         * Month the period's payroll belongs to, the one its last day falls in
+         */
+        public YearMonth getPeriod() { return period; }
+        
+        /**
+         * Summary of one employee, or null if they have no punches in the period
+         */
+        public AttendanceSummary get(int employeeId) { return summaries.get(employeeId); }
+        
+        public Map<Integer, AttendanceSummary> getSummaries() { return Collections.unmodifiableMap(summaries); }
+        public long getLinesRead() { return linesRead; }
+        public long getRejected() { return rejected; }
+        
+        /**
+         * Punches within a day of the period, the ones that were paired or counted as unpaired
+         */
+        public long getPunches() { return punches; }
+        
+        public long getUnpairedPunches() { return unpairedPunches; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        
+        /**
+         * The first rejected lines, with their byte offset in the file
+         */
+        public List<String> getErrors() { return Collections.unmodifiableList(errors); }
+        
+        @Override
+        public String toString() {
+            return String.format("%d lines read, %d rejected, %d employees, %d unpaired punches in %d ms",
+                                 linesRead, rejected, summaries.size(), unpairedPunches, elapsedMillis);
+        }
+    }
+}
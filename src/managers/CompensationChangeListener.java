@@ -0,0 +1,35 @@
+package managers;
+
+import models.EmployeeSalaryComponent;
+
+/**
+ * Callback for saved changes to anything a payroll is calculated from: salary component
+ * definitions, employees' component assignments, base salaries and hire dates
+ */
+public interface CompensationChangeListener {
+    /**
+     * A salary component definition was updated or deleted
+     */
+    void salaryComponentChanged(int salaryComponentId);
+    
+    /**
+     * A salary component was assigned to an employee, or an assignment was updated
+     */
+    void employeeComponentChanged(EmployeeSalaryComponent assignment);
+    
+    /**
+     * An employee's salary component assignment was deleted
+     * @param assignmentId ID of the deleted assignment
+     */
+    void employeeComponentRemoved(int assignmentId);
+    
+    /**
+     * An employee's base salary changed
+     */
+    void baseSalaryChanged(int employeeId);
+    
+    /**
+     * An employee's hire date changed, which tenure in component formulas is counted from
+     */
+    void hireDateChanged(int employeeId);
+}
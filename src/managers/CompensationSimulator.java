@@ -0,0 +1,350 @@
+package managers;
+
+import models.Money;
+import models.PayFrequency;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * What-if payroll projections: runs scenarios over an immutable CompensationSnapshot and reports the
+ * projected gross pay, contributions, withholding tax and employer cost by department and month.
+ *
+ * Every (scenario, month) pair is an independent task on a ForkJoin pool, so many scenarios are
+ * evaluated concurrently over the same snapshot. Each task applies the scenario's rules in effect
+ * that month, computes the month in a PayrollBatchKernel with the contribution schedules and
+ * monthly tax table in effect that month, and totals the rows per department. Nothing is read from
+ * or written to the database.
+ */
+public class CompensationSimulator {
+    private final int parallelism;
+    private ContributionTableRegistry contributionTables = ContributionTableRegistry.getDefault();
+    private WithholdingTaxRegistry withholdingTaxTables = WithholdingTaxRegistry.getDefault();
+    
+    public CompensationSimulator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+    
+    public CompensationSimulator(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+    
+    /**
+     * Use a specific set of contribution schedules instead of the default registry
+     */
+    public void setContributionTables(ContributionTableRegistry contributionTables) {
+        this.contributionTables = contributionTables;
+    }
+    
+    /**
+     * Use a specific set of withholding tax tables instead of the default registry
+     */
+    public void setWithholdingTaxTables(WithholdingTaxRegistry withholdingTaxTables) {
+        this.withholdingTaxTables = withholdingTaxTables;
+    }
+    
+    public SimulationResult simulate(CompensationSnapshot snapshot, SimulationScenario scenario, YearMonth start, int months) {
+        return simulate(snapshot, Collections.singletonList(scenario), start, months).get(0);
+    }
+    
+    /**
+     * Project several scenarios over the same months
+     * @param start First month of the projection
+     * @param months Number of months to project (12 for a year)
+     * @return One result per scenario, in the same order
+     */
+    public List<SimulationResult> simulate(CompensationSnapshot snapshot, List<SimulationScenario> scenarios,
+                                           YearMonth start, int months) {
+        // Schedules and tax tables depend only on the month; resolve them once for every scenario
+        List<YearMonth> projection = new ArrayList<>(months);
+        Map<YearMonth, ContributionTableRegistry.Schedule> schedules = new HashMap<>();
+        Map<YearMonth, WithholdingTaxTable> taxTables = new HashMap<>();
+        for (int i = 0; i < months; i++) {
+            YearMonth month = start.plusMonths(i);
+            projection.add(month);
+            schedules.put(month, contributionTables.forDate(month.atDay(1)));
+            taxTables.put(month, withholdingTaxTables.getTable(PayFrequency.MONTHLY, month.atDay(1)));
+        }
+        
+        List<Plan> plans = new ArrayList<>(scenarios.size());
+        List<Callable<Map<String, Totals>>> tasks = new ArrayList<>();
+        for (SimulationScenario scenario : scenarios) {
+            Plan plan = new Plan(snapshot, scenario);
+            plans.add(plan);
+            for (YearMonth month : projection) {
+                tasks.add(() -> simulateMonth(snapshot, plan, month, schedules.get(month), taxTables.get(month)));
+            }
+        }
+        
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Future<Map<String, Totals>>> futures = pool.invokeAll(tasks);
+            List<SimulationResult> results = new ArrayList<>(scenarios.size());
+            int task = 0;
+            for (Plan plan : plans) {
+                SimulationResult result = new SimulationResult(plan.scenarioName, start, months);
+                for (YearMonth month : projection) {
+                    for (Map.Entry<String, Totals> department : futures.get(task++).get().entrySet()) {
+                        result.byDepartment.computeIfAbsent(department.getKey(), key -> new TreeMap<>())
+                                           .put(month, department.getValue());
+                    }
+                }
+                results.add(result);
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+    
+    private static Map<String, Totals> simulateMonth(CompensationSnapshot snapshot, Plan plan, YearMonth month,
+                                                     ContributionTableRegistry.Schedule schedule, WithholdingTaxTable taxTable) {
+        PayrollBatchKernel kernel = new PayrollBatchKernel(snapshot.size() + plan.totalHires);
+        String[] rowDepartments = new String[snapshot.size() + plan.totalHires];
+        long[] categoryTotals = new long[CompensationSnapshot.Category.values().length];
+        FormulaContext formulaContext = new FormulaContext();
+        
+        for (CompensationSnapshot.Member member : snapshot.getMembers()) {
+            YearMonth leaves = plan.departures.get(member.getEmployeeId());
+            if (leaves != null && !month.isBefore(leaves)) {
+                continue;
+            }
+            long baseSalary = plan.raised(member.getBaseSalary(), member.getDepartment(), month);
+            formulaContext.reset(baseSalary, member.getHireDate(), month.atEndOfMonth());
+            Arrays.fill(categoryTotals, 0);
+            for (CompensationSnapshot.Assignment assignment : member.getAssignments()) {
+                if (assignment.appliesTo(month)) {
+                    categoryTotals[assignment.getCategory().ordinal()] += assignment.amountFor(formulaContext);
+                }
+            }
+            plan.addNewComponents(categoryTotals, member.getDepartment(), baseSalary, month);
+            int row = add(kernel, member.getEmployeeId(), baseSalary, categoryTotals);
+            rowDepartments[row] = member.getDepartment();
+        }
+        
+        int hireId = 0;
+        for (SimulationScenario.HeadcountChange hire : plan.hires) {
+            String department = hire.department != null ? hire.department : CompensationSnapshot.NO_DEPARTMENT;
+            for (int i = 0; i < hire.count; i++) {
+                // New hires get negative IDs so they never collide with the roster
+                hireId--;
+                if (month.isBefore(hire.from)) {
+                    continue;
+                }
+                long baseSalary = plan.raised(hire.monthlySalary, department, month);
+                Arrays.fill(categoryTotals, 0);
+                plan.addNewComponents(categoryTotals, department, baseSalary, month);
+                int row = add(kernel, hireId, baseSalary, categoryTotals);
+                rowDepartments[row] = department;
+            }
+        }
+        
+        kernel.compute(schedule, taxTable);
+        Map<String, Totals> byDepartment = new HashMap<>();
+        for (int row = 0; row < kernel.size(); row++) {
+            byDepartment.computeIfAbsent(rowDepartments[row], key -> new Totals())
+                        .add(kernel.getGrossPay(row), kernel.getEmployeeContributions(row),
+                             kernel.getEmployerContributions(row), kernel.getWithholdingTax(row), kernel.getNetPay(row));
+        }
+        return byDepartment;
+    }
+    
+    private static int add(PayrollBatchKernel kernel, int employeeId, long baseSalary, long[] categoryTotals) {
+        return kernel.add(employeeId, baseSalary,
+                          categoryTotals[CompensationSnapshot.Category.ALLOWANCE.ordinal()],
+                          categoryTotals[CompensationSnapshot.Category.BONUS.ordinal()],
+                          categoryTotals[CompensationSnapshot.Category.OTHER_EARNING.ordinal()],
+                          categoryTotals[CompensationSnapshot.Category.DEDUCTION.ordinal()]);
+    }
+    
+    /**
+     * A scenario's rules resolved against one snapshot: who leaves when, and who is hired
+     */
+    private static final class Plan {
+        private final String scenarioName;
+        private final List<SimulationScenario.Raise> raises;
+        private final List<SimulationScenario.NewComponent> components;
+        private final List<SimulationScenario.HeadcountChange> hires = new ArrayList<>();
+        private final Map<Integer, YearMonth> departures = new HashMap<>();
+        private int totalHires;
+        
+        Plan(CompensationSnapshot snapshot, SimulationScenario scenario) {
+            this.scenarioName = scenario.getName();
+            this.raises = scenario.getRaises();
+            this.components = scenario.getComponents();
+            
+            for (SimulationScenario.HeadcountChange change : scenario.getHeadcountChanges()) {
+                if (change.count > 0) {
+                    hires.add(change);
+                    totalHires += change.count;
+                    continue;
+                }
+                // The most recently hired members of the department leave first
+                List<CompensationSnapshot.Member> candidates = new ArrayList<>();
+                for (CompensationSnapshot.Member member : snapshot.getMembers()) {
+                    if (SimulationScenario.matches(change.department, member.getDepartment())
+                            && !departures.containsKey(member.getEmployeeId())) {
+                        candidates.add(member);
+                    }
+                }
+                candidates.sort((a, b) -> Integer.compare(b.getEmployeeId(), a.getEmployeeId()));
+                for (int i = 0; i < -change.count && i < candidates.size(); i++) {
+                    departures.put(candidates.get(i).getEmployeeId(), change.from);
+                }
+            }
+        }
+        
+        long raised(long baseSalary, String department, YearMonth month) {
+            long salary = baseSalary;
+            for (SimulationScenario.Raise raise : raises) {
+                if (!month.isBefore(raise.from) && SimulationScenario.matches(raise.department, department)) {
+                    salary += Money.percentOf(salary, raise.basisPoints, Money.DEFAULT_ROUNDING);
+                }
+            }
+            return salary;
+        }
+        
+        void addNewComponents(long[] categoryTotals, String department, long baseSalary, YearMonth month) {
+            for (SimulationScenario.NewComponent component : components) {
+                if (component.assignment.appliesTo(month) && SimulationScenario.matches(component.department, department)) {
+                    categoryTotals[component.assignment.getCategory().ordinal()] += component.assignment.amountFor(baseSalary);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Projected payroll totals for a group of employees, in centavos
+     */
+    public static final class Totals {
+        private int headcount;
+        private long grossPay;
+        private long employeeContributions;
+        private long employerContributions;
+        private long withholdingTax;
+        private long netPay;
+        
+        void add(long gross, long employeeShare, long employerShare, long tax, long net) {
+            headcount++;
+            grossPay += gross;
+            employeeContributions += employeeShare;
+            employerContributions += employerShare;
+            withholdingTax += tax;
+            netPay += net;
+        }
+        
+        void add(Totals other) {
+            headcount += other.headcount;
+            grossPay += other.grossPay;
+            employeeContributions += other.employeeContributions;
+            employerContributions += other.employerContributions;
+            withholdingTax += other.withholdingTax;
+            netPay += other.netPay;
+        }
+        
+        /**
+         * Employee-months for totals over several months
+         */
+        public int getHeadcount() { return headcount; }
+        public Money getGrossPay() { return Money.ofCentavos(grossPay); }
+        public Money getEmployeeContributions() { return Money.ofCentavos(employeeContributions); }
+        public Money getEmployerContributions() { return Money.ofCentavos(employerContributions); }
+        public Money getWithholdingTax() { return Money.ofCentavos(withholdingTax); }
+        public Money getNetPay() { return Money.ofCentavos(netPay); }
+        
+        /**
+         * What the payroll costs the employer: gross pay plus the employer's contribution shares
+         */
+        public Money getEmployerCost() { return Money.ofCentavos(grossPay + employerContributions); }
+        
+        @Override
+        public String toString() {
+            return String.format("%d employee-months, gross %s, contributions %s + %s employer, tax %s, employer cost %s",
+                                 headcount, getGrossPay().format(), getEmployeeContributions().format(),
+                                 getEmployerContributions().format(), getWithholdingTax().format(), getEmployerCost().format());
+        }
+    }
+    
+    /**
+     * Projection of one scenario, by department and month
+     */
+    public static final class SimulationResult {
+        private final String scenarioName;
+        private final YearMonth start;
+        private final int months;
+        private final NavigableMap<String, NavigableMap<YearMonth, Totals>> byDepartment = new TreeMap<>();
+        
+        SimulationResult(String scenarioName, YearMonth start, int months) {
+            this.scenarioName = scenarioName;
+            this.start = start;
+            this.months = months;
+        }
+        
+        public String getScenarioName() { return scenarioName; }
+        public YearMonth getStart() { return start; }
+        public int getMonths() { return months; }
+        
+        public List<String> getDepartments() {
+            return new ArrayList<>(byDepartment.keySet());
+        }
+        
+        /**
+         * Totals of one department in one month (empty if nobody was paid)
+         */
+        public Totals get(String department, YearMonth month) {
+            NavigableMap<YearMonth, Totals> departmentMonths = byDepartment.get(department);
+            Totals totals = departmentMonths != null ? departmentMonths.get(month) : null;
+            return totals != null ? totals : new Totals();
+        }
+        
+        public Totals getDepartmentTotal(String department) {
+            Totals total = new Totals();
+            for (Totals month : byDepartment.getOrDefault(department, Collections.emptyNavigableMap()).values()) {
+                total.add(month);
+            }
+            return total;
+        }
+        
+        public Totals getMonthTotal(YearMonth month) {
+            Totals total = new Totals();
+            for (String department : byDepartment.keySet()) {
+                total.add(get(department, month));
+            }
+            return total;
+        }
+        
+        /**
+         * Totals over every department and month of the projection
+         */
+        public Totals getTotal() {
+            Totals total = new Totals();
+            for (String department : byDepartment.keySet()) {
+                total.add(getDepartmentTotal(department));
+            }
+            return total;
+        }
+        
+        /**
+         * Extra employer cost of this scenario over another one, e.g. the baseline
+         */
+        public Money getEmployerCostDifference(SimulationResult other) {
+            return getTotal().getEmployerCost().minus(other.getTotal().getEmployerCost());
+        }
+    }
+}
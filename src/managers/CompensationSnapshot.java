@@ -0,0 +1,202 @@
+package managers;
+
+import models.Employee;
+import models.EmployeeSalaryComponent;
+import models.Money;
+import models.SalaryComponent;
+import database.DatabaseDAO;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable copy of the active roster and their salary component assignments, for simulations.
+ *
+ * Only what a payroll calculation needs is kept - employee ID, department, base salary and each
+ * assignment's category, amount and dates - with amounts in centavos and percentages in hundredths
+ * of a percent. Any number of simulations can read one snapshot concurrently without locking, and
+ * later edits to employees or components do not change it.
+ */
+public final class CompensationSnapshot {
+    public static final String NO_DEPARTMENT = "Unassigned";
+    
+    private final LocalDateTime takenAt;
+    private final List<Member> members;
+    
+    private CompensationSnapshot(LocalDateTime takenAt, List<Member> members) {
+        this.takenAt = takenAt;
+        this.members = Collections.unmodifiableList(members);
+    }
+    
+    /**
+     * Snapshot the active employees and all salary component assignments in the database
+     */
+    public static CompensationSnapshot capture(DatabaseDAO databaseDAO) {
+        Map<Integer, List<EmployeeSalaryComponent>> componentsByEmployee = new HashMap<>();
+        databaseDAO.streamEmployeeSalaryComponents(assignment -> {
+            int employeeId = PayrollRunEngine.parseEmployeeId(assignment.getEmployeeId());
+            if (employeeId > 0 && assignment.isActive()) {
+                componentsByEmployee.computeIfAbsent(employeeId, key -> new ArrayList<>()).add(assignment);
+            }
+        });
+        return of(databaseDAO.getAllEmployees(), componentsByEmployee);
+    }
+    
+    /**
+     * Snapshot the active employees of a roster with their assignments, keyed by employee ID
+     */
+    public static CompensationSnapshot of(List<Employee> employees, Map<Integer, List<EmployeeSalaryComponent>> componentsByEmployee) {
+        List<Member> members = new ArrayList<>();
+        for (Employee employee : employees) {
+            if (!employee.isActive()) {
+                continue;
+            }
+            List<Assignment> assignments = new ArrayList<>();
+            for (EmployeeSalaryComponent assignment : componentsByEmployee.getOrDefault(employee.getEmployeeId(), Collections.emptyList())) {
+                SalaryComponent component = assignment.getSalaryComponent();
+                if (!assignment.isActive() || component == null || assignment.getCustomAmount() == null) {
+                    continue;
+                }
+                long amount = assignment.isPercentage() ? Money.toBasisPoints(assignment.getCustomAmount())
+                                                        : Money.toCentavos(assignment.getCustomAmount(), Money.DEFAULT_ROUNDING);
+                assignments.add(new Assignment(component.getName(), Category.of(component), assignment.isPercentage(), amount,
+                                               assignment.getEffectiveDate(), assignment.getEndDate(),
+                                               SalaryFormula.forComponent(component)));
+            }
+            String department = employee.getDepartment() != null && !employee.getDepartment().trim().isEmpty()
+                              ? employee.getDepartment().trim() : NO_DEPARTMENT;
+            members.add(new Member(employee.getEmployeeId(), department, Money.toCentavos(employee.getBaseSalary()),
+                                   employee.getHireDate(), Collections.unmodifiableList(assignments)));
+        }
+        return new CompensationSnapshot(LocalDateTime.now(), members);
+    }
+    
+    public LocalDateTime getTakenAt() {
+        return takenAt;
+    }
+    
+    public List<Member> getMembers() {
+        return members;
+    }
+    
+    public int size() {
+        return members.size();
+    }
+    
+    /**
+     * How a component amount enters the payroll, matching the categories the payroll calculation totals
+     */
+    public enum Category {
+        ALLOWANCE, BONUS, OTHER_EARNING, DEDUCTION;
+        
+        static Category of(SalaryComponent component) {
+            if ("ALLOWANCE".equals(component.getType())) {
+                return ALLOWANCE;
+            }
+            if ("BONUS".equals(component.getType())) {
+                return BONUS;
+            }
+            return component.isEarning() ? OTHER_EARNING : DEDUCTION;
+        }
+    }
+    
+    /**
+     * One employee in the snapshot
+     */
+    public static final class Member {
+        private final int employeeId;
+        private final String department;
+        private final long baseSalary;
+        private final LocalDate hireDate;
+        private final List<Assignment> assignments;
+        
+        Member(int employeeId, String department, long baseSalary, LocalDate hireDate, List<Assignment> assignments) {
+            this.employeeId = employeeId;
+            this.department = department;
+            this.baseSalary = baseSalary;
+            this.hireDate = hireDate;
+            this.assignments = assignments;
+        }
+        
+        public int getEmployeeId() { return employeeId; }
+        public String getDepartment() { return department; }
+        public long getBaseSalary() { return baseSalary; }
+        public LocalDate getHireDate() { return hireDate; }
+        public List<Assignment> getAssignments() { return assignments; }
+    }
+    
+    /**
+     * One salary component assignment in the snapshot
+     */
+    public static final class Assignment {
+        private final String name;
+        private final Category category;
+        private final boolean percentage;
+        private final long amount;
+        private final LocalDate effectiveDate;
+        private final LocalDate endDate;
+        private final SalaryFormula formula;
+        
+        /**
+         * @param amount Fixed amount in centavos, or hundredths of a percent of base salary if percentage
+         */
+        public Assignment(String name, Category category, boolean percentage, long amount, LocalDate effectiveDate, LocalDate endDate) {
+            this(name, category, percentage, amount, effectiveDate, endDate, null);
+        }
+        
+        /**
+         * @param formula Compiled formula of the component, or null if it has none
+         */
+        Assignment(String name, Category category, boolean percentage, long amount, LocalDate effectiveDate, LocalDate endDate,
+                   SalaryFormula formula) {
+            this.name = name;
+            this.category = category;
+            this.percentage = percentage;
+            this.amount = amount;
+            this.effectiveDate = effectiveDate;
+            this.endDate = endDate;
+            this.formula = formula;
+        }
+        
+        /**
+         * Whether the assignment is in effect at any time during a month
+         */
+        public boolean appliesTo(YearMonth month) {
+            return (effectiveDate == null || !effectiveDate.isAfter(month.atEndOfMonth()))
+                && (endDate == null || !endDate.isBefore(month.atDay(1)));
+        }
+        
+        /**
+         * Amount in centavos for a base salary in centavos, rounded as SalaryComponentManager does
+         */
+        public long amountFor(long baseSalary) {
+            return percentage ? Money.percentOf(baseSalary, amount, Money.DEFAULT_ROUNDING) : amount;
+        }
+        
+        /**
+         * Amount in centavos for the employee loaded in a formula context, evaluating the component's
+         * formula if it has one
+         */
+        public long amountFor(FormulaContext context) {
+            if (formula == null) {
+                return amountFor(context.getBaseSalary());
+            }
+            context.setAmount(percentage ? amount / 100.0 : Money.toPesos(amount));
+            double result = formula.evaluate(context);
+            if (Double.isNaN(result) || Double.isInfinite(result)) {
+                throw new IllegalArgumentException("Formula of " + name + " did not give an amount: " + formula);
+            }
+            return Money.toCentavos(result);
+        }
+        
+        public String getName() { return name; }
+        public Category getCategory() { return category; }
+        public boolean isPercentage() { return percentage; }
+    }
+}
@@ -0,0 +1,108 @@
+package managers;
+
+import models.Money;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * One statutory contribution schedule (SSS, PhilHealth or Pag-IBIG) in effect from a given date.
+ *
+ * The schedule is a list of salary brackets. Each bracket has a fixed amount and a rate for the
+ * employee and for the employer; the rate applies to the monthly salary capped at the bracket's
+ * rate base cap. This covers SSS's fixed amounts per salary credit, PhilHealth's premium rate with
+ * floor and ceiling, and Pag-IBIG's rates with a maximum fund salary.
+ *
+ * Brackets are kept in parallel primitive arrays and found by binary search over the upper bounds.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class ContributionTable {
+    private final String scheme;
+    private final LocalDate effectiveDate;
+    private final double[] upperBounds;
+    private final double[] employeeFixed;
+    private final double[] employeeRate;
+    private final double[] employerFixed;
+    private final double[] employerRate;
+    private final double[] rateBaseCap;
+    
+    /**
+     * @param upperBounds Inclusive upper salary bound of each bracket, strictly increasing; the last must be infinite
+     * @param rateBaseCap Salary cap the rates apply to, per bracket (infinite for no cap)
+     */
+    public ContributionTable(String scheme, LocalDate effectiveDate, double[] upperBounds,
+                             double[] employeeFixed, double[] employeeRate,
+                             double[] employerFixed, double[] employerRate, double[] rateBaseCap) {
+        int brackets = upperBounds.length;
+        if (brackets == 0 || employeeFixed.length != brackets || employeeRate.length != brackets
+                || employerFixed.length != brackets || employerRate.length != brackets || rateBaseCap.length != brackets) {
+            throw new IllegalArgumentException(scheme + " " + effectiveDate + ": bracket columns must have the same, non-zero length");
+        }
+        for (int i = 1; i < brackets; i++) {
+            if (!(upperBounds[i] > upperBounds[i - 1])) {
+                throw new IllegalArgumentException(scheme + " " + effectiveDate + ": bracket upper bounds must be increasing");
+            }
+        }
+        if (upperBounds[brackets - 1] != Double.POSITIVE_INFINITY) {
+            throw new IllegalArgumentException(scheme + " " + effectiveDate + ": the last bracket must have no upper bound");
+        }
+        
+        this.scheme = scheme;
+        this.effectiveDate = effectiveDate;
+        this.upperBounds = upperBounds.clone();
+        this.employeeFixed = employeeFixed.clone();
+        this.employeeRate = employeeRate.clone();
+        this.employerFixed = employerFixed.clone();
+        this.employerRate = employerRate.clone();
+        this.rateBaseCap = rateBaseCap.clone();
+    }
+    
+    /**
+     * Index of the bracket a monthly salary falls in
+     */
+    public int bracketOf(double monthlySalary) {
+        int index = Arrays.binarySearch(upperBounds, monthlySalary);
+        return index >= 0 ? index : -index - 1;
+    }
+    
+    public double employeeShare(double monthlySalary) {
+        int bracket = bracketOf(monthlySalary);
+        return employeeFixed[bracket] + employeeRate[bracket] * Math.min(monthlySalary, rateBaseCap[bracket]);
+    }
+    
+    public double employerShare(double monthlySalary) {
+        int bracket = bracketOf(monthlySalary);
+        return employerFixed[bracket] + employerRate[bracket] * Math.min(monthlySalary, rateBaseCap[bracket]);
+    }
+    
+    /**
+     * Employee and employer shares for a column of monthly salaries, rounded half-up to the centavo.
+     * Used by the batch kernel; gives the same amounts as the per-salary methods.
+     */
+    public void shares(double[] monthlySalaries, int length, long[] employeeShares, long[] employerShares) {
+        for (int i = 0; i < length; i++) {
+            double salary = monthlySalaries[i];
+            int bracket = bracketOf(salary);
+            double rateBase = Math.min(salary, rateBaseCap[bracket]);
+            employeeShares[i] = Money.toCentavos(employeeFixed[bracket] + employeeRate[bracket] * rateBase);
+            employerShares[i] = Money.toCentavos(employerFixed[bracket] + employerRate[bracket] * rateBase);
+        }
+    }
+    
+    public String getScheme() {
+        return scheme;
+    }
+    
+    public LocalDate getEffectiveDate() {
+        return effectiveDate;
+    }
+    
+    public int getBracketCount() {
+        return upperBounds.length;
+    }
+    
+    @Override
+    public String toString() {
+        return scheme + " schedule effective " + effectiveDate + " (" + upperBounds.length + " brackets)";
+    }
+}
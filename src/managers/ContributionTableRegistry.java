@@ -0,0 +1,266 @@
+package managers;
+
+import models.Money;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Effective-dated SSS, PhilHealth and Pag-IBIG contribution schedules.
+ *
+ * Schedules are read from CSV files named {@code <scheme>-<yyyy-MM-dd>.csv} (for example
+ * {@code sss-2025-01-01.csv}) in the contributions directory, so a new schedule takes effect by
+ * dropping in a file and reloading, without recompiling. Each file lists one bracket per line:
+ *
+ * <pre>
+ * upper_bound,employee_fixed,employee_rate,employer_fixed,employer_rate,rate_base_cap
+ * </pre>
+ *
+ * A blank upper bound or rate base cap means no limit, and blank amounts are zero. Lines starting
+ * with '#' are comments. Built-in schedules matching the original hard-coded rates apply to dates
+ * before the earliest file.
+ *
+ * Resolve a {@link Schedule} once per pay period with {@link #forDate(LocalDate)} and reuse it for
+ * every employee in the period.
+ */
+public class ContributionTableRegistry {
+    public static final String SSS = "sss";
+    public static final String PHILHEALTH = "philhealth";
+    public static final String PAGIBIG = "pagibig";
+    public static final String DEFAULT_DIRECTORY = System.getProperty("payroll.contributions.dir", "config/contributions");
+    
+    private static final Pattern FILE_NAME = Pattern.compile("(sss|philhealth|pagibig)-(\\d{4}-\\d{2}-\\d{2})\\.csv");
+    private static final LocalDate BUILT_IN_EFFECTIVE_DATE = LocalDate.of(1900, 1, 1);
+    
+    private static volatile ContributionTableRegistry defaultRegistry;
+    
+    private final Map<String, NavigableMap<LocalDate, ContributionTable>> tables = new HashMap<>();
+    
+    private ContributionTableRegistry() {
+        for (ContributionTable table : builtInTables()) {
+            register(table);
+        }
+    }
+    
+    /**
+     * Registry loaded from DEFAULT_DIRECTORY on first use
+     */
+    public static ContributionTableRegistry getDefault() {
+        ContributionTableRegistry registry = defaultRegistry;
+        if (registry == null) {
+            synchronized (ContributionTableRegistry.class) {
+                registry = defaultRegistry;
+                if (registry == null) {
+                    registry = load(Paths.get(DEFAULT_DIRECTORY));
+                    defaultRegistry = registry;
+                }
+            }
+        }
+        return registry;
+    }
+    
+    /**
+     * Re-read the contribution files, e.g. after a new schedule has been added
+     */
+    public static synchronized ContributionTableRegistry reloadDefault() {
+        defaultRegistry = load(Paths.get(DEFAULT_DIRECTORY));
+        return defaultRegistry;
+    }
+    
+    /**
+     * Load the built-in schedules plus every schedule file in a directory. Files that cannot be
+     * parsed are reported and skipped; a missing directory leaves only the built-in schedules.
+     */
+    public static ContributionTableRegistry load(Path directory) {
+        ContributionTableRegistry registry = new ContributionTableRegistry();
+        if (!Files.isDirectory(directory)) {
+            return registry;
+        }
+        
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.csv")) {
+            for (Path file : files) {
+                Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                if (!matcher.matches()) {
+                    continue;
+                }
+                try {
+                    LocalDate effectiveDate = LocalDate.parse(matcher.group(2));
+                    registry.register(parse(matcher.group(1), effectiveDate,
+                                            Files.readAllLines(file, StandardCharsets.UTF_8)));
+                } catch (IOException | DateTimeParseException | IllegalArgumentException e) {
+                    System.err.println("Error loading contribution table " + file + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading contribution tables from " + directory + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+        return registry;
+    }
+    
+    /**
+     * Parse one schedule file
+     */
+    static ContributionTable parse(String scheme, LocalDate effectiveDate, List<String> lines) {
+        List<double[]> rows = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : lines) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#") || trimmed.startsWith("upper_bound")) {
+                continue;
+            }
+            String[] fields = trimmed.split(",", -1);
+            if (fields.length != 6) {
+                throw new IllegalArgumentException("line " + lineNumber + ": expected 6 columns but found " + fields.length);
+            }
+            try {
+                rows.add(new double[] {
+                    parseAmount(fields[0], Double.POSITIVE_INFINITY),
+                    parseAmount(fields[1], 0.0),
+                    parseAmount(fields[2], 0.0),
+                    parseAmount(fields[3], 0.0),
+                    parseAmount(fields[4], 0.0),
+                    parseAmount(fields[5], Double.POSITIVE_INFINITY)
+                });
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+        
+        int brackets = rows.size();
+        double[][] columns = new double[6][brackets];
+        for (int i = 0; i < brackets; i++) {
+            for (int column = 0; column < 6; column++) {
+                columns[column][i] = rows.get(i)[column];
+            }
+        }
+        return new ContributionTable(scheme, effectiveDate, columns[0], columns[1], columns[2],
+                                     columns[3], columns[4], columns[5]);
+    }
+    
+    private static double parseAmount(String field, double blankValue) {
+        String value = field.trim();
+        return value.isEmpty() ? blankValue : Double.parseDouble(value);
+    }
+    
+    private void register(ContributionTable table) {
+        tables.computeIfAbsent(table.getScheme(), key -> new TreeMap<>()).put(table.getEffectiveDate(), table);
+    }
+    
+    /**
+     * The schedule of a scheme in effect on a date
+     */
+    public ContributionTable getTable(String scheme, LocalDate date) {
+        NavigableMap<LocalDate, ContributionTable> versions = tables.get(scheme);
+        if (versions == null) {
+            throw new IllegalArgumentException("Unknown contribution scheme: " + scheme);
+        }
+        Map.Entry<LocalDate, ContributionTable> entry = versions.floorEntry(date);
+        return entry != null ? entry.getValue() : versions.firstEntry().getValue();
+    }
+    
+    /**
+     * All three schedules in effect on a date
+     */
+    public Schedule forDate(LocalDate date) {
+        return new Schedule(date, getTable(SSS, date), getTable(PHILHEALTH, date), getTable(PAGIBIG, date));
+    }
+    
+    /**
+     * Schedules matching the rates that used to be hard-coded in PhilippinePayrollCalculator
+     */
+    private static List<ContributionTable> builtInTables() {
+        double inf = Double.POSITIVE_INFINITY;
+        List<ContributionTable> builtIn = new ArrayList<>();
+        builtIn.add(new ContributionTable(SSS, BUILT_IN_EFFECTIVE_DATE,
+            new double[] {4000, 4750, 5500, 6250, 7000, 7750, 8500, 9250, 10000, inf},
+            new double[] {60, 82.5, 105, 127.5, 150, 172.5, 195, 217.5, 240, 600},
+            new double[10],
+            new double[] {120, 165, 210, 255, 300, 345, 390, 435, 480, 1200},
+            new double[10],
+            new double[] {inf, inf, inf, inf, inf, inf, inf, inf, inf, inf}));
+        // 5% premium on salary between 10,000 and 100,000, split equally
+        builtIn.add(new ContributionTable(PHILHEALTH, BUILT_IN_EFFECTIVE_DATE,
+            new double[] {10000, 100000, inf},
+            new double[] {250, 0, 2500},
+            new double[] {0, 0.025, 0},
+            new double[] {250, 0, 2500},
+            new double[] {0, 0.025, 0},
+            new double[] {inf, inf, inf}));
+        // 1% up to 1,500, then 2% of salary up to 5,000; employer matches
+        builtIn.add(new ContributionTable(PAGIBIG, BUILT_IN_EFFECTIVE_DATE,
+            new double[] {1500, inf},
+            new double[2],
+            new double[] {0.01, 0.02},
+            new double[2],
+            new double[] {0.01, 0.02},
+            new double[] {inf, 5000}));
+        return builtIn;
+    }
+    
+    /**
+     * SSS, PhilHealth and Pag-IBIG schedules resolved for one date. Shares are rounded half-up to the centavo.
+     */
+    public static final class Schedule {
+        private final LocalDate asOf;
+        private final ContributionTable sss;
+        private final ContributionTable philHealth;
+        private final ContributionTable pagIbig;
+        
+        Schedule(LocalDate asOf, ContributionTable sss, ContributionTable philHealth, ContributionTable pagIbig) {
+            this.asOf = asOf;
+            this.sss = sss;
+            this.philHealth = philHealth;
+            this.pagIbig = pagIbig;
+        }
+        
+        public PhilippinePayrollCalculator.SSContribution sss(double monthlySalary) {
+            double employeeShare = Money.round(sss.employeeShare(monthlySalary));
+            double employerShare = Money.round(sss.employerShare(monthlySalary));
+            return new PhilippinePayrollCalculator.SSContribution(employeeShare + employerShare, employeeShare, employerShare);
+        }
+        
+        public PhilippinePayrollCalculator.PhilHealthContribution philHealth(double monthlySalary) {
+            double employeeShare = Money.round(philHealth.employeeShare(monthlySalary));
+            double employerShare = Money.round(philHealth.employerShare(monthlySalary));
+            return new PhilippinePayrollCalculator.PhilHealthContribution(employeeShare + employerShare, employeeShare, employerShare);
+        }
+        
+        public PhilippinePayrollCalculator.PagIBIGContribution pagIbig(double monthlySalary) {
+            double employeeShare = Money.round(pagIbig.employeeShare(monthlySalary));
+            double employerShare = Money.round(pagIbig.employerShare(monthlySalary));
+            return new PhilippinePayrollCalculator.PagIBIGContribution(employeeShare + employerShare, employeeShare, employerShare);
+        }
+        
+        public LocalDate getAsOf() {
+            return asOf;
+        }
+        
+        public ContributionTable getSssTable() {
+            return sss;
+        }
+        
+        public ContributionTable getPhilHealthTable() {
+            return philHealth;
+        }
+        
+        public ContributionTable getPagIbigTable() {
+            return pagIbig;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package managers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming CSV reader backed by a fixed-size character buffer.
+ * Memory use does not grow with the file size, only with the longest record.
+ * Supports quoted fields, escaped quotes ("") and CRLF line endings.
+ */
+public class CsvReader implements Closeable {
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer;
+    private final char delimiter;
+    private int position;
+    private int limit;
+    private long lineNumber;
+    private long recordLineNumber;
+    private final StringBuilder field = new StringBuilder(64);
+    private final List<String> fields = new ArrayList<>();
+
+    public CsvReader(Reader reader) {
+        this(reader, ',', DEFAULT_BUFFER_SIZE);
+    }
+
+    public CsvReader(Reader reader, char delimiter, int bufferSize) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+        this.buffer = new char[bufferSize];
+        this.lineNumber = 1;
+    }
+
+    /**
+     * Read the next record
+     * @return The record fields, or null at end of input
+     */
+    public String[] readRecord() throws IOException {
+        fields.clear();
+        field.setLength(0);
+        recordLineNumber = lineNumber;
+
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+
+        boolean inQuotes = false;
+        while (true) {
+            if (c == -1) {
+                fields.add(field.toString());
+                break;
+            }
+            char ch = (char) c;
+            if (inQuotes) {
+                if (ch == '"') {
+                    int next = peek();
+                    if (next == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    if (ch == '\n') {
+                        lineNumber++;
+                    }
+                    field.append(ch);
+                }
+            } else if (ch == '"' && field.length() == 0) {
+                inQuotes = true;
+            } else if (ch == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\r') {
+                if (peek() == '\n') {
+                    read();
+                }
+                lineNumber++;
+                fields.add(field.toString());
+                break;
+            } else if (ch == '\n') {
+                lineNumber++;
+                fields.add(field.toString());
+                break;
+            } else {
+                field.append(ch);
+            }
+            c = read();
+        }
+
+        return fields.toArray(new String[0]);
+    }
+
+    /**
+     * Line number (1-based) on which the most recently returned record started
+     */
+    public long getRecordLineNumber() {
+        return recordLineNumber;
+    }
+
+    private int read() throws IOException {
+        if (position >= limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position >= limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        limit = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit <= 0) {
+            limit = 0;
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,126 @@
+package managers;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Streaming CSV writer. Records are written straight to the underlying writer,
+ * nothing is buffered beyond what the writer itself buffers.
+ */
+public class CsvWriter implements TableWriter, Flushable {
+    private final Writer writer;
+    private final char delimiter;
+
+    public CsvWriter(Writer writer) {
+        this(writer, ',');
+    }
+
+    public CsvWriter(Writer writer, char delimiter) {
+        this.writer = writer;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Write one record followed by a line break
+     */
+    public void writeRecord(String... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(delimiter);
+            }
+            writeField(fields[i]);
+        }
+        writer.write('\n');
+    }
+
+    @Override
+    public void startTable(String name, String[] headers) throws IOException {
+        writeRecord(headers);
+    }
+
+    @Override
+    public void writeRow(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(delimiter);
+            }
+            Object value = values[i];
+            if (value instanceof Double || value instanceof Float) {
+                writer.write(java.math.BigDecimal.valueOf(((Number) value).doubleValue()).toPlainString());
+            } else if (value != null) {
+                writeField(value.toString());
+            }
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * Write a single field, quoting only when needed
+     */
+    public void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (needsQuoting(value, delimiter)) {
+            writer.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char ch = value.charAt(i);
+                if (ch == '"') {
+                    writer.write('"');
+                }
+                writer.write(ch);
+            }
+            writer.write('"');
+        } else {
+            writer.write(value);
+        }
+    }
+
+    /**
+     * Write a field delimiter (for callers composing records field by field)
+     */
+    public void writeDelimiter() throws IOException {
+        writer.write(delimiter);
+    }
+
+    /**
+     * Terminate the current record
+     */
+    public void endRecord() throws IOException {
+        writer.write('\n');
+    }
+
+    /**
+     * Escape a single value for use in a comma-separated record
+     */
+    public static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!needsQuoting(value, ',')) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static boolean needsQuoting(String value, char delimiter) {
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == delimiter || ch == '"' || ch == '\n' || ch == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,233 @@
+package managers;
+
+import models.Employee;
+import models.EmployeeSalaryComponent;
+import models.Payroll;
+import database.DatabaseDAO;
+import database.MySQLDatabaseDAO;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+
+/**
+ * Streaming export of employees, payroll records and salary component assignments to CSV, XLSX
+ * or a printable PDF report.
+ *
+ * Rows are read through the DAO's cursor-based stream methods and written straight to the
+ * output file, so exporting hundreds of thousands of payroll rows runs in constant memory.
+ */
+public class DataExportManager {
+    public static final int PROGRESS_INTERVAL = 1000;
+
+    public enum Format {
+        CSV("csv"), XLSX("xlsx"), PDF("pdf");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    public enum Dataset {
+        EMPLOYEES("Employees"),
+        PAYROLL("Payroll"),
+        SALARY_COMPONENTS("Salary Components");
+
+        private final String displayName;
+
+        Dataset(String displayName) {
+            this.displayName = displayName;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    private static final String[] EMPLOYEE_HEADERS = {
+        "Employee ID", "Comprehensive ID", "First Name", "Last Name", "Email", "Phone", "Department",
+        "Position", "Job Title", "Manager", "Hire Date", "Salary", "Active", "Employment Status",
+        "Payment Method", "Payment Frequency", "Bank Name", "Account Number", "Account Holder"
+    };
+    private static final String[] PAYROLL_HEADERS = {
+        "Payroll ID", "Employee ID", "Period Start", "Period End", "Basic Salary", "Overtime Hours",
+        "Overtime Rate", "Bonus", "Deductions", "Gross Pay", "Tax", "Net Pay", "Status"
+    };
+    private static final String[] COMPONENT_HEADERS = {
+        "Assignment ID", "Employee ID", "Component ID", "Component", "Type", "Amount", "Percentage",
+        "Active", "Effective Date", "End Date", "Remarks"
+    };
+
+    private DatabaseDAO databaseDAO;
+
+    public DataExportManager() {
+        this(new MySQLDatabaseDAO());
+    }
+
+    public DataExportManager(DatabaseDAO databaseDAO) {
+        this.databaseDAO = databaseDAO;
+    }
+
+    /**
+     * Export a dataset to a file
+     * @param dataset Which data to export
+     * @param format Output format
+     * @param file Destination file (created or overwritten)
+     * @param listener Progress callback, invoked every PROGRESS_INTERVAL rows (total is unknown, -1)
+     * @return Number of data rows written
+     */
+    public long export(Dataset dataset, Format format, Path file, ProgressListener listener) throws IOException {
+        try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024);
+             TableWriter writer = openWriter(format, output)) {
+            return export(dataset, writer, listener);
+        }
+    }
+
+    /**
+     * Export a dataset to an already opened table writer
+     */
+    public long export(Dataset dataset, TableWriter writer, ProgressListener listener) throws IOException {
+        ProgressListener progress = listener != null ? listener : ProgressListener.NONE;
+        long[] written = new long[1];
+        long rows;
+
+        try {
+            switch (dataset) {
+                case EMPLOYEES:
+                    writer.startTable(dataset.toString(), EMPLOYEE_HEADERS);
+                    rows = databaseDAO.streamEmployees(employee -> {
+                        writeEmployee(writer, employee);
+                        reportProgress(progress, ++written[0]);
+                    });
+                    break;
+                case PAYROLL:
+                    writer.startTable(dataset.toString(), PAYROLL_HEADERS);
+                    SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+                    rows = databaseDAO.streamPayroll(payroll -> {
+                        writePayroll(writer, payroll, dateFormat);
+                        reportProgress(progress, ++written[0]);
+                    });
+                    break;
+                case SALARY_COMPONENTS:
+                    writer.startTable(dataset.toString(), COMPONENT_HEADERS);
+                    rows = databaseDAO.streamEmployeeSalaryComponents(component -> {
+                        writeComponent(writer, component);
+                        reportProgress(progress, ++written[0]);
+                    });
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported dataset: " + dataset);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (rows < 0) {
+            throw new IOException("Database error while exporting " + dataset + " after " + written[0] + " rows");
+        }
+        progress.onProgress(written[0], written[0]);
+        return written[0];
+    }
+
+    /**
+     * Open a table writer for the given format
+     */
+    public static TableWriter openWriter(Format format, OutputStream output) throws IOException {
+        if (format == Format.XLSX) {
+            return new XlsxWriter(output);
+        }
+        if (format == Format.PDF) {
+            return new PdfTableWriter(output);
+        }
+        return new CsvWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    }
+
+    private void reportProgress(ProgressListener listener, long rows) {
+        if (rows % PROGRESS_INTERVAL == 0) {
+            listener.onProgress(rows, -1);
+        }
+    }
+
+    private void writeEmployee(TableWriter writer, Employee employee) {
+        try {
+            writer.writeRow(
+                String.format("EMP%03d", employee.getEmployeeId()),
+                employee.getComprehensiveEmployeeId(),
+                employee.getFirstName(),
+                employee.getLastName(),
+                employee.getEmail(),
+                employee.getPhone(),
+                employee.getDepartment(),
+                employee.getPosition(),
+                employee.getJobTitle(),
+                employee.getManager(),
+                employee.getHireDate() != null ? employee.getHireDate().toString() : null,
+                employee.getBaseSalary(),
+                employee.isActive() ? "YES" : "NO",
+                employee.getEmploymentStatus(),
+                employee.getPaymentMethod(),
+                employee.getPaymentFrequency(),
+                employee.getBankName(),
+                employee.getAccountNumber(),
+                employee.getAccountHolderName()
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writePayroll(TableWriter writer, Payroll payroll, SimpleDateFormat dateFormat) {
+        try {
+            writer.writeRow(
+                payroll.getId(),
+                String.format("EMP%03d", payroll.getEmployeeId()),
+                payroll.getPayPeriodStart() != null ? dateFormat.format(payroll.getPayPeriodStart()) : null,
+                payroll.getPayPeriodEnd() != null ? dateFormat.format(payroll.getPayPeriodEnd()) : null,
+                payroll.getBasicSalary(),
+                payroll.getOvertimeHours(),
+                payroll.getOvertimeRate(),
+                payroll.getBonus(),
+                payroll.getDeductions(),
+                payroll.getGrossPay(),
+                payroll.getTaxDeduction(),
+                payroll.getNetPay(),
+                payroll.getStatus()
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeComponent(TableWriter writer, EmployeeSalaryComponent component) {
+        try {
+            writer.writeRow(
+                component.getId(),
+                component.getEmployeeId(),
+                component.getSalaryComponentId(),
+                component.getComponentName(),
+                component.getComponentType(),
+                component.getCustomAmount() != null ? component.getCustomAmount().doubleValue() : null,
+                component.isPercentage() ? "YES" : "NO",
+                component.isActive() ? "YES" : "NO",
+                component.getEffectiveDate() != null ? component.getEffectiveDate().toString() : null,
+                component.getEndDate() != null ? component.getEndDate().toString() : null,
+                component.getRemarks()
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package managers;
+
+import models.Employee;
+import models.Money;
+import models.PayPeriod;
+import models.Payroll;
+import database.DatabaseDAO;
+import database.MySQLDatabaseDAO;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes the bank disbursement files for a finalized pay period, one file per bank and pay date.
+ *
+ * Employees' bank details are loaded once; the period's payrolls are then streamed from the database
+ * in employee order and each one paid by bank transfer is written straight to its bank's file in the
+ * format the DisbursementFormatRegistry configures for that bank. Files are opened as the first
+ * employee of their bank arrives and written through a buffered FileChannel, so memory use does not
+ * grow with the number of employees. Each file ends with a trailer of control totals: record count,
+ * total amount and hash total of the account numbers.
+ *
+ * Only FINALIZED payrolls with a positive net pay are disbursed. Payrolls that are not finalized,
+ * employees paid by cash or check, and bank transfers without a bank or account number are counted
+ * in the result by reason instead.
+ */
+public class DisbursementFileGenerator {
+    public static final String BANK_TRANSFER = "BANK_TRANSFER";
+    public static final int PROGRESS_INTERVAL = 1000;
+    
+    static final String SKIP_NOT_FINALIZED = "Not finalized";
+    static final String SKIP_NO_NET_PAY = "No net pay";
+    static final String SKIP_UNKNOWN_EMPLOYEE = "Unknown employee";
+    static final String SKIP_NO_BANK = "No bank or account number";
+    
+    private final DatabaseDAO databaseDAO;
+    private final PayrollManager payrollManager;
+    private DisbursementFormatRegistry formats = DisbursementFormatRegistry.getDefault();
+    
+    public DisbursementFileGenerator(PayrollManager payrollManager) {
+        this(new MySQLDatabaseDAO(), payrollManager);
+    }
+    
+    /**
+     * @param payrollManager Flushed before reading so that payrolls just finalized are included; may be null
+     */
+    public DisbursementFileGenerator(DatabaseDAO databaseDAO, PayrollManager payrollManager) {
+        this.databaseDAO = databaseDAO;
+        this.payrollManager = payrollManager;
+    }
+    
+    /**
+     * Use a specific format registry instead of the default one
+     */
+    public void setFormats(DisbursementFormatRegistry formats) {
+        this.formats = formats;
+    }
+    
+    /**
+     * Write one disbursement file per bank for a pay period into a directory, named
+     * {@code <period key>-<bank>.<ext>}. Each payroll is credited on its own pay date, so payrolls of the
+     * period paid on another date go to a file of their own. Existing files of the same name are overwritten.
+     * @param listener Progress callback, invoked every PROGRESS_INTERVAL payrolls (total is unknown, -1)
+     */
+    public Result generate(PayPeriod period, Path directory, ProgressListener listener) throws IOException {
+        ProgressListener progress = listener != null ? listener : ProgressListener.NONE;
+        long startTime = System.currentTimeMillis();
+        Result result = new Result(period);
+        
+        if (payrollManager != null && !payrollManager.flush()) {
+            throw new IOException("Could not save pending payroll changes before reading " + period.getKey());
+        }
+        Files.createDirectories(directory);
+        
+        // The payroll stream holds the connection, so bank details are read before it starts
+        Map<Integer, Employee> employees = new HashMap<>();
+        for (Employee employee : databaseDAO.getAllEmployees()) {
+            employees.put(employee.getEmployeeId(), employee);
+        }
+        
+        Map<String, OpenFile> open = new LinkedHashMap<>();
+        boolean completed = false;
+        try {
+            // Payrolls of other frequencies starting within the period are not part of it
+            String payPeriod = period.getKey();
+            long streamed = databaseDAO.streamPayrollByPeriod(Date.valueOf(period.getStart()), Date.valueOf(period.getEnd()),
+                payroll -> {
+                    if (!payPeriod.equals(payroll.getPayPeriod())) {
+                        return;
+                    }
+                    try {
+                        disburse(payroll, employees.get(payroll.getEmployeeId()), period, directory, open, result);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    if (++result.payrollsRead % PROGRESS_INTERVAL == 0) {
+                        progress.onProgress(result.payrollsRead, -1);
+                    }
+                });
+            if (streamed < 0) {
+                throw new IOException("Database error while reading " + period.getKey() + " payrolls after " + result.payrollsRead + " rows");
+            }
+            for (OpenFile file : open.values()) {
+                file.format.writeTrailer(file.writer, file.batch);
+            }
+            completed = true;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            closeAll(open, completed);
+        }
+        
+        for (OpenFile file : open.values()) {
+            result.files.add(new BankFile(file.path, file.format.getName(), file.batch));
+        }
+        progress.onProgress(result.payrollsRead, result.payrollsRead);
+        result.elapsedMillis = System.currentTimeMillis() - startTime;
+        return result;
+    }
+    
+    private void disburse(Payroll payroll, Employee employee, PayPeriod period, Path directory,
+                          Map<String, OpenFile> open, Result result) throws IOException {
+        if (!payroll.isFinalized()) {
+            result.skip(SKIP_NOT_FINALIZED);
+            return;
+        }
+        long amount = payroll.getNetPayAmount().getCentavos();
+        if (amount <= 0) {
+            result.skip(SKIP_NO_NET_PAY);
+            return;
+        }
+        if (employee == null) {
+            result.skip(SKIP_UNKNOWN_EMPLOYEE);
+            return;
+        }
+        String method = employee.getPaymentMethod() != null && !employee.getPaymentMethod().trim().isEmpty()
+                        ? employee.getPaymentMethod().trim().toUpperCase(Locale.ROOT) : BANK_TRANSFER;
+        if (!BANK_TRANSFER.equals(method)) {
+            result.skip("Paid by " + method);
+            return;
+        }
+        String bank = employee.getBankName() != null ? employee.getBankName().trim() : "";
+        if (bank.isEmpty() || isBlank(employee.getAccountNumber())) {
+            result.skip(SKIP_NO_BANK);
+            return;
+        }
+        
+        LocalDate payDate = payroll.getPayDate() != null ? payroll.getPayDate() : period.getPayDate();
+        String fileKey = bank.toUpperCase(Locale.ROOT) + "|" + payDate;
+        OpenFile file = open.get(fileKey);
+        if (file == null) {
+            file = openFile(bank, period, payDate, directory, open);
+            open.put(fileKey, file);
+        }
+        String employeeId = String.format("EMP%03d", employee.getEmployeeId());
+        String accountName = !isBlank(employee.getAccountHolderName()) ? employee.getAccountHolderName().trim()
+                             : employee.getFullName();
+        DisbursementFormat.Entry entry = new DisbursementFormat.Entry(
+            file.batch.getRecordCount() + 1, employeeId, accountName, employee.getAccountNumber().trim(),
+            employee.getBankBranch(), employee.getRoutingNumber(), amount, "PAY " + period.getKey() + " " + employeeId);
+        file.batch.add(entry);
+        file.format.writeEntry(file.writer, file.batch, entry);
+    }
+    
+    private OpenFile openFile(String bank, PayPeriod period, LocalDate payDate, Path directory,
+                              Map<String, OpenFile> open) throws IOException {
+        DisbursementFormatRegistry.BankProfile profile = formats.forBank(bank);
+        DisbursementFormat format = profile.getFormat();
+        String name = period.getKey() + "-" + fileNamePart(bank);
+        Path path = directory.resolve(name + "." + format.getExtension());
+        for (OpenFile other : open.values()) {
+            if (other.path.equals(path)) {
+                // Another pay date of the bank, or another spelling of a bank name reduced to the same file name
+                path = directory.resolve(name + "-" + (open.size() + 1) + "." + format.getExtension());
+                break;
+            }
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                               StandardOpenOption.WRITE);
+        OpenFile file = new OpenFile(path, format, new DisbursementWriter(channel, format.getCharset(), format.getLineSeparator()),
+                                     new DisbursementFormat.Batch(bank, profile.getCompanyAccount(), period, payDate));
+        format.writeHeader(file.writer, file.batch);
+        return file;
+    }
+    
+    /**
+     * Close every file; if generation failed part way, delete them so no incomplete file is sent to a bank
+     */
+    private static void closeAll(Map<String, OpenFile> open, boolean completed) throws IOException {
+        IOException failure = null;
+        for (OpenFile file : open.values()) {
+            try {
+                file.writer.close();
+            } catch (IOException e) {
+                failure = failure != null ? failure : e;
+            }
+            if (!completed || failure != null) {
+                Files.deleteIfExists(file.path);
+            }
+        }
+        if (failure != null && completed) {
+            throw failure;
+        }
+    }
+    
+    private static String fileNamePart(String bank) {
+        String part = Normalizer.normalize(bank.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}+", "")
+                                .replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_+|_+$", "");
+        return part.isEmpty() ? "bank" : part.toLowerCase(Locale.ROOT);
+    }
+    
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+    
+    private static final class OpenFile {
+        final Path path;
+        final DisbursementFormat format;
+        final DisbursementWriter writer;
+        final DisbursementFormat.Batch batch;
+        
+        OpenFile(Path path, DisbursementFormat format, DisbursementWriter writer, DisbursementFormat.Batch batch) {
+            this.path = path;
+            this.format = format;
+            this.writer = writer;
+            this.batch = batch;
+        }
+    }
+    
+    /**
+     * One bank's file with its control totals
+     */
+    public static final class BankFile {
+        private final Path path;
+        private final String format;
+        private final String bank;
+        private final long records;
+        private final long totalCentavos;
+        private final long hashTotal;
+        
+        BankFile(Path path, String format, DisbursementFormat.Batch batch) {
+            this.path = path;
+            this.format = format;
+            this.bank = batch.getBank();
+            this.records = batch.getRecordCount();
+            this.totalCentavos = batch.getTotalCentavos();
+            this.hashTotal = batch.getHashTotal();
+        }
+        
+        public Path getPath() { return path; }
+        public String getFormat() { return format; }
+        public String getBank() { return bank; }
+        public long getRecords() { return records; }
+        public Money getTotalAmount() { return Money.ofCentavos(totalCentavos); }
+        public long getHashTotal() { return hashTotal; }
+        
+        @Override
+        public String toString() {
+            return String.format("%s (%s): %d records, %s, hash %d", bank, format, records, getTotalAmount().format(), hashTotal);
+        }
+    }
+    
+    /**
+     * Files written for one pay period and the payrolls left out of them
+     */
+    public static class Result {
+        private final PayPeriod period;
+        private final List<BankFile> files = new ArrayList<>();
+        private final Map<String, Long> skipped = new TreeMap<>();
+        private long payrollsRead;
+        private long elapsedMillis;
+        
+        Result(PayPeriod period) {
+            this.period = period;
+        }
+        
+        void skip(String reason) {
+            skipped.merge(reason, 1L, Long::sum);
+        }
+        
+        public PayPeriod getPeriod() { return period; }
+        public List<BankFile> getFiles() { return Collections.unmodifiableList(files); }
+        public long getPayrollsRead() { return payrollsRead; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        
+        /**
+         * Payrolls not disbursed, counted by reason
+         */
+        public Map<String, Long> getSkipped() { return Collections.unmodifiableMap(skipped); }
+        
+        public long getRecords() {
+            long records = 0;
+            for (BankFile file : files) {
+                records += file.getRecords();
+            }
+            return records;
+        }
+        
+        public Money getTotalAmount() {
+            Money total = Money.ZERO;
+            for (BankFile file : files) {
+                total = total.plus(file.getTotalAmount());
+            }
+            return total;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("Disbursement %s: %d payrolls read, %d records in %d files, %s, skipped %s in %d ms",
+                                 period.getKey(), payrollsRead, getRecords(), files.size(), getTotalAmount().format(), skipped, elapsedMillis);
+        }
+    }
+}
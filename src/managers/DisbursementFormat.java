@@ -0,0 +1,271 @@
+package managers;
+
+import models.Money;
+import models.PayPeriod;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Layout of a bank disbursement (payroll credit) file: a header record, one record per employee
+ * credited, and a trailer record carrying the control totals the bank checks the file against.
+ *
+ * Formats are looked up by name in a DisbursementFormatRegistry; implement this interface and
+ * register it there to support another bank's layout. Records are written as they arrive, so a
+ * format never sees more than one entry at a time; the batch passed to the trailer holds the
+ * totals of every entry written.
+ */
+public interface DisbursementFormat {
+    /**
+     * Name the format is registered and configured under, e.g. "CSV"
+     */
+    String getName();
+    
+    /**
+     * File name extension, without the dot
+     */
+    String getExtension();
+    
+    Charset getCharset();
+    
+    String getLineSeparator();
+    
+    void writeHeader(DisbursementWriter out, Batch batch) throws IOException;
+    
+    void writeEntry(DisbursementWriter out, Batch batch, Entry entry) throws IOException;
+    
+    void writeTrailer(DisbursementWriter out, Batch batch) throws IOException;
+    
+    /**
+     * Comma-separated records tagged H (header), D (detail) and T (trailer), UTF-8 with LF line ends:
+     *
+     * <pre>
+     * H,company account,bank,payroll month,pay date
+     * D,sequence,employee ID,account name,account number,branch,routing number,amount,reference
+     * T,record count,total amount,hash total
+     * </pre>
+     *
+     * Amounts are in pesos with two decimals.
+     */
+    static DisbursementFormat csv() {
+        return new Csv("CSV");
+    }
+    
+    /**
+     * 120-character records in US-ASCII with CRLF line ends; numbers are zero-filled on the left and
+     * text is space-filled on the right:
+     *
+     * <pre>
+     * Header   1 'H'  2-17 company account  18-25 pay date yyyyMMdd  26-31 payroll month yyyyMM  32-61 bank
+     * Detail   1 'D'  2-7 sequence  8-23 account number  24-38 amount in centavos  39-48 employee ID
+     *          49-88 account name  89-99 routing number  100-119 branch
+     * Trailer  1 'T'  2-7 record count  8-25 total in centavos  26-41 hash total
+     * </pre>
+     */
+    static DisbursementFormat fixedWidth() {
+        return new FixedWidth("FIXED_WIDTH");
+    }
+    
+    /**
+     * One bank's file for one payroll month, with running control totals
+     */
+    final class Batch {
+        private static final long ACCOUNT_HASH_MODULUS = 1_000_000_000_000_000L;
+        private static final long HASH_MODULUS = 10_000_000_000_000_000L;
+        
+        private final String bank;
+        private final String companyAccount;
+        private final PayPeriod period;
+        private final LocalDate payDate;
+        private long recordCount;
+        private long totalCentavos;
+        private long hashTotal;
+        
+        public Batch(String bank, String companyAccount, PayPeriod period, LocalDate payDate) {
+            this.bank = bank;
+            this.companyAccount = companyAccount != null ? companyAccount : "";
+            this.period = period;
+            this.payDate = payDate;
+        }
+        
+        /**
+         * Count an entry into the control totals
+         */
+        void add(Entry entry) {
+            recordCount++;
+            totalCentavos += entry.getAmountCentavos();
+            hashTotal = (hashTotal + accountHash(entry.getAccountNumber())) % HASH_MODULUS;
+        }
+        
+        public String getBank() { return bank; }
+        public String getCompanyAccount() { return companyAccount; }
+        public PayPeriod getPeriod() { return period; }
+        public LocalDate getPayDate() { return payDate; }
+        public long getRecordCount() { return recordCount; }
+        public long getTotalCentavos() { return totalCentavos; }
+        public Money getTotalAmount() { return Money.ofCentavos(totalCentavos); }
+        
+        /**
+         * Sum of the credited account numbers (digits only, last 15 of each) modulo 10^16
+         */
+        public long getHashTotal() { return hashTotal; }
+        
+        static long accountHash(String accountNumber) {
+            long value = 0;
+            if (accountNumber != null) {
+                for (int i = 0; i < accountNumber.length(); i++) {
+                    char ch = accountNumber.charAt(i);
+                    if (ch >= '0' && ch <= '9') {
+                        value = (value * 10 + (ch - '0')) % ACCOUNT_HASH_MODULUS;
+                    }
+                }
+            }
+            return value;
+        }
+    }
+    
+    /**
+     * One employee's credit
+     */
+    final class Entry {
+        private final long sequence;
+        private final String employeeId;
+        private final String accountName;
+        private final String accountNumber;
+        private final String branch;
+        private final String routingNumber;
+        private final long amountCentavos;
+        private final String reference;
+        
+        public Entry(long sequence, String employeeId, String accountName, String accountNumber, String branch,
+                     String routingNumber, long amountCentavos, String reference) {
+            this.sequence = sequence;
+            this.employeeId = employeeId;
+            this.accountName = accountName;
+            this.accountNumber = accountNumber;
+            this.branch = branch;
+            this.routingNumber = routingNumber;
+            this.amountCentavos = amountCentavos;
+            this.reference = reference;
+        }
+        
+        public long getSequence() { return sequence; }
+        public String getEmployeeId() { return employeeId; }
+        public String getAccountName() { return accountName; }
+        public String getAccountNumber() { return accountNumber; }
+        public String getBranch() { return branch; }
+        public String getRoutingNumber() { return routingNumber; }
+        public long getAmountCentavos() { return amountCentavos; }
+        public String getReference() { return reference; }
+    }
+    
+    /**
+     * See {@link DisbursementFormat#csv()}
+     */
+    class Csv implements DisbursementFormat {
+        private final String name;
+        
+        public Csv(String name) {
+            this.name = name;
+        }
+        
+        @Override public String getName() { return name; }
+        @Override public String getExtension() { return "csv"; }
+        @Override public Charset getCharset() { return StandardCharsets.UTF_8; }
+        @Override public String getLineSeparator() { return "\n"; }
+        
+        @Override
+        public void writeHeader(DisbursementWriter out, Batch batch) throws IOException {
+            out.write("H,").write(CsvWriter.escape(batch.getCompanyAccount())).write(',')
+               .write(CsvWriter.escape(batch.getBank())).write(',')
+               .write(batch.getPeriod().getKey()).write(',')
+               .write(batch.getPayDate().toString()).endRecord();
+        }
+        
+        @Override
+        public void writeEntry(DisbursementWriter out, Batch batch, Entry entry) throws IOException {
+            out.write("D,").write(Long.toString(entry.getSequence())).write(',')
+               .write(CsvWriter.escape(entry.getEmployeeId())).write(',')
+               .write(CsvWriter.escape(entry.getAccountName())).write(',')
+               .write(CsvWriter.escape(entry.getAccountNumber())).write(',')
+               .write(CsvWriter.escape(entry.getBranch())).write(',')
+               .write(CsvWriter.escape(entry.getRoutingNumber())).write(',')
+               .write(pesos(entry.getAmountCentavos())).write(',')
+               .write(CsvWriter.escape(entry.getReference())).endRecord();
+        }
+        
+        @Override
+        public void writeTrailer(DisbursementWriter out, Batch batch) throws IOException {
+            out.write("T,").write(Long.toString(batch.getRecordCount())).write(',')
+               .write(pesos(batch.getTotalCentavos())).write(',')
+               .write(Long.toString(batch.getHashTotal())).endRecord();
+        }
+        
+        private static String pesos(long centavos) {
+            return BigDecimal.valueOf(centavos, 2).toPlainString();
+        }
+    }
+    
+    /**
+     * See {@link DisbursementFormat#fixedWidth()}
+     */
+    class FixedWidth implements DisbursementFormat {
+        public static final int RECORD_LENGTH = 120;
+        private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+        private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+        
+        private final String name;
+        
+        public FixedWidth(String name) {
+            this.name = name;
+        }
+        
+        @Override public String getName() { return name; }
+        @Override public String getExtension() { return "txt"; }
+        @Override public Charset getCharset() { return StandardCharsets.US_ASCII; }
+        @Override public String getLineSeparator() { return "\r\n"; }
+        
+        @Override
+        public void writeHeader(DisbursementWriter out, Batch batch) throws IOException {
+            out.write('H')
+               .writeDigits(batch.getCompanyAccount(), 16)
+               .write(batch.getPayDate().format(DATE))
+               .write(batch.getPeriod().getPayrollMonth().format(MONTH))
+               .writeLeft(upper(batch.getBank()), 30)
+               .pad(' ', RECORD_LENGTH - 61)
+               .endRecord();
+        }
+        
+        @Override
+        public void writeEntry(DisbursementWriter out, Batch batch, Entry entry) throws IOException {
+            out.write('D')
+               .writeNumber(entry.getSequence(), 6)
+               .writeDigits(entry.getAccountNumber(), 16)
+               .writeNumber(entry.getAmountCentavos(), 15)
+               .writeLeft(entry.getEmployeeId(), 10)
+               .writeLeft(upper(entry.getAccountName()), 40)
+               .writeLeft(entry.getRoutingNumber(), 11)
+               .writeLeft(upper(entry.getBranch()), 20)
+               .pad(' ', RECORD_LENGTH - 119)
+               .endRecord();
+        }
+        
+        @Override
+        public void writeTrailer(DisbursementWriter out, Batch batch) throws IOException {
+            out.write('T')
+               .writeNumber(batch.getRecordCount(), 6)
+               .writeNumber(batch.getTotalCentavos(), 18)
+               .writeNumber(batch.getHashTotal(), 16)
+               .pad(' ', RECORD_LENGTH - 41)
+               .endRecord();
+        }
+        
+        private static String upper(String text) {
+            return text != null ? text.toUpperCase() : "";
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package managers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Disbursement file formats by name, and which one each bank is sent.
+ *
+ * The built-in formats are CSV and FIXED_WIDTH (see {@link DisbursementFormat}); other layouts are
+ * added with {@link #register}. Banks are configured in {@code banks.csv} in the disbursement
+ * directory, one bank per line:
+ *
+ * <pre>
+ * bank,format,company_account
+ * BDO,FIXED_WIDTH,001234567890
+ * Metrobank,CSV,
+ * </pre>
+ *
+ * The bank is matched against Employee.bankName ignoring case and surrounding spaces; the company
+ * account is the payroll account the bank debits. Banks that are not configured get the default
+ * format (CSV) and no company account.
+ */
+public class DisbursementFormatRegistry {
+    public static final String DEFAULT_DIRECTORY = System.getProperty("payroll.disbursement.dir", "config/disbursement");
+    public static final String BANKS_FILE = "banks.csv";
+    public static final String DEFAULT_FORMAT = "CSV";
+    
+    private static volatile DisbursementFormatRegistry defaultRegistry;
+    
+    private final Map<String, DisbursementFormat> formats = new ConcurrentHashMap<>();
+    private final Map<String, BankProfile> banks = new ConcurrentHashMap<>();
+    
+    public DisbursementFormatRegistry() {
+        register(DisbursementFormat.csv());
+        register(DisbursementFormat.fixedWidth());
+    }
+    
+    /**
+     * Registry loaded from DEFAULT_DIRECTORY on first use
+     */
+    public static DisbursementFormatRegistry getDefault() {
+        DisbursementFormatRegistry registry = defaultRegistry;
+        if (registry == null) {
+            synchronized (DisbursementFormatRegistry.class) {
+                registry = defaultRegistry;
+                if (registry == null) {
+                    registry = load(Paths.get(DEFAULT_DIRECTORY));
+                    defaultRegistry = registry;
+                }
+            }
+        }
+        return registry;
+    }
+    
+    /**
+     * Re-read the bank configuration, e.g. after a bank has been added
+     */
+    public static synchronized DisbursementFormatRegistry reloadDefault() {
+        defaultRegistry = load(Paths.get(DEFAULT_DIRECTORY));
+        return defaultRegistry;
+    }
+    
+    /**
+     * Load the bank configuration from a directory. Lines that cannot be parsed are reported and
+     * skipped; a missing file leaves every bank on the default format.
+     */
+    public static DisbursementFormatRegistry load(Path directory) {
+        DisbursementFormatRegistry registry = new DisbursementFormatRegistry();
+        Path file = directory.resolve(BANKS_FILE);
+        if (Files.isRegularFile(file)) {
+            try {
+                int lineNumber = 0;
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    lineNumber++;
+                    String trimmed = line.trim();
+                    if (trimmed.isEmpty() || trimmed.startsWith("#") || trimmed.toLowerCase(Locale.ROOT).startsWith("bank,")) {
+                        continue;
+                    }
+                    String[] fields = trimmed.split(",", -1);
+                    if (fields.length < 2 || fields[0].trim().isEmpty()) {
+                        System.err.println("Error loading " + file + " line " + lineNumber + ": expected bank,format[,company_account]");
+                        continue;
+                    }
+                    try {
+                        registry.configureBank(fields[0].trim(), fields[1].trim(), fields.length > 2 ? fields[2].trim() : "");
+                    } catch (IllegalArgumentException e) {
+                        System.err.println("Error loading " + file + " line " + lineNumber + ": " + e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error reading disbursement banks from " + file + ": " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+        return registry;
+    }
+    
+    /**
+     * Add a format, replacing any registered under the same name
+     */
+    public void register(DisbursementFormat format) {
+        formats.put(key(format.getName()), format);
+    }
+    
+    /**
+     * Send a bank files in a registered format
+     * @param companyAccount Payroll account the bank debits, or empty if the bank does not need it
+     */
+    public void configureBank(String bank, String formatName, String companyAccount) {
+        if (!formats.containsKey(key(formatName))) {
+            throw new IllegalArgumentException("Unknown disbursement format for " + bank + ": " + formatName);
+        }
+        banks.put(key(bank), new BankProfile(bank, formatName, companyAccount));
+    }
+    
+    /**
+     * The format registered under a name, or null
+     */
+    public DisbursementFormat getFormat(String name) {
+        return name != null ? formats.get(key(name)) : null;
+    }
+    
+    public List<DisbursementFormat> getFormats() {
+        List<DisbursementFormat> list = new ArrayList<>(formats.values());
+        list.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return list;
+    }
+    
+    /**
+     * How files for a bank are produced: its configured profile, or the default format
+     */
+    public BankProfile forBank(String bank) {
+        BankProfile profile = bank != null ? banks.get(key(bank)) : null;
+        return profile != null ? profile : new BankProfile(bank, DEFAULT_FORMAT, "");
+    }
+    
+    /**
+     * Configured banks, by name
+     */
+    public Map<String, BankProfile> getBanks() {
+        Map<String, BankProfile> sorted = new LinkedHashMap<>();
+        List<BankProfile> profiles = new ArrayList<>(banks.values());
+        profiles.sort((a, b) -> a.getBank().compareToIgnoreCase(b.getBank()));
+        for (BankProfile profile : profiles) {
+            sorted.put(profile.getBank(), profile);
+        }
+        return Collections.unmodifiableMap(sorted);
+    }
+    
+    private static String key(String name) {
+        return name.trim().toUpperCase(Locale.ROOT);
+    }
+    
+    /**
+     * The format and company account a bank's files are written with
+     */
+    public final class BankProfile {
+        private final String bank;
+        private final String formatName;
+        private final String companyAccount;
+        
+        private BankProfile(String bank, String formatName, String companyAccount) {
+            this.bank = bank;
+            this.formatName = formatName;
+            this.companyAccount = companyAccount;
+        }
+        
+        public String getBank() { return bank; }
+        public String getCompanyAccount() { return companyAccount; }
+        
+        public DisbursementFormat getFormat() {
+            return formats.get(key(formatName));
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package managers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.text.Normalizer;
+
+/**
+ * Record writer for bank disbursement and agency remittance files, writing through a channel.
+ *
+ * Text is encoded straight into one reusable direct buffer that is written to the channel whenever
+ * it fills, so a file of any size is produced with a fixed amount of memory. Characters the file's
+ * charset cannot represent are written without their accents where possible (N for Ñ) and as '?'
+ * otherwise, since bank and agency formats are usually plain ASCII.
+ */
+public class DisbursementWriter implements Closeable {
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    
+    private final WritableByteChannel channel;
+    private final CharsetEncoder encoder;
+    private final ByteBuffer buffer;
+    private final String lineSeparator;
+    private long bytesWritten;
+    
+    public DisbursementWriter(WritableByteChannel channel, Charset charset, String lineSeparator) {
+        this(channel, charset, lineSeparator, DEFAULT_BUFFER_SIZE);
+    }
+    
+    public DisbursementWriter(WritableByteChannel channel, Charset charset, String lineSeparator, int bufferSize) {
+        this.channel = channel;
+        this.encoder = charset.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE)
+            .replaceWith(new byte[] {'?'});
+        this.buffer = ByteBuffer.allocateDirect(Math.max(256, bufferSize));
+        this.lineSeparator = lineSeparator;
+    }
+    
+    /**
+     * Write text as is (after replacing characters the charset cannot represent)
+     */
+    public DisbursementWriter write(CharSequence text) throws IOException {
+        if (text == null || text.length() == 0) {
+            return this;
+        }
+        CharSequence encodable = text;
+        if (!encoder.canEncode(text)) {
+            encodable = stripAccents(text);
+        }
+        CharBuffer chars = CharBuffer.wrap(encodable);
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if (result.isOverflow()) {
+                drain();
+            } else {
+                break;
+            }
+        }
+        while (encoder.flush(buffer).isOverflow()) {
+            drain();
+        }
+        return this;
+    }
+    
+    public DisbursementWriter write(char ch) throws IOException {
+        if (ch < 0x80 && buffer.hasRemaining()) {
+            buffer.put((byte) ch);
+            return this;
+        }
+        return write(String.valueOf(ch));
+    }
+    
+    /**
+     * Write text left-aligned in a field of a fixed width: padded with spaces, or cut off if longer
+     */
+    public DisbursementWriter writeLeft(String text, int width) throws IOException {
+        String value = text != null ? text : "";
+        if (value.length() >= width) {
+            return write(value.substring(0, width));
+        }
+        write(value);
+        return pad(' ', width - value.length());
+    }
+    
+    /**
+     * Write a non-negative number right-aligned and zero-filled in a field of a fixed width. A number
+     * with more digits than the field keeps its lowest digits, as a hash total would.
+     */
+    public DisbursementWriter writeNumber(long value, int width) throws IOException {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative amount in a fixed-width field: " + value);
+        }
+        String digits = Long.toString(value);
+        if (digits.length() > width) {
+            return write(digits.substring(digits.length() - width));
+        }
+        pad('0', width - digits.length());
+        return write(digits);
+    }
+    
+    /**
+     * Write digits right-aligned and zero-filled in a field of a fixed width, ignoring anything that
+     * is not a digit (dashes and spaces in account numbers)
+     */
+    public DisbursementWriter writeDigits(String text, int width) throws IOException {
+        StringBuilder digits = new StringBuilder(width);
+        if (text != null) {
+            for (int i = 0; i < text.length(); i++) {
+                char ch = text.charAt(i);
+                if (ch >= '0' && ch <= '9') {
+                    digits.append(ch);
+                }
+            }
+        }
+        if (digits.length() > width) {
+            return write(digits.substring(digits.length() - width));
+        }
+        pad('0', width - digits.length());
+        return write(digits);
+    }
+    
+    public DisbursementWriter pad(char ch, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            write(ch);
+        }
+        return this;
+    }
+    
+    /**
+     * End the current record with the format's line separator
+     */
+    public DisbursementWriter endRecord() throws IOException {
+        return write(lineSeparator);
+    }
+    
+    /**
+     * Bytes handed to the channel so far, not counting what is still buffered
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+    
+    /**
+     * Write out whatever is buffered
+     */
+    public void flush() throws IOException {
+        drain();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+    
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesWritten += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+    
+    private static String stripAccents(CharSequence text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+    }
+}
@@ -0,0 +1,376 @@
+package managers;
+
+import models.Employee;
+import database.DatabaseDAO;
+import database.MySQLDatabaseDAO;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk employee import from CSV files.
+ *
+ * The file is streamed in fixed-size chunks so memory stays flat regardless of file size.
+ * Each chunk is validated in parallel, employee IDs are allocated as one block per chunk,
+ * and accepted rows are written with a single batched insert. Rejected rows are written to
+ * an error report CSV together with the line number and the reason.
+ *
+ * Expected header (case-insensitive, any order):
+ * first_name, last_name, email, department, position, salary, hire_date
+ * Optional: phone, job_title, manager, payment_method, payment_frequency, bank_name,
+ * account_number, account_holder_name, bank_branch, routing_number, sss_number, philhealth_number,
+ * pagibig_number, tin
+ */
+public class EmployeeImportManager {
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    // Monthly salary range accepted on import (minimum is the lowest regional daily wage x 22 days)
+    public static final double DEFAULT_MIN_SALARY = PhilippinePayrollCalculator.REGION_4A_MINIMUM_WAGE
+                                                    * PhilippinePayrollCalculator.STANDARD_WORKING_DAYS_PER_MONTH;
+    public static final double DEFAULT_MAX_SALARY = 5_000_000.0;
+
+    private static final String[] REQUIRED_COLUMNS = {
+        "first_name", "last_name", "email", "department", "position", "salary", "hire_date"
+    };
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final String EMAIL_PATTERN = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$";
+
+    private DatabaseDAO databaseDAO;
+    private int chunkSize;
+    private double minSalary;
+    private double maxSalary;
+
+    public EmployeeImportManager() {
+        this(new MySQLDatabaseDAO());
+    }
+
+    public EmployeeImportManager(DatabaseDAO databaseDAO) {
+        this.databaseDAO = databaseDAO;
+        this.chunkSize = DEFAULT_CHUNK_SIZE;
+        this.minSalary = DEFAULT_MIN_SALARY;
+        this.maxSalary = DEFAULT_MAX_SALARY;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    public void setSalaryRange(double minSalary, double maxSalary) {
+        this.minSalary = minSalary;
+        this.maxSalary = maxSalary;
+    }
+
+    /**
+     * Import employees from a CSV file
+     * @param csvFile The CSV file to import
+     * @param errorReport Where rejected rows are written (created or overwritten)
+     * @param listener Progress callback, invoked once per chunk with rows read so far
+     * @return Summary of the import
+     */
+    public ImportResult importEmployees(Path csvFile, Path errorReport, ProgressListener listener) throws IOException {
+        if (listener == null) {
+            listener = ProgressListener.NONE;
+        }
+        long startTime = System.currentTimeMillis();
+        ImportResult result = new ImportResult(errorReport);
+
+        // Load existing state once: emails for uniqueness, max IDs for block allocation
+        List<Employee> existing = databaseDAO.getAllEmployeesForIdCheck();
+        Set<String> knownEmails = ConcurrentHashMap.newKeySet();
+        int maxId = 0;
+        Map<String, Integer> comprehensiveSequences = new HashMap<>();
+        for (Employee emp : existing) {
+            if (emp.getEmail() != null) {
+                knownEmails.add(emp.getEmail().toLowerCase());
+            }
+            maxId = Math.max(maxId, emp.getEmployeeId());
+            trackComprehensiveSequence(comprehensiveSequences, emp.getComprehensiveEmployeeId());
+        }
+        AtomicInteger nextId = new AtomicInteger(maxId + 1);
+
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(csvFile, StandardCharsets.UTF_8));
+             BufferedWriter errors = Files.newBufferedWriter(errorReport, StandardCharsets.UTF_8)) {
+
+            errors.write("line,reason,raw_record");
+            errors.newLine();
+
+            String[] header = reader.readRecord();
+            if (header == null) {
+                return result;
+            }
+            Map<String, Integer> columns = mapHeader(header);
+            for (String required : REQUIRED_COLUMNS) {
+                if (!columns.containsKey(required)) {
+                    throw new IOException("Missing required column: " + required);
+                }
+            }
+
+            List<CsvRow> chunk = new ArrayList<>(chunkSize);
+            String[] record;
+            while ((record = reader.readRecord()) != null) {
+                if (record.length == 1 && record[0].trim().isEmpty()) {
+                    continue; // Blank line
+                }
+                chunk.add(new CsvRow(reader.getRecordLineNumber(), record));
+                if (chunk.size() >= chunkSize) {
+                    processChunk(chunk, columns, knownEmails, nextId, comprehensiveSequences, errors, result);
+                    chunk.clear();
+                    listener.onProgress(result.getRowsRead(), -1);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                processChunk(chunk, columns, knownEmails, nextId, comprehensiveSequences, errors, result);
+                listener.onProgress(result.getRowsRead(), -1);
+            }
+        }
+
+        result.elapsedMillis = System.currentTimeMillis() - startTime;
+        System.out.println("Employee import finished: " + result);
+        return result;
+    }
+
+    private void processChunk(List<CsvRow> chunk, Map<String, Integer> columns, Set<String> knownEmails,
+                              AtomicInteger nextId, Map<String, Integer> comprehensiveSequences,
+                              BufferedWriter errors, ImportResult result) throws IOException {
+        result.rowsRead += chunk.size();
+
+        // Field-level validation has no shared state, so it runs in parallel
+        List<RowOutcome> outcomes = chunk.parallelStream()
+            .map(row -> validateRow(row, columns))
+            .collect(Collectors.toList());
+
+        // Email uniqueness is checked in file order so the first occurrence of a duplicate wins
+        List<RowOutcome> accepted = new ArrayList<>(outcomes.size());
+        for (RowOutcome outcome : outcomes) {
+            if (outcome.error == null && !knownEmails.add(outcome.employee.getEmail().toLowerCase())) {
+                outcome.error = "Email already in use: " + outcome.employee.getEmail();
+            }
+            if (outcome.error != null) {
+                writeError(errors, outcome.row, outcome.error);
+                result.rejected++;
+            } else {
+                accepted.add(outcome);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        // Allocate one contiguous block of IDs for the whole chunk
+        int firstId = nextId.getAndAdd(accepted.size());
+        List<Employee> batch = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            Employee employee = accepted.get(i).employee;
+            employee.setEmployeeId(firstId + i);
+            employee.setComprehensiveEmployeeId(nextComprehensiveId(comprehensiveSequences,
+                                                                    employee.getDepartment(), employee.getHireDate()));
+            batch.add(employee);
+        }
+
+        int[] counts = databaseDAO.insertEmployeesBatch(batch);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == Statement.EXECUTE_FAILED) {
+                writeError(errors, accepted.get(i).row, "Database rejected row");
+                knownEmails.remove(batch.get(i).getEmail().toLowerCase());
+                result.rejected++;
+            } else {
+                result.imported++;
+            }
+        }
+    }
+
+    private RowOutcome validateRow(CsvRow row, Map<String, Integer> columns) {
+        RowOutcome outcome = new RowOutcome(row);
+        String firstName = value(row, columns, "first_name");
+        String lastName = value(row, columns, "last_name");
+        String email = value(row, columns, "email");
+        String department = value(row, columns, "department");
+        String position = value(row, columns, "position");
+        String salaryText = value(row, columns, "salary");
+        String hireDateText = value(row, columns, "hire_date");
+
+        if (firstName.isEmpty() || lastName.isEmpty()) {
+            outcome.error = "First and last name are required";
+            return outcome;
+        }
+        if (!email.matches(EMAIL_PATTERN)) {
+            outcome.error = "Invalid email: " + email;
+            return outcome;
+        }
+        if (!DepartmentPositionManager.isDepartmentValid(department)) {
+            outcome.error = "Unknown department: " + department;
+            return outcome;
+        }
+        if (!DepartmentPositionManager.isPositionValidForDepartment(department, position)) {
+            outcome.error = "Position '" + position + "' is not valid for " + department;
+            return outcome;
+        }
+
+        double salary;
+        try {
+            salary = Double.parseDouble(salaryText.replace(",", ""));
+        } catch (NumberFormatException e) {
+            outcome.error = "Invalid salary: " + salaryText;
+            return outcome;
+        }
+        if (salary < minSalary || salary > maxSalary) {
+            outcome.error = String.format("Salary %.2f outside allowed range %.2f - %.2f", salary, minSalary, maxSalary);
+            return outcome;
+        }
+
+        LocalDate hireDate;
+        try {
+            hireDate = LocalDate.parse(hireDateText, DATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            outcome.error = "Invalid hire date (expected yyyy-MM-dd): " + hireDateText;
+            return outcome;
+        }
+
+        Employee employee = new Employee(0, firstName, lastName, email, department, position, salary, hireDate);
+        employee.setJoiningDate(hireDate);
+        String phone = value(row, columns, "phone");
+        employee.setPhone(phone.isEmpty() ? null : phone);
+        String jobTitle = value(row, columns, "job_title");
+        if (!jobTitle.isEmpty()) employee.setJobTitle(jobTitle);
+        String manager = value(row, columns, "manager");
+        if (!manager.isEmpty()) employee.setManager(manager);
+        String paymentMethod = value(row, columns, "payment_method");
+        if (!paymentMethod.isEmpty()) employee.setPaymentMethod(paymentMethod.toUpperCase());
+        String paymentFrequency = value(row, columns, "payment_frequency");
+        if (!paymentFrequency.isEmpty()) employee.setPaymentFrequency(paymentFrequency.toUpperCase());
+        employee.setBankName(emptyToNull(value(row, columns, "bank_name")));
+        employee.setAccountNumber(emptyToNull(value(row, columns, "account_number")));
+        employee.setAccountHolderName(emptyToNull(value(row, columns, "account_holder_name")));
+        employee.setBankBranch(emptyToNull(value(row, columns, "bank_branch")));
+        employee.setRoutingNumber(emptyToNull(value(row, columns, "routing_number")));
+        employee.setSssNumber(value(row, columns, "sss_number"));
+        employee.setPhilHealthNumber(value(row, columns, "philhealth_number"));
+        employee.setPagIbigNumber(value(row, columns, "pagibig_number"));
+        employee.setTin(value(row, columns, "tin"));
+
+        outcome.employee = employee;
+        return outcome;
+    }
+
+    private Map<String, Integer> mapHeader(String[] header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            String name = header[i].trim().toLowerCase().replace(' ', '_');
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1); // Strip UTF-8 byte order mark
+            }
+            columns.put(name, i);
+        }
+        return columns;
+    }
+
+    private String value(CsvRow row, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= row.fields.length) {
+            return "";
+        }
+        return row.fields[index].trim();
+    }
+
+    private String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private void trackComprehensiveSequence(Map<String, Integer> sequences, String comprehensiveId) {
+        if (comprehensiveId == null) {
+            return;
+        }
+        int dash = comprehensiveId.lastIndexOf('-');
+        if (dash <= 0) {
+            return;
+        }
+        try {
+            int sequence = Integer.parseInt(comprehensiveId.substring(dash + 1));
+            sequences.merge(comprehensiveId.substring(0, dash + 1), sequence, Math::max);
+        } catch (NumberFormatException e) {
+            // Ignore malformed IDs
+        }
+    }
+
+    /**
+     * Next comprehensive ID (DEPT-YYYYMM-NNN), matching EmployeeManager's format
+     */
+    private String nextComprehensiveId(Map<String, Integer> sequences, String department, LocalDate hireDate) {
+        String prefix = DepartmentPositionManager.getDepartmentCode(department) + "-"
+                        + hireDate.format(DateTimeFormatter.ofPattern("yyyyMM")) + "-";
+        int sequence = sequences.merge(prefix, 1, Integer::sum);
+        return prefix + String.format("%03d", sequence);
+    }
+
+    private void writeError(BufferedWriter errors, CsvRow row, String reason) throws IOException {
+        errors.write(Long.toString(row.lineNumber));
+        errors.write(',');
+        errors.write(CsvWriter.escape(reason));
+        errors.write(',');
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < row.fields.length; i++) {
+            if (i > 0) raw.append(',');
+            raw.append(CsvWriter.escape(row.fields[i]));
+        }
+        errors.write(CsvWriter.escape(raw.toString()));
+        errors.newLine();
+    }
+
+    private static class CsvRow {
+        final long lineNumber;
+        final String[] fields;
+
+        CsvRow(long lineNumber, String[] fields) {
+            this.lineNumber = lineNumber;
+            this.fields = fields;
+        }
+    }
+
+    private static class RowOutcome {
+        final CsvRow row;
+        Employee employee;
+        String error;
+
+        RowOutcome(CsvRow row) {
+            this.row = row;
+        }
+    }
+
+    /**
+     * Summary of a bulk import
+     */
+    public static class ImportResult {
+        private long rowsRead;
+        private long imported;
+        private long rejected;
+        private long elapsedMillis;
+        private final Path errorReport;
+
+        ImportResult(Path errorReport) {
+            this.errorReport = errorReport;
+        }
+
+        public long getRowsRead() { return rowsRead; }
+        public long getImported() { return imported; }
+        public long getRejected() { return rejected; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public Path getErrorReport() { return errorReport; }
+
+        @Override
+        public String toString() {
+            return String.format("%d rows read, %d imported, %d rejected in %d ms",
+                                 rowsRead, imported, rejected, elapsedMillis);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import database.MySQLDatabaseDAO;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Employee Manager for managing employee operations with database persistence
@@ -14,6 +15,7 @@ import java.util.*;
 public class EmployeeManager {
     private DatabaseDAO databaseDAO;
     private MySQLDatabaseDAO mySQLDAO;
+    private final List<CompensationChangeListener> changeListeners = new CopyOnWriteArrayList<>();
     
     public EmployeeManager() {
         databaseDAO = new MySQLDatabaseDAO();
@@ -254,9 +256,11 @@ public class EmployeeManager {
             employee.setPhone(phone);
             employee.setDepartment(department);
             employee.setPosition(position);
+            double previousSalary = employee.getBaseSalary();
+            LocalDate previousHireDate = employee.getHireDate();
             employee.setBaseSalary(baseSalary);
             employee.setHireDate(hireDate);
-            return databaseDAO.updateEmployee(employee);
+            return saveEmployee(employee, previousSalary, previousHireDate);
         } else {
             System.err.println("Employee not found for ID: " + stringId);
         }
@@ -264,7 +268,38 @@ public class EmployeeManager {
     }
     
     public boolean updateEmployee(Employee employee) {
-        return databaseDAO.updateEmployee(employee);
+        if (changeListeners.isEmpty()) {
+            return databaseDAO.updateEmployee(employee);
+        }
+        Employee stored = databaseDAO.getEmployeeById(generateEmployeeStringId(employee.getEmployeeId()));
+        return saveEmployee(employee, stored != null ? stored.getBaseSalary() : employee.getBaseSalary(),
+                            stored != null ? stored.getHireDate() : employee.getHireDate());
+    }
+    
+    /**
+     * Be told when an employee's base salary or hire date changes, e.g. to recalculate draft payrolls
+     */
+    public void addChangeListener(CompensationChangeListener listener) {
+        changeListeners.add(listener);
+    }
+    
+    public void removeChangeListener(CompensationChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+    
+    private boolean saveEmployee(Employee employee, double previousSalary, LocalDate previousHireDate) {
+        boolean updated = databaseDAO.updateEmployee(employee);
+        if (updated && employee.getBaseSalary() != previousSalary) {
+            for (CompensationChangeListener listener : changeListeners) {
+                listener.baseSalaryChanged(employee.getEmployeeId());
+            }
+        }
+        if (updated && !Objects.equals(employee.getHireDate(), previousHireDate)) {
+            for (CompensationChangeListener listener : changeListeners) {
+                listener.hireDateChanged(employee.getEmployeeId());
+            }
+        }
+        return updated;
     }
     
     public boolean updateEmployee(int employeeId, String firstName, String lastName, String email, 
@@ -283,9 +318,11 @@ public class EmployeeManager {
             employee.setPosition(position);
             employee.setJobTitle(jobTitle);
             employee.setManager(manager);
+            double previousSalary = employee.getBaseSalary();
+            LocalDate previousHireDate = employee.getHireDate();
             employee.setBaseSalary(baseSalary);
             employee.setHireDate(hireDate);
-            return databaseDAO.updateEmployee(employee);
+            return saveEmployee(employee, previousSalary, previousHireDate);
         } else {
             System.err.println("Employee not found for ID: " + stringId);
         }
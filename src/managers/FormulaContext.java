@@ -0,0 +1,126 @@
+package managers;
+
+import models.Money;
+import models.PayFrequency;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Variables a salary component formula is evaluated against, for one employee at a time
+ *
+ * Values sit in a primitive array indexed by the slots below; SalaryFormula resolves variable names
+ * to slots when it compiles, so evaluation reads array elements and allocates nothing. A context is
+ * meant to be reused: create one per thread (a batch kernel keeps its own), call {@link #reset} for
+ * each employee and {@link #setAmount} for each of their assignments.
+ *
+ * A context for a pay period shorter than a month (see {@link #setFrequency}) counts workingDays over
+ * the period, so daysPresent and daysAbsent are the period's attendance.
+ */
+public final class FormulaContext {
+    static final int BASE = 0;
+    static final int AMOUNT = 1;
+    static final int DAILY_RATE = 2;
+    static final int HOURLY_RATE = 3;
+    static final int WORKING_DAYS = 4;
+    static final int DAYS_PRESENT = 5;
+    static final int DAYS_ABSENT = 6;
+    static final int TENURE_YEARS = 7;
+    static final int TENURE_MONTHS = 8;
+    
+    /**
+     * Variable names usable in formulas, by slot
+     */
+    static final String[] VARIABLES = {
+        "base", "amount", "dailyRate", "hourlyRate", "workingDays", "daysPresent", "daysAbsent", "tenureYears", "tenureMonths"
+    };
+    
+    private final double[] values = new double[VARIABLES.length];
+    private long baseSalary;
+    private PayFrequency frequency = PayFrequency.MONTHLY;
+    
+    public FormulaContext() {
+        reset(0, null, LocalDate.now());
+    }
+    
+    /**
+     * Load one employee: monthly base salary, and tenure from the hire date to the as-of date (zero if
+     * the hire date is unknown or later). Days present start at the standard working days of the period.
+     * @param baseSalary Monthly base salary in centavos
+     */
+    public FormulaContext reset(long baseSalary, LocalDate hireDate, LocalDate asOf) {
+        this.baseSalary = baseSalary;
+        double workingDays = frequency == PayFrequency.MONTHLY ? PhilippinePayrollCalculator.STANDARD_WORKING_DAYS_PER_MONTH
+                           : Math.max(1, Math.round(PhilippinePayrollCalculator.STANDARD_WORKING_DAYS_PER_MONTH * 12.0
+                                                    / frequency.getPeriodsPerYear()));
+        double dailyRate = Money.toPesos(baseSalary) / PhilippinePayrollCalculator.STANDARD_WORKING_DAYS_PER_MONTH;
+        long tenureMonths = hireDate != null && !hireDate.isAfter(asOf) ? ChronoUnit.MONTHS.between(hireDate, asOf) : 0;
+        
+        values[BASE] = Money.toPesos(baseSalary);
+        values[AMOUNT] = 0;
+        values[DAILY_RATE] = dailyRate;
+        values[HOURLY_RATE] = dailyRate / PhilippinePayrollCalculator.STANDARD_WORKING_HOURS_PER_DAY;
+        values[WORKING_DAYS] = workingDays;
+        values[TENURE_MONTHS] = tenureMonths;
+        values[TENURE_YEARS] = tenureMonths / 12;
+        setDaysPresent(workingDays);
+        return this;
+    }
+    
+    /**
+     * Calculate for pay periods of a frequency; takes effect from the next {@link #reset}
+     */
+    public FormulaContext setFrequency(PayFrequency frequency) {
+        this.frequency = frequency;
+        return this;
+    }
+    
+    public PayFrequency getFrequency() {
+        return frequency;
+    }
+    
+    /**
+     * Days the employee was present in the period (also sets daysAbsent)
+     */
+    public FormulaContext setDaysPresent(double daysPresent) {
+        values[DAYS_PRESENT] = daysPresent;
+        values[DAYS_ABSENT] = Math.max(0, values[WORKING_DAYS] - daysPresent);
+        return this;
+    }
+    
+    /**
+     * The amount set on the assignment being evaluated, in pesos (or percent)
+     */
+    public FormulaContext setAmount(double amount) {
+        values[AMOUNT] = amount;
+        return this;
+    }
+    
+    /**
+     * Base salary of the loaded employee in centavos
+     */
+    public long getBaseSalary() {
+        return baseSalary;
+    }
+    
+    /**
+     * Set base to the pay period's share of the base salary, or back to the monthly base salary
+     */
+    FormulaContext setPeriodBase(boolean periodBase) {
+        values[BASE] = Money.toPesos(periodBase ? PayrollBatchKernel.prorate(baseSalary, frequency) : baseSalary);
+        return this;
+    }
+    
+    double[] values() {
+        return values;
+    }
+    
+    static int slotOf(String name) {
+        for (int slot = 0; slot < VARIABLES.length; slot++) {
+            if (VARIABLES[slot].equals(name)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+}
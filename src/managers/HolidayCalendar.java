@@ -0,0 +1,410 @@
+package managers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Regular and special non-working holidays per year and region.
+ *
+ * Holidays are read from CSV files named {@code <yyyy>.csv} (for example {@code 2025.csv}) in the
+ * holidays directory, one holiday per line:
+ *
+ * <pre>
+ * date,type,name,region
+ * 2025-04-01,REGULAR,Eid'l Fitr,
+ * 2025-08-19,SPECIAL,Quezon Day,Quezon
+ * </pre>
+ *
+ * The type is REGULAR or SPECIAL, and a blank region means nationwide; a regional holiday applies to
+ * employees whose province or state (see AddressManager) matches it. Lines starting with '#' are
+ * comments. Years without nationwide holidays in a file use the built-in holidays fixed by law
+ * (RA 9492 and its amendments), with Holy Week computed from Easter; holidays proclaimed each year,
+ * such as Eid'l Fitr, Eid'l Adha and Chinese New Year, need a file.
+ *
+ * Each year of a region is compiled once into bitsets indexed by day of year, so classifying a date
+ * or counting the holidays in a pay period is a few bit operations. Resolve a {@link YearCalendar}
+ * once per run and reuse it for every employee in the region.
+ */
+public class HolidayCalendar {
+    public static final String DEFAULT_DIRECTORY = System.getProperty("payroll.holidays.dir", "config/holidays");
+    
+    private static final Pattern FILE_NAME = Pattern.compile("(\\d{4})\\.csv");
+    private static final String NATIONWIDE = "";
+    
+    private static volatile HolidayCalendar defaultCalendar;
+    
+    /**
+     * How a day is paid, in increasing order of premium
+     */
+    public enum DayType {
+        ORDINARY, SPECIAL_HOLIDAY, REGULAR_HOLIDAY;
+        
+        public boolean isHoliday() {
+            return this != ORDINARY;
+        }
+    }
+    
+    // Holidays read from files, by year
+    private final Map<Integer, List<Holiday>> published = new HashMap<>();
+    // Compiled years by region (NATIONWIDE for no region), then year
+    private final ConcurrentHashMap<String, ConcurrentHashMap<Integer, YearCalendar>> compiled = new ConcurrentHashMap<>();
+    
+    private HolidayCalendar() {
+    }
+    
+    /**
+     * Calendar loaded from DEFAULT_DIRECTORY on first use
+     */
+    public static HolidayCalendar getDefault() {
+        HolidayCalendar calendar = defaultCalendar;
+        if (calendar == null) {
+            synchronized (HolidayCalendar.class) {
+                calendar = defaultCalendar;
+                if (calendar == null) {
+                    calendar = load(Paths.get(DEFAULT_DIRECTORY));
+                    defaultCalendar = calendar;
+                }
+            }
+        }
+        return calendar;
+    }
+    
+    /**
+     * Re-read the holiday files, e.g. after a new proclamation has been added
+     */
+    public static synchronized HolidayCalendar reloadDefault() {
+        defaultCalendar = load(Paths.get(DEFAULT_DIRECTORY));
+        return defaultCalendar;
+    }
+    
+    /**
+     * Load every holiday file in a directory. Files that cannot be parsed are reported and skipped;
+     * a missing directory leaves only the built-in holidays.
+     */
+    public static HolidayCalendar load(Path directory) {
+        HolidayCalendar calendar = new HolidayCalendar();
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.csv")) {
+                for (Path file : files) {
+                    Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                    if (!matcher.matches()) {
+                        continue;
+                    }
+                    try {
+                        int year = Integer.parseInt(matcher.group(1));
+                        calendar.published.put(year, parse(year, Files.readAllLines(file, StandardCharsets.UTF_8)));
+                    } catch (IOException | IllegalArgumentException e) {
+                        System.err.println("Error loading holidays " + file + ": " + e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error reading holidays from " + directory + ": " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+        return calendar;
+    }
+    
+    /**
+     * Calendar of the given holidays instead of files, e.g. for tests or what-if runs. As with files,
+     * years without a nationwide holiday among them also get the built-in holidays.
+     */
+    public static HolidayCalendar of(List<Holiday> holidays) {
+        HolidayCalendar calendar = new HolidayCalendar();
+        for (Holiday holiday : holidays) {
+            calendar.published.computeIfAbsent(holiday.getDate().getYear(), key -> new ArrayList<>()).add(holiday);
+        }
+        return calendar;
+    }
+    
+    /**
+     * Parse one year's holiday file
+     */
+    static List<Holiday> parse(int year, List<String> lines) {
+        List<Holiday> holidays = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : lines) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#") || trimmed.startsWith("date")) {
+                continue;
+            }
+            String[] fields = trimmed.split(",", -1);
+            if (fields.length < 3 || fields.length > 4) {
+                throw new IllegalArgumentException("line " + lineNumber + ": expected 3 or 4 columns but found " + fields.length);
+            }
+            try {
+                LocalDate date = LocalDate.parse(fields[0].trim());
+                if (date.getYear() != year) {
+                    throw new IllegalArgumentException("line " + lineNumber + ": " + date + " is not in " + year);
+                }
+                DayType type = "REGULAR".equalsIgnoreCase(fields[1].trim()) ? DayType.REGULAR_HOLIDAY
+                             : "SPECIAL".equalsIgnoreCase(fields[1].trim()) ? DayType.SPECIAL_HOLIDAY : null;
+                if (type == null) {
+                    throw new IllegalArgumentException("line " + lineNumber + ": type must be REGULAR or SPECIAL but was " + fields[1].trim());
+                }
+                holidays.add(new Holiday(date, type, fields[2].trim(), fields.length == 4 ? fields[3] : null));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+        return holidays;
+    }
+    
+    /**
+     * Holidays fixed by law for a year: the regular holidays and special non-working days of RA 9492
+     * as amended, with Maundy Thursday, Good Friday and Black Saturday from the date of Easter
+     */
+    static List<Holiday> builtInHolidays(int year) {
+        LocalDate easter = easterSunday(year);
+        List<Holiday> holidays = new ArrayList<>();
+        holidays.add(new Holiday(LocalDate.of(year, Month.JANUARY, 1), DayType.REGULAR_HOLIDAY, "New Year's Day", null));
+        holidays.add(new Holiday(easter.minusDays(3), DayType.REGULAR_HOLIDAY, "Maundy Thursday", null));
+        holidays.add(new Holiday(easter.minusDays(2), DayType.REGULAR_HOLIDAY, "Good Friday", null));
+        holidays.add(new Holiday(LocalDate.of(year, Month.APRIL, 9), DayType.REGULAR_HOLIDAY, "Araw ng Kagitingan", null));
+        holidays.add(new Holiday(LocalDate.of(year, Month.MAY, 1), DayType.REGULAR_HOLIDAY, "Labor Day", null));
+        holidays.add(new Holiday(LocalDate.of(year, Month.JUNE, 12), DayType.REGULAR_HOLIDAY, "Independence Day", null));
+        holidays.add(new Holiday(LocalDate.of(year, Month.AUGUST, 1).with(TemporalAdjusters.lastInMonth(DayOfWeek.MONDAY)),
+                                 DayType.REGULAR_HOLIDAY, "National Heroes Day", null));
+        holidays.add(new Holiday(LocalDate.of(year, Month.NOVEMBER, 30), DayType.REGULAR_HOLIDAY, "Bonifacio Day", null));
+        holidays.add(new Holiday(LocalDate.of(year, Month.DECEMBER, 25), DayType.REGULAR_HOLIDAY, "Christmas Day", null));
+        holidays.add(new Holiday(LocalDate.of(year, Month.DECEMBER, 30), DayType.REGULAR_HOLIDAY, "Rizal Day", null));
+        holidays.add(new Holiday(easter.minusDays(1), DayType.SPECIAL_HOLIDAY, "Black Saturday", null));
+        holidays.add(new Holiday(LocalDate.of(year, Month.AUGUST, 21), DayType.SPECIAL_HOLIDAY, "Ninoy Aquino Day", null));
+        holidays.add(new Holiday(LocalDate.of(year, Month.NOVEMBER, 1), DayType.SPECIAL_HOLIDAY, "All Saints' Day", null));
+        holidays.add(new Holiday(LocalDate.of(year, Month.DECEMBER, 8), DayType.SPECIAL_HOLIDAY, "Feast of the Immaculate Conception", null));
+        holidays.add(new Holiday(LocalDate.of(year, Month.DECEMBER, 31), DayType.SPECIAL_HOLIDAY, "Last Day of the Year", null));
+        return holidays;
+    }
+    
+    /**
+     * Easter Sunday in the Gregorian calendar (anonymous Gregorian algorithm)
+     */
+    static LocalDate easterSunday(int year) {
+        int a = year % 19;
+        int b = year / 100;
+        int c = year % 100;
+        int d = b / 4;
+        int e = b % 4;
+        int f = (b + 8) / 25;
+        int g = (b - f + 1) / 3;
+        int h = (19 * a + b - d - g + 15) % 30;
+        int i = c / 4;
+        int k = c % 4;
+        int l = (32 + 2 * e + 2 * i - h - k) % 7;
+        int m = (a + 11 * h + 22 * l) / 451;
+        int month = (h + l - 7 * m + 114) / 31;
+        int day = (h + l - 7 * m + 114) % 31 + 1;
+        return LocalDate.of(year, month, day);
+    }
+    
+    /**
+     * Nationwide holidays of a year
+     */
+    public YearCalendar forYear(int year) {
+        return forYear(year, null);
+    }
+    
+    /**
+     * Nationwide holidays of a year plus those of one region
+     * @param region Province or state name, or null for nationwide holidays only
+     */
+    public YearCalendar forYear(int year, String region) {
+        String key = normalizeRegion(region);
+        ConcurrentHashMap<Integer, YearCalendar> years = compiled.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+        YearCalendar calendar = years.get(year);
+        if (calendar == null) {
+            calendar = years.computeIfAbsent(year, y -> compile(y, key));
+        }
+        return calendar;
+    }
+    
+    /**
+     * How a date is paid nationwide
+     */
+    public DayType dayType(LocalDate date) {
+        return forYear(date.getYear()).dayType(date);
+    }
+    
+    /**
+     * How a date is paid in a region
+     */
+    public DayType dayType(LocalDate date, String region) {
+        return forYear(date.getYear(), region).dayType(date);
+    }
+    
+    private YearCalendar compile(int year, String region) {
+        List<Holiday> fromFile = published.getOrDefault(year, Collections.emptyList());
+        boolean proclaimed = false;
+        for (Holiday holiday : fromFile) {
+            proclaimed |= holiday.getRegion() == null;
+        }
+        List<Holiday> holidays = new ArrayList<>();
+        if (!proclaimed) {
+            holidays.addAll(builtInHolidays(year));
+        }
+        for (Holiday holiday : fromFile) {
+            if (holiday.getRegion() == null || holiday.getRegion().equals(region)) {
+                holidays.add(holiday);
+            }
+        }
+        holidays.sort((first, second) -> first.getDate().compareTo(second.getDate()));
+        return new YearCalendar(year, region.isEmpty() ? null : region, holidays);
+    }
+    
+    private static String normalizeRegion(String region) {
+        return region == null || region.trim().isEmpty() ? NATIONWIDE : region.trim().toUpperCase(Locale.ROOT);
+    }
+    
+    /**
+     * One holiday as proclaimed
+     */
+    public static final class Holiday {
+        private final LocalDate date;
+        private final DayType type;
+        private final String name;
+        private final String region;
+        
+        /**
+         * @param region Province or state the holiday is observed in, or null if nationwide
+         */
+        public Holiday(LocalDate date, DayType type, String name, String region) {
+            if (type == null || !type.isHoliday()) {
+                throw new IllegalArgumentException("Holiday type must be REGULAR_HOLIDAY or SPECIAL_HOLIDAY: " + type);
+            }
+            this.date = date;
+            this.type = type;
+            this.name = name;
+            String normalized = normalizeRegion(region);
+            this.region = normalized.isEmpty() ? null : normalized;
+        }
+        
+        public LocalDate getDate() { return date; }
+        public DayType getType() { return type; }
+        public String getName() { return name; }
+        public String getRegion() { return region; }
+        
+        @Override
+        public String toString() {
+            return date + " " + name + (type == DayType.REGULAR_HOLIDAY ? " (regular)" : " (special)");
+        }
+    }
+    
+    /**
+     * The holidays of one year in one region, as bitsets indexed by day of year (January 1 is 0).
+     * Immutable, so it can be shared by any number of threads.
+     */
+    public static final class YearCalendar {
+        private final int year;
+        private final String region;
+        private final List<Holiday> holidays;
+        private final BitSet regular = new BitSet(366);
+        private final BitSet special = new BitSet(366);
+        // Monday to Friday that are not holidays
+        private final BitSet workingDays = new BitSet(366);
+        
+        YearCalendar(int year, String region, List<Holiday> holidays) {
+            this.year = year;
+            this.region = region;
+            this.holidays = Collections.unmodifiableList(holidays);
+            for (Holiday holiday : holidays) {
+                // A day that is both stays a regular holiday, which is paid the higher premium
+                (holiday.getType() == DayType.REGULAR_HOLIDAY ? regular : special).set(holiday.getDate().getDayOfYear() - 1);
+            }
+            special.andNot(regular);
+            
+            LocalDate day = LocalDate.of(year, 1, 1);
+            for (int index = 0; day.getYear() == year; index++, day = day.plusDays(1)) {
+                DayOfWeek dayOfWeek = day.getDayOfWeek();
+                if (dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY) {
+                    workingDays.set(index);
+                }
+            }
+            workingDays.andNot(regular);
+            workingDays.andNot(special);
+        }
+        
+        public int getYear() { return year; }
+        
+        /**
+         * Region the calendar includes holidays of, or null for nationwide only
+         */
+        public String getRegion() { return region; }
+        
+        /**
+         * Holidays of the year in date order
+         */
+        public List<Holiday> getHolidays() { return holidays; }
+        
+        /**
+         * How a date of this year is paid
+         */
+        public DayType dayType(LocalDate date) {
+            int index = indexOf(date);
+            if (regular.get(index)) {
+                return DayType.REGULAR_HOLIDAY;
+            }
+            return special.get(index) ? DayType.SPECIAL_HOLIDAY : DayType.ORDINARY;
+        }
+        
+        public boolean isRegularHoliday(LocalDate date) {
+            return regular.get(indexOf(date));
+        }
+        
+        public boolean isSpecialHoliday(LocalDate date) {
+            return special.get(indexOf(date));
+        }
+        
+        public boolean isHoliday(LocalDate date) {
+            int index = indexOf(date);
+            return regular.get(index) || special.get(index);
+        }
+        
+        /**
+         * Regular holidays from one date to another, both inclusive and in this year
+         */
+        public int countRegularHolidays(LocalDate from, LocalDate to) {
+            return regular.get(indexOf(from), indexOf(to) + 1).cardinality();
+        }
+        
+        /**
+         * Special non-working holidays from one date to another, both inclusive and in this year
+         */
+        public int countSpecialHolidays(LocalDate from, LocalDate to) {
+            return special.get(indexOf(from), indexOf(to) + 1).cardinality();
+        }
+        
+        /**
+         * Weekdays that are not holidays from one date to another, both inclusive and in this year
+         */
+        public int countWorkingDays(LocalDate from, LocalDate to) {
+            return workingDays.get(indexOf(from), indexOf(to) + 1).cardinality();
+        }
+        
+        private int indexOf(LocalDate date) {
+            if (date.getYear() != year) {
+                throw new IllegalArgumentException(date + " is not in " + year);
+            }
+            return date.getDayOfYear() - 1;
+        }
+    }
+}
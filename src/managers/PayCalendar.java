@@ -0,0 +1,152 @@
+package managers;
+
+import models.PayFrequency;
+import models.PayPeriod;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pay periods of each payment frequency, with their cutoff and pay dates.
+ *
+ * <ul>
+ * <li>MONTHLY: the calendar month, paid on its last day</li>
+ * <li>SEMI_MONTHLY: the 1st to the 15th, paid on the 15th, and the 16th to month end, paid on its last day</li>
+ * <li>WEEKLY: Monday to Sunday, paid on the Friday after</li>
+ * <li>BIWEEKLY: two weeks from Monday, counted from a fixed anchor Monday, paid on the Friday after</li>
+ * </ul>
+ *
+ * A pay date falling on a weekend or nationwide holiday moves back to the working day before it.
+ * Attendance is cut off a number of processing days before the pay date, but never after the period
+ * ends. Employees paid DAILY, QUARTERLY or ANNUALLY have no calendar of their own and follow the
+ * monthly one, like an unknown frequency in {@link PayFrequency#fromString}.
+ */
+public class PayCalendar {
+    public static final int DEFAULT_PROCESSING_DAYS = 2;
+    public static final LocalDate DEFAULT_BIWEEKLY_ANCHOR = LocalDate.of(2024, 1, 1);
+    
+    // Days from the Sunday a weekly or biweekly period ends on to its Friday pay day
+    static final int WEEKLY_PAY_LAG_DAYS = 5;
+    
+    private final HolidayCalendar holidays;
+    private final int processingDays;
+    private final LocalDate biweeklyAnchor;
+    
+    public PayCalendar() {
+        this(HolidayCalendar.getDefault(), DEFAULT_PROCESSING_DAYS, DEFAULT_BIWEEKLY_ANCHOR);
+    }
+    
+    /**
+     * @param processingDays Days between attendance cutoff and pay date
+     * @param biweeklyAnchor First day of some biweekly period; moved back to its Monday if needed
+     */
+    public PayCalendar(HolidayCalendar holidays, int processingDays, LocalDate biweeklyAnchor) {
+        this.holidays = holidays;
+        this.processingDays = Math.max(0, processingDays);
+        this.biweeklyAnchor = biweeklyAnchor.minusDays(biweeklyAnchor.getDayOfWeek().getValue() - 1);
+    }
+    
+    /**
+     * The frequency whose calendar an employee paid at the given frequency follows
+     */
+    public static PayFrequency scheduledFrequency(PayFrequency frequency) {
+        switch (frequency) {
+            case WEEKLY:
+            case BIWEEKLY:
+            case SEMI_MONTHLY:
+                return frequency;
+            default:
+                return PayFrequency.MONTHLY;
+        }
+    }
+    
+    /**
+     * Pay periods of a frequency overlapping a date range, in order
+     * @param from First date of the range
+     * @param to Last date of the range (inclusive)
+     */
+    public List<PayPeriod> periods(PayFrequency frequency, LocalDate from, LocalDate to) {
+        PayFrequency scheduled = scheduledFrequency(frequency);
+        List<PayPeriod> periods = new ArrayList<>();
+        LocalDate start = firstStartOnOrBefore(scheduled, from);
+        while (!start.isAfter(to)) {
+            LocalDate end = endOf(scheduled, start);
+            LocalDate nextEnd = endOf(scheduled, end.plusDays(1));
+            boolean closesMonth = !YearMonth.from(nextEnd).equals(YearMonth.from(end));
+            LocalDate payDate = previousWorkingDay(scheduled == PayFrequency.WEEKLY || scheduled == PayFrequency.BIWEEKLY
+                                                   ? end.plusDays(WEEKLY_PAY_LAG_DAYS) : end);
+            LocalDate cutoff = payDate.minusDays(processingDays);
+            if (cutoff.isAfter(end)) {
+                cutoff = end;
+            } else if (cutoff.isBefore(start)) {
+                cutoff = start;
+            }
+            periods.add(new PayPeriod(scheduled, start, end, cutoff, payDate, closesMonth));
+            start = end.plusDays(1);
+        }
+        return periods;
+    }
+    
+    /**
+     * The pay period of a frequency containing a date
+     */
+    public PayPeriod periodContaining(PayFrequency frequency, LocalDate date) {
+        return periods(frequency, date, date).get(0);
+    }
+    
+    /**
+     * The period of a frequency whose payroll covers a month: the last one ending in it
+     */
+    public PayPeriod closingPeriod(PayFrequency frequency, YearMonth month) {
+        List<PayPeriod> periods = periods(frequency, month.atEndOfMonth(), month.atEndOfMonth());
+        PayPeriod containing = periods.get(0);
+        if (containing.closesMonth() && YearMonth.from(containing.getEnd()).equals(month)) {
+            return containing;
+        }
+        // The period containing month end runs into the next month; the one before it closes this month
+        return periods(frequency, containing.getStart().minusDays(1), containing.getStart().minusDays(1)).get(0);
+    }
+    
+    /**
+     * The date itself if it is a working day, otherwise the nearest working day before it
+     */
+    public LocalDate previousWorkingDay(LocalDate date) {
+        LocalDate day = date;
+        while (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY
+               || holidays.dayType(day).isHoliday()) {
+            day = day.minusDays(1);
+        }
+        return day;
+    }
+    
+    private LocalDate firstStartOnOrBefore(PayFrequency frequency, LocalDate date) {
+        switch (frequency) {
+            case WEEKLY:
+                return date.minusDays(date.getDayOfWeek().getValue() - 1);
+            case BIWEEKLY:
+                long offset = Math.floorMod(ChronoUnit.DAYS.between(biweeklyAnchor, date), 14);
+                return date.minusDays(offset);
+            case SEMI_MONTHLY:
+                return date.getDayOfMonth() > 15 ? date.withDayOfMonth(16) : date.withDayOfMonth(1);
+            default:
+                return date.withDayOfMonth(1);
+        }
+    }
+    
+    private static LocalDate endOf(PayFrequency frequency, LocalDate start) {
+        switch (frequency) {
+            case WEEKLY:
+                return start.plusDays(6);
+            case BIWEEKLY:
+                return start.plusDays(13);
+            case SEMI_MONTHLY:
+                return start.getDayOfMonth() <= 15 ? start.withDayOfMonth(15) : YearMonth.from(start).atEndOfMonth();
+            default:
+                return YearMonth.from(start).atEndOfMonth();
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package managers;
+
+import models.AttendanceSummary;
+import models.Employee;
+import models.EmployeeSalaryComponent;
+import models.Money;
+import models.PayFrequency;
+import models.PayPeriod;
+import models.Payroll;
+import models.SalaryComponent;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar payroll calculation for a batch of employees.
+ *
+ * Each employee's inputs (base salary, overtime, night differential and holiday hours, salary component
+ * totals per category) are loaded into parallel primitive arrays, one row per employee. The
+ * calculation then runs column by column in tight loops over those arrays - premium pay, gross
+ * pay, each contribution schedule, withholding tax, net pay - instead of walking each employee's
+ * object graph, so the working set stays small and the integer loops are simple enough for the
+ * JIT to vectorize. Results are written back as Payroll objects in one pass at the end.
+ *
+ * A kernel calculates one pay period. Base salaries and component amounts are monthly and are paid
+ * pro rata (12 / periods per year of the frequency), except component formulas reading attendance,
+ * which are evaluated for the period (see FormulaContext); premiums are paid on the monthly hourly rate
+ * for the hours of the period. The month's SSS, PhilHealth and Pag-IBIG contributions are deducted
+ * in full in the period that closes the month, and in no other.
+ *
+ * Amounts are in centavos and round exactly as PayrollRunEngine.calculate does, so both paths
+ * produce the same payroll. The written-back salary breakdown holds the category totals rather
+ * than one entry per component. A kernel is filled and computed by one thread; use one per chunk.
+ */
+public final class PayrollBatchKernel {
+    // Premium rates of the Labor Code, as in PhilippinePayrollCalculator
+    static final double HOURS_PER_MONTH = PhilippinePayrollCalculator.STANDARD_WORKING_DAYS_PER_MONTH
+                                        * PhilippinePayrollCalculator.STANDARD_WORKING_HOURS_PER_DAY;
+    static final double OVERTIME_PREMIUM = 1.25;
+    static final double NIGHT_DIFFERENTIAL_PREMIUM = 0.10;
+    // Work on a holiday on top of the monthly salary, which already pays the day at 100%:
+    // 200% in total on a regular holiday, 130% on a special non-working day
+    static final double REGULAR_HOLIDAY_PREMIUM = 1.0;
+    static final double SPECIAL_HOLIDAY_PREMIUM = 0.30;
+    
+    private final int capacity;
+    private final PayFrequency frequency;
+    private final boolean closesMonth;
+    private int size;
+    // Reused for every employee, so formula components are evaluated without allocating
+    private final FormulaContext formulaContext = new FormulaContext();
+    
+    // Inputs
+    private final int[] employeeIds;
+    private final long[] basePay;
+    private final double[] overtimeHours;
+    private final double[] nightDiffHours;
+    private final double[] regularHolidayHours;
+    private final double[] specialHolidayHours;
+    private final long[] allowances;
+    private final long[] bonuses;
+    private final long[] otherEarnings;
+    private final long[] componentDeductions;
+    
+    // Results
+    private final double[] basePayPesos;
+    private final long[] periodBasePay;
+    private final long[] overtimePay;
+    private final long[] nightDiffPay;
+    private final long[] holidayPay;
+    private final long[] grossPay;
+    private final long[] sssEmployee;
+    private final long[] sssEmployer;
+    private final long[] philHealthEmployee;
+    private final long[] philHealthEmployer;
+    private final long[] pagIbigEmployee;
+    private final long[] pagIbigEmployer;
+    private final long[] taxableIncome;
+    private final long[] withholdingTax;
+    private final long[] netPay;
+    private boolean computed;
+    
+    /**
+     * A kernel for a calendar month's payroll
+     */
+    public PayrollBatchKernel(int capacity) {
+        this(capacity, PayFrequency.MONTHLY, true);
+    }
+    
+    /**
+     * A kernel for the payroll of one pay period
+     */
+    public PayrollBatchKernel(int capacity, PayPeriod period) {
+        this(capacity, period.getFrequency(), period.closesMonth());
+    }
+    
+    private PayrollBatchKernel(int capacity, PayFrequency frequency, boolean closesMonth) {
+        this.capacity = capacity;
+        this.frequency = frequency;
+        this.closesMonth = closesMonth;
+        this.formulaContext.setFrequency(frequency);
+        this.employeeIds = new int[capacity];
+        this.basePay = new long[capacity];
+        this.overtimeHours = new double[capacity];
+        this.nightDiffHours = new double[capacity];
+        this.regularHolidayHours = new double[capacity];
+        this.specialHolidayHours = new double[capacity];
+        this.allowances = new long[capacity];
+        this.bonuses = new long[capacity];
+        this.otherEarnings = new long[capacity];
+        this.componentDeductions = new long[capacity];
+        this.basePayPesos = new double[capacity];
+        this.periodBasePay = new long[capacity];
+        this.overtimePay = new long[capacity];
+        this.nightDiffPay = new long[capacity];
+        this.holidayPay = new long[capacity];
+        this.grossPay = new long[capacity];
+        this.sssEmployee = new long[capacity];
+        this.sssEmployer = new long[capacity];
+        this.philHealthEmployee = new long[capacity];
+        this.philHealthEmployer = new long[capacity];
+        this.pagIbigEmployee = new long[capacity];
+        this.pagIbigEmployer = new long[capacity];
+        this.taxableIncome = new long[capacity];
+        this.withholdingTax = new long[capacity];
+        this.netPay = new long[capacity];
+    }
+    
+    /**
+     * Load one employee and their salary component assignments into the next row.
+     * The row is only added if every component amount could be calculated.
+     * @return Row index of the employee
+     */
+    public int add(Employee employee, List<EmployeeSalaryComponent> components) {
+        return add(employee, components, LocalDate.now());
+    }
+    
+    /**
+     * Load one employee as of a date, which is what tenure in component formulas is counted up to
+     * @return Row index of the employee
+     */
+    public int add(Employee employee, List<EmployeeSalaryComponent> components, LocalDate asOf) {
+        return add(employee, components, asOf, null);
+    }
+    
+    /**
+     * Load one employee with the hours they worked in the period. Days present feed component
+     * formulas, and overtime, night differential and holiday hours are paid at their premiums.
+     * @param attendance The employee's attendance for the period, or null to pay no premiums
+     * @return Row index of the employee
+     */
+    public int add(Employee employee, List<EmployeeSalaryComponent> components, LocalDate asOf, AttendanceSummary attendance) {
+        checkCapacity();
+        long base = Money.toCentavos(employee.getBaseSalary());
+        formulaContext.reset(base, employee.getHireDate(), asOf);
+        if (attendance != null) {
+            formulaContext.setDaysPresent(attendance.getDaysPresent());
+        }
+        long allowanceTotal = 0;
+        long bonusTotal = 0;
+        long otherTotal = 0;
+        long deductionTotal = 0;
+        for (EmployeeSalaryComponent assignment : components) {
+            SalaryComponent component = assignment.getSalaryComponent();
+            if (component == null || assignment.getCustomAmount() == null) {
+                continue;
+            }
+            long amount = SalaryComponentManager.calculateComponentAmount(assignment, formulaContext);
+            if ("ALLOWANCE".equals(component.getType())) {
+                allowanceTotal += amount;
+            } else if ("BONUS".equals(component.getType())) {
+                bonusTotal += amount;
+            } else if (component.isEarning()) {
+                otherTotal += amount;
+            } else if (component.isDeduction()) {
+                deductionTotal += amount;
+            }
+        }
+        
+        int row = add(employee.getEmployeeId(), base, allowanceTotal, bonusTotal, otherTotal, deductionTotal);
+        if (attendance != null) {
+            setAttendance(row, attendance);
+        }
+        return row;
+    }
+    
+    /**
+     * Load one employee whose component totals for the period are already known, all in centavos
+     * @param basePayCentavos Monthly base salary
+     * @return Row index of the employee
+     */
+    public int add(int employeeId, long basePayCentavos, long allowanceTotal, long bonusTotal,
+                   long otherEarningsTotal, long deductionTotal) {
+        checkCapacity();
+        int row = size++;
+        employeeIds[row] = employeeId;
+        basePay[row] = basePayCentavos;
+        overtimeHours[row] = 0.0;
+        nightDiffHours[row] = 0.0;
+        regularHolidayHours[row] = 0.0;
+        specialHolidayHours[row] = 0.0;
+        allowances[row] = allowanceTotal;
+        bonuses[row] = bonusTotal;
+        otherEarnings[row] = otherEarningsTotal;
+        componentDeductions[row] = deductionTotal;
+        computed = false;
+        return row;
+    }
+    
+    /**
+     * Set a row's regular overtime and night differential hours for the period
+     */
+    public void setHours(int row, double overtime, double nightDifferential) {
+        checkRow(row);
+        overtimeHours[row] = overtime;
+        nightDiffHours[row] = nightDifferential;
+        computed = false;
+    }
+    
+    /**
+     * Set a row's overtime, night differential and holiday hours from the employee's attendance
+     */
+    public void setAttendance(int row, AttendanceSummary attendance) {
+        setHours(row, attendance.getOvertimeHours(), attendance.getNightDifferentialHours());
+        regularHolidayHours[row] = attendance.getRegularHolidayHours();
+        specialHolidayHours[row] = attendance.getSpecialHolidayHours();
+    }
+    
+    /**
+     * Calculate every loaded row with the month's contribution schedules and the withholding tax
+     * table of the period's frequency
+     */
+    public void compute(ContributionTableRegistry.Schedule contributions, WithholdingTaxTable taxTable) {
+        int n = size;
+        
+        for (int i = 0; i < n; i++) {
+            basePayPesos[i] = Money.toPesos(basePay[i]);
+            periodBasePay[i] = prorate(basePay[i], frequency);
+        }
+        for (int i = 0; i < n; i++) {
+            double hourlyRate = basePayPesos[i] / HOURS_PER_MONTH;
+            overtimePay[i] = Money.toCentavos(hourlyRate * OVERTIME_PREMIUM * overtimeHours[i]);
+            nightDiffPay[i] = Money.toCentavos(hourlyRate * NIGHT_DIFFERENTIAL_PREMIUM * nightDiffHours[i]);
+            holidayPay[i] = Money.toCentavos(hourlyRate * (REGULAR_HOLIDAY_PREMIUM * regularHolidayHours[i]
+                                                         + SPECIAL_HOLIDAY_PREMIUM * specialHolidayHours[i]));
+        }
+        for (int i = 0; i < n; i++) {
+            grossPay[i] = periodBasePay[i] + overtimePay[i] + nightDiffPay[i] + holidayPay[i] + allowances[i] + bonuses[i] + otherEarnings[i];
+        }
+        
+        if (closesMonth) {
+            contributions.getSssTable().shares(basePayPesos, n, sssEmployee, sssEmployer);
+            contributions.getPhilHealthTable().shares(basePayPesos, n, philHealthEmployee, philHealthEmployer);
+            contributions.getPagIbigTable().shares(basePayPesos, n, pagIbigEmployee, pagIbigEmployer);
+        } else {
+            for (long[] shares : new long[][] {sssEmployee, sssEmployer, philHealthEmployee, philHealthEmployer,
+                                               pagIbigEmployee, pagIbigEmployer}) {
+                Arrays.fill(shares, 0, n, 0L);
+            }
+        }
+        
+        // Withholding tax is on gross compensation net of the employee's mandatory contributions
+        for (int i = 0; i < n; i++) {
+            taxableIncome[i] = Math.max(0, grossPay[i] - sssEmployee[i] - philHealthEmployee[i] - pagIbigEmployee[i]);
+        }
+        taxTable.taxOn(taxableIncome, n, withholdingTax);
+        
+        for (int i = 0; i < n; i++) {
+            netPay[i] = grossPay[i] - withholdingTax[i] - componentDeductions[i]
+                      - sssEmployee[i] - philHealthEmployee[i] - pagIbigEmployee[i];
+        }
+        computed = true;
+    }
+    
+    /**
+     * Write the computed rows of a calendar month's kernel back as payrolls, in row order
+     */
+    public List<Payroll> toPayrolls(YearMonth period, LocalDate payDate) {
+        return toPayrolls(PayPeriod.ofMonth(period), payDate);
+    }
+    
+    /**
+     * Write the computed rows back as payrolls of the kernel's pay period, in row order
+     */
+    public List<Payroll> toPayrolls(PayPeriod period, LocalDate payDate) {
+        if (!computed) {
+            throw new IllegalStateException("Kernel has not been computed since rows were last changed");
+        }
+        List<Payroll> payrolls = new ArrayList<>(size);
+        String payPeriod = period.getKey();
+        for (int i = 0; i < size; i++) {
+            double basePayOfPeriod = Money.toPesos(periodBasePay[i]);
+            Payroll payroll = new Payroll(0, employeeIds[i], payPeriod, basePayOfPeriod,
+                                          Money.toPesos(overtimePay[i] + nightDiffPay[i] + holidayPay[i]), Money.toPesos(otherEarnings[i]), 0.0, payDate);
+            payroll.setOvertimeHours(overtimeHours[i]);
+            
+            Map<String, Double> breakdown = new HashMap<>();
+            breakdown.put("Base Salary", basePayOfPeriod);
+            if (overtimePay[i] != 0) {
+                breakdown.put("Overtime", Money.toPesos(overtimePay[i]));
+            }
+            if (nightDiffPay[i] != 0) {
+                breakdown.put("Night Differential", Money.toPesos(nightDiffPay[i]));
+            }
+            if (holidayPay[i] != 0) {
+                breakdown.put("Holiday Premium", Money.toPesos(holidayPay[i]));
+            }
+            breakdown.put("totalAllowances", Money.toPesos(allowances[i]));
+            breakdown.put("totalBonuses", Money.toPesos(bonuses[i]));
+            breakdown.put("totalDeductions", Money.toPesos(componentDeductions[i]));
+            payroll.setSalaryBreakdown(breakdown);
+            
+            payroll.setStatutoryDeductions(Money.ofCentavos(sssEmployee[i]), Money.ofCentavos(philHealthEmployee[i]),
+                                           Money.ofCentavos(pagIbigEmployee[i]), Money.ofCentavos(withholdingTax[i]));
+            payroll.setEmployerContributions(Money.ofCentavos(sssEmployer[i]), Money.ofCentavos(philHealthEmployer[i]),
+                                             Money.ofCentavos(pagIbigEmployer[i]));
+            payrolls.add(payroll);
+        }
+        return payrolls;
+    }
+    
+    /**
+     * A monthly amount, in centavos, as paid for one period of a frequency
+     */
+    static long prorate(long monthlyCentavos, PayFrequency frequency) {
+        return Money.divide(Math.multiplyExact(monthlyCentavos, 12L), frequency.getPeriodsPerYear(), Money.DEFAULT_ROUNDING);
+    }
+    
+    /**
+     * Remove all rows so the kernel can be reused for another batch
+     */
+    public void clear() {
+        size = 0;
+        computed = false;
+    }
+    
+    private void checkCapacity() {
+        if (size == capacity) {
+            throw new IllegalStateException("Kernel is full (" + capacity + " employees)");
+        }
+    }
+    
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+    }
+    
+    public int size() { return size; }
+    public int getEmployeeId(int row) { checkRow(row); return employeeIds[row]; }
+    public long getGrossPay(int row) { checkRow(row); return grossPay[row]; }
+    public long getWithholdingTax(int row) { checkRow(row); return withholdingTax[row]; }
+    public long getEmployeeContributions(int row) { checkRow(row); return sssEmployee[row] + philHealthEmployee[row] + pagIbigEmployee[row]; }
+    public long getEmployerContributions(int row) { checkRow(row); return sssEmployer[row] + philHealthEmployer[row] + pagIbigEmployer[row]; }
+    public long getNetPay(int row) { checkRow(row); return netPay[row]; }
+    
+    /**
+     * Sum of the net pay of every computed row, in centavos
+     */
+    public long getTotalNetPay() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += netPay[i];
+        }
+        return total;
+    }
+}
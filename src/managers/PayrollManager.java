@@ -1,21 +1,97 @@
 package managers;
 
+import models.PayPeriod;
 import models.Payroll;
+import database.DatabaseDAO;
+import database.MySQLDatabaseDAO;
+import java.io.IOException;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Payroll Manager for managing payroll operations
+ *
+ * Payrolls are persisted through the DAO. Reads are served from an in-memory working set that is
+ * loaded one pay period at a time, the first time that period is touched. A period is named by its
+ * key (see PayPeriod#getKey): YYYY-MM for a calendar month, YYYY-MM-DD--YYYY-MM-DD otherwise. Writes update the
+ * working set immediately and are queued; a background thread flushes the queue to the database in
+ * batches, so saving a payroll never waits on the database.
+ *
+ * The working set is held in concurrent maps with secondary indexes by pay period, employee and pay
+ * date, so lookups are safe from any thread and never scan. Changes to the working set and the write
+ * queue are serialized on one lock; reads of data already in memory take no lock. Payrolls in the
+ * working set are never changed in place: an edit indexes a changed copy in place of the old one.
+ *
+ * Finalizing a payroll writes it straight to the database together with its year-to-date ledger entry
+ * (see YearToDateLedger); finalized payrolls can no longer be edited, replaced or deleted.
  */
 public class PayrollManager {
-    private Map<Integer, Payroll> payrolls;
-    private int nextPayrollId;
+    public static final int WRITE_BATCH_SIZE = 100;
+    public static final long FLUSH_INTERVAL_MILLIS = 2000;
+    private static final int MAX_BATCH_ATTEMPTS = 3;
+    
+    private enum WriteType { INSERT, UPDATE, DELETE }
+    
+    /**
+     * A queued write: the latest snapshot of a payroll and what still has to happen to its row
+     */
+    private static final class PendingWrite {
+        private final WriteType type;
+        private final Payroll snapshot;
+        
+        PendingWrite(WriteType type, Payroll snapshot) {
+            this.type = type;
+            this.snapshot = snapshot;
+        }
+    }
+    
+    private DatabaseDAO databaseDAO;
     private SalaryComponentManager salaryComponentManager;
+    private final YearToDateLedger yearToDateLedger;
+    private final PayslipArchive payslipArchive;
+    
+    // Working set and its secondary indexes. A key in payrollsByPeriod means that period is fully loaded,
+    // a member of loadedEmployees means all of that employee's payrolls are in the working set.
+    private final ConcurrentHashMap<Integer, Payroll> payrolls = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ConcurrentSkipListMap<Integer, Payroll>> payrollsByPeriod = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, ConcurrentSkipListMap<Integer, Payroll>> payrollsByEmployee = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<LocalDate, ConcurrentSkipListMap<Integer, Payroll>> payrollsByPayDate = new ConcurrentSkipListMap<>();
+    private final Set<Integer> loadedEmployees = ConcurrentHashMap.newKeySet();
+    private final Set<YearMonth> loadedMonths = ConcurrentHashMap.newKeySet();
+    private volatile boolean allPeriodsLoaded;
+    private final AtomicInteger nextPayrollId = new AtomicInteger();
+    private final Object workingSetLock = new Object();
+    
+    // Write-behind queue, coalesced per payroll ID in arrival order, and the batch currently being written
+    private final Map<Integer, PendingWrite> pendingWrites = new LinkedHashMap<>();
+    private Map<Integer, PendingWrite> inFlightWrites = Collections.emptyMap();
+    private final Object flushLock = new Object();
+    private int failedBatchAttempts;
+    private final ScheduledExecutorService flushScheduler;
     
     public PayrollManager() {
-        payrolls = new HashMap<>();
-        nextPayrollId = 1;
-        salaryComponentManager = new SalaryComponentManager();
+        this(new MySQLDatabaseDAO());
+    }
+    
+    public PayrollManager(DatabaseDAO databaseDAO) {
+        this.databaseDAO = databaseDAO;
+        this.salaryComponentManager = new SalaryComponentManager();
+        this.yearToDateLedger = new YearToDateLedger(databaseDAO);
+        this.payslipArchive = new PayslipArchive();
+        this.flushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "payroll-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushScheduler.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS,
+                                              TimeUnit.MILLISECONDS);
     }
     
     /**
@@ -32,9 +108,24 @@ public class PayrollManager {
         return salaryComponentManager;
     }
     
-    public Payroll createPayroll(int employeeId, String payPeriod, double basePay, 
+    /**
+     * Year-to-date totals of finalized payrolls
+     */
+    public YearToDateLedger getYearToDateLedger() {
+        return yearToDateLedger;
+    }
+    
+    /**
+     * Payslips as issued for finalized payrolls
+     */
+    public PayslipArchive getPayslipArchive() {
+        return payslipArchive;
+    }
+    
+    public Payroll createPayroll(int employeeId, String payPeriod, double basePay,
                                double overtime, double bonuses, double deductions, LocalDate payDate) {
-        Payroll payroll = new Payroll(nextPayrollId++, employeeId, payPeriod, basePay, 
+        PayPeriod period = parsePeriod(payPeriod);
+        Payroll payroll = new Payroll(allocatePayrollId(), employeeId, period.getKey(), basePay,
                                     overtime, bonuses, deductions, payDate);
         
         // Apply salary components if available
@@ -43,58 +134,593 @@ public class PayrollManager {
             payroll.setSalaryBreakdown(breakdown);
         }
         
-        payrolls.put(payroll.getPayrollId(), payroll);
+        synchronized (workingSetLock) {
+            ensurePeriodLoaded(payroll.getPayPeriod());
+            prepareForStorage(payroll, period);
+            index(payroll);
+            enqueue(WriteType.INSERT, payroll);
+        }
         return payroll;
     }
     
     /**
      * Create payroll with automatic salary component calculation
      */
-    public Payroll createPayrollWithComponents(int employeeId, String payPeriod, double basePay, 
+    public Payroll createPayrollWithComponents(int employeeId, String payPeriod, double basePay,
                                              double overtime, LocalDate payDate) {
-        Payroll payroll = new Payroll(nextPayrollId++, employeeId, payPeriod, basePay, 
-                                    overtime, 0.0, 0.0, payDate);
-        
-        // Apply salary components
-        if (salaryComponentManager != null) {
-            Map<String, Double> breakdown = salaryComponentManager.getSalaryBreakdown(employeeId, basePay);
-            payroll.setSalaryBreakdown(breakdown);
-        }
-        
-        payrolls.put(payroll.getPayrollId(), payroll);
-        return payroll;
+        return createPayroll(employeeId, payPeriod, basePay, overtime, 0.0, 0.0, payDate);
     }
     
     public Payroll getPayroll(int payrollId) {
-        return payrolls.get(payrollId);
+        Payroll payroll = payrolls.get(payrollId);
+        if (payroll != null || allPeriodsLoaded) {
+            return payroll;
+        }
+        
+        synchronized (workingSetLock) {
+            payroll = payrolls.get(payrollId);
+            if (payroll != null || isPendingDelete(payrollId)) {
+                return payroll;
+            }
+            
+            // Not in the working set yet: find its pay period and load that period
+            Payroll stored = databaseDAO.getPayrollById(payrollId);
+            if (stored == null || stored.getPayPeriod() == null) {
+                return null;
+            }
+            ensurePeriodLoaded(stored.getPayPeriod());
+            return payrolls.get(payrollId);
+        }
     }
     
     public List<Payroll> getAllPayrolls() {
-        return new ArrayList<>(payrolls.values());
+        if (!allPeriodsLoaded) {
+            synchronized (workingSetLock) {
+                ensureAllPeriodsLoaded();
+            }
+        }
+        List<Payroll> result = new ArrayList<>(payrolls.values());
+        result.sort(Comparator.comparingInt(Payroll::getPayrollId));
+        return result;
+    }
+    
+    /**
+     * Get payrolls of one pay period by its key, loading only that period from the database
+     */
+    public List<Payroll> getPayrollsByPeriod(String payPeriod) {
+        Map<Integer, Payroll> periodPayrolls = payrollsByPeriod.get(payPeriod);
+        if (periodPayrolls == null && !allPeriodsLoaded) {
+            synchronized (workingSetLock) {
+                ensurePeriodLoaded(payPeriod);
+                periodPayrolls = payrollsByPeriod.get(payPeriod);
+            }
+        }
+        return periodPayrolls != null ? new ArrayList<>(periodPayrolls.values()) : new ArrayList<>();
+    }
+    
+    /**
+     * Get payrolls of every pay period ending in a month, whatever the employees' payment frequency
+     */
+    public List<Payroll> getPayrollsByMonth(YearMonth month) {
+        if (!allPeriodsLoaded && !loadedMonths.contains(month)) {
+            synchronized (workingSetLock) {
+                ensureMonthLoaded(month);
+            }
+        }
+        List<Payroll> result = new ArrayList<>();
+        for (Map.Entry<String, ConcurrentSkipListMap<Integer, Payroll>> period : payrollsByPeriod.entrySet()) {
+            if (month.equals(payrollMonthOf(period.getKey()))) {
+                result.addAll(period.getValue().values());
+            }
+        }
+        result.sort(Comparator.comparingInt(Payroll::getPayrollId));
+        return result;
     }
     
     public List<Payroll> getPayrollsByEmployee(int employeeId) {
-        return payrolls.values().stream()
-                .filter(payroll -> payroll.getEmployeeId() == employeeId)
-                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        if (!allPeriodsLoaded && !loadedEmployees.contains(employeeId)) {
+            synchronized (workingSetLock) {
+                ensureEmployeeLoaded(employeeId);
+            }
+        }
+        Map<Integer, Payroll> employeePayrolls = payrollsByEmployee.get(employeeId);
+        return employeePayrolls != null ? new ArrayList<>(employeePayrolls.values()) : new ArrayList<>();
     }
     
-    public boolean updatePayroll(int payrollId, String payPeriod, double basePay, 
+    /**
+     * Get payrolls paid between two dates (inclusive), ordered by pay date then payroll ID
+     */
+    public List<Payroll> getPayrollsByPayDateRange(LocalDate from, LocalDate to) {
+        if (!allPeriodsLoaded) {
+            // A pay date can fall outside its own pay period, so a range needs the full working set
+            synchronized (workingSetLock) {
+                ensureAllPeriodsLoaded();
+            }
+        }
+        List<Payroll> result = new ArrayList<>();
+        for (Map<Integer, Payroll> sameDay : payrollsByPayDate.subMap(from, true, to, true).values()) {
+            result.addAll(sameDay.values());
+        }
+        return result;
+    }
+    
+    public boolean updatePayroll(int payrollId, String payPeriod, double basePay,
                                double overtime, double bonuses, double deductions, LocalDate payDate) {
-        Payroll payroll = payrolls.get(payrollId);
-        if (payroll != null) {
-            payroll.setPayPeriod(payPeriod);
-            payroll.setBasePay(basePay);
-            payroll.setOvertime(overtime);
-            payroll.setBonuses(bonuses);
-            payroll.setDeductions(deductions);
-            payroll.setPayDate(payDate);
+        PayPeriod period = parsePeriod(payPeriod);
+        synchronized (workingSetLock) {
+            Payroll payroll = getPayroll(payrollId);
+            if (payroll == null || payroll.isFinalized()) {
+                return false;
+            }
+            
+            ensurePeriodLoaded(period.getKey());
+            Payroll updated = new Payroll(payroll);
+            updated.setPayPeriod(period.getKey());
+            updated.setBasePay(basePay);
+            updated.setOvertime(overtime);
+            updated.setBonuses(bonuses);
+            updated.setDeductions(deductions);
+            updated.setPayDate(payDate);
+            swap(payroll, updated);
+            return true;
+        }
+    }
+    
+    /**
+     * Save an edited copy of a payroll (e.g. {@code new Payroll(getPayroll(id))} with a new status) in
+     * place of the one in the working set
+     * @return false if the payroll is unknown or finalized
+     */
+    public boolean savePayroll(Payroll payroll) {
+        synchronized (workingSetLock) {
+            Payroll current = getPayroll(payroll.getPayrollId());
+            if (current == null || current.isFinalized()) {
+                return false;
+            }
+            swap(current, current == payroll ? new Payroll(payroll) : payroll);
+            return true;
+        }
+    }
+    
+    /**
+     * Swap a payroll in the working set for a recalculated copy with the same ID and queue it for saving.
+     * Readers see either the old or the new payroll, never one half-updated.
+     * @return false if the payroll was deleted, replaced or finalized since {@code current} was read
+     */
+    public boolean replacePayroll(Payroll current, Payroll replacement) {
+        synchronized (workingSetLock) {
+            if (current.getPayrollId() != replacement.getPayrollId() || payrolls.get(current.getPayrollId()) != current
+                    || current.isFinalized()) {
+                return false;
+            }
+            swap(current, replacement);
             return true;
         }
-        return false;
     }
     
     public boolean deletePayroll(int payrollId) {
-        return payrolls.remove(payrollId) != null;
+        synchronized (workingSetLock) {
+            Payroll payroll = getPayroll(payrollId);
+            if (payroll == null || payroll.isFinalized()) {
+                return false;
+            }
+            unindex(payroll);
+            enqueue(WriteType.DELETE, payroll);
+            return true;
+        }
+    }
+    
+    /**
+     * Finalize payrolls: save them with status FINALIZED and add them to the year-to-date ledger, in one
+     * database transaction. Payrolls that are already finalized or unknown are skipped.
+     * @return Number of payrolls finalized, or -1 if the database rejected the change (nothing is finalized)
+     */
+    public int finalizePayrolls(Collection<Integer> payrollIds) {
+        synchronized (flushLock) {
+            // Queued inserts must reach the database first; the finalizing UPDATE needs the rows to exist
+            if (!flush()) {
+                return -1;
+            }
+            synchronized (workingSetLock) {
+                Map<Integer, Payroll> toFinalize = new LinkedHashMap<>();
+                for (Integer payrollId : payrollIds) {
+                    Payroll payroll = getPayroll(payrollId);
+                    PendingWrite queued = pendingWrites.get(payrollId);
+                    if (payroll == null || payroll.isFinalized() || (queued != null && queued.type == WriteType.INSERT)) {
+                        continue;
+                    }
+                    Payroll snapshot = new Payroll(payroll);
+                    snapshot.setStatus(Payroll.STATUS_FINALIZED);
+                    prepareForStorage(snapshot, parsePeriod(snapshot.getPayPeriod()));
+                    toFinalize.put(payrollId, snapshot);
+                }
+                
+                List<Integer> finalized = yearToDateLedger.finalizePayrolls(new ArrayList<>(toFinalize.values()));
+                if (finalized == null) {
+                    return -1;
+                }
+                for (Integer payrollId : finalized) {
+                    // The finalized row holds the latest state, so an update still queued for it is redundant
+                    pendingWrites.remove(payrollId);
+                    Payroll current = payrolls.get(payrollId);
+                    index(toFinalize.get(payrollId));
+                    if (current != null) {
+                        unindex(current);
+                    }
+                }
+                return finalized.size();
+            }
+        }
+    }
+    
+    /**
+     * Number of changes not yet written to the database
+     */
+    public int getPendingWriteCount() {
+        synchronized (workingSetLock) {
+            return pendingWrites.size() + inFlightWrites.size();
+        }
+    }
+    
+    /**
+     * Write all queued changes to the database now
+     * @return true if the queue was written (or empty), false if the database rejected the batch
+     */
+    public boolean flush() {
+        synchronized (flushLock) {
+            Map<Integer, PendingWrite> batch;
+            synchronized (workingSetLock) {
+                if (pendingWrites.isEmpty()) {
+                    return true;
+                }
+                batch = new LinkedHashMap<>(pendingWrites);
+                pendingWrites.clear();
+                inFlightWrites = batch;
+            }
+            
+            boolean written = writeBatch(batch.values());
+            if (!written && ++failedBatchAttempts >= MAX_BATCH_ATTEMPTS) {
+                // A row the database keeps rejecting must not hold back the rest of the queue
+                written = writeIndividually(batch.values());
+            }
+            if (written) {
+                failedBatchAttempts = 0;
+            }
+            
+            synchronized (workingSetLock) {
+                inFlightWrites = Collections.emptyMap();
+                if (!written) {
+                    requeue(batch);
+                }
+            }
+            return written;
+        }
+    }
+    
+    /**
+     * Stop the background writer and flush everything still queued (call before the application exits)
+     */
+    public void shutdown() {
+        flushScheduler.shutdown();
+        try {
+            flushScheduler.awaitTermination(FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (int attempt = 0; attempt < MAX_BATCH_ATTEMPTS && getPendingWriteCount() > 0; attempt++) {
+            flush();
+        }
+        if (getPendingWriteCount() > 0) {
+            System.err.println("Payroll changes could not be saved: " + getPendingWriteCount() + " pending");
+        }
+        try {
+            payslipArchive.close();
+        } catch (IOException e) {
+            System.err.println("Error closing payslip archive: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+    
+    private boolean writeBatch(Collection<PendingWrite> writes) {
+        List<Payroll> inserts = new ArrayList<>();
+        List<Payroll> updates = new ArrayList<>();
+        List<Integer> deletes = new ArrayList<>();
+        for (PendingWrite write : writes) {
+            switch (write.type) {
+                case INSERT: inserts.add(write.snapshot); break;
+                case UPDATE: updates.add(write.snapshot); break;
+                case DELETE: deletes.add(write.snapshot.getId()); break;
+            }
+        }
+        return databaseDAO.savePayrollBatch(inserts, updates, deletes);
+    }
+    
+    private boolean writeIndividually(Collection<PendingWrite> writes) {
+        if (!databaseDAO.testConnection()) {
+            // The database is unreachable rather than rejecting rows; keep everything queued
+            return false;
+        }
+        for (PendingWrite write : writes) {
+            if (!writeBatch(Collections.singletonList(write))) {
+                System.err.println("Dropping payroll " + write.type + " rejected by the database for payroll ID: "
+                                 + write.snapshot.getPayrollId());
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Put a failed batch back in front of the queue, merged with changes made while it was being written
+     */
+    private void requeue(Map<Integer, PendingWrite> batch) {
+        Map<Integer, PendingWrite> merged = new LinkedHashMap<>();
+        for (Map.Entry<Integer, PendingWrite> entry : batch.entrySet()) {
+            PendingWrite failed = entry.getValue();
+            PendingWrite newer = pendingWrites.remove(entry.getKey());
+            if (newer == null) {
+                merged.put(entry.getKey(), failed);
+            } else if (failed.type != WriteType.INSERT) {
+                merged.put(entry.getKey(), newer);
+            } else if (newer.type != WriteType.DELETE) {
+                // The row was never inserted, so it still needs an insert with the newest state
+                merged.put(entry.getKey(), new PendingWrite(WriteType.INSERT, newer.snapshot));
+            }
+        }
+        merged.putAll(pendingWrites);
+        pendingWrites.clear();
+        pendingWrites.putAll(merged);
+    }
+    
+    /**
+     * Queue a write, coalescing it with any write already queued for the same payroll
+     */
+    private void enqueue(WriteType type, Payroll payroll) {
+        int payrollId = payroll.getPayrollId();
+        PendingWrite queued = pendingWrites.get(payrollId);
+        boolean notYetInserted = queued != null && queued.type == WriteType.INSERT;
+        
+        if (type == WriteType.DELETE && notYetInserted) {
+            pendingWrites.remove(payrollId);
+        } else if (type == WriteType.UPDATE && notYetInserted) {
+            pendingWrites.put(payrollId, new PendingWrite(WriteType.INSERT, new Payroll(payroll)));
+        } else {
+            pendingWrites.put(payrollId, new PendingWrite(type, new Payroll(payroll)));
+        }
+        
+        if (pendingWrites.size() >= WRITE_BATCH_SIZE && !flushScheduler.isShutdown()) {
+            flushScheduler.execute(this::flush);
+        }
+    }
+    
+    private boolean isPendingDelete(int payrollId) {
+        PendingWrite write = pendingWrites.get(payrollId);
+        if (write == null) {
+            write = inFlightWrites.get(payrollId);
+        }
+        return write != null && write.type == WriteType.DELETE;
+    }
+    
+    /**
+     * Add a payroll to the working set and every index
+     */
+    private void index(Payroll payroll) {
+        int payrollId = payroll.getPayrollId();
+        payrolls.put(payrollId, payroll);
+        Map<Integer, Payroll> periodPayrolls = payrollsByPeriod.get(payroll.getPayPeriod());
+        if (periodPayrolls != null) {
+            periodPayrolls.put(payrollId, payroll);
+        }
+        payrollsByEmployee.computeIfAbsent(payroll.getEmployeeId(), key -> new ConcurrentSkipListMap<>())
+                          .put(payrollId, payroll);
+        if (payroll.getPayDate() != null) {
+            payrollsByPayDate.computeIfAbsent(payroll.getPayDate(), key -> new ConcurrentSkipListMap<>())
+                             .put(payrollId, payroll);
+        }
+    }
+    
+    /**
+     * Put a changed copy of a payroll in place of the one in the working set and queue it for saving.
+     * The copy is indexed before the old payroll is removed, so a reader never finds neither.
+     */
+    private void swap(Payroll current, Payroll replacement) {
+        prepareForStorage(replacement, parsePeriod(replacement.getPayPeriod()));
+        index(replacement);
+        unindex(current);
+        enqueue(WriteType.UPDATE, replacement);
+    }
+    
+    /**
+     * Remove a payroll from the working set and every index where it is still the one held (before it
+     * is deleted, or after a new copy of it was indexed)
+     */
+    private void unindex(Payroll payroll) {
+        int payrollId = payroll.getPayrollId();
+        payrolls.remove(payrollId, payroll);
+        Map<Integer, Payroll> periodPayrolls = payrollsByPeriod.get(payroll.getPayPeriod());
+        if (periodPayrolls != null) {
+            periodPayrolls.remove(payrollId, payroll);
+        }
+        Map<Integer, Payroll> employeePayrolls = payrollsByEmployee.get(payroll.getEmployeeId());
+        if (employeePayrolls != null) {
+            employeePayrolls.remove(payrollId, payroll);
+        }
+        if (payroll.getPayDate() != null) {
+            Map<Integer, Payroll> sameDay = payrollsByPayDate.get(payroll.getPayDate());
+            if (sameDay != null) {
+                sameDay.remove(payrollId, payroll);
+                if (sameDay.isEmpty()) {
+                    payrollsByPayDate.remove(payroll.getPayDate(), sameDay);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Index a payroll read from the database unless the working set already has a newer state for it
+     */
+    private void addLoaded(Payroll payroll) {
+        int payrollId = payroll.getPayrollId();
+        Payroll current = payrolls.get(payrollId);
+        if (current != null) {
+            // Memory wins; make sure it is listed under its period if that period is now loaded
+            Map<Integer, Payroll> periodPayrolls = payrollsByPeriod.get(current.getPayPeriod());
+            if (periodPayrolls != null) {
+                periodPayrolls.put(payrollId, current);
+            }
+            return;
+        }
+        if (!isPendingDelete(payrollId)) {
+            index(payroll);
+        }
+    }
+    
+    /**
+     * Load one pay period into the working set unless it is already there (caller holds workingSetLock)
+     */
+    private void ensurePeriodLoaded(String payPeriod) {
+        if (allPeriodsLoaded || payPeriod == null || payrollsByPeriod.containsKey(payPeriod)) {
+            return;
+        }
+        
+        PayPeriod period;
+        try {
+            period = PayPeriod.parse(payPeriod);
+        } catch (IllegalArgumentException e) {
+            payrollsByPeriod.put(payPeriod, new ConcurrentSkipListMap<>());
+            return;
+        }
+        // Payrolls of other periods starting in the range are indexed too, just not as a complete period
+        List<Payroll> stored = databaseDAO.getPayrollByPeriod(java.sql.Date.valueOf(period.getStart()),
+                                                              java.sql.Date.valueOf(period.getEnd()));
+        payrollsByPeriod.put(payPeriod, new ConcurrentSkipListMap<>());
+        for (Payroll payroll : stored) {
+            addLoaded(payroll);
+        }
+    }
+    
+    /**
+     * Load every pay period ending in a month into the working set (caller holds workingSetLock).
+     * Such a period starts at most 13 days before the month, so one range read holds all their payrolls.
+     */
+    private void ensureMonthLoaded(YearMonth month) {
+        if (allPeriodsLoaded || loadedMonths.contains(month)) {
+            return;
+        }
+        List<Payroll> stored = databaseDAO.getPayrollByPeriod(java.sql.Date.valueOf(month.atDay(1).minusDays(13)),
+                                                              java.sql.Date.valueOf(month.atEndOfMonth()));
+        for (Payroll payroll : stored) {
+            if (payroll.getPayPeriod() != null && month.equals(payrollMonthOf(payroll.getPayPeriod()))) {
+                payrollsByPeriod.putIfAbsent(payroll.getPayPeriod(), new ConcurrentSkipListMap<>());
+            }
+        }
+        for (Payroll payroll : stored) {
+            addLoaded(payroll);
+        }
+        loadedMonths.add(month);
+    }
+    
+    /**
+     * Load all payrolls of one employee into the working set (caller holds workingSetLock)
+     */
+    private void ensureEmployeeLoaded(int employeeId) {
+        if (allPeriodsLoaded || loadedEmployees.contains(employeeId)) {
+            return;
+        }
+        for (Payroll payroll : databaseDAO.getPayrollByEmployee(String.format("EMP%03d", employeeId))) {
+            addLoaded(payroll);
+        }
+        loadedEmployees.add(employeeId);
+    }
+    
+    /**
+     * Load every payroll into the working set (caller holds workingSetLock)
+     */
+    private void ensureAllPeriodsLoaded() {
+        if (allPeriodsLoaded) {
+            return;
+        }
+        long rows = databaseDAO.streamPayroll(this::addLoaded);
+        if (rows < 0) {
+            return;
+        }
+        
+        // Every period is now complete in memory
+        for (Payroll payroll : payrolls.values()) {
+            if (payroll.getPayPeriod() != null) {
+                payrollsByPeriod.computeIfAbsent(payroll.getPayPeriod(), key -> new ConcurrentSkipListMap<>())
+                                .put(payroll.getPayrollId(), payroll);
+            }
+        }
+        allPeriodsLoaded = true;
+    }
+    
+    /**
+     * Reserve a contiguous block of payroll IDs for a bulk writer that inserts through the DAO itself
+     * @return First ID of the block
+     */
+    public int reservePayrollIds(int count) {
+        initializeIdSource();
+        return nextPayrollId.getAndAdd(count);
+    }
+    
+    /**
+     * Add payrolls that a bulk writer has already saved to the working set. Payrolls of periods and
+     * employees not loaded yet are skipped; they are read from the database when first needed.
+     */
+    public void registerPersisted(Collection<Payroll> saved) {
+        synchronized (workingSetLock) {
+            for (Payroll payroll : saved) {
+                if (allPeriodsLoaded || payrollsByPeriod.containsKey(payroll.getPayPeriod())
+                        || loadedEmployees.contains(payroll.getEmployeeId())) {
+                    index(payroll);
+                }
+            }
+        }
+    }
+    
+    private int allocatePayrollId() {
+        initializeIdSource();
+        return nextPayrollId.getAndIncrement();
+    }
+    
+    private void initializeIdSource() {
+        if (nextPayrollId.get() == 0) {
+            synchronized (workingSetLock) {
+                if (nextPayrollId.get() == 0) {
+                    int maxId = databaseDAO.getMaxPayrollId();
+                    for (Integer payrollId : payrolls.keySet()) {
+                        maxId = Math.max(maxId, payrollId);
+                    }
+                    nextPayrollId.set(Math.max(maxId, 0) + 1);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Fill the database columns that the payroll screens do not set themselves
+     */
+    static void prepareForStorage(Payroll payroll, PayPeriod period) {
+        payroll.setId(payroll.getPayrollId());
+        payroll.setPayPeriodStart(java.sql.Date.valueOf(period.getStart()));
+        payroll.setPayPeriodEnd(java.sql.Date.valueOf(period.getEnd()));
+        payroll.setBasicSalary(payroll.getBasePay());
+        payroll.setBonus(payroll.getBonuses());
+        payroll.setTaxDeduction(payroll.getTaxes());
+    }
+    
+    private PayPeriod parsePeriod(String payPeriod) {
+        return PayPeriod.parse(payPeriod);
+    }
+    
+    /**
+     * Month a pay period key belongs to, or null if it is not a valid key
+     */
+    private static YearMonth payrollMonthOf(String payPeriod) {
+        try {
+            return PayPeriod.parse(payPeriod).getPayrollMonth();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
     }
 }
@@ -0,0 +1,389 @@
+package managers;
+
+import models.Employee;
+import models.EmployeeSalaryComponent;
+import models.Money;
+import models.PayPeriod;
+import models.Payroll;
+import database.DatabaseDAO;
+import database.MySQLDatabaseDAO;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Keeps draft payrolls in step with the data they were calculated from.
+ *
+ * Registered as a change listener on SalaryComponentManager and EmployeeManager, it maps each change
+ * to the employees it affects: an edited component to every employee assigned to it, an assignment
+ * or base salary change to that employee. Only those employees' draft (PENDING) payrolls are then
+ * recalculated on a background thread and swapped into the PayrollManager working set, which queues
+ * them for saving. Changes arriving in a burst are coalesced so each employee is recalculated once.
+ *
+ * A payroll produced by a payroll run is recalculated the same way the run calculated it (components
+ * in effect during its pay period, pay prorated to the period, statutory contributions and withholding
+ * tax from the table of the period's pay frequency), keeping any deductions
+ * entered by hand. Its overtime and other premiums are kept, moved to the new hourly rate, and taxed
+ * with the rest of the gross. A payroll entered by hand gets the employee's current base salary and
+ * component breakdown, as when it was created. Each batch of recalculations is reported to the
+ * listeners with the change in net pay per employee.
+ */
+public class PayrollRecalculator implements CompensationChangeListener {
+    public static final String DRAFT_STATUS = Payroll.STATUS_PENDING;
+    
+    private final DatabaseDAO databaseDAO;
+    private final PayrollManager payrollManager;
+    private final SalaryComponentManager salaryComponentManager;
+    private ContributionTableRegistry contributionTables = ContributionTableRegistry.getDefault();
+    private WithholdingTaxRegistry withholdingTaxTables = WithholdingTaxRegistry.getDefault();
+    private final List<Consumer<Report>> listeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService worker;
+    
+    // Dependency index from components and assignments to employees, built on first use.
+    // Only touched on the worker thread.
+    private Map<Integer, Set<Integer>> employeesByComponent;
+    private Map<Integer, Integer> employeeByAssignment;
+    
+    // Employees waiting to be recalculated, and whether a pass over them is already queued
+    private final Set<Integer> pendingEmployees = new LinkedHashSet<>();
+    private boolean passQueued;
+    
+    public PayrollRecalculator(PayrollManager payrollManager, SalaryComponentManager salaryComponentManager) {
+        this(new MySQLDatabaseDAO(), payrollManager, salaryComponentManager);
+    }
+    
+    public PayrollRecalculator(DatabaseDAO databaseDAO, PayrollManager payrollManager,
+                               SalaryComponentManager salaryComponentManager) {
+        this.databaseDAO = databaseDAO;
+        this.payrollManager = payrollManager;
+        this.salaryComponentManager = salaryComponentManager;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "payroll-recalculation");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Use a specific set of contribution schedules instead of the default registry
+     */
+    public void setContributionTables(ContributionTableRegistry contributionTables) {
+        this.contributionTables = contributionTables;
+    }
+    
+    /**
+     * Use a specific set of withholding tax tables instead of the default registry
+     */
+    public void setWithholdingTaxTables(WithholdingTaxRegistry withholdingTaxTables) {
+        this.withholdingTaxTables = withholdingTaxTables;
+    }
+    
+    /**
+     * Be told about each batch of recalculated payrolls. Called on the background thread.
+     */
+    public void addListener(Consumer<Report> listener) {
+        listeners.add(listener);
+    }
+    
+    public void removeListener(Consumer<Report> listener) {
+        listeners.remove(listener);
+    }
+    
+    @Override
+    public void salaryComponentChanged(int salaryComponentId) {
+        worker.execute(() -> {
+            ensureIndex();
+            schedule(employeesByComponent.getOrDefault(salaryComponentId, Collections.emptySet()));
+        });
+    }
+    
+    @Override
+    public void employeeComponentChanged(EmployeeSalaryComponent assignment) {
+        int employeeId = PayrollRunEngine.parseEmployeeId(assignment.getEmployeeId());
+        int assignmentId = assignment.getId();
+        int salaryComponentId = assignment.getSalaryComponentId();
+        worker.execute(() -> {
+            if (assignmentId <= 0) {
+                // A new assignment's ID is only known to the database; re-read it so a later delete can be traced
+                employeesByComponent = null;
+            }
+            ensureIndex();
+            if (employeeId > 0) {
+                employeesByComponent.computeIfAbsent(salaryComponentId, key -> new HashSet<>()).add(employeeId);
+                if (assignmentId > 0) {
+                    employeeByAssignment.put(assignmentId, employeeId);
+                }
+                schedule(Collections.singleton(employeeId));
+            }
+        });
+    }
+    
+    @Override
+    public void employeeComponentRemoved(int assignmentId) {
+        worker.execute(() -> {
+            ensureIndex();
+            Integer employeeId = employeeByAssignment.remove(assignmentId);
+            if (employeeId != null) {
+                schedule(Collections.singleton(employeeId));
+            } else {
+                System.err.println("Payroll recalculation: unknown salary component assignment #" + assignmentId);
+            }
+        });
+    }
+    
+    @Override
+    public void baseSalaryChanged(int employeeId) {
+        recalculateEmployees(Collections.singleton(employeeId));
+    }
+    
+    @Override
+    public void hireDateChanged(int employeeId) {
+        recalculateEmployees(Collections.singleton(employeeId));
+    }
+    
+    /**
+     * Recalculate the draft payrolls of some employees in the background
+     */
+    public void recalculateEmployees(Collection<Integer> employeeIds) {
+        Set<Integer> copy = new LinkedHashSet<>(employeeIds);
+        worker.execute(() -> schedule(copy));
+    }
+    
+    /**
+     * Finish the recalculations already queued and stop the background thread
+     */
+    public void shutdown() {
+        worker.shutdown();
+        try {
+            worker.awaitTermination(PayrollManager.FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void ensureIndex() {
+        if (employeesByComponent != null) {
+            return;
+        }
+        Map<Integer, Set<Integer>> byComponent = new HashMap<>();
+        Map<Integer, Integer> byAssignment = new HashMap<>();
+        databaseDAO.streamEmployeeSalaryComponents(assignment -> {
+            int employeeId = PayrollRunEngine.parseEmployeeId(assignment.getEmployeeId());
+            if (employeeId > 0) {
+                byComponent.computeIfAbsent(assignment.getSalaryComponentId(), key -> new HashSet<>()).add(employeeId);
+                byAssignment.put(assignment.getId(), employeeId);
+            }
+        });
+        employeesByComponent = byComponent;
+        employeeByAssignment = byAssignment;
+    }
+    
+    /**
+     * Add employees to the pending set and queue a pass over it unless one is already queued, so a
+     * burst of changes queued before the pass starts is recalculated together
+     */
+    private void schedule(Collection<Integer> employeeIds) {
+        if (employeeIds.isEmpty()) {
+            return;
+        }
+        synchronized (pendingEmployees) {
+            pendingEmployees.addAll(employeeIds);
+            if (passQueued) {
+                return;
+            }
+            passQueued = true;
+        }
+        try {
+            worker.execute(this::recalculatePending);
+        } catch (RejectedExecutionException e) {
+            // Shutting down: finish this pass on the current thread rather than dropping it
+            recalculatePending();
+        }
+    }
+    
+    private void recalculatePending() {
+        List<Integer> employeeIds;
+        synchronized (pendingEmployees) {
+            employeeIds = new ArrayList<>(pendingEmployees);
+            pendingEmployees.clear();
+            passQueued = false;
+        }
+        
+        Report report = new Report();
+        Map<PayPeriod, ContributionTableRegistry.Schedule> schedules = new HashMap<>();
+        Map<PayPeriod, WithholdingTaxTable> taxTables = new HashMap<>();
+        for (int employeeId : employeeIds) {
+            try {
+                recalculateEmployee(employeeId, schedules, taxTables, report);
+            } catch (RuntimeException e) {
+                System.err.println("Error recalculating payrolls of EMP" + String.format("%03d", employeeId) + ": " + e.getMessage());
+                e.printStackTrace();
+                report.failed.add(employeeId);
+            }
+        }
+        
+        if (!report.isEmpty()) {
+            for (Consumer<Report> listener : listeners) {
+                listener.accept(report);
+            }
+        }
+    }
+    
+    private void recalculateEmployee(int employeeId, Map<PayPeriod, ContributionTableRegistry.Schedule> schedules,
+                                     Map<PayPeriod, WithholdingTaxTable> taxTables, Report report) {
+        List<Payroll> drafts = new ArrayList<>();
+        for (Payroll payroll : payrollManager.getPayrollsByEmployee(employeeId)) {
+            if (DRAFT_STATUS.equals(payroll.getStatus())) {
+                drafts.add(payroll);
+            }
+        }
+        if (drafts.isEmpty()) {
+            return;
+        }
+        Employee employee = databaseDAO.getEmployeeById(String.format("EMP%03d", employeeId));
+        if (employee == null) {
+            return;
+        }
+        
+        List<EmployeeSalaryComponent> assignments = null;
+        for (Payroll draft : drafts) {
+            PayPeriod period;
+            try {
+                period = PayPeriod.parse(draft.getPayPeriod());
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            
+            Payroll recalculated;
+            if (draft.hasStatutoryDeductions()) {
+                if (assignments == null) {
+                    assignments = salaryComponentManager.getEmployeeSalaryComponents(String.format("EMP%03d", employeeId));
+                }
+                List<EmployeeSalaryComponent> inPeriod = new ArrayList<>();
+                for (EmployeeSalaryComponent assignment : assignments) {
+                    if (PayrollRunEngine.appliesTo(assignment, period)) {
+                        inPeriod.add(assignment);
+                    }
+                }
+                ContributionTableRegistry.Schedule schedule =
+                    schedules.computeIfAbsent(period, key -> contributionTables.forDate(key.getStart()));
+                WithholdingTaxTable taxTable =
+                    taxTables.computeIfAbsent(period, key -> withholdingTaxTables.getTable(key.getFrequency(), key.getStart()));
+                
+                recalculated = PayrollRunEngine.calculate(employee, inPeriod, carriedPremiums(draft, employee, period), schedule,
+                                                          taxTable, period, draft.getPayDate());
+                recalculated.setPayrollId(draft.getPayrollId());
+                recalculated.setStatus(draft.getStatus());
+                recalculated.setOvertimeHours(draft.getOvertimeHours());
+                recalculated.setDeductions(draft.getDeductions());
+            } else {
+                recalculated = new Payroll(draft);
+                recalculated.setBasePay(employee.getBaseSalary());
+                recalculated.setSalaryBreakdown(salaryComponentManager.getSalaryBreakdown(employeeId, employee.getBaseSalary()));
+            }
+            
+            if (recalculated.getGrossPayAmount().equals(draft.getGrossPayAmount())
+                    && recalculated.getNetPayAmount().equals(draft.getNetPayAmount())) {
+                continue;
+            }
+            if (payrollManager.replacePayroll(draft, recalculated)) {
+                report.changes.add(new NetPayChange(employeeId, draft.getPayrollId(), draft.getPayPeriod(),
+                                                    draft.getNetPayAmount(), recalculated.getNetPayAmount()));
+            }
+        }
+    }
+    
+    /**
+     * A draft's overtime and other premiums at the employee's current hourly rate. Premiums are paid on
+     * the hourly rate, which is proportional to the base pay of the period.
+     */
+    static Money carriedPremiums(Payroll draft, Employee employee, PayPeriod period) {
+        long premiums = Money.toCentavos(draft.getOvertime());
+        long previousBasePay = draft.getBasePayAmount().getCentavos();
+        long basePay = PayrollBatchKernel.prorate(Money.toCentavos(employee.getBaseSalary()), period.getFrequency());
+        if (premiums == 0 || previousBasePay <= 0 || basePay == previousBasePay) {
+            return Money.ofCentavos(premiums);
+        }
+        return Money.ofCentavos(Money.divide(premiums * basePay, previousBasePay, Money.DEFAULT_ROUNDING));
+    }
+    
+    /**
+     * Net pay of one draft payroll before and after recalculation
+     */
+    public static final class NetPayChange {
+        private final int employeeId;
+        private final int payrollId;
+        private final String payPeriod;
+        private final Money previousNetPay;
+        private final Money newNetPay;
+        
+        NetPayChange(int employeeId, int payrollId, String payPeriod, Money previousNetPay, Money newNetPay) {
+            this.employeeId = employeeId;
+            this.payrollId = payrollId;
+            this.payPeriod = payPeriod;
+            this.previousNetPay = previousNetPay;
+            this.newNetPay = newNetPay;
+        }
+        
+        public int getEmployeeId() { return employeeId; }
+        public int getPayrollId() { return payrollId; }
+        public String getPayPeriod() { return payPeriod; }
+        public Money getPreviousNetPay() { return previousNetPay; }
+        public Money getNewNetPay() { return newNetPay; }
+        public Money getDelta() { return newNetPay.minus(previousNetPay); }
+        
+        @Override
+        public String toString() {
+            return String.format("EMP%03d payroll #%d (%s): %s -> %s (%+,.2f)", employeeId, payrollId, payPeriod,
+                                 previousNetPay.format(), newNetPay.format(), getDelta().toBigDecimal());
+        }
+    }
+    
+    /**
+     * Outcome of one recalculation pass
+     */
+    public static final class Report {
+        private final List<NetPayChange> changes = new ArrayList<>();
+        private final List<Integer> failed = new ArrayList<>();
+        
+        public List<NetPayChange> getChanges() {
+            return Collections.unmodifiableList(changes);
+        }
+        
+        /**
+         * Employees whose payrolls could not be recalculated
+         */
+        public List<Integer> getFailedEmployees() {
+            return Collections.unmodifiableList(failed);
+        }
+        
+        /**
+         * Total change in net pay per employee, over all of their recalculated drafts
+         */
+        public Map<Integer, Money> getNetPayDeltaByEmployee() {
+            Map<Integer, Money> deltas = new LinkedHashMap<>();
+            for (NetPayChange change : changes) {
+                deltas.merge(change.getEmployeeId(), change.getDelta(), Money::plus);
+            }
+            return deltas;
+        }
+        
+        public boolean isEmpty() {
+            return changes.isEmpty() && failed.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,558 @@
+package managers;
+
+import models.AttendanceSummary;
+import models.Employee;
+import models.EmployeeSalaryComponent;
+import models.Money;
+import models.PayPeriod;
+import models.Payroll;
+import models.PayrollRun;
+import models.SalaryComponent;
+import database.DatabaseDAO;
+import database.MySQLDatabaseDAO;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Batch payroll run: computes one pay period's payroll for every active employee.
+ *
+ * Employees and salary component assignments are bulk-loaded up front (no per-employee queries).
+ * Employees are split into chunks that are calculated in parallel on a ForkJoin pool, each chunk in
+ * a columnar PayrollBatchKernel, applying the employee's salary components, SSS/PhilHealth/Pag-IBIG
+ * contributions and BIR withholding tax from the table of the period's pay frequency. Schedules and
+ * tax tables are those in effect at the start of the period, resolved once per run. Each finished
+ * chunk is saved through the DAO as one batch on the calling thread.
+ *
+ * Every run is journalled in payroll_runs. Each batch records its employees against the run in the
+ * same transaction as their payroll rows, so the journal is an exact checkpoint: a run that crashed,
+ * failed or was cancelled is picked up again by the next run for the same period, which skips the
+ * employees already finished and never inserts a payroll twice.
+ */
+public class PayrollRunEngine {
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    static final int MAX_SAVE_ATTEMPTS = 3;
+    static final long RETRY_DELAY_MILLIS = 1000;
+    
+    private final DatabaseDAO databaseDAO;
+    private final PayrollManager payrollManager;
+    private final int parallelism;
+    private final int batchSize;
+    private ContributionTableRegistry contributionTables = ContributionTableRegistry.getDefault();
+    private WithholdingTaxRegistry withholdingTaxTables = WithholdingTaxRegistry.getDefault();
+    private Predicate<Employee> employeeFilter = employee -> true;
+    
+    public PayrollRunEngine(PayrollManager payrollManager) {
+        this(new MySQLDatabaseDAO(), payrollManager, Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_SIZE);
+    }
+    
+    public PayrollRunEngine(DatabaseDAO databaseDAO, PayrollManager payrollManager, int parallelism, int batchSize) {
+        this.databaseDAO = databaseDAO;
+        this.payrollManager = payrollManager;
+        this.parallelism = Math.max(1, parallelism);
+        this.batchSize = Math.max(1, batchSize);
+    }
+    
+    /**
+     * Use a specific set of contribution schedules instead of the default registry
+     */
+    public void setContributionTables(ContributionTableRegistry contributionTables) {
+        this.contributionTables = contributionTables;
+    }
+    
+    /**
+     * Use a specific set of withholding tax tables instead of the default registry
+     */
+    public void setWithholdingTaxTables(WithholdingTaxRegistry withholdingTaxTables) {
+        this.withholdingTaxTables = withholdingTaxTables;
+    }
+    
+    /**
+     * Only pay the active employees the filter accepts, e.g. those of one payment frequency.
+     * Employees it rejects are left for another run of the same period.
+     */
+    public void setEmployeeFilter(Predicate<Employee> employeeFilter) {
+        this.employeeFilter = employeeFilter != null ? employeeFilter : employee -> true;
+    }
+    
+    /**
+     * Run payroll for a calendar month, resuming the month's unfinished run if there is one.
+     * Employees that already have a payroll for the month are skipped.
+     * @param payDate Pay date stamped on every payroll (a resumed run keeps its original pay date)
+     * @param listener Progress callback (employees processed, employees to process)
+     * @param cancelled Polled before each batch is saved; once it returns true no further batches are saved
+     */
+    public RunResult run(YearMonth period, LocalDate payDate, ProgressListener listener, BooleanSupplier cancelled) {
+        return run(period, payDate, null, listener, cancelled);
+    }
+    
+    /**
+     * Run payroll for a calendar month with the hours employees worked, paying overtime, night
+     * differential and holiday premiums from each employee's attendance summary
+     * @param attendance Attendance ingested for the month, or null to pay no premiums
+     */
+    public RunResult run(YearMonth period, LocalDate payDate, AttendanceIngestor.IngestResult attendance,
+                         ProgressListener listener, BooleanSupplier cancelled) {
+        return run(PayPeriod.ofMonth(period), payDate, attendance, listener, cancelled);
+    }
+    
+    /**
+     * Run payroll for one pay period of a payment frequency, resuming the period's unfinished run if
+     * there is one. Pay is prorated to the period and taxed with the frequency's table; see
+     * PayrollBatchKernel.
+     * @param attendance Attendance ingested for exactly the period's days, or null to pay no premiums
+     */
+    public RunResult run(PayPeriod period, LocalDate payDate, AttendanceIngestor.IngestResult attendance,
+                         ProgressListener listener, BooleanSupplier cancelled) {
+        if (attendance != null && !(attendance.getFrom().equals(period.getStart()) && attendance.getTo().equals(period.getEnd()))) {
+            throw new IllegalArgumentException("Attendance is for " + attendance.getFrom() + " to " + attendance.getTo()
+                                               + ", not " + period.getLabel());
+        }
+        ProgressListener progress = listener != null ? listener : ProgressListener.NONE;
+        BooleanSupplier isCancelled = cancelled != null ? cancelled : () -> false;
+        long startTime = System.currentTimeMillis();
+        RunResult result = new RunResult(period);
+        
+        PayrollRun journal = openJournal(period, payDate, result);
+        if (journal == null) {
+            result.elapsedMillis = System.currentTimeMillis() - startTime;
+            return result;
+        }
+        LocalDate runPayDate = journal.getPayDate() != null ? journal.getPayDate() : payDate;
+        
+        List<Employee> employees = selectEmployees(period, result);
+        Map<Integer, List<EmployeeSalaryComponent>> componentsByEmployee = loadComponents(period);
+        ContributionTableRegistry.Schedule contributions = contributionTables.forDate(period.getStart());
+        WithholdingTaxTable taxTable = withholdingTaxTables.getTable(period.getFrequency(), period.getStart());
+        result.toProcess = employees.size();
+        journal.setTotalEmployees(result.alreadyCompleted + employees.size());
+        databaseDAO.updatePayrollRun(journal);
+        progress.onProgress(0, employees.size());
+        
+        List<List<Employee>> chunks = new ArrayList<>();
+        for (int from = 0; from < employees.size(); from += batchSize) {
+            chunks.add(employees.subList(from, Math.min(from + batchSize, employees.size())));
+        }
+        
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            CompletionService<List<Payroll>> completion = new ExecutorCompletionService<>(pool);
+            int submitted = 0;
+            int inFlight = 0;
+            
+            // Keep a bounded number of chunks in flight so memory does not grow with the run size
+            while (submitted < chunks.size() && inFlight < parallelism * 2) {
+                List<Employee> chunk = chunks.get(submitted++);
+                completion.submit(() -> calculateChunk(chunk, componentsByEmployee, attendance, contributions, taxTable,
+                                                       period, runPayDate, result));
+                inFlight++;
+            }
+            
+            while (inFlight > 0) {
+                List<Payroll> calculated = completion.take().get();
+                inFlight--;
+                if (isCancelled.getAsBoolean()) {
+                    result.cancelled = true;
+                    break;
+                }
+                if (!saveBatch(journal.getRunId(), calculated, result)) {
+                    // The database stayed unavailable; stop here and let the next run resume from the journal
+                    result.aborted = true;
+                    break;
+                }
+                progress.onProgress(result.saved + result.failed.get(), employees.size());
+                
+                if (submitted < chunks.size()) {
+                    List<Employee> chunk = chunks.get(submitted++);
+                    completion.submit(() -> calculateChunk(chunk, componentsByEmployee, attendance, contributions, taxTable,
+                                                           period, runPayDate, result));
+                    inFlight++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancelled = true;
+        } catch (ExecutionException e) {
+            System.err.println("Payroll run failed: " + e.getCause().getMessage());
+            e.getCause().printStackTrace();
+            result.addError("Run aborted: " + e.getCause().getMessage());
+            result.aborted = true;
+        } finally {
+            pool.shutdownNow();
+        }
+        
+        closeJournal(journal, result);
+        result.elapsedMillis = System.currentTimeMillis() - startTime;
+        return result;
+    }
+    
+    /**
+     * Resume the period's unfinished run, or start a new one. Returns null if the journal is unavailable.
+     */
+    private PayrollRun openJournal(PayPeriod period, LocalDate payDate, RunResult result) {
+        PayrollRun journal = databaseDAO.getResumablePayrollRun(period);
+        if (journal != null) {
+            List<Integer> finished = databaseDAO.getPayrollRunEmployees(journal.getRunId());
+            if (finished == null) {
+                result.addError("Could not read the journal of payroll run #" + journal.getRunId());
+                return null;
+            }
+            result.finishedEmployees.addAll(finished);
+            result.alreadyCompleted = finished.size();
+            result.resumed = true;
+            journal.setStatus(PayrollRun.STATUS_RUNNING);
+        } else {
+            journal = new PayrollRun(period, payDate);
+            if (databaseDAO.createPayrollRun(journal) < 0) {
+                result.addError("Could not start the payroll run journal");
+                return null;
+            }
+        }
+        result.runId = journal.getRunId();
+        return journal;
+    }
+    
+    /**
+     * Record how the run ended. A run that crashes before getting here stays RUNNING and is resumed next time.
+     */
+    private void closeJournal(PayrollRun journal, RunResult result) {
+        if (result.cancelled) {
+            journal.setStatus(PayrollRun.STATUS_CANCELLED);
+        } else if (result.aborted || result.failed.get() > 0) {
+            journal.setStatus(PayrollRun.STATUS_FAILED);
+        } else {
+            journal.setStatus(PayrollRun.STATUS_COMPLETED);
+            journal.setCompletedAt(LocalDateTime.now());
+        }
+        if (!databaseDAO.updatePayrollRun(journal)) {
+            result.addError("Could not record the final status of payroll run #" + journal.getRunId());
+        }
+    }
+    
+    /**
+     * Active employees accepted by the filter without a payroll for the period yet
+     */
+    private List<Employee> selectEmployees(PayPeriod period, RunResult result) {
+        Set<Integer> alreadyPaid = new HashSet<>();
+        for (Payroll payroll : payrollManager.getPayrollsByPeriod(period.getKey())) {
+            alreadyPaid.add(payroll.getEmployeeId());
+        }
+        
+        List<Employee> employees = new ArrayList<>();
+        for (Employee employee : databaseDAO.getAllEmployees()) {
+            if (!employee.isActive() || !employeeFilter.test(employee)
+                || result.finishedEmployees.contains(employee.getEmployeeId())) {
+                continue;
+            }
+            if (alreadyPaid.contains(employee.getEmployeeId())) {
+                result.skipped++;
+            } else {
+                employees.add(employee);
+            }
+        }
+        return employees;
+    }
+    
+    /**
+     * All salary component assignments in effect during the period, grouped by employee
+     */
+    private Map<Integer, List<EmployeeSalaryComponent>> loadComponents(PayPeriod period) {
+        Map<Integer, List<EmployeeSalaryComponent>> componentsByEmployee = new HashMap<>();
+        
+        databaseDAO.streamEmployeeSalaryComponents(assignment -> {
+            if (!appliesTo(assignment, period)) {
+                return;
+            }
+            int employeeId = parseEmployeeId(assignment.getEmployeeId());
+            if (employeeId > 0) {
+                componentsByEmployee.computeIfAbsent(employeeId, key -> new ArrayList<>()).add(assignment);
+            }
+        });
+        return componentsByEmployee;
+    }
+    
+    /**
+     * Whether a salary component assignment is active at any time during a pay period
+     */
+    static boolean appliesTo(EmployeeSalaryComponent assignment, PayPeriod period) {
+        return assignment.isActive()
+            && (assignment.getEffectiveDate() == null || !assignment.getEffectiveDate().isAfter(period.getEnd()))
+            && (assignment.getEndDate() == null || !assignment.getEndDate().isBefore(period.getStart()));
+    }
+    
+    private List<Payroll> calculateChunk(List<Employee> chunk, Map<Integer, List<EmployeeSalaryComponent>> componentsByEmployee,
+                                         AttendanceIngestor.IngestResult attendance, ContributionTableRegistry.Schedule contributions, WithholdingTaxTable taxTable,
+                                         PayPeriod period, LocalDate payDate, RunResult result) {
+        PayrollBatchKernel kernel = new PayrollBatchKernel(chunk.size(), period);
+        for (Employee employee : chunk) {
+            try {
+                kernel.add(employee, componentsByEmployee.getOrDefault(employee.getEmployeeId(), Collections.emptyList()),
+                           period.getEnd(), attendance != null ? attendance.get(employee.getEmployeeId()) : null);
+            } catch (RuntimeException e) {
+                result.failed.incrementAndGet();
+                result.addError(String.format("EMP%03d: %s", employee.getEmployeeId(), e.getMessage()));
+            }
+        }
+        kernel.compute(contributions, taxTable);
+        return kernel.toPayrolls(period, payDate);
+    }
+    
+    /**
+     * Calculate one employee's payroll for a month through the employee's object graph. Batch runs
+     * use PayrollBatchKernel, which produces the same amounts; this is the per-employee reference.
+     */
+    public static Payroll calculate(Employee employee, List<EmployeeSalaryComponent> components,
+                             ContributionTableRegistry.Schedule contributions, WithholdingTaxTable taxTable,
+                             YearMonth period, LocalDate payDate) {
+        return calculate(employee, components, (AttendanceSummary) null, contributions, taxTable, PayPeriod.ofMonth(period), payDate);
+    }
+    
+    /**
+     * Calculate one employee's payroll for a pay period with the premiums of their attendance
+     * @param attendance The employee's attendance for the period, or null to pay no premiums
+     * @param taxTable Withholding tax table of the period's pay frequency
+     */
+    public static Payroll calculate(Employee employee, List<EmployeeSalaryComponent> components, AttendanceSummary attendance,
+                             ContributionTableRegistry.Schedule contributions, WithholdingTaxTable taxTable,
+                             PayPeriod period, LocalDate payDate) {
+        // Premium pay on the hourly rate, rounded per premium as the batch kernel does
+        Map<String, Long> premiums = new LinkedHashMap<>();
+        if (attendance != null) {
+            double hourlyRate = Money.toPesos(Money.toCentavos(employee.getBaseSalary())) / PayrollBatchKernel.HOURS_PER_MONTH;
+            premiums.put("Overtime", Money.toCentavos(hourlyRate * PayrollBatchKernel.OVERTIME_PREMIUM * attendance.getOvertimeHours()));
+            premiums.put("Night Differential", Money.toCentavos(hourlyRate * PayrollBatchKernel.NIGHT_DIFFERENTIAL_PREMIUM
+                                                                * attendance.getNightDifferentialHours()));
+            premiums.put("Holiday Premium", Money.toCentavos(hourlyRate * (PayrollBatchKernel.REGULAR_HOLIDAY_PREMIUM * attendance.getRegularHolidayHours()
+                                                                          + PayrollBatchKernel.SPECIAL_HOLIDAY_PREMIUM * attendance.getSpecialHolidayHours())));
+        }
+        Payroll payroll = calculate(employee, components, attendance, premiums, contributions, taxTable, period, payDate);
+        if (attendance != null) {
+            payroll.setOvertimeHours(attendance.getOvertimeHours());
+        }
+        return payroll;
+    }
+    
+    /**
+     * Recalculate one employee's payroll for a pay period keeping premium pay worked out earlier, e.g.
+     * a draft's overtime. The premiums are part of the gross the withholding tax is calculated on.
+     * @param premiumPay Overtime and other premiums for the period
+     */
+    public static Payroll calculate(Employee employee, List<EmployeeSalaryComponent> components, Money premiumPay,
+                             ContributionTableRegistry.Schedule contributions, WithholdingTaxTable taxTable,
+                             PayPeriod period, LocalDate payDate) {
+        return calculate(employee, components, null, Collections.singletonMap("Premium Pay", premiumPay.getCentavos()),
+                         contributions, taxTable, period, payDate);
+    }
+    
+    private static Payroll calculate(Employee employee, List<EmployeeSalaryComponent> components, AttendanceSummary attendance,
+                                     Map<String, Long> premiums, ContributionTableRegistry.Schedule contributions,
+                                     WithholdingTaxTable taxTable, PayPeriod period, LocalDate payDate) {
+        // Component amounts and totals are kept in centavos so the totals are exact
+        long basePay = Money.toCentavos(employee.getBaseSalary());
+        long periodBasePay = PayrollBatchKernel.prorate(basePay, period.getFrequency());
+        long allowances = 0;
+        long bonuses = 0;
+        long otherEarnings = 0;
+        long componentDeductions = 0;
+        Map<String, Double> breakdown = new HashMap<>();
+        breakdown.put("Base Salary", Money.toPesos(periodBasePay));
+        FormulaContext formulaContext = new FormulaContext().setFrequency(period.getFrequency())
+                                                           .reset(basePay, employee.getHireDate(), period.getEnd());
+        if (attendance != null) {
+            formulaContext.setDaysPresent(attendance.getDaysPresent());
+        }
+        
+        for (EmployeeSalaryComponent assignment : components) {
+            SalaryComponent component = assignment.getSalaryComponent();
+            if (component == null || assignment.getCustomAmount() == null) {
+                continue;
+            }
+            long amount = SalaryComponentManager.calculateComponentAmount(assignment, formulaContext);
+            breakdown.merge(component.getName(), Money.toPesos(amount), Double::sum);
+            
+            if ("ALLOWANCE".equals(component.getType())) {
+                allowances += amount;
+            } else if ("BONUS".equals(component.getType())) {
+                bonuses += amount;
+            } else if (component.isEarning()) {
+                otherEarnings += amount;
+            } else if (component.isDeduction()) {
+                componentDeductions += amount;
+            }
+        }
+        breakdown.put("totalAllowances", Money.toPesos(allowances));
+        breakdown.put("totalBonuses", Money.toPesos(bonuses));
+        breakdown.put("totalDeductions", Money.toPesos(componentDeductions));
+        
+        // The month's contributions are on the monthly salary and deducted in the period closing the month
+        double basePayPesos = Money.toPesos(basePay);
+        PhilippinePayrollCalculator.SSContribution sss = period.closesMonth() ? contributions.sss(basePayPesos) : null;
+        PhilippinePayrollCalculator.PhilHealthContribution philHealth = period.closesMonth() ? contributions.philHealth(basePayPesos) : null;
+        PhilippinePayrollCalculator.PagIBIGContribution pagIbig = period.closesMonth() ? contributions.pagIbig(basePayPesos) : null;
+        
+        long premiumPay = 0;
+        for (Map.Entry<String, Long> premium : premiums.entrySet()) {
+            if (premium.getValue() != 0) {
+                breakdown.put(premium.getKey(), Money.toPesos(premium.getValue()));
+                premiumPay += premium.getValue();
+            }
+        }
+        
+        Payroll payroll = new Payroll(0, employee.getEmployeeId(), period.getKey(), Money.toPesos(periodBasePay),
+                                    Money.toPesos(premiumPay), Money.toPesos(otherEarnings), 0.0, payDate);
+        payroll.setSalaryBreakdown(breakdown);
+        
+        // Withholding tax is on gross compensation net of the employee's mandatory contributions
+        Money sssShare = sss != null ? Money.of(sss.employeeShare) : Money.ZERO;
+        Money philHealthShare = philHealth != null ? Money.of(philHealth.employeeShare) : Money.ZERO;
+        Money pagIbigShare = pagIbig != null ? Money.of(pagIbig.employeeShare) : Money.ZERO;
+        Money taxableIncome = payroll.getGrossPayAmount().minus(sssShare).minus(philHealthShare).minus(pagIbigShare).max(Money.ZERO);
+        Money withholdingTax = Money.of(taxTable.taxOn(taxableIncome.doubleValue()));
+        
+        payroll.setStatutoryDeductions(sssShare, philHealthShare, pagIbigShare, withholdingTax);
+        if (period.closesMonth()) {
+            payroll.setEmployerContributions(Money.of(sss.employerShare), Money.of(philHealth.employerShare),
+                                             Money.of(pagIbig.employerShare));
+        }
+        return payroll;
+    }
+    
+    /**
+     * Assign IDs and save one calculated chunk, together with its journal entries, as a single DAO batch.
+     * After a failed save the run's journal is read back: a commit that succeeded but was reported as
+     * failed has journaled its employees, whose payrolls are then counted as saved. The rest are retried
+     * with the same IDs, so they are never inserted twice.
+     * @return false if the batch could not be saved after MAX_SAVE_ATTEMPTS
+     */
+    private boolean saveBatch(int runId, List<Payroll> payrolls, RunResult result) throws InterruptedException {
+        if (payrolls.isEmpty()) {
+            return true;
+        }
+        int firstId = payrollManager.reservePayrollIds(payrolls.size());
+        for (int i = 0; i < payrolls.size(); i++) {
+            Payroll payroll = payrolls.get(i);
+            payroll.setPayrollId(firstId + i);
+            PayrollManager.prepareForStorage(payroll, result.period);
+        }
+        
+        List<Payroll> pending = payrolls;
+        for (int attempt = 1; attempt <= MAX_SAVE_ATTEMPTS; attempt++) {
+            if (databaseDAO.savePayrollRunBatch(runId, pending)) {
+                recordSaved(pending, result);
+                return true;
+            }
+            List<Integer> journaled = databaseDAO.getPayrollRunEmployees(runId);
+            if (journaled != null) {
+                Set<Integer> finished = new HashSet<>(journaled);
+                List<Payroll> saved = new ArrayList<>();
+                List<Payroll> unsaved = new ArrayList<>();
+                for (Payroll payroll : pending) {
+                    (finished.contains(payroll.getEmployeeId()) ? saved : unsaved).add(payroll);
+                }
+                recordSaved(saved, result);
+                pending = unsaved;
+                if (pending.isEmpty()) {
+                    return true;
+                }
+            }
+            if (attempt < MAX_SAVE_ATTEMPTS) {
+                Thread.sleep(RETRY_DELAY_MILLIS * attempt);
+            }
+        }
+        result.failed.addAndGet(pending.size());
+        result.addError("Batch starting at payroll ID " + firstId + " could not be saved; run stopped at this checkpoint");
+        return false;
+    }
+    
+    private void recordSaved(List<Payroll> payrolls, RunResult result) {
+        if (payrolls.isEmpty()) {
+            return;
+        }
+        payrollManager.registerPersisted(payrolls);
+        result.saved += payrolls.size();
+        for (Payroll payroll : payrolls) {
+            result.totalGross += payroll.getGrossPayAmount().getCentavos();
+            result.totalNet += payroll.getNetPayAmount().getCentavos();
+        }
+    }
+    
+    static int parseEmployeeId(String employeeId) {
+        if (employeeId == null) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(employeeId.startsWith("EMP") ? employeeId.substring(3) : employeeId);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    /**
+     * Outcome of a payroll run
+     */
+    public static class RunResult {
+        private final PayPeriod period;
+        private int runId;
+        private boolean resumed;
+        private long alreadyCompleted;
+        private final Set<Integer> finishedEmployees = new HashSet<>();
+        private boolean aborted;
+        private long toProcess;
+        private long skipped;
+        private long saved;
+        private final AtomicLong failed = new AtomicLong();
+        private boolean cancelled;
+        private long elapsedMillis;
+        private long totalGross;
+        private long totalNet;
+        private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        
+        RunResult(PayPeriod period) {
+            this.period = period;
+        }
+        
+        void addError(String error) {
+            errors.add(error);
+        }
+        
+        public PayPeriod getPeriod() { return period; }
+        public int getRunId() { return runId; }
+        public boolean isResumed() { return resumed; }
+        public long getAlreadyCompleted() { return alreadyCompleted; }
+        public boolean isAborted() { return aborted; }
+        public long getToProcess() { return toProcess; }
+        public long getSkipped() { return skipped; }
+        public long getSaved() { return saved; }
+        public long getFailed() { return failed.get(); }
+        public boolean isCancelled() { return cancelled; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public double getTotalGross() { return Money.toPesos(totalGross); }
+        public double getTotalNet() { return Money.toPesos(totalNet); }
+        public Money getTotalGrossAmount() { return Money.ofCentavos(totalGross); }
+        public Money getTotalNetAmount() { return Money.ofCentavos(totalNet); }
+        public List<String> getErrors() { return new ArrayList<>(errors); }
+        
+        @Override
+        public String toString() {
+            return String.format("Run #%d %s: %d saved, %d skipped, %d failed%s%s in %d ms", runId, period.getKey(), saved, skipped,
+                                 failed.get(), resumed ? ", resumed after " + alreadyCompleted : "",
+                                 cancelled ? " (cancelled)" : aborted ? " (aborted)" : "", elapsedMillis);
+        }
+    }
+}
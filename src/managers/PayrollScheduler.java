@@ -0,0 +1,444 @@
+package managers;
+
+import models.Employee;
+import models.PayFrequency;
+import models.PayPeriod;
+import database.DatabaseDAO;
+import database.MySQLDatabaseDAO;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs payroll on its own, on each payment frequency's pay calendar.
+ *
+ * Employees are grouped by their payment frequency (see {@link PayCalendar#scheduledFrequency}).
+ * A scan, on start and then every hour, looks for pay periods of the frequencies in use whose cutoff
+ * is within the lookahead window and queues a run for each one not queued yet. A queued run starts
+ * the day after its cutoff, or straight away if the cutoff has already passed and the pay date has
+ * not, and pays only the employees of its frequency through PayrollRunEngine. A period whose pay date
+ * has passed is still queued if its run journal shows an unfinished run, e.g. one interrupted by a
+ * restart; a run cancelled or failed here is run again with {@link #resume}. Either way the engine
+ * resumes from the journal, so no employee is paid twice.
+ *
+ * Every period is run: it computes the frequency group's payroll for that period, with attendance
+ * from the {@code <yyyy-MM>.csv} punch logs of the months the period touches in the attendance
+ * directory, where they exist. Runs execute on a fixed pool of background threads, which caps how
+ * many run at once; runs of the same period take turns because they share the period's run journal.
+ * A run that was already completed is harmless to repeat, since the engine skips employees already
+ * paid for the period.
+ *
+ * Listeners are told whenever a run is queued, progresses or finishes, on the run's thread.
+ */
+public class PayrollScheduler {
+    public static final int DEFAULT_LOOKAHEAD_DAYS = 7;
+    public static final int DEFAULT_MAX_CONCURRENT_RUNS = 2;
+    public static final String DEFAULT_ATTENDANCE_DIRECTORY = System.getProperty("payroll.attendance.dir", "attendance");
+    static final long SCAN_INTERVAL_MINUTES = 60;
+    
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED;
+        
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+    }
+    
+    private final DatabaseDAO databaseDAO;
+    private final PayrollManager payrollManager;
+    private final PayCalendar payCalendar;
+    private final Clock clock;
+    private final int maxConcurrentRuns;
+    private final ScheduledExecutorService timer;
+    private final ExecutorService runners;
+    private final Map<PayPeriod, ScheduledRun> runs = new ConcurrentHashMap<>();
+    private final Map<String, Object> periodLocks = new ConcurrentHashMap<>();
+    private final List<Consumer<ScheduledRun>> listeners = new CopyOnWriteArrayList<>();
+    private int lookaheadDays = DEFAULT_LOOKAHEAD_DAYS;
+    private Path attendanceDirectory = Paths.get(DEFAULT_ATTENDANCE_DIRECTORY);
+    private EmployeeManager employeeManager;
+    private ScheduledFuture<?> scanTask;
+    
+    public PayrollScheduler(PayrollManager payrollManager) {
+        this(new MySQLDatabaseDAO(), payrollManager, new PayCalendar(), DEFAULT_MAX_CONCURRENT_RUNS, Clock.systemDefaultZone());
+    }
+    
+    public PayrollScheduler(DatabaseDAO databaseDAO, PayrollManager payrollManager, PayCalendar payCalendar,
+                            int maxConcurrentRuns, Clock clock) {
+        this.databaseDAO = databaseDAO;
+        this.payrollManager = payrollManager;
+        this.payCalendar = payCalendar;
+        this.clock = clock;
+        this.maxConcurrentRuns = Math.max(1, maxConcurrentRuns);
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "payroll-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.runners = Executors.newFixedThreadPool(this.maxConcurrentRuns, runnable -> {
+            Thread thread = new Thread(runnable, "payroll-run-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * How many days ahead of a cutoff its run is queued
+     */
+    public void setLookaheadDays(int lookaheadDays) {
+        this.lookaheadDays = Math.max(0, lookaheadDays);
+    }
+    
+    /**
+     * Directory holding each month's punch log as {@code <yyyy-MM>.csv}
+     */
+    public void setAttendanceDirectory(Path attendanceDirectory) {
+        this.attendanceDirectory = attendanceDirectory;
+    }
+    
+    /**
+     * Look up employees' provinces through the employee manager, so attendance on regional holidays
+     * is paid as such. Without it only nationwide holidays are recognised.
+     */
+    public void setEmployeeManager(EmployeeManager employeeManager) {
+        this.employeeManager = employeeManager;
+    }
+    
+    /**
+     * Be told when a run is queued, makes progress or finishes. Called on background threads.
+     */
+    public void addListener(Consumer<ScheduledRun> listener) {
+        listeners.add(listener);
+    }
+    
+    public void removeListener(Consumer<ScheduledRun> listener) {
+        listeners.remove(listener);
+    }
+    
+    /**
+     * Scan for runs to queue now and every hour from now on
+     */
+    public synchronized void start() {
+        if (scanTask == null) {
+            scanTask = timer.scheduleWithFixedDelay(this::scan, 0, SCAN_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        }
+    }
+    
+    /**
+     * Stop queueing and starting runs. Queued runs are cancelled; runs in progress stop after their current batch.
+     */
+    public void shutdown() {
+        timer.shutdownNow();
+        for (ScheduledRun run : runs.values()) {
+            run.cancel();
+        }
+        runners.shutdown();
+        try {
+            runners.awaitTermination(PayrollManager.FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Queue the runs due within the lookahead window. Returns the runs queued by this scan.
+     */
+    public List<ScheduledRun> scan() {
+        List<ScheduledRun> queued = new ArrayList<>();
+        try {
+            LocalDate today = LocalDate.now(clock);
+            for (PayFrequency frequency : frequenciesInUse()) {
+                // Look a month back so a period whose cutoff passed while nothing was running is still found
+                LocalDate from = today.minusMonths(1);
+                for (PayPeriod period : payCalendar.periods(frequency, from, today.plusDays(lookaheadDays))) {
+                    if (!period.getCutoff().isAfter(today.plusDays(lookaheadDays)) && !runs.containsKey(period)
+                        && (!period.getPayDate().isBefore(today) || databaseDAO.getResumablePayrollRun(period) != null)) {
+                        queued.add(queue(period));
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error scanning the pay calendar: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return queued;
+    }
+    
+    /**
+     * Queue a run for a pay period, to start the day after its cutoff.
+     * Returns the existing run if the period is already queued.
+     */
+    public ScheduledRun queue(PayPeriod period) {
+        ScheduledRun run = new ScheduledRun(period, period.getCutoff().plusDays(1).atStartOfDay());
+        ScheduledRun existing = runs.putIfAbsent(period, run);
+        if (existing != null) {
+            return existing;
+        }
+        long delay = Math.max(0, Duration.between(LocalDateTime.now(clock), run.scheduledFor).toMillis());
+        try {
+            run.timer = timer.schedule(() -> start(run), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            run.status = Status.CANCELLED;
+        }
+        fire(run);
+        return run;
+    }
+    
+    /**
+     * Start a queued run now instead of waiting for its cutoff
+     */
+    public void runNow(ScheduledRun run) {
+        if (run.status == Status.QUEUED && run.timer != null && run.timer.cancel(false)) {
+            start(run);
+        }
+    }
+    
+    /**
+     * Run a cancelled or failed run's period again now, in place of that run. The engine resumes from
+     * the period's run journal, so employees already paid are skipped. Returns the new run, or the run
+     * now queued for the period if the given one is not cancelled or failed or has been replaced.
+     */
+    public ScheduledRun resume(ScheduledRun run) {
+        if (run.status != Status.CANCELLED && run.status != Status.FAILED) {
+            return runs.getOrDefault(run.period, run);
+        }
+        ScheduledRun resumed = new ScheduledRun(run.period, LocalDateTime.now(clock));
+        if (!runs.replace(run.period, run, resumed)) {
+            return runs.getOrDefault(run.period, run);
+        }
+        fire(resumed);
+        start(resumed);
+        return resumed;
+    }
+    
+    /**
+     * Cancel a run: a queued run will not start, a running one stops after its current batch
+     */
+    public void cancel(ScheduledRun run) {
+        run.cancel();
+        fire(run);
+    }
+    
+    /**
+     * All runs this scheduler has queued, by cutoff
+     */
+    public List<ScheduledRun> getRuns() {
+        List<ScheduledRun> list = new ArrayList<>(runs.values());
+        list.sort((a, b) -> a.period.compareTo(b.period));
+        return list;
+    }
+    
+    /**
+     * Upcoming pay periods per frequency in use, for display
+     * @param months Number of months from the current one to cover
+     */
+    public Map<PayFrequency, List<PayPeriod>> getCalendar(int months) {
+        LocalDate today = LocalDate.now(clock);
+        LocalDate to = YearMonth.from(today).plusMonths(Math.max(1, months) - 1L).atEndOfMonth();
+        Map<PayFrequency, List<PayPeriod>> calendar = new LinkedHashMap<>();
+        for (PayFrequency frequency : frequenciesInUse()) {
+            calendar.put(frequency, payCalendar.periods(frequency, today, to));
+        }
+        return calendar;
+    }
+    
+    private Set<PayFrequency> frequenciesInUse() {
+        Set<PayFrequency> frequencies = EnumSet.noneOf(PayFrequency.class);
+        for (Employee employee : databaseDAO.getAllEmployees()) {
+            if (employee.isActive()) {
+                frequencies.add(scheduledFrequency(employee));
+            }
+        }
+        return frequencies;
+    }
+    
+    private static PayFrequency scheduledFrequency(Employee employee) {
+        return PayCalendar.scheduledFrequency(PayFrequency.fromString(employee.getPaymentFrequency()));
+    }
+    
+    private void start(ScheduledRun run) {
+        try {
+            runners.execute(() -> execute(run));
+        } catch (RejectedExecutionException e) {
+            run.cancel();
+            fire(run);
+        }
+    }
+    
+    private void execute(ScheduledRun run) {
+        synchronized (periodLocks.computeIfAbsent(run.period.getKey(), key -> new Object())) {
+            if (!run.begin(LocalDateTime.now(clock))) {
+                return;
+            }
+            fire(run);
+            
+            try {
+                PayFrequency frequency = run.period.getFrequency();
+                PayrollRunEngine engine = new PayrollRunEngine(databaseDAO, payrollManager,
+                        Math.max(1, Runtime.getRuntime().availableProcessors() / maxConcurrentRuns),
+                        PayrollRunEngine.DEFAULT_BATCH_SIZE);
+                engine.setEmployeeFilter(employee -> scheduledFrequency(employee) == frequency);
+                
+                AttendanceIngestor.IngestResult attendance = ingestAttendance(run.period);
+                run.attendance = attendance;
+                PayrollRunEngine.RunResult result = engine.run(run.period, run.period.getPayDate(), attendance,
+                        (completed, total) -> {
+                            run.completed = completed;
+                            run.total = total;
+                            fire(run);
+                        },
+                        () -> run.cancelRequested);
+                run.result = result;
+                if (result.isCancelled()) {
+                    run.status = Status.CANCELLED;
+                } else if (result.isAborted() || result.getFailed() > 0 || result.getRunId() == 0) {
+                    run.status = Status.FAILED;
+                    run.error = result.getErrors().isEmpty() ? "Failed payrolls: " + result.getFailed() : result.getErrors().get(0);
+                } else {
+                    run.status = Status.COMPLETED;
+                }
+            } catch (Exception e) {
+                System.err.println("Error running scheduled payroll for " + run.period + ": " + e.getMessage());
+                e.printStackTrace();
+                run.status = Status.FAILED;
+                run.error = e.getMessage();
+            }
+            run.finishedAt = LocalDateTime.now(clock);
+        }
+        fire(run);
+    }
+    
+    /**
+     * Attendance of the period from the punch logs of the months it touches, or null if there are none
+     */
+    private AttendanceIngestor.IngestResult ingestAttendance(PayPeriod period) throws IOException {
+        if (attendanceDirectory == null) {
+            return null;
+        }
+        List<Path> punchLogs = new ArrayList<>();
+        for (YearMonth month = YearMonth.from(period.getStart()); !month.isAfter(period.getPayrollMonth()); month = month.plusMonths(1)) {
+            Path punchLog = attendanceDirectory.resolve(month + ".csv");
+            if (Files.isRegularFile(punchLog)) {
+                punchLogs.add(punchLog);
+            }
+        }
+        if (punchLogs.isEmpty()) {
+            return null;
+        }
+        Map<Integer, String> regions = new HashMap<>();
+        if (employeeManager != null) {
+            for (Employee employee : employeeManager.getAllEmployeesWithContactInfo()) {
+                if (employee.getProvinceState() != null) {
+                    regions.put(employee.getEmployeeId(), employee.getProvinceState());
+                }
+            }
+        }
+        return new AttendanceIngestor().ingest(punchLogs, period.getStart(), period.getEnd(), regions);
+    }
+    
+    private void fire(ScheduledRun run) {
+        for (Consumer<ScheduledRun> listener : listeners) {
+            listener.accept(run);
+        }
+    }
+    
+    /**
+     * A payroll run queued for one pay period of a frequency
+     */
+    public static final class ScheduledRun {
+        private final PayPeriod period;
+        private final LocalDateTime scheduledFor;
+        private volatile Status status = Status.QUEUED;
+        private volatile boolean cancelRequested;
+        private volatile long completed;
+        private volatile long total = -1;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile PayrollRunEngine.RunResult result;
+        private volatile AttendanceIngestor.IngestResult attendance;
+        private volatile String error;
+        private ScheduledFuture<?> timer;
+        
+        ScheduledRun(PayPeriod period, LocalDateTime scheduledFor) {
+            this.period = period;
+            this.scheduledFor = scheduledFor;
+        }
+        
+        private synchronized boolean begin(LocalDateTime now) {
+            if (status != Status.QUEUED) {
+                return false;
+            }
+            status = Status.RUNNING;
+            startedAt = now;
+            return true;
+        }
+        
+        private synchronized void cancel() {
+            cancelRequested = true;
+            if (status == Status.QUEUED) {
+                if (timer != null) {
+                    timer.cancel(false);
+                }
+                status = Status.CANCELLED;
+            }
+        }
+        
+        public PayPeriod getPeriod() { return period; }
+        public PayFrequency getFrequency() { return period.getFrequency(); }
+        public LocalDateTime getScheduledFor() { return scheduledFor; }
+        public Status getStatus() { return status; }
+        public long getCompleted() { return completed; }
+        
+        /**
+         * Employees to process, or -1 before the run has started
+         */
+        public long getTotal() { return total; }
+        
+        public LocalDateTime getStartedAt() { return startedAt; }
+        public LocalDateTime getFinishedAt() { return finishedAt; }
+        
+        /**
+         * The engine's result once the run has finished, otherwise null
+         */
+        public PayrollRunEngine.RunResult getResult() { return result; }
+        
+        /**
+         * Attendance the run paid premiums from, or null if the period had no punch log
+         */
+        public AttendanceIngestor.IngestResult getAttendance() { return attendance; }
+        
+        public String getError() { return error; }
+        
+        @Override
+        public String toString() {
+            return String.format("ScheduledRun{%s %s, payDate=%s, scheduledFor=%s, status=%s, progress=%d/%d}",
+                                 period.getFrequency(), period.getKey(), period.getPayDate(), scheduledFor,
+                                 status, completed, total);
+        }
+    }
+}
@@ -0,0 +1,748 @@
+package managers;
+
+import models.PayPeriod;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Append-only store of issued payslips, so a historical payslip is shown exactly as it was issued
+ * instead of being recomputed from today's rates and templates.
+ *
+ * Each year has a data file, {@code <year>.dat}, holding one compressed record per payslip, and an
+ * index, {@code <year>-<n>.idx}, listing every payslip's (employee, pay period) key with the offset of
+ * its record, sorted by key. A pay period is stored as yyyyMM for a calendar month and as the
+ * yyyyMMdd of its last day for a shorter period, and belongs to the year that day falls in:
+ *
+ * <pre>
+ * data    header: "PSLA", version, generation
+ *         record: "PSLP", employee ID, period, stored length, text length, CRC-32, archived at, deflated text
+ * index   header: "PSLI", version, data generation, data length covered, entry count
+ *         entry:  employee ID, period, record offset, stored length, CRC-32
+ * </pre>
+ *
+ * Lookups binary-search the memory-mapped index and fetch the record with one positional read; the
+ * record's checksum is verified before it is decompressed. Payslips added since the index was last
+ * written are kept in a small in-memory map and merged into a new index file every INDEX_BATCH
+ * payslips and on flush. If the application stops before that, the records past the indexed length
+ * are found again when the year is next opened, and a record cut off mid-write is truncated.
+ *
+ * Archiving a payslip again appends a new record that replaces the old one; an identical payslip is
+ * not stored twice. When replaced records take up more space than live ones, the year is compacted:
+ * live records are copied, checksums verified, into a new data file with a new generation, whose index
+ * is written before the new file replaces the old one. An index is only used with the data file
+ * generation it was written for, so an interrupted compaction leaves the previous pair in use.
+ */
+public class PayslipArchive implements Closeable {
+    public static final String DEFAULT_DIRECTORY = System.getProperty("payroll.payslip.archive.dir", "archive/payslips");
+    public static final int INDEX_BATCH = 10_000;
+    public static final long COMPACT_MIN_BYTES = 1024 * 1024;
+    
+    private static final int DATA_MAGIC = 0x50534C41;
+    private static final int RECORD_MAGIC = 0x50534C50;
+    private static final int INDEX_MAGIC = 0x50534C49;
+    private static final int VERSION = 1;
+    private static final int DATA_HEADER = 16;
+    private static final int RECORD_HEADER = 32;
+    private static final int INDEX_HEADER = 32;
+    private static final int INDEX_ENTRY = 24;
+    private static final Pattern INDEX_FILE = Pattern.compile("(\\d{4})-(\\d+)\\.idx");
+    
+    private final Path directory;
+    private final Map<Integer, YearFile> years = new HashMap<>();
+    private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    private final Inflater inflater = new Inflater();
+    private final CRC32 crc = new CRC32();
+    private byte[] compressed = new byte[8 * 1024];
+    
+    public PayslipArchive() {
+        this(Paths.get(DEFAULT_DIRECTORY));
+    }
+    
+    /**
+     * Files are created in the directory when the first payslip of a year is archived
+     */
+    public PayslipArchive(Path directory) {
+        this.directory = directory;
+    }
+    
+    public Path getDirectory() { return directory; }
+    
+    /**
+     * Archive a payslip as issued, replacing any earlier payslip of the employee for the month
+     * @return false if exactly this payslip was already archived
+     */
+    public synchronized boolean put(int employeeId, YearMonth period, String payslip) throws IOException {
+        return put(employeeId, PayPeriod.ofMonth(period), payslip);
+    }
+    
+    /**
+     * Archive a payslip as issued, replacing any earlier payslip of the employee for the pay period
+     * @return false if exactly this payslip was already archived
+     */
+    public synchronized boolean put(int employeeId, PayPeriod period, String payslip) throws IOException {
+        int code = code(period);
+        YearFile year = open(yearOf(code));
+        byte[] text = payslip.getBytes(StandardCharsets.UTF_8);
+        deflater.reset();
+        deflater.setInput(text);
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+        crc.reset();
+        crc.update(compressed, 0, length);
+        int checksum = (int) crc.getValue();
+        
+        long key = key(employeeId, code);
+        Entry existing = year.find(key);
+        if (existing != null && existing.storedLength == length && existing.crc == checksum) {
+            return false;
+        }
+        
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + length);
+        record.putInt(RECORD_MAGIC).putInt(employeeId).putInt(code).putInt(length).putInt(text.length)
+              .putInt(checksum).putLong(System.currentTimeMillis()).put(compressed, 0, length).flip();
+        long offset = year.dataLength;
+        writeFully(year.data, record, offset);
+        year.dataLength += record.limit();
+        if (existing != null) {
+            year.deadBytes += RECORD_HEADER + existing.storedLength;
+        }
+        year.recent.put(key, new Entry(offset, length, checksum));
+        
+        if (year.recent.size() >= INDEX_BATCH) {
+            writeIndex(year);
+        }
+        return true;
+    }
+    
+    /**
+     * The archived payslip of an employee for a month
+     * @return null if none was archived
+     * @throws IOException if the record cannot be read or fails its checksum
+     */
+    public synchronized String get(int employeeId, YearMonth period) throws IOException {
+        return get(employeeId, PayPeriod.ofMonth(period));
+    }
+    
+    /**
+     * The archived payslip of an employee for a pay period
+     * @return null if none was archived
+     * @throws IOException if the record cannot be read or fails its checksum
+     */
+    public synchronized String get(int employeeId, PayPeriod period) throws IOException {
+        int code = code(period);
+        YearFile year = openExisting(yearOf(code));
+        if (year == null) {
+            return null;
+        }
+        Entry entry = year.find(key(employeeId, code));
+        if (entry == null) {
+            return null;
+        }
+        return read(year, entry, employeeId, code);
+    }
+    
+    /**
+     * Months of a year for which an employee has an archived payslip, of any of their pay periods, in order
+     */
+    public synchronized List<YearMonth> getPeriods(int employeeId, int year) throws IOException {
+        YearFile file = openExisting(year);
+        if (file == null) {
+            return Collections.emptyList();
+        }
+        TreeSet<Long> keys = new TreeSet<>();
+        int from = file.lowerBound(key(employeeId, 0));
+        for (int i = from; i < file.indexCount; i++) {
+            long key = file.keyAt(i);
+            if ((int) (key >>> 32) != employeeId) {
+                break;
+            }
+            keys.add(key);
+        }
+        for (long key : file.recent.subMap(key(employeeId, 0), key(employeeId + 1, 0)).keySet()) {
+            keys.add(key);
+        }
+        TreeSet<YearMonth> months = new TreeSet<>();
+        for (long key : keys) {
+            months.add(monthOf((int) key));
+        }
+        return new ArrayList<>(months);
+    }
+    
+    /**
+     * Write the index of every year with payslips not yet in it, and compact years that need it
+     */
+    public synchronized void flush() throws IOException {
+        // Compacting reopens the year in the map, so loop over a copy
+        for (YearFile year : new ArrayList<>(years.values())) {
+            if (!year.recent.isEmpty()) {
+                writeIndex(year);
+            }
+            if (year.deadBytes > COMPACT_MIN_BYTES && year.deadBytes > year.dataLength - DATA_HEADER - year.deadBytes) {
+                compact(year);
+            }
+        }
+    }
+    
+    /**
+     * Rewrite a year's data file without replaced records
+     * @return Bytes reclaimed
+     */
+    public synchronized long compact(int year) throws IOException {
+        YearFile file = openExisting(year);
+        return file != null ? compact(file) : 0;
+    }
+    
+    /**
+     * Read back every payslip of a year and check its checksum and length
+     */
+    public synchronized Verification verify(int year) throws IOException {
+        Verification verification = new Verification(year);
+        YearFile file = openExisting(year);
+        if (file == null) {
+            return verification;
+        }
+        writeIndex(file);
+        for (int i = 0; i < file.indexCount; i++) {
+            long key = file.keyAt(i);
+            int employeeId = (int) (key >>> 32);
+            try {
+                read(file, file.entryAt(i), employeeId, (int) key);
+                verification.valid++;
+            } catch (IOException e) {
+                verification.errors.add(e.getMessage());
+            }
+        }
+        verification.dataBytes = file.dataLength;
+        verification.replacedBytes = file.deadBytes;
+        return verification;
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            for (YearFile year : years.values()) {
+                year.data.close();
+            }
+            years.clear();
+            deflater.end();
+            inflater.end();
+        }
+    }
+    
+    private static long key(int employeeId, int code) {
+        return ((long) employeeId << 32) | (code & 0xFFFFFFFFL);
+    }
+    
+    /**
+     * Stored form of a pay period: yyyyMM for a calendar month, otherwise yyyyMMdd of its last day
+     */
+    private static int code(PayPeriod period) {
+        if (period.getKey().equals(period.getPayrollMonth().toString())) {
+            return yyyymm(period.getPayrollMonth());
+        }
+        return yyyymm(period.getPayrollMonth()) * 100 + period.getEnd().getDayOfMonth();
+    }
+    
+    private static int yearOf(int code) {
+        return code > 999_999 ? code / 10_000 : code / 100;
+    }
+    
+    private static YearMonth monthOf(int code) {
+        int yyyymm = code > 999_999 ? code / 100 : code;
+        return YearMonth.of(yyyymm / 100, yyyymm % 100);
+    }
+    
+    private static int yyyymm(YearMonth period) {
+        return period.getYear() * 100 + period.getMonthValue();
+    }
+    
+    /**
+     * Read a record with one positional read, check it is the expected one, verify and decompress it
+     */
+    private String read(YearFile year, Entry entry, int employeeId, int code) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + entry.storedLength);
+        readFully(year.data, record, entry.offset);
+        record.flip();
+        String name = "payslip of employee " + employeeId + " for period " + code;
+        if (record.getInt() != RECORD_MAGIC || record.getInt() != employeeId || record.getInt() != code
+            || record.getInt() != entry.storedLength) {
+            throw new IOException("Archived " + name + " is not at offset " + entry.offset + " of " + year.dataPath);
+        }
+        int textLength = record.getInt();
+        int checksum = record.getInt();
+        record.getLong();
+        crc.reset();
+        crc.update(record.array(), RECORD_HEADER, entry.storedLength);
+        if ((int) crc.getValue() != checksum || checksum != entry.crc) {
+            throw new IOException("Archived " + name + " fails its checksum in " + year.dataPath);
+        }
+        byte[] text = new byte[textLength];
+        try {
+            inflater.reset();
+            inflater.setInput(record.array(), RECORD_HEADER, entry.storedLength);
+            int inflated = 0;
+            while (inflated < textLength && !inflater.finished()) {
+                int count = inflater.inflate(text, inflated, textLength - inflated);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += count;
+            }
+            if (inflated != textLength) {
+                throw new IOException("Archived " + name + " is " + inflated + " bytes instead of " + textLength);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Archived " + name + " cannot be decompressed: " + e.getMessage(), e);
+        }
+        return new String(text, StandardCharsets.UTF_8);
+    }
+    
+    private YearFile openExisting(int year) throws IOException {
+        YearFile file = years.get(year);
+        if (file == null && Files.exists(directory.resolve(year + ".dat"))) {
+            file = open(year);
+        }
+        return file;
+    }
+    
+    /**
+     * Open a year's data file and the index written for it, creating the data file if needed, and pick
+     * up records appended after the index was written
+     */
+    private YearFile open(int year) throws IOException {
+        YearFile file = years.get(year);
+        if (file != null) {
+            return file;
+        }
+        Files.createDirectories(directory);
+        Path dataPath = directory.resolve(year + ".dat");
+        Files.deleteIfExists(directory.resolve(year + ".dat.tmp"));
+        FileChannel data = FileChannel.open(dataPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            file = new YearFile(year, dataPath, data);
+            if (data.size() < DATA_HEADER) {
+                file.generation = System.currentTimeMillis();
+                ByteBuffer header = ByteBuffer.allocate(DATA_HEADER);
+                header.putInt(DATA_MAGIC).putInt(VERSION).putLong(file.generation).flip();
+                data.truncate(0);
+                writeFully(data, header, 0);
+                data.force(true);
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(DATA_HEADER);
+                readFully(data, header, 0);
+                header.flip();
+                if (header.getInt() != DATA_MAGIC || header.getInt() != VERSION) {
+                    throw new IOException(dataPath + " is not a payslip archive");
+                }
+                file.generation = header.getLong();
+            }
+            file.dataLength = data.size();
+            loadIndex(file);
+            recoverTail(file);
+        } catch (IOException | RuntimeException e) {
+            data.close();
+            throw e;
+        }
+        years.put(year, file);
+        if (!file.recent.isEmpty()) {
+            writeIndex(file);
+        }
+        return file;
+    }
+    
+    /**
+     * Map the newest index written for the data file's generation and delete any other index of the year
+     */
+    private void loadIndex(YearFile file) throws IOException {
+        TreeMap<Integer, Path> indexes = new TreeMap<>(Collections.reverseOrder());
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, file.year + "-*.idx")) {
+            for (Path path : files) {
+                Matcher matcher = INDEX_FILE.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    indexes.put(Integer.parseInt(matcher.group(2)), path);
+                }
+            }
+        }
+        file.indexedLength = DATA_HEADER;
+        for (Map.Entry<Integer, Path> index : indexes.entrySet()) {
+            file.indexNumber = Math.max(file.indexNumber, index.getKey());
+            if (file.indexPath == null && mapIndex(file, index.getValue())) {
+                file.indexPath = index.getValue();
+            } else {
+                deleteQuietly(index.getValue());
+            }
+        }
+        // Records the index covers that are not the ones it points at were replaced
+        long live = 0;
+        for (int i = 0; i < file.indexCount; i++) {
+            live += RECORD_HEADER + file.entryAt(i).storedLength;
+        }
+        file.deadBytes = file.indexedLength - DATA_HEADER - live;
+    }
+    
+    private boolean mapIndex(YearFile file, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < INDEX_HEADER) {
+                return false;
+            }
+            MappedByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (index.getInt(0) != INDEX_MAGIC || index.getInt(4) != VERSION || index.getLong(8) != file.generation) {
+                return false;
+            }
+            long covered = index.getLong(16);
+            int count = index.getInt(24);
+            if (covered > file.dataLength || channel.size() != INDEX_HEADER + (long) count * INDEX_ENTRY) {
+                return false;
+            }
+            file.index = index;
+            file.indexCount = count;
+            file.indexedLength = covered;
+            return true;
+        }
+    }
+    
+    /**
+     * Add the records written after the index to the in-memory map, truncating a record cut off mid-write
+     */
+    private void recoverTail(YearFile file) throws IOException {
+        long offset = file.indexedLength;
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+        while (offset < file.dataLength) {
+            header.clear();
+            if (file.dataLength - offset < RECORD_HEADER || readFully(file.data, header, offset) < RECORD_HEADER) {
+                break;
+            }
+            header.flip();
+            int magic = header.getInt();
+            int employeeId = header.getInt();
+            int code = header.getInt();
+            int storedLength = header.getInt();
+            header.getInt();
+            int checksum = header.getInt();
+            if (magic != RECORD_MAGIC || storedLength < 0 || offset + RECORD_HEADER + storedLength > file.dataLength) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(storedLength);
+            readFully(file.data, payload, offset + RECORD_HEADER);
+            crc.reset();
+            crc.update(payload.array(), 0, storedLength);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            Entry previous = file.find(key(employeeId, code));
+            if (previous != null) {
+                file.deadBytes += RECORD_HEADER + previous.storedLength;
+            }
+            file.recent.put(key(employeeId, code), new Entry(offset, storedLength, checksum));
+            offset += RECORD_HEADER + storedLength;
+        }
+        if (offset < file.dataLength) {
+            System.err.println("Payslip archive " + file.dataPath + " has an incomplete record at offset " + offset
+                               + "; truncating " + (file.dataLength - offset) + " bytes");
+            file.data.truncate(offset);
+            file.dataLength = offset;
+        }
+    }
+    
+    /**
+     * Merge the in-memory entries into a new index file for the current data file and map it
+     */
+    private void writeIndex(YearFile file) throws IOException {
+        if (file.recent.isEmpty() && file.indexPath != null && file.indexedLength == file.dataLength) {
+            return;
+        }
+        file.data.force(false);
+        int count = 0;
+        Path path = directory.resolve(file.year + "-" + (file.indexNumber + 1) + ".idx");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                                    StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            buffer.position(INDEX_HEADER);
+            Iterator<Map.Entry<Long, Entry>> recent = file.recent.entrySet().iterator();
+            Map.Entry<Long, Entry> next = recent.hasNext() ? recent.next() : null;
+            int i = 0;
+            while (i < file.indexCount || next != null) {
+                long indexKey = i < file.indexCount ? file.keyAt(i) : Long.MAX_VALUE;
+                long key;
+                Entry entry;
+                if (next != null && next.getKey() <= indexKey) {
+                    key = next.getKey();
+                    entry = next.getValue();
+                    next = recent.hasNext() ? recent.next() : null;
+                    if (key == indexKey) {
+                        i++;
+                    }
+                } else {
+                    key = indexKey;
+                    entry = file.entryAt(i++);
+                }
+                if (buffer.remaining() < INDEX_ENTRY) {
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                buffer.putLong(key).putLong(entry.offset).putInt(entry.storedLength).putInt(entry.crc);
+                count++;
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER);
+            header.putInt(INDEX_MAGIC).putInt(VERSION).putLong(file.generation).putLong(file.dataLength).putInt(count).putInt(0).flip();
+            writeFully(channel, header, 0);
+            channel.force(true);
+        }
+        Path previous = file.indexPath;
+        file.indexNumber++;
+        file.index = null;
+        file.indexCount = 0;
+        if (!mapIndex(file, path)) {
+            throw new IOException("Payslip archive index " + path + " could not be read back");
+        }
+        file.indexPath = path;
+        file.recent.clear();
+        if (previous != null) {
+            deleteQuietly(previous);
+        }
+    }
+    
+    /**
+     * Copy the live records into a new data file of a new generation and switch to it
+     */
+    private long compact(YearFile file) throws IOException {
+        writeIndex(file);
+        long before = file.dataLength;
+        Path temporary = directory.resolve(file.year + ".dat.tmp");
+        long generation = Math.max(System.currentTimeMillis(), file.generation + 1);
+        TreeMap<Long, Entry> copied = new TreeMap<>();
+        try (FileChannel target = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                                   StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(DATA_HEADER);
+            header.putInt(DATA_MAGIC).putInt(VERSION).putLong(generation).flip();
+            long position = writeFully(target, header, 0);
+            for (int i = 0; i < file.indexCount; i++) {
+                long key = file.keyAt(i);
+                Entry entry = file.entryAt(i);
+                ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + entry.storedLength);
+                readFully(file.data, record, entry.offset);
+                crc.reset();
+                crc.update(record.array(), RECORD_HEADER, entry.storedLength);
+                if (record.getInt(0) != RECORD_MAGIC || (int) crc.getValue() != entry.crc) {
+                    System.err.println("Error compacting payslip archive " + file.dataPath + ": dropping damaged payslip of employee "
+                                       + (int) (key >>> 32) + " for " + (int) key);
+                    continue;
+                }
+                record.flip();
+                copied.put(key, new Entry(position, entry.storedLength, entry.crc));
+                position += writeFully(target, record, position);
+            }
+            target.force(true);
+        }
+        
+        // The new index goes in first: until the data file is replaced it does not match, so the old pair stays valid
+        YearFile compacted = new YearFile(file.year, file.dataPath, null);
+        compacted.generation = generation;
+        compacted.dataLength = Files.size(temporary);
+        compacted.indexNumber = file.indexNumber;
+        compacted.recent.putAll(copied);
+        Path oldIndex = file.indexPath;
+        writeIndexFor(compacted);
+        file.data.close();
+        years.remove(file.year);
+        Files.move(temporary, file.dataPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (oldIndex != null) {
+            deleteQuietly(oldIndex);
+        }
+        YearFile reopened = open(file.year);
+        return before - reopened.dataLength;
+    }
+    
+    /**
+     * Write the index of a data file that is not open yet (the compacted copy)
+     */
+    private void writeIndexFor(YearFile file) throws IOException {
+        try (FileChannel data = FileChannel.open(directory.resolve(file.year + ".dat.tmp"), StandardOpenOption.READ,
+                                                     StandardOpenOption.WRITE)) {
+            YearFile pending = new YearFile(file.year, file.dataPath, data);
+            pending.generation = file.generation;
+            pending.dataLength = file.dataLength;
+            pending.indexNumber = file.indexNumber;
+            pending.recent.putAll(file.recent);
+            pending.indexPath = null;
+            writeIndex(pending);
+        }
+    }
+    
+    private static long writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+    
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int read = 0;
+        while (buffer.hasRemaining()) {
+            int count = channel.read(buffer, position + read);
+            if (count < 0) {
+                break;
+            }
+            read += count;
+        }
+        return read;
+    }
+    
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // A mapped index cannot be deleted on some platforms; the next open removes it
+            System.err.println("Could not delete old payslip archive index " + path + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Location of one archived payslip
+     */
+    private static final class Entry {
+        private final long offset;
+        private final int storedLength;
+        private final int crc;
+        
+        Entry(long offset, int storedLength, int crc) {
+            this.offset = offset;
+            this.storedLength = storedLength;
+            this.crc = crc;
+        }
+    }
+    
+    /**
+     * One year's open data file, its mapped index and the payslips added since the index was written
+     */
+    private static final class YearFile {
+        private final int year;
+        private final Path dataPath;
+        private final FileChannel data;
+        private final TreeMap<Long, Entry> recent = new TreeMap<>();
+        private long generation;
+        private long dataLength;
+        private long deadBytes;
+        private MappedByteBuffer index;
+        private Path indexPath;
+        private int indexNumber;
+        private int indexCount;
+        private long indexedLength;
+        
+        YearFile(int year, Path dataPath, FileChannel data) {
+            this.year = year;
+            this.dataPath = dataPath;
+            this.data = data;
+        }
+        
+        long keyAt(int i) {
+            return index.getLong(INDEX_HEADER + i * INDEX_ENTRY);
+        }
+        
+        Entry entryAt(int i) {
+            int position = INDEX_HEADER + i * INDEX_ENTRY;
+            return new Entry(index.getLong(position + 8), index.getInt(position + 16), index.getInt(position + 20));
+        }
+        
+        /**
+         * First index position whose key is not less than key
+         */
+        int lowerBound(long key) {
+            int low = 0;
+            int high = indexCount;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (keyAt(middle) < key) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+        
+        Entry find(long key) {
+            Entry entry = recent.get(key);
+            if (entry != null) {
+                return entry;
+            }
+            int position = lowerBound(key);
+            return position < indexCount && keyAt(position) == key ? entryAt(position) : null;
+        }
+    }
+    
+    /**
+     * Outcome of reading back every payslip of a year
+     */
+    public static class Verification {
+        private final int year;
+        private long valid;
+        private final List<String> errors = new ArrayList<>();
+        private long dataBytes;
+        private long replacedBytes;
+        
+        Verification(int year) {
+            this.year = year;
+        }
+        
+        public int getYear() { return year; }
+        public long getValid() { return valid; }
+        public List<String> getErrors() { return Collections.unmodifiableList(errors); }
+        public boolean isIntact() { return errors.isEmpty(); }
+        public long getDataBytes() { return dataBytes; }
+        
+        /**
+         * Space taken by payslips that were archived again, reclaimed by compaction
+         */
+        public long getReplacedBytes() { return replacedBytes; }
+        
+        @Override
+        public String toString() {
+            return String.format("Payslip archive %d: %d payslips intact, %d damaged, %d bytes (%d replaced)",
+                                 year, valid, errors.size(), dataBytes, replacedBytes);
+        }
+    }
+}
@@ -0,0 +1,416 @@
+package managers;
+
+import models.Employee;
+import models.Payroll;
+import database.DatabaseDAO;
+import database.MySQLDatabaseDAO;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Renders the payslips of a whole payroll month in the background, one text file per employee, all
+ * of them in a single ZIP archive, or all of them in one PDF bundle ready for printing or mailing.
+ *
+ * Employees are loaded once; the month's payrolls are then streamed from the database and each
+ * FINALIZED one is handed to a pool of worker threads that render and write it. Only a bounded
+ * number of payslips is queued or being rendered at a time, so memory does not grow with the size
+ * of the run.
+ *
+ * Generation can be stopped and restarted. In FILES mode each payslip is written to a temporary file
+ * and renamed into place, so a payslip file that exists is complete and is skipped by the next
+ * generation. In ARCHIVE mode the archive is written as {@code <name>.zip.part} and only renamed
+ * when every payslip is in it; a restart copies the complete entries of the partial archive into a
+ * new one and renders only the payslips missing from it. A PDF bundle cannot be continued, so it is
+ * written from the start each time, as {@code <name>.pdf.part} until it is complete; its pages are in
+ * the order the payrolls were read whichever worker finishes first.
+ */
+public class PayslipBatchGenerator {
+    public static final int PROGRESS_INTERVAL = 100;
+    public static final String PART_SUFFIX = ".part";
+    static final int MAX_ERRORS = 20;
+    
+    static final String SKIP_NOT_FINALIZED = "Not finalized";
+    static final String SKIP_UNKNOWN_EMPLOYEE = "Unknown employee";
+    static final String SKIP_ALREADY_WRITTEN = "Already written";
+    
+    /**
+     * Where the payslips go
+     */
+    public enum Output {
+        /** One {@code <employee ID>_<yyyy-MM>.txt} file per payslip in a directory */
+        FILES,
+        /** All payslips in {@code <yyyy-MM>-payslips.zip} */
+        ARCHIVE,
+        /** All payslips in {@code <yyyy-MM>-payslips.pdf}, each starting on a new page */
+        PDF
+    }
+    
+    private final DatabaseDAO databaseDAO;
+    private final PayrollManager payrollManager;
+    private final PayslipGenerator payslipGenerator;
+    private final int parallelism;
+    
+    public PayslipBatchGenerator(PayrollManager payrollManager, PayslipGenerator payslipGenerator) {
+        this(new MySQLDatabaseDAO(), payrollManager, payslipGenerator, Runtime.getRuntime().availableProcessors());
+    }
+    
+    /**
+     * @param payrollManager Flushed before reading so that payrolls just finalized are included; may be null
+     */
+    public PayslipBatchGenerator(DatabaseDAO databaseDAO, PayrollManager payrollManager, PayslipGenerator payslipGenerator,
+                                 int parallelism) {
+        this.databaseDAO = databaseDAO;
+        this.payrollManager = payrollManager;
+        this.payslipGenerator = payslipGenerator;
+        this.parallelism = Math.max(1, parallelism);
+    }
+    
+    /**
+     * Name of an employee's payslip file for a pay period key, also used for its archive entry
+     */
+    public static String fileName(int employeeId, String payPeriod) {
+        return String.format("EMP%03d_%s.txt", employeeId, payPeriod);
+    }
+    
+    /**
+     * Write the payslips of every finalized payroll of a month, continuing an earlier generation into
+     * the same directory that did not finish
+     * @param listener Progress callback, invoked every PROGRESS_INTERVAL payslips (total is unknown, -1)
+     * @param cancelled Polled before each payslip is queued; once it returns true no more are queued
+     */
+    public Result generate(YearMonth period, Path directory, Output output, ProgressListener listener,
+                           BooleanSupplier cancelled) throws IOException {
+        ProgressListener progress = listener != null ? listener : ProgressListener.NONE;
+        BooleanSupplier isCancelled = cancelled != null ? cancelled : () -> false;
+        long startTime = System.currentTimeMillis();
+        Result result = new Result(period, output);
+        
+        if (payrollManager != null && !payrollManager.flush()) {
+            throw new IOException("Could not save pending payroll changes before reading " + period);
+        }
+        Files.createDirectories(directory);
+        
+        // The payroll stream holds the connection, so employees are read before it starts
+        Map<Integer, Employee> employees = new HashMap<>();
+        if (databaseDAO.streamEmployees(employee -> employees.put(employee.getEmployeeId(), employee)) < 0) {
+            throw new IOException("Database error while reading employees");
+        }
+        
+        Path bundle = directory.resolve(period + (output == Output.PDF ? "-payslips.pdf" : "-payslips.zip"));
+        Path partial = directory.resolve(bundle.getFileName() + PART_SUFFIX);
+        ZipOutputStream zip = null;
+        PdfBundle pdf = null;
+        Set<String> archived = Collections.emptySet();
+        if (output == Output.ARCHIVE) {
+            Path salvaged = directory.resolve(bundle.getFileName() + ".tmp");
+            archived = new HashSet<>();
+            zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(salvaged), 64 * 1024));
+            if (Files.isRegularFile(partial)) {
+                salvage(partial, zip, archived);
+                result.resumed = true;
+            }
+            // From here on the partial archive is the one being written
+            Files.move(salvaged, partial, StandardCopyOption.REPLACE_EXISTING);
+        } else if (output == Output.PDF) {
+            pdf = new PdfBundle(new PayslipPdfWriter(FileChannel.open(partial, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)));
+            pdf.writer.setTitle("Payslips " + period);
+        }
+        
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "payslip-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Semaphore slots = new Semaphore(parallelism * 4);
+        ZipOutputStream archiveStream = zip;
+        PdfBundle pdfBundle = pdf;
+        Set<String> alreadyArchived = archived;
+        long[] queued = new long[1];
+        boolean completed = false;
+        try {
+            long streamed = databaseDAO.streamPayrollByPeriod(Date.valueOf(period.atDay(1)), Date.valueOf(period.atEndOfMonth()),
+                payroll -> {
+                    result.payrollsRead++;
+                    if (result.cancelled || (result.cancelled = isCancelled.getAsBoolean())) {
+                        return;
+                    }
+                    if (!payroll.isFinalized()) {
+                        result.skip(SKIP_NOT_FINALIZED);
+                        return;
+                    }
+                    Employee employee = employees.get(payroll.getEmployeeId());
+                    if (employee == null) {
+                        result.skip(SKIP_UNKNOWN_EMPLOYEE);
+                        return;
+                    }
+                    String name = fileName(employee.getEmployeeId(), payroll.getPayPeriod());
+                    if (output == Output.ARCHIVE ? alreadyArchived.contains(name)
+                        : output == Output.FILES && Files.exists(directory.resolve(name))) {
+                        result.skip(SKIP_ALREADY_WRITTEN);
+                        return;
+                    }
+                    slots.acquireUninterruptibly();
+                    long sequence = queued[0]++;
+                    if (pdfBundle != null) {
+                        pool.execute(() -> {
+                            String payslip = null;
+                            try {
+                                payslip = payslipGenerator.generatePayslipFromPayroll(payroll, employee);
+                            } catch (RuntimeException e) {
+                                result.fail("Payslip of " + name + ": " + e.getMessage());
+                            }
+                            // A payslip waiting for an earlier one keeps its slot until both are on pages
+                            slots.release(pdfBundle.add(sequence, payslip));
+                            if (payslip != null) {
+                                countWritten(result, progress);
+                            }
+                        });
+                        return;
+                    }
+                    pool.execute(() -> {
+                        try {
+                            byte[] payslip = payslipGenerator.generatePayslipFromPayroll(payroll, employee)
+                                                             .getBytes(StandardCharsets.UTF_8);
+                            if (archiveStream != null) {
+                                writeEntry(archiveStream, name, payslip);
+                            } else {
+                                writeFile(directory.resolve(name), payslip);
+                            }
+                            countWritten(result, progress);
+                        } catch (Exception e) {
+                            result.fail("Payslip of " + name + ": " + e.getMessage());
+                        } finally {
+                            slots.release();
+                        }
+                    });
+                });
+            pool.shutdown();
+            awaitWorkers(pool);
+            if (pdf != null && pdf.error != null) {
+                throw pdf.error;
+            }
+            if (streamed < 0) {
+                throw new IOException("Database error while reading " + period + " payrolls after " + result.payrollsRead + " rows");
+            }
+            completed = !result.cancelled && result.failed.get() == 0;
+        } finally {
+            pool.shutdownNow();
+            if (zip != null) {
+                zip.close();
+            }
+            if (pdf != null) {
+                pdf.writer.close();
+            }
+        }
+        
+        if (output != Output.FILES) {
+            if (completed) {
+                Files.move(partial, bundle, StandardCopyOption.REPLACE_EXISTING);
+                result.path = bundle;
+            } else {
+                result.path = partial;
+            }
+        } else {
+            result.path = directory;
+        }
+        progress.onProgress(result.written.get(), result.written.get());
+        result.elapsedMillis = System.currentTimeMillis() - startTime;
+        return result;
+    }
+    
+    private static void countWritten(Result result, ProgressListener progress) {
+        long written = result.written.incrementAndGet();
+        if (written % PROGRESS_INTERVAL == 0) {
+            progress.onProgress(written, -1);
+        }
+    }
+    
+    /**
+     * Copy every complete entry of a partial archive into a new one. Entries are read through their
+     * local headers, so an archive cut off while being written - without its central directory -
+     * still gives up everything before the cut.
+     */
+    private static void salvage(Path partial, ZipOutputStream zip, Set<String> archived) throws IOException {
+        byte[] buffer = new byte[8192];
+        try (ZipInputStream in = new ZipInputStream(Files.newInputStream(partial))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    content.write(buffer, 0, read);
+                }
+                writeEntry(zip, entry.getName(), content.toByteArray());
+                archived.add(entry.getName());
+            }
+        } catch (IOException e) {
+            // The rest of the archive was cut off; the entries copied so far are complete
+            System.err.println("Partial payslip archive " + partial + " ends after " + archived.size() + " payslips: " + e.getMessage());
+        }
+    }
+    
+    private static void writeEntry(ZipOutputStream zip, String name, byte[] content) throws IOException {
+        synchronized (zip) {
+            zip.putNextEntry(new ZipEntry(name));
+            zip.write(content);
+            zip.closeEntry();
+        }
+    }
+    
+    /**
+     * Write through a temporary file so that a payslip file is either complete or absent
+     */
+    private static void writeFile(Path file, byte[] content) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temporary)) {
+            out.write(content);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private static void awaitWorkers(ExecutorService pool) throws IOException {
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+                // Keep waiting: a large batch can take longer than a minute
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing payslips", e);
+        }
+    }
+    
+    /**
+     * PDF pages in the order the payrolls were read: a payslip rendered before an earlier one waits
+     * until the earlier one is on its page
+     */
+    private static final class PdfBundle {
+        private final PayslipPdfWriter writer;
+        private final Map<Long, String> waiting = new HashMap<>();
+        private long next;
+        private IOException error;
+        
+        PdfBundle(PayslipPdfWriter writer) {
+            this.writer = writer;
+        }
+        
+        /**
+         * @param payslip Null if it could not be rendered
+         * @return Number of payslips that stopped waiting, this one included
+         */
+        synchronized int add(long sequence, String payslip) {
+            waiting.put(sequence, payslip);
+            int done = 0;
+            while (waiting.containsKey(next)) {
+                String page = waiting.remove(next++);
+                done++;
+                if (page != null && error == null) {
+                    try {
+                        writer.writePayslip(page);
+                    } catch (IOException e) {
+                        error = e;
+                    }
+                }
+            }
+            return done;
+        }
+    }
+    
+    /**
+     * Payslips written for one payroll month and those left out
+     */
+    public static class Result {
+        private final YearMonth period;
+        private final Output output;
+        private final Map<String, Long> skipped = new TreeMap<>();
+        private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicLong written = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private Path path;
+        private long payrollsRead;
+        private boolean resumed;
+        private volatile boolean cancelled;
+        private long elapsedMillis;
+        
+        Result(YearMonth period, Output output) {
+            this.period = period;
+            this.output = output;
+        }
+        
+        void skip(String reason) {
+            skipped.merge(reason, 1L, Long::sum);
+        }
+        
+        void fail(String error) {
+            failed.incrementAndGet();
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(error);
+            }
+        }
+        
+        public YearMonth getPeriod() { return period; }
+        public Output getOutput() { return output; }
+        
+        /**
+         * The directory of payslip files, the finished archive or PDF bundle, or the partial one if generation stopped early
+         */
+        public Path getPath() { return path; }
+        public long getPayrollsRead() { return payrollsRead; }
+        public long getWritten() { return written.get(); }
+        public long getFailed() { return failed.get(); }
+        public List<String> getErrors() { return new ArrayList<>(errors); }
+        
+        /**
+         * Payrolls without a payslip from this generation, counted by reason
+         */
+        public Map<String, Long> getSkipped() { return Collections.unmodifiableMap(skipped); }
+        
+        /**
+         * True if an archive was continued from a partial one
+         */
+        public boolean isResumed() { return resumed; }
+        
+        /**
+         * True if generation was stopped early; generating the month again into the same directory continues it
+         */
+        public boolean isCancelled() { return cancelled; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        
+        @Override
+        public String toString() {
+            return String.format("Payslips %s (%s): %d payrolls read, %d written, %d failed, skipped %s%s in %d ms",
+                                 period, output, payrollsRead, written.get(), failed.get(), skipped,
+                                 cancelled ? ", cancelled" : "", elapsedMillis);
+        }
+    }
+}
@@ -1,24 +1,45 @@
 package managers;
 
 import models.Employee;
+import models.Money;
+import models.PayPeriod;
 import models.Payroll;
+import java.io.IOException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 /**
  * Philippine Payslip Generator
- * Generates comprehensive payslips following Philippine payroll standards
+ * Generates comprehensive payslips following Philippine payroll standards, laid out by a
+ * {@link PayslipTemplate}
  */
 public class PayslipGenerator {
-    private static final String COMPANY_NAME = "Philippine Payroll Management System";
-    private static final String COMPANY_ADDRESS = "123 Business District, Makati City, Metro Manila, Philippines";
-    private static final String COMPANY_LOGO = "[COMPANY LOGO]";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     
     private EmployeeManager employeeManager;
+    private final PayslipTemplate template;
+    private volatile PayslipArchive archive;
     
     public PayslipGenerator(EmployeeManager employeeManager) {
+        this(employeeManager, PayslipTemplate.getDefault());
+    }
+    
+    /**
+     * @param template Layout of the payslips, e.g. a company's own from {@link PayslipTemplate#load}
+     */
+    public PayslipGenerator(EmployeeManager employeeManager, PayslipTemplate template) {
         this.employeeManager = employeeManager;
+        this.template = template;
+    }
+    
+    /**
+     * Keep the payslips of finalized payrolls in an archive and show them from it as issued
+     */
+    public void setArchive(PayslipArchive archive) {
+        this.archive = archive;
     }
     
     /**
@@ -34,248 +55,173 @@ public class PayslipGenerator {
         if (employee == null) {
             return "Employee not found";
         }
-        
-        StringBuilder payslip = new StringBuilder();
-        
-        // Header with company details
-        generateHeader(payslip);
+        return generatePayslip(employee, payPeriod, basicSalary, overtimeHours, nightDiffHours, holidayDays,
+                               isRegularHoliday, workedOnHoliday, customAllowances, customDeductions, include13thMonth);
+    }
+    
+    /**
+     * Generate a payslip for an employee already loaded. Safe to call from several threads at once.
+     */
+    public String generatePayslip(Employee employee, String payPeriod, double basicSalary, 
+                                 double overtimeHours, double nightDiffHours, double holidayDays,
+                                 boolean isRegularHoliday, boolean workedOnHoliday, 
+                                 Map<String, Double> customAllowances, Map<String, Double> customDeductions,
+                                 boolean include13thMonth) {
+        PayslipTemplate.Values values = new PayslipTemplate.Values();
         
         // Employee details
-        generateEmployeeDetails(payslip, employee);
+        fillEmployeeDetails(values, employee);
         
         // Pay period information
-        generatePayPeriodInfo(payslip, payPeriod);
+        values.set(PayslipTemplate.Field.PAY_PERIOD, payPeriod)
+              .set(PayslipTemplate.Field.PAY_DATE, LocalDate.now().format(DATE_FORMAT));
         
         // Earnings section
-        double totalEarnings = generateEarningsSection(payslip, employee, basicSalary, overtimeHours, 
-                                                     nightDiffHours, holidayDays, isRegularHoliday, 
-                                                     workedOnHoliday, customAllowances, include13thMonth);
+        Money totalEarnings = fillEarnings(values, basicSalary, overtimeHours, nightDiffHours, holidayDays,
+                                            isRegularHoliday, workedOnHoliday, customAllowances, include13thMonth);
         
         // Deductions section
-        double totalDeductions = generateDeductionsSection(payslip, employee, basicSalary, customDeductions);
+        Money totalDeductions = fillDeductions(values, basicSalary, customDeductions);
         
         // Net pay calculation
-        double netPay = totalEarnings - totalDeductions;
-        generateNetPaySection(payslip, totalEarnings, totalDeductions, netPay);
-        
-        // Signature section
-        generateSignatureSection(payslip);
+        values.set(PayslipTemplate.Field.NET_PAY, totalEarnings.minus(totalDeductions))
+              .set(PayslipTemplate.Field.GENERATED_ON, LocalDateTime.now().format(TIMESTAMP_FORMAT));
         
-        return payslip.toString();
+        return template.render(values);
     }
     
     /**
-     * Generate payslip header with company information
+     * Fill in the employee details section
      */
-    private void generateHeader(StringBuilder payslip) {
-        payslip.append("═══════════════════════════════════════════════════════════════════════════════\n");
-        payslip.append("                                  ").append(COMPANY_LOGO).append("\n");
-        payslip.append("                          ").append(COMPANY_NAME).append("\n");
-        payslip.append("                          ").append(COMPANY_ADDRESS).append("\n");
-        payslip.append("═══════════════════════════════════════════════════════════════════════════════\n");
-        payslip.append("                                    PAYSLIP\n");
-        payslip.append("═══════════════════════════════════════════════════════════════════════════════\n\n");
-    }
-    
-    /**
-     * Generate employee details section
-     */
-    private void generateEmployeeDetails(StringBuilder payslip, Employee employee) {
-        payslip.append("EMPLOYEE DETAILS:\n");
-        payslip.append("───────────────────────────────────────────────────────────────────────────────\n");
-        payslip.append(String.format("%-25s : %s\n", "Employee Name", employee.getFullName()));
-        payslip.append(String.format("%-25s : %s\n", "Employee ID", employee.getFormattedEmployeeId()));
-        payslip.append(String.format("%-25s : %s\n", "Department", employee.getDepartment()));
-        payslip.append(String.format("%-25s : %s\n", "Designation", employee.getPosition()));
-        payslip.append(String.format("%-25s : %s\n", "Job Title", employee.getJobTitle()));
-        
-        // TIN (Tax Identification Number) - would be stored in employee profile
-        String tin = getTIN(employee);
-        if (!tin.isEmpty()) {
-            payslip.append(String.format("%-25s : %s\n", "TIN", tin));
-        }
-        
-        payslip.append(String.format("%-25s : %s\n", "Hire Date", employee.getHireDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"))));
-        payslip.append("\n");
+    private void fillEmployeeDetails(PayslipTemplate.Values values, Employee employee) {
+        values.set(PayslipTemplate.Field.EMPLOYEE_NAME, employee.getFullName())
+              .set(PayslipTemplate.Field.EMPLOYEE_ID, employee.getFormattedEmployeeId())
+              .set(PayslipTemplate.Field.DEPARTMENT, employee.getDepartment())
+              .set(PayslipTemplate.Field.DESIGNATION, employee.getPosition())
+              .set(PayslipTemplate.Field.JOB_TITLE, employee.getJobTitle())
+              .set(PayslipTemplate.Field.TIN, getTIN(employee))
+              .set(PayslipTemplate.Field.HIRE_DATE, employee.getHireDate().format(DATE_FORMAT));
     }
     
     /**
-     * Generate pay period information
+     * Fill in the earnings section. Each amount is rounded to the centavo as printed, and the totals add
+     * up the printed amounts.
+     * @return Gross pay
      */
-    private void generatePayPeriodInfo(StringBuilder payslip, String payPeriod) {
-        payslip.append("PAY PERIOD INFORMATION:\n");
-        payslip.append("───────────────────────────────────────────────────────────────────────────────\n");
-        payslip.append(String.format("%-25s : %s\n", "Pay Period", payPeriod));
-        payslip.append(String.format("%-25s : %s\n", "Pay Date", LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"))));
-        payslip.append(String.format("%-25s : %s\n", "Payment Method", "Bank Transfer"));
-        payslip.append("\n");
-    }
-    
-    /**
-     * Generate earnings section
-     */
-    private double generateEarningsSection(StringBuilder payslip, Employee employee, double basicSalary,
-                                         double overtimeHours, double nightDiffHours, double holidayDays,
-                                         boolean isRegularHoliday, boolean workedOnHoliday,
-                                         Map<String, Double> customAllowances, boolean include13thMonth) {
-        
-        payslip.append("EARNINGS:\n");
-        payslip.append("───────────────────────────────────────────────────────────────────────────────\n");
-        
-        double totalEarnings = 0.0;
-        
+    private Money fillEarnings(PayslipTemplate.Values values, double basicSalary,
+                               double overtimeHours, double nightDiffHours, double holidayDays,
+                               boolean isRegularHoliday, boolean workedOnHoliday,
+                               Map<String, Double> customAllowances, boolean include13thMonth) {
         // Basic Salary
-        payslip.append(String.format("%-50s : ₱ %,10.2f\n", "Basic Salary", basicSalary));
-        totalEarnings += basicSalary;
+        Money totalEarnings = Money.of(basicSalary);
+        values.set(PayslipTemplate.Field.BASIC_SALARY, totalEarnings);
         
         // Overtime Pay
         if (overtimeHours > 0) {
-            double overtimePay = PhilippinePayrollCalculator.calculateOvertimePay(
-                basicSalary, overtimeHours, workedOnHoliday && isRegularHoliday, false);
-            payslip.append(String.format("%-50s : ₱ %,10.2f\n", 
-                String.format("Overtime Pay (%.1f hrs)", overtimeHours), overtimePay));
-            totalEarnings += overtimePay;
+            Money overtimePay = Money.of(PhilippinePayrollCalculator.calculateOvertimePay(
+                basicSalary, overtimeHours, workedOnHoliday && isRegularHoliday, false));
+            values.set(PayslipTemplate.Field.OVERTIME_HOURS, overtimeHours)
+                  .set(PayslipTemplate.Field.OVERTIME_PAY, overtimePay);
+            totalEarnings = totalEarnings.plus(overtimePay);
         }
         
         // Night Differential
         if (nightDiffHours > 0) {
-            double nightDiff = PhilippinePayrollCalculator.calculateNightDifferential(basicSalary, nightDiffHours);
-            payslip.append(String.format("%-50s : ₱ %,10.2f\n", 
-                String.format("Night Differential (%.1f hrs)", nightDiffHours), nightDiff));
-            totalEarnings += nightDiff;
+            Money nightDiff = Money.of(PhilippinePayrollCalculator.calculateNightDifferential(basicSalary, nightDiffHours));
+            values.set(PayslipTemplate.Field.NIGHT_DIFF_HOURS, nightDiffHours)
+                  .set(PayslipTemplate.Field.NIGHT_DIFF_PAY, nightDiff);
+            totalEarnings = totalEarnings.plus(nightDiff);
         }
         
         // Holiday Pay
         if (holidayDays > 0) {
             double dailyRate = basicSalary / 22; // Assuming 22 working days
-            double holidayPay = PhilippinePayrollCalculator.calculateHolidayPay(
-                dailyRate, isRegularHoliday, workedOnHoliday) * holidayDays;
-            String holidayType = isRegularHoliday ? "Regular Holiday" : "Special Holiday";
-            payslip.append(String.format("%-50s : ? %,10.2f\n", 
-                String.format("%s Pay (%.1f days)", holidayType, holidayDays), holidayPay));
-            totalEarnings += holidayPay;
+            Money holidayPay = Money.of(PhilippinePayrollCalculator.calculateHolidayPay(
+                dailyRate, isRegularHoliday, workedOnHoliday) * holidayDays);
+            values.set(PayslipTemplate.Field.HOLIDAY_TYPE, isRegularHoliday ? "Regular Holiday" : "Special Holiday")
+                  .set(PayslipTemplate.Field.HOLIDAY_DAYS, holidayDays)
+                  .set(PayslipTemplate.Field.HOLIDAY_PAY, holidayPay);
+            totalEarnings = totalEarnings.plus(holidayPay);
         }
         
         // Philippine Allowances
-        payslip.append("\nALLOWANCES:\n");
         Map<String, Double> allowances = getDefaultAllowances();
         if (customAllowances != null) {
             allowances.putAll(customAllowances);
         }
         
-        double totalAllowances = 0.0;
+        Money totalAllowances = Money.ZERO;
         for (Map.Entry<String, Double> entry : allowances.entrySet()) {
             if (entry.getValue() > 0) {
-                payslip.append(String.format("%-50s : ? %,10.2f\n", entry.getKey(), entry.getValue()));
-                totalAllowances += entry.getValue();
+                Money allowance = Money.of(entry.getValue());
+                values.add(PayslipTemplate.ListField.ALLOWANCES, entry.getKey(), allowance);
+                totalAllowances = totalAllowances.plus(allowance);
             }
         }
         
-        if (totalAllowances > 0) {
-            payslip.append(String.format("%-50s : ? %,10.2f\n", "Total Allowances", totalAllowances));
-            totalEarnings += totalAllowances;
+        if (totalAllowances.getCentavos() > 0) {
+            values.set(PayslipTemplate.Field.TOTAL_ALLOWANCES, totalAllowances);
+            totalEarnings = totalEarnings.plus(totalAllowances);
         }
         
         // 13th Month Pay
         if (include13thMonth) {
-            double thirteenthMonthPay = PhilippinePayrollCalculator.calculate13thMonthPay(basicSalary * 12) / 12;
-            payslip.append(String.format("%-50s : ? %,10.2f\n", "13th Month Pay (Monthly)", thirteenthMonthPay));
-            totalEarnings += thirteenthMonthPay;
+            Money thirteenthMonthPay = Money.of(PhilippinePayrollCalculator.calculate13thMonthPay(basicSalary * 12) / 12);
+            values.set(PayslipTemplate.Field.THIRTEENTH_MONTH_PAY, thirteenthMonthPay);
+            totalEarnings = totalEarnings.plus(thirteenthMonthPay);
         }
         
-        payslip.append("───────────────────────────────────────────────────────────────────────────────\n");
-        payslip.append(String.format("%-50s : ? %,10.2f\n", "GROSS PAY", totalEarnings));
-        payslip.append("\n");
-        
+        values.set(PayslipTemplate.Field.GROSS_PAY, totalEarnings);
         return totalEarnings;
     }
     
     /**
-     * Generate deductions section
+     * Fill in the deductions section, rounding and adding up amounts like {@link #fillEarnings}
+     * @return Total deductions
      */
-    private double generateDeductionsSection(StringBuilder payslip, Employee employee, double basicSalary,
-                                           Map<String, Double> customDeductions) {
-        
-        payslip.append("DEDUCTIONS:\n");
-        payslip.append("───────────────────────────────────────────────────────────────────────────────\n");
-        
-        double totalDeductions = 0.0;
-        
-        // Government Contributions
-        payslip.append("GOVERNMENT CONTRIBUTIONS:\n");
-        
+    private Money fillDeductions(PayslipTemplate.Values values, double basicSalary, Map<String, Double> customDeductions) {
         // SSS Contribution
         PhilippinePayrollCalculator.SSContribution sssContrib = 
             PhilippinePayrollCalculator.calculateSSSContribution(basicSalary);
-        payslip.append(String.format("%-50s : ? %,10.2f\n", "SSS Contribution", sssContrib.employeeShare));
-        totalDeductions += sssContrib.employeeShare;
+        Money sss = Money.of(sssContrib.employeeShare);
+        values.set(PayslipTemplate.Field.SSS_CONTRIBUTION, sss);
         
         // PhilHealth Contribution
         PhilippinePayrollCalculator.PhilHealthContribution philHealthContrib = 
             PhilippinePayrollCalculator.calculatePhilHealthContribution(basicSalary);
-        payslip.append(String.format("%-50s : ? %,10.2f\n", "PhilHealth Contribution", philHealthContrib.employeeShare));
-        totalDeductions += philHealthContrib.employeeShare;
+        Money philHealth = Money.of(philHealthContrib.employeeShare);
+        values.set(PayslipTemplate.Field.PHILHEALTH_CONTRIBUTION, philHealth);
         
         // Pag-IBIG Contribution
         PhilippinePayrollCalculator.PagIBIGContribution pagibigContrib = 
             PhilippinePayrollCalculator.calculatePagIBIGContribution(basicSalary);
-        payslip.append(String.format("%-50s : ? %,10.2f\n", "Pag-IBIG Contribution", pagibigContrib.employeeShare));
-        totalDeductions += pagibigContrib.employeeShare;
+        Money pagibig = Money.of(pagibigContrib.employeeShare);
+        values.set(PayslipTemplate.Field.PAGIBIG_CONTRIBUTION, pagibig);
         
         // Withholding Tax
-        double monthlyTax = PhilippinePayrollCalculator.calculateMonthlyWithholdingTax(basicSalary);
-        payslip.append(String.format("%-50s : ? %,10.2f\n", "Withholding Tax", monthlyTax));
-        totalDeductions += monthlyTax;
+        Money monthlyTax = Money.of(PhilippinePayrollCalculator.calculateMonthlyWithholdingTax(basicSalary));
+        values.set(PayslipTemplate.Field.WITHHOLDING_TAX, monthlyTax);
+        
+        Money totalDeductions = sss.plus(philHealth).plus(pagibig).plus(monthlyTax);
         
         // Other Deductions
-        if (customDeductions != null && !customDeductions.isEmpty()) {
-            payslip.append("\nOTHER DEDUCTIONS:\n");
+        Money otherDeductions = Money.ZERO;
+        if (customDeductions != null) {
             for (Map.Entry<String, Double> entry : customDeductions.entrySet()) {
                 if (entry.getValue() > 0) {
-                    payslip.append(String.format("%-50s : ? %,10.2f\n", entry.getKey(), entry.getValue()));
-                    totalDeductions += entry.getValue();
+                    Money deduction = Money.of(entry.getValue());
+                    values.add(PayslipTemplate.ListField.OTHER_DEDUCTIONS, entry.getKey(), deduction);
+                    otherDeductions = otherDeductions.plus(deduction);
                 }
             }
         }
+        totalDeductions = totalDeductions.plus(otherDeductions);
         
-        payslip.append("───────────────────────────────────────────────────────────────────────────────\n");
-        payslip.append(String.format("%-50s : ? %,10.2f\n", "TOTAL DEDUCTIONS", totalDeductions));
-        payslip.append("\n");
-        
+        values.set(PayslipTemplate.Field.TOTAL_OTHER_DEDUCTIONS, otherDeductions)
+              .set(PayslipTemplate.Field.TOTAL_DEDUCTIONS, totalDeductions);
         return totalDeductions;
     }
     
-    /**
-     * Generate net pay section
-     */
-    private void generateNetPaySection(StringBuilder payslip, double totalEarnings, double totalDeductions, double netPay) {
-        payslip.append("NET PAY CALCULATION:\n");
-        payslip.append("═══════════════════════════════════════════════════════════════════════════════\n");
-        payslip.append(String.format("%-50s : ? %,10.2f\n", "Gross Pay", totalEarnings));
-        payslip.append(String.format("%-50s : ? %,10.2f\n", "Total Deductions", totalDeductions));
-        payslip.append("───────────────────────────────────────────────────────────────────────────────\n");
-        payslip.append(String.format("%-50s : ? %,10.2f\n", "NET PAY", netPay));
-        payslip.append("═══════════════════════════════════════════════════════════════════════════════\n\n");
-    }
-    
-    /**
-     * Generate signature section
-     */
-    private void generateSignatureSection(StringBuilder payslip) {
-        payslip.append("SIGNATURES:\n");
-        payslip.append("───────────────────────────────────────────────────────────────────────────────\n");
-        payslip.append("Employee Signature: ________________________    Date: ___________\n\n");
-        payslip.append("Authorized Representative: __________________    Date: ___________\n");
-        payslip.append("Name: ______________________________________\n");
-        payslip.append("Position: HR Manager / Payroll Officer\n\n");
-        
-        payslip.append("───────────────────────────────────────────────────────────────────────────────\n");
-        payslip.append("This payslip is computer-generated and does not require a signature.\n");
-        payslip.append("For questions or concerns, please contact the HR Department.\n");
-        payslip.append("Generated on: " + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) + "\n");
-        payslip.append("═══════════════════════════════════════════════════════════════════════════════\n");
-    }
-    
     /**
      * Get default Philippine allowances
      */
@@ -296,9 +242,7 @@ public class PayslipGenerator {
      * This would typically be stored in the employee profile
      */
     private String getTIN(Employee employee) {
-        // This would be retrieved from employee profile
-        // For now, generate a sample TIN format
-        return "123-456-789-000";
+        return employee.getTin() != null ? employee.getTin().trim() : "";
     }
     
     /**
@@ -309,23 +253,78 @@ public class PayslipGenerator {
         if (employee == null) {
             return "Employee not found";
         }
-        
-        // Extract data from payroll record
-        String payPeriod = payroll.getPayPeriod();
-        double basicSalary = payroll.getBasePay();
-        
-        // Create default maps for allowances and deductions
-        Map<String, Double> allowances = getDefaultAllowances();
-        Map<String, Double> deductions = new HashMap<>();
-        
-        // Add any custom deductions from payroll
-        if (payroll.getDeductions() > 0) {
-            deductions.put("Other Deductions", payroll.getDeductions());
+        return generatePayslipFromPayroll(payroll, employee);
+    }
+    
+    /**
+     * Generate payslip from existing payroll record for an employee already loaded (used by bulk generation)
+     */
+    public String generatePayslipFromPayroll(Payroll payroll, Employee employee) {
+        PayslipArchive archive = this.archive;
+        if (archive == null || !payroll.isFinalized()) {
+            return renderPayslipFromPayroll(payroll, employee);
         }
         
-        return generatePayslip(employee.getEmployeeId(), payPeriod, basicSalary, 
-                              payroll.getOvertimeHours(), 0, 0, false, false, 
-                              allowances, deductions, false);
+        // A finalized payroll's payslip is shown as it was first issued
+        PayPeriod period = PayPeriod.parse(payroll.getPayPeriod());
+        try {
+            String archived = archive.get(payroll.getEmployeeId(), period);
+            if (archived != null) {
+                return archived;
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading archived payslip: " + e.getMessage());
+            e.printStackTrace();
+        }
+        String payslip = renderPayslipFromPayroll(payroll, employee);
+        try {
+            archive.put(payroll.getEmployeeId(), period, payslip);
+        } catch (IOException e) {
+            System.err.println("Error archiving payslip: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return payslip;
+    }
+    
+    /**
+     * Render a payroll's payslip from the amounts stored on it, so the payslip shows what was paid (and
+     * what the bank file carries) rather than a recalculation
+     */
+    private String renderPayslipFromPayroll(Payroll payroll, Employee employee) {
+        PayslipTemplate.Values values = new PayslipTemplate.Values();
+        fillEmployeeDetails(values, employee);
+        values.set(PayslipTemplate.Field.PAY_PERIOD, payroll.getPayPeriod())
+              .set(PayslipTemplate.Field.PAY_DATE, payroll.getPayDate() != null ? payroll.getPayDate().format(DATE_FORMAT) : "");
+        
+        // Earnings: overtime holds every attendance premium, bonuses both entered and from salary components
+        values.set(PayslipTemplate.Field.BASIC_SALARY, payroll.getBasePayAmount());
+        addIfNotZero(values, PayslipTemplate.ListField.OTHER_EARNINGS, "Overtime and Premium Pay", payroll.getOvertime());
+        addIfNotZero(values, PayslipTemplate.ListField.OTHER_EARNINGS, "Bonuses", payroll.getBonuses());
+        addIfNotZero(values, PayslipTemplate.ListField.OTHER_EARNINGS, "Salary Component Bonuses", payroll.getTotalCustomBonuses());
+        values.set(PayslipTemplate.Field.TOTAL_ALLOWANCES, Money.of(payroll.getTotalAllowances()))
+              .set(PayslipTemplate.Field.GROSS_PAY, payroll.getGrossPayAmount());
+        
+        // Deductions
+        Money otherDeductions = Money.of(payroll.getDeductions()).plus(Money.of(payroll.getTotalCustomDeductions()));
+        addIfNotZero(values, PayslipTemplate.ListField.OTHER_DEDUCTIONS, "Other Deductions", payroll.getDeductions());
+        addIfNotZero(values, PayslipTemplate.ListField.OTHER_DEDUCTIONS, "Salary Component Deductions",
+                     payroll.getTotalCustomDeductions());
+        values.set(PayslipTemplate.Field.SSS_CONTRIBUTION, Money.of(payroll.getSssContribution()))
+              .set(PayslipTemplate.Field.PHILHEALTH_CONTRIBUTION, Money.of(payroll.getPhilHealthContribution()))
+              .set(PayslipTemplate.Field.PAGIBIG_CONTRIBUTION, Money.of(payroll.getPagIbigContribution()))
+              .set(PayslipTemplate.Field.WITHHOLDING_TAX, payroll.getTaxesAmount())
+              .set(PayslipTemplate.Field.TOTAL_OTHER_DEDUCTIONS, otherDeductions)
+              .set(PayslipTemplate.Field.TOTAL_DEDUCTIONS, payroll.getGrossPayAmount().minus(payroll.getNetPayAmount()))
+              .set(PayslipTemplate.Field.NET_PAY, payroll.getNetPayAmount())
+              .set(PayslipTemplate.Field.GENERATED_ON, LocalDateTime.now().format(TIMESTAMP_FORMAT));
+        
+        return template.render(values);
+    }
+    
+    private static void addIfNotZero(PayslipTemplate.Values values, PayslipTemplate.ListField list, String label, double amount) {
+        if (amount != 0) {
+            values.add(list, label, Money.of(amount));
+        }
     }
     
     /**
@@ -342,7 +341,7 @@ public class PayslipGenerator {
         summary.append("Employee: ").append(employee.getFullName()).append("\n");
         summary.append("ID: ").append(employee.getFormattedEmployeeId()).append("\n");
         summary.append("Period: ").append(payPeriod).append("\n");
-        summary.append("Net Pay: ? ").append(String.format("%,.2f", netPay)).append("\n");
+        summary.append("Net Pay: ₱ ").append(String.format("%,.2f", netPay)).append("\n");
         
         return summary.toString();
     }
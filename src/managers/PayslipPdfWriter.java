@@ -0,0 +1,125 @@
+package managers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Lays out text payslips from {@link PayslipGenerator} as PDF pages, one payslip per page (or more, if
+ * a company's template is longer than a page), for a single payslip or a bundle of thousands.
+ *
+ * Lines are set in Courier so the template's columns stay aligned. Runs of box-drawing characters
+ * become drawn rules, and the peso sign, which the standard fonts lack, is drawn as a P with two bars.
+ */
+public class PayslipPdfWriter implements Closeable {
+    private static final PdfWriter.Font FONT = PdfWriter.Font.COURIER;
+    private static final float FONT_SIZE = 8;
+    private static final float LEADING = 9.6f;
+    private static final float CHAR_WIDTH = FONT_SIZE * 0.6f;
+    private static final float TOP_MARGIN = 48;
+    private static final float BOTTOM_MARGIN = 40;
+    private static final int COLUMNS = 82;
+    
+    private final PdfWriter pdf;
+    private final float left;
+    private final StringBuilder line = new StringBuilder(128);
+    private int payslips;
+    
+    public PayslipPdfWriter(WritableByteChannel channel) throws IOException {
+        this.pdf = new PdfWriter(channel);
+        this.left = (pdf.getPageWidth() - COLUMNS * CHAR_WIDTH) / 2;
+    }
+    
+    public void setTitle(String title) {
+        pdf.setTitle(title);
+    }
+    
+    /**
+     * Add a payslip, starting on a new page
+     */
+    public void writePayslip(String payslip) throws IOException {
+        pdf.newPage();
+        payslips++;
+        float y = TOP_MARGIN;
+        int start = 0;
+        while (start < payslip.length()) {
+            int end = payslip.indexOf('\n', start);
+            if (end < 0) {
+                end = payslip.length();
+            }
+            if (y > pdf.getPageHeight() - BOTTOM_MARGIN) {
+                pdf.newPage();
+                y = TOP_MARGIN;
+            }
+            y += LEADING;
+            writeLine(payslip, start, end, y);
+            start = end + 1;
+        }
+    }
+    
+    public int getPayslipCount() { return payslips; }
+    public int getPageCount() { return pdf.getPageCount(); }
+    
+    @Override
+    public void close() throws IOException {
+        pdf.close();
+    }
+    
+    /**
+     * Write one line of a payslip, drawing its rules and peso signs
+     */
+    private void writeLine(String payslip, int start, int end, float baseline) throws IOException {
+        line.setLength(0);
+        int ruleStart = -1;
+        char rule = 0;
+        for (int i = start; i <= end; i++) {
+            char ch = i < end ? payslip.charAt(i) : '\n';
+            int column = i - start;
+            if (ruleStart >= 0 && ch != rule) {
+                drawRule(rule, ruleStart, column, baseline);
+                ruleStart = -1;
+            }
+            if (ch == '\n' || ch == '\r') {
+                continue;
+            }
+            if (ch == '═' || ch == '─') {
+                if (ruleStart < 0) {
+                    ruleStart = column;
+                    rule = ch;
+                }
+                line.append(' ');
+            } else if (ch == '₱') {
+                float x = left + column * CHAR_WIDTH;
+                pdf.line(x + CHAR_WIDTH * 0.1f, baseline - FONT_SIZE * 0.47f, x + CHAR_WIDTH * 0.9f, baseline - FONT_SIZE * 0.47f, 0.4f);
+                pdf.line(x + CHAR_WIDTH * 0.1f, baseline - FONT_SIZE * 0.36f, x + CHAR_WIDTH * 0.9f, baseline - FONT_SIZE * 0.36f, 0.4f);
+                line.append('P');
+            } else {
+                line.append(ch);
+            }
+        }
+        int length = line.length();
+        while (length > 0 && line.charAt(length - 1) == ' ') {
+            length--;
+        }
+        if (length > 0) {
+            line.setLength(length);
+            pdf.text(left, baseline, FONT, FONT_SIZE, line.toString());
+        }
+    }
+    
+    /**
+     * Draw a run of box-drawing characters as a rule through the middle of their line: one line for
+     * '─', two for '═'
+     */
+    private void drawRule(char rule, int fromColumn, int toColumn, float baseline) throws IOException {
+        float x1 = left + fromColumn * CHAR_WIDTH;
+        float x2 = left + toColumn * CHAR_WIDTH;
+        float middle = baseline - FONT_SIZE * 0.3f;
+        if (rule == '═') {
+            pdf.line(x1, middle - 0.9f, x2, middle - 0.9f, 0.5f);
+            pdf.line(x1, middle + 0.9f, x2, middle + 0.9f, 0.5f);
+        } else {
+            pdf.line(x1, middle, x2, middle, 0.4f);
+        }
+    }
+}
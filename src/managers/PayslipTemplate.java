@@ -0,0 +1,737 @@
+package managers;
+
+import models.Money;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Payslip layout compiled once into a sequence of literal text and field writers, so rendering a
+ * payslip is one pass over the segments instead of parsing a format string for every line.
+ *
+ * A template is plain UTF-8 text, read line by line. Inside a line:
+ *
+ * <pre>
+ * {field}          the value of a field; amounts as 1,234.56, hours and days as 2.5
+ * {field:10}       right-aligned in at least 10 characters
+ * {field:-25}      left-aligned in at least 25 characters
+ * {@51}            spaces up to column 51 (counting from 1), to line up labels built from several fields
+ * {{               a literal '{'
+ * </pre>
+ *
+ * Lines holding only a section tag control which lines are written:
+ *
+ * <pre>
+ * {#overtimeHours} ... {/overtimeHours}   written only if the amount is not zero or the text not empty
+ * {#allowances} ... {/allowances}          written once per item, with {label} and {amount} of the item
+ * {! comment}                              ignored
+ * </pre>
+ *
+ * The template in DEFAULT_FILE is used when present, so each company lays out its own payslip (name,
+ * address, wording, order of sections) without code changes; otherwise the built-in layout applies.
+ * Fields are looked up when the template is compiled, so a misspelt field fails at load time rather
+ * than leaving a gap in every payslip. Compiled templates are immutable and shared between threads.
+ */
+public final class PayslipTemplate {
+    public static final String DEFAULT_FILE = System.getProperty("payroll.payslip.template", "config/payslip/payslip.txt");
+    
+    /**
+     * How a field's value is written
+     */
+    public enum Kind {
+        TEXT,
+        /** Pesos with thousands separators and two decimals */
+        AMOUNT,
+        /** Hours or days with one decimal */
+        QUANTITY
+    }
+    
+    /**
+     * Values a payslip template can refer to
+     */
+    public enum Field {
+        EMPLOYEE_NAME("employeeName", Kind.TEXT),
+        EMPLOYEE_ID("employeeId", Kind.TEXT),
+        DEPARTMENT("department", Kind.TEXT),
+        DESIGNATION("designation", Kind.TEXT),
+        JOB_TITLE("jobTitle", Kind.TEXT),
+        TIN("tin", Kind.TEXT),
+        HIRE_DATE("hireDate", Kind.TEXT),
+        PAY_PERIOD("payPeriod", Kind.TEXT),
+        PAY_DATE("payDate", Kind.TEXT),
+        GENERATED_ON("generatedOn", Kind.TEXT),
+        BASIC_SALARY("basicSalary", Kind.AMOUNT),
+        OVERTIME_HOURS("overtimeHours", Kind.QUANTITY),
+        OVERTIME_PAY("overtimePay", Kind.AMOUNT),
+        NIGHT_DIFF_HOURS("nightDiffHours", Kind.QUANTITY),
+        NIGHT_DIFF_PAY("nightDiffPay", Kind.AMOUNT),
+        HOLIDAY_TYPE("holidayType", Kind.TEXT),
+        HOLIDAY_DAYS("holidayDays", Kind.QUANTITY),
+        HOLIDAY_PAY("holidayPay", Kind.AMOUNT),
+        TOTAL_ALLOWANCES("totalAllowances", Kind.AMOUNT),
+        THIRTEENTH_MONTH_PAY("thirteenthMonthPay", Kind.AMOUNT),
+        GROSS_PAY("grossPay", Kind.AMOUNT),
+        SSS_CONTRIBUTION("sssContribution", Kind.AMOUNT),
+        PHILHEALTH_CONTRIBUTION("philHealthContribution", Kind.AMOUNT),
+        PAGIBIG_CONTRIBUTION("pagIbigContribution", Kind.AMOUNT),
+        WITHHOLDING_TAX("withholdingTax", Kind.AMOUNT),
+        TOTAL_OTHER_DEDUCTIONS("totalOtherDeductions", Kind.AMOUNT),
+        TOTAL_DEDUCTIONS("totalDeductions", Kind.AMOUNT),
+        NET_PAY("netPay", Kind.AMOUNT);
+        
+        private final String templateName;
+        private final Kind kind;
+        
+        Field(String templateName, Kind kind) {
+            this.templateName = templateName;
+            this.kind = kind;
+        }
+        
+        /**
+         * Name used in templates, e.g. "netPay"
+         */
+        public String getTemplateName() { return templateName; }
+        public Kind getKind() { return kind; }
+    }
+    
+    /**
+     * Labelled amounts a template can repeat lines for
+     */
+    public enum ListField {
+        OTHER_EARNINGS("otherEarnings"),
+        ALLOWANCES("allowances"),
+        OTHER_DEDUCTIONS("otherDeductions");
+        
+        private final String templateName;
+        
+        ListField(String templateName) {
+            this.templateName = templateName;
+        }
+        
+        public String getTemplateName() { return templateName; }
+    }
+    
+    private static final Field[] FIELDS = Field.values();
+    private static final Map<String, Field> FIELDS_BY_NAME = new HashMap<>();
+    private static final Map<String, ListField> LISTS_BY_NAME = new HashMap<>();
+    private static final String ITEM_LABEL = "label";
+    private static final String ITEM_AMOUNT = "amount";
+    private static final long[] POWERS_OF_TEN = new long[19];
+    
+    static {
+        for (Field field : FIELDS) {
+            FIELDS_BY_NAME.put(field.templateName, field);
+        }
+        for (ListField list : ListField.values()) {
+            LISTS_BY_NAME.put(list.templateName, list);
+        }
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+    
+    private static volatile PayslipTemplate defaultTemplate;
+    
+    private final Segment[] segments;
+    private final int sizeHint;
+    
+    private PayslipTemplate(Segment[] segments, int sizeHint) {
+        this.segments = segments;
+        this.sizeHint = sizeHint;
+    }
+    
+    /**
+     * Template loaded from DEFAULT_FILE on first use, or the built-in layout
+     */
+    public static PayslipTemplate getDefault() {
+        PayslipTemplate template = defaultTemplate;
+        if (template == null) {
+            synchronized (PayslipTemplate.class) {
+                template = defaultTemplate;
+                if (template == null) {
+                    template = load(Paths.get(DEFAULT_FILE));
+                    defaultTemplate = template;
+                }
+            }
+        }
+        return template;
+    }
+    
+    /**
+     * Re-read DEFAULT_FILE, e.g. after the company's layout has been edited
+     */
+    public static synchronized PayslipTemplate reloadDefault() {
+        defaultTemplate = load(Paths.get(DEFAULT_FILE));
+        return defaultTemplate;
+    }
+    
+    /**
+     * Compile a template file. A missing file gives the built-in layout; a file that cannot be read or
+     * compiled is reported and also gives the built-in layout.
+     */
+    public static PayslipTemplate load(Path file) {
+        if (Files.isRegularFile(file)) {
+            try {
+                return compile(Files.readAllLines(file, StandardCharsets.UTF_8));
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Error loading payslip template " + file + ": " + e.getMessage());
+            }
+        }
+        return builtIn();
+    }
+    
+    /**
+     * The layout payslips have always had
+     */
+    public static PayslipTemplate builtIn() {
+        return compile(Arrays.asList(BUILT_IN));
+    }
+    
+    /**
+     * Compile template lines
+     * @throws IllegalArgumentException naming the line of an unknown field, a malformed tag or an unclosed section
+     */
+    public static PayslipTemplate compile(List<String> lines) {
+        Deque<Block> blocks = new ArrayDeque<>();
+        blocks.push(new Block(null, null, null, 0));
+        int lineNumber = 0;
+        int sizeHint = 0;
+        for (String line : lines) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.startsWith("{!") && trimmed.endsWith("}")) {
+                continue;
+            }
+            if (isSectionTag(trimmed, '#')) {
+                String name = trimmed.substring(2, trimmed.length() - 1).trim();
+                ListField list = LISTS_BY_NAME.get(name);
+                Field field = list == null ? FIELDS_BY_NAME.get(name) : null;
+                if (list == null && field == null) {
+                    throw new IllegalArgumentException("line " + lineNumber + ": unknown section " + name);
+                }
+                blocks.push(new Block(name, field, list, lineNumber));
+                continue;
+            }
+            if (isSectionTag(trimmed, '/')) {
+                String name = trimmed.substring(2, trimmed.length() - 1).trim();
+                Block block = blocks.peek();
+                if (block.name == null || !block.name.equals(name)) {
+                    throw new IllegalArgumentException("line " + lineNumber + ": {/" + name + "} does not close an open section");
+                }
+                blocks.pop();
+                Segment[] body = block.segments.toArray(new Segment[0]);
+                blocks.peek().add(block.list != null ? new Repeat(block.list, body) : new Section(block.field, body));
+                continue;
+            }
+            boolean inList = false;
+            for (Block block : blocks) {
+                inList |= block.list != null;
+            }
+            compileLine(line, lineNumber, inList, blocks.peek());
+            blocks.peek().add(new Literal("\n"));
+            sizeHint += line.length() + 1;
+        }
+        if (blocks.size() > 1) {
+            Block open = blocks.peek();
+            throw new IllegalArgumentException("line " + open.lineNumber + ": section " + open.name + " is not closed");
+        }
+        return new PayslipTemplate(blocks.peek().segments.toArray(new Segment[0]), sizeHint);
+    }
+    
+    private static boolean isSectionTag(String trimmed, char marker) {
+        return trimmed.length() > 3 && trimmed.charAt(0) == '{' && trimmed.charAt(1) == marker
+            && trimmed.endsWith("}") && trimmed.indexOf('}') == trimmed.length() - 1;
+    }
+    
+    private static void compileLine(String line, int lineNumber, boolean inList, Block block) {
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < line.length()) {
+            char ch = line.charAt(i);
+            if (ch != '{') {
+                literal.append(ch);
+                i++;
+                continue;
+            }
+            if (i + 1 < line.length() && line.charAt(i + 1) == '{') {
+                literal.append('{');
+                i += 2;
+                continue;
+            }
+            int end = line.indexOf('}', i);
+            if (end < 0) {
+                throw new IllegalArgumentException("line " + lineNumber + ": '{' without a closing '}'");
+            }
+            if (literal.length() > 0) {
+                block.add(new Literal(literal.toString()));
+                literal.setLength(0);
+            }
+            block.add(compileTag(line.substring(i + 1, end).trim(), lineNumber, inList));
+            i = end + 1;
+        }
+        if (literal.length() > 0) {
+            block.add(new Literal(literal.toString()));
+        }
+    }
+    
+    private static Segment compileTag(String tag, int lineNumber, boolean inList) {
+        if (tag.startsWith("@")) {
+            return new Column(parseNumber(tag.substring(1), lineNumber));
+        }
+        String name = tag;
+        int width = 0;
+        boolean left = false;
+        int colon = tag.indexOf(':');
+        if (colon >= 0) {
+            name = tag.substring(0, colon).trim();
+            String spec = tag.substring(colon + 1).trim();
+            left = spec.startsWith("-");
+            width = parseNumber(left ? spec.substring(1) : spec, lineNumber);
+        }
+        if (inList && ITEM_LABEL.equals(name)) {
+            return new ItemLabel(width, left);
+        }
+        if (inList && ITEM_AMOUNT.equals(name)) {
+            return new ItemAmount(width, left);
+        }
+        Field field = FIELDS_BY_NAME.get(name);
+        if (field == null) {
+            throw new IllegalArgumentException("line " + lineNumber + ": unknown field {" + name + "}");
+        }
+        return new FieldWriter(field, width, left);
+    }
+    
+    private static int parseNumber(String text, int lineNumber) {
+        try {
+            int value = Integer.parseInt(text.trim());
+            if (value < 0 || value > 1000) {
+                throw new NumberFormatException();
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("line " + lineNumber + ": invalid width or column '" + text + "'");
+        }
+    }
+    
+    /**
+     * Render a payslip
+     */
+    public String render(Values values) {
+        StringBuilder out = new StringBuilder(sizeHint + 256);
+        render(values, out);
+        return out.toString();
+    }
+    
+    /**
+     * Render a payslip onto the end of a buffer, which a caller rendering many payslips can reuse
+     */
+    public void render(Values values, StringBuilder out) {
+        for (Segment segment : segments) {
+            segment.write(values, null, out);
+        }
+    }
+    
+    /**
+     * Write a number with a fixed number of decimals, optionally with thousands separators, padded to a
+     * width, without creating intermediate strings
+     */
+    static void writeNumber(StringBuilder out, long unscaled, int scale, boolean grouping, int width, boolean left) {
+        boolean negative = unscaled < 0;
+        long magnitude = Math.abs(unscaled);
+        long whole = magnitude / POWERS_OF_TEN[scale];
+        long fraction = magnitude % POWERS_OF_TEN[scale];
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && whole >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        int length = (negative ? 1 : 0) + digits + (grouping ? (digits - 1) / 3 : 0) + (scale > 0 ? scale + 1 : 0);
+        if (!left) {
+            pad(out, width - length);
+        }
+        if (negative) {
+            out.append('-');
+        }
+        for (int i = digits - 1; i >= 0; i--) {
+            out.append((char) ('0' + whole / POWERS_OF_TEN[i] % 10));
+            if (grouping && i > 0 && i % 3 == 0) {
+                out.append(',');
+            }
+        }
+        if (scale > 0) {
+            out.append('.');
+            for (int i = scale - 1; i >= 0; i--) {
+                out.append((char) ('0' + fraction / POWERS_OF_TEN[i] % 10));
+            }
+        }
+        if (left) {
+            pad(out, width - length);
+        }
+    }
+    
+    private static void writeText(StringBuilder out, String text, int width, boolean left) {
+        String value = text != null ? text : "";
+        if (!left) {
+            pad(out, width - value.length());
+        }
+        out.append(value);
+        if (left) {
+            pad(out, width - value.length());
+        }
+    }
+    
+    private static void writeValue(StringBuilder out, Kind kind, String text, double number, long centavos,
+                                   int width, boolean left) {
+        switch (kind) {
+            case AMOUNT:
+                writeNumber(out, centavos, 2, true, width, left);
+                break;
+            case QUANTITY:
+                writeNumber(out, Math.round(number * 10), 1, false, width, left);
+                break;
+            default:
+                writeText(out, text, width, left);
+                break;
+        }
+    }
+    
+    private static void pad(StringBuilder out, int count) {
+        for (int i = 0; i < count; i++) {
+            out.append(' ');
+        }
+    }
+    
+    /**
+     * The values of one payslip. Not shared between threads; fill one per payslip.
+     */
+    public static final class Values {
+        private final String[] texts = new String[FIELDS.length];
+        private final double[] numbers = new double[FIELDS.length];
+        private final long[] amounts = new long[FIELDS.length];
+        private final List<List<Item>> lists = new ArrayList<>();
+        
+        public Values() {
+            for (int i = 0; i < ListField.values().length; i++) {
+                lists.add(new ArrayList<>());
+            }
+        }
+        
+        public Values set(Field field, String text) {
+            texts[field.ordinal()] = text;
+            return this;
+        }
+        
+        /**
+         * Set a quantity, or an amount, which is rounded to the centavo here
+         */
+        public Values set(Field field, double number) {
+            if (field.kind == Kind.AMOUNT) {
+                return set(field, Money.of(number));
+            }
+            numbers[field.ordinal()] = number;
+            return this;
+        }
+        
+        /**
+         * Set an amount as it is printed. A total set this way from the sum of its lines prints as
+         * exactly that sum.
+         */
+        public Values set(Field field, Money amount) {
+            amounts[field.ordinal()] = amount.getCentavos();
+            numbers[field.ordinal()] = amount.doubleValue();
+            return this;
+        }
+        
+        public Values add(ListField list, String label, double amount) {
+            return add(list, label, Money.of(amount));
+        }
+        
+        public Values add(ListField list, String label, Money amount) {
+            lists.get(list.ordinal()).add(new Item(label, amount.getCentavos()));
+            return this;
+        }
+        
+        public String getText(Field field) { return texts[field.ordinal()]; }
+        public double getNumber(Field field) { return numbers[field.ordinal()]; }
+        
+        /**
+         * True if a section on the field is written: text that is not empty, or a number that is not zero
+         */
+        boolean isPresent(Field field) {
+            if (field.kind == Kind.TEXT) {
+                String text = texts[field.ordinal()];
+                return text != null && !text.isEmpty();
+            }
+            return numbers[field.ordinal()] != 0;
+        }
+    }
+    
+    private static final class Item {
+        private final String label;
+        private final long centavos;
+        
+        Item(String label, long centavos) {
+            this.label = label;
+            this.centavos = centavos;
+        }
+    }
+    
+    /**
+     * A section being compiled
+     */
+    private static final class Block {
+        private final String name;
+        private final Field field;
+        private final ListField list;
+        private final int lineNumber;
+        private final List<Segment> segments = new ArrayList<>();
+        
+        Block(String name, Field field, ListField list, int lineNumber) {
+            this.name = name;
+            this.field = field;
+            this.list = list;
+            this.lineNumber = lineNumber;
+        }
+        
+        /**
+         * Add a segment, joining adjacent literals into one
+         */
+        void add(Segment segment) {
+            int last = segments.size() - 1;
+            if (segment instanceof Literal && last >= 0 && segments.get(last) instanceof Literal) {
+                segments.set(last, new Literal(((Literal) segments.get(last)).text + ((Literal) segment).text));
+            } else {
+                segments.add(segment);
+            }
+        }
+    }
+    
+    private interface Segment {
+        void write(Values values, Item item, StringBuilder out);
+    }
+    
+    private static final class Literal implements Segment {
+        private final String text;
+        
+        Literal(String text) {
+            this.text = text;
+        }
+        
+        @Override
+        public void write(Values values, Item item, StringBuilder out) {
+            out.append(text);
+        }
+    }
+    
+    private static final class FieldWriter implements Segment {
+        private final Field field;
+        private final int width;
+        private final boolean left;
+        
+        FieldWriter(Field field, int width, boolean left) {
+            this.field = field;
+            this.width = width;
+            this.left = left;
+        }
+        
+        @Override
+        public void write(Values values, Item item, StringBuilder out) {
+            int index = field.ordinal();
+            writeValue(out, field.kind, values.texts[index], values.numbers[index], values.amounts[index], width, left);
+        }
+    }
+    
+    private static final class ItemLabel implements Segment {
+        private final int width;
+        private final boolean left;
+        
+        ItemLabel(int width, boolean left) {
+            this.width = width;
+            this.left = left;
+        }
+        
+        @Override
+        public void write(Values values, Item item, StringBuilder out) {
+            writeText(out, item.label, width, left);
+        }
+    }
+    
+    private static final class ItemAmount implements Segment {
+        private final int width;
+        private final boolean left;
+        
+        ItemAmount(int width, boolean left) {
+            this.width = width;
+            this.left = left;
+        }
+        
+        @Override
+        public void write(Values values, Item item, StringBuilder out) {
+            writeNumber(out, item.centavos, 2, true, width, left);
+        }
+    }
+    
+    /**
+     * Spaces up to a column of the current line
+     */
+    private static final class Column implements Segment {
+        private final int column;
+        
+        Column(int column) {
+            this.column = column;
+        }
+        
+        @Override
+        public void write(Values values, Item item, StringBuilder out) {
+            int lineStart = out.lastIndexOf("\n") + 1;
+            pad(out, column - 1 - (out.length() - lineStart));
+        }
+    }
+    
+    private static final class Section implements Segment {
+        private final Field field;
+        private final Segment[] body;
+        
+        Section(Field field, Segment[] body) {
+            this.field = field;
+            this.body = body;
+        }
+        
+        @Override
+        public void write(Values values, Item item, StringBuilder out) {
+            if (values.isPresent(field)) {
+                for (Segment segment : body) {
+                    segment.write(values, item, out);
+                }
+            }
+        }
+    }
+    
+    private static final class Repeat implements Segment {
+        private final ListField list;
+        private final Segment[] body;
+        
+        Repeat(ListField list, Segment[] body) {
+            this.list = list;
+            this.body = body;
+        }
+        
+        @Override
+        public void write(Values values, Item item, StringBuilder out) {
+            for (Item element : values.lists.get(list.ordinal())) {
+                for (Segment segment : body) {
+                    segment.write(values, element, out);
+                }
+            }
+        }
+    }
+    
+    private static final String DOUBLE_RULE = "═══════════════════════════════════════════════════════════════════════════════";
+    private static final String RULE = "───────────────────────────────────────────────────────────────────────────────";
+    
+    private static final String[] BUILT_IN = {
+        DOUBLE_RULE,
+        "                                  [COMPANY LOGO]",
+        "                          Philippine Payroll Management System",
+        "                          123 Business District, Makati City, Metro Manila, Philippines",
+        DOUBLE_RULE,
+        "                                    PAYSLIP",
+        DOUBLE_RULE,
+        "",
+        "EMPLOYEE DETAILS:",
+        RULE,
+        "Employee Name             : {employeeName}",
+        "Employee ID               : {employeeId}",
+        "Department                : {department}",
+        "Designation               : {designation}",
+        "Job Title                 : {jobTitle}",
+        "{#tin}",
+        "TIN                       : {tin}",
+        "{/tin}",
+        "Hire Date                 : {hireDate}",
+        "",
+        "PAY PERIOD INFORMATION:",
+        RULE,
+        "Pay Period                : {payPeriod}",
+        "Pay Date                  : {payDate}",
+        "Payment Method            : Bank Transfer",
+        "",
+        "EARNINGS:",
+        RULE,
+        "Basic Salary{@51} : ₱ {basicSalary:10}",
+        "{#overtimeHours}",
+        "Overtime Pay ({overtimeHours} hrs){@51} : ₱ {overtimePay:10}",
+        "{/overtimeHours}",
+        "{#nightDiffHours}",
+        "Night Differential ({nightDiffHours} hrs){@51} : ₱ {nightDiffPay:10}",
+        "{/nightDiffHours}",
+        "{#holidayDays}",
+        "{holidayType} Pay ({holidayDays} days){@51} : ₱ {holidayPay:10}",
+        "{/holidayDays}",
+        "{#otherEarnings}",
+        "{label:-50} : ₱ {amount:10}",
+        "{/otherEarnings}",
+        "",
+        "ALLOWANCES:",
+        "{#allowances}",
+        "{label:-50} : ₱ {amount:10}",
+        "{/allowances}",
+        "{#totalAllowances}",
+        "Total Allowances{@51} : ₱ {totalAllowances:10}",
+        "{/totalAllowances}",
+        "{#thirteenthMonthPay}",
+        "13th Month Pay (Monthly){@51} : ₱ {thirteenthMonthPay:10}",
+        "{/thirteenthMonthPay}",
+        RULE,
+        "GROSS PAY{@51} : ₱ {grossPay:10}",
+        "",
+        "DEDUCTIONS:",
+        RULE,
+        "GOVERNMENT CONTRIBUTIONS:",
+        "SSS Contribution{@51} : ₱ {sssContribution:10}",
+        "PhilHealth Contribution{@51} : ₱ {philHealthContribution:10}",
+        "Pag-IBIG Contribution{@51} : ₱ {pagIbigContribution:10}",
+        "Withholding Tax{@51} : ₱ {withholdingTax:10}",
+        "{#totalOtherDeductions}",
+        "",
+        "OTHER DEDUCTIONS:",
+        "{/totalOtherDeductions}",
+        "{#otherDeductions}",
+        "{label:-50} : ₱ {amount:10}",
+        "{/otherDeductions}",
+        RULE,
+        "TOTAL DEDUCTIONS{@51} : ₱ {totalDeductions:10}",
+        "",
+        "NET PAY CALCULATION:",
+        DOUBLE_RULE,
+        "Gross Pay{@51} : ₱ {grossPay:10}",
+        "Total Deductions{@51} : ₱ {totalDeductions:10}",
+        RULE,
+        "NET PAY{@51} : ₱ {netPay:10}",
+        DOUBLE_RULE,
+        "",
+        "SIGNATURES:",
+        RULE,
+        "Employee Signature: ________________________    Date: ___________",
+        "",
+        "Authorized Representative: __________________    Date: ___________",
+        "Name: ______________________________________",
+        "Position: HR Manager / Payroll Officer",
+        "",
+        RULE,
+        "This payslip is computer-generated and does not require a signature.",
+        "For questions or concerns, please contact the HR Department.",
+        "Generated on: {generatedOn}",
+        DOUBLE_RULE
+    };
+}
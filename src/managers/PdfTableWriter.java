@@ -0,0 +1,120 @@
+package managers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Table writer producing a printable PDF report on A4 landscape pages.
+ *
+ * Rows are drawn as they arrive, so only the current page is held in memory. Columns share the page
+ * width equally, text that does not fit its column is cut short with an ellipsis, numbers are
+ * right-aligned, and the header row is repeated at the top of every page.
+ */
+public class PdfTableWriter implements TableWriter {
+    private static final float MARGIN = 36;
+    private static final float TITLE_SIZE = 14;
+    private static final float MAX_FONT_SIZE = 9;
+    private static final float MIN_FONT_SIZE = 5;
+    private static final float CELL_PADDING = 2;
+    
+    private final PdfWriter pdf;
+    private String tableName;
+    private String[] headers = new String[0];
+    private float columnWidth;
+    private float fontSize;
+    private float rowHeight;
+    private float y;
+    private int tablePage;
+    
+    public PdfTableWriter(OutputStream output) throws IOException {
+        this(Channels.newChannel(output));
+    }
+    
+    public PdfTableWriter(WritableByteChannel channel) throws IOException {
+        this.pdf = new PdfWriter(channel, PdfWriter.A4_HEIGHT, PdfWriter.A4_WIDTH);
+    }
+    
+    @Override
+    public void startTable(String name, String[] headers) throws IOException {
+        if (tableName == null) {
+            pdf.setTitle(name);
+        }
+        this.tableName = name;
+        this.headers = headers.clone();
+        int columns = Math.max(1, headers.length);
+        this.columnWidth = (pdf.getPageWidth() - 2 * MARGIN) / columns;
+        this.fontSize = Math.max(MIN_FONT_SIZE, Math.min(MAX_FONT_SIZE, columnWidth / 7));
+        this.rowHeight = fontSize * 1.6f;
+        this.tablePage = 0;
+        startPage();
+    }
+    
+    @Override
+    public void writeRow(Object... values) throws IOException {
+        if (tableName == null) {
+            throw new IllegalStateException("startTable must be called before writeRow");
+        }
+        if (y + rowHeight > pdf.getPageHeight() - MARGIN) {
+            startPage();
+        }
+        drawRow(values, PdfWriter.Font.HELVETICA);
+        pdf.line(MARGIN, y, pdf.getPageWidth() - MARGIN, y, 0.25f);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        pdf.close();
+    }
+    
+    /**
+     * Start a page of the current table: title, page number and the header row
+     */
+    private void startPage() throws IOException {
+        pdf.newPage();
+        tablePage++;
+        float pageWidth = pdf.getPageWidth();
+        float bottom = pdf.getPageHeight() - MARGIN / 2;
+        pdf.text(MARGIN, MARGIN + TITLE_SIZE, PdfWriter.Font.HELVETICA_BOLD, TITLE_SIZE, tableName);
+        pdf.text(MARGIN, bottom, PdfWriter.Font.HELVETICA, 7, tableName);
+        pdf.textRight(pageWidth - MARGIN, bottom, PdfWriter.Font.HELVETICA, 7, "Page " + tablePage);
+        
+        y = MARGIN + TITLE_SIZE + 10;
+        pdf.fillRectangle(MARGIN, y, pageWidth - 2 * MARGIN, rowHeight, 0.85f);
+        drawRow(headers, PdfWriter.Font.HELVETICA_BOLD);
+        pdf.line(MARGIN, y, pageWidth - MARGIN, y, 0.75f);
+    }
+    
+    /**
+     * Draw one row below the current position and move past it
+     */
+    private void drawRow(Object[] values, PdfWriter.Font font) throws IOException {
+        // Centre the capital letters in the row
+        float baseline = y + (rowHeight + fontSize * 0.7f) / 2;
+        float cellWidth = columnWidth - 2 * CELL_PADDING;
+        for (int i = 0; i < values.length && i < Math.max(1, headers.length); i++) {
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            float left = MARGIN + i * columnWidth + CELL_PADDING;
+            if (value instanceof Number && font == PdfWriter.Font.HELVETICA) {
+                String text = PdfWriter.fit(font, fontSize, formatNumber((Number) value), cellWidth);
+                pdf.textRight(left + cellWidth, baseline, font, fontSize, text);
+            } else {
+                pdf.text(left, baseline, font, fontSize, PdfWriter.fit(font, fontSize, value.toString(), cellWidth));
+            }
+        }
+        y += rowHeight;
+    }
+    
+    private static String formatNumber(Number value) {
+        if (value instanceof Double || value instanceof Float) {
+            double number = value.doubleValue();
+            return Double.isNaN(number) || Double.isInfinite(number) ? "" : BigDecimal.valueOf(number).toPlainString();
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,506 @@
+package managers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * Streaming PDF writer with no external dependencies: text in the standard fonts, lines, rectangles.
+ *
+ * Each page is drawn into one reusable buffer and written to the channel, compressed, as soon as the
+ * next page starts. The fonts and the resource dictionary are single objects that every page refers
+ * to, and the page tree is written on close from the page count alone. A document of any number of
+ * pages is therefore produced with a fixed amount of memory, apart from the cross-reference table's
+ * 8 bytes per object.
+ *
+ * Coordinates are in points (1/72 inch) from the top-left corner of the page, with y growing
+ * downwards; y is the text baseline. The standard fonts are built into every PDF viewer, so nothing
+ * is embedded. Text is written in WinAnsi encoding: accented Latin letters are kept, other characters
+ * lose their accents or become '?'.
+ */
+public class PdfWriter implements Closeable {
+    public static final float A4_WIDTH = 595.28f;
+    public static final float A4_HEIGHT = 841.89f;
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    
+    /**
+     * The standard fonts pages can use, with their character widths in thousandths of the font size
+     */
+    public enum Font {
+        HELVETICA("Helvetica", new short[] {
+            278, 278, 355, 556, 556, 889, 667, 191, 333, 333, 389, 584, 278, 333, 278, 278,
+            556, 556, 556, 556, 556, 556, 556, 556, 556, 556, 278, 278, 584, 584, 584, 556,
+            1015, 667, 667, 722, 722, 667, 611, 778, 722, 278, 500, 667, 556, 833, 722, 778,
+            667, 778, 722, 667, 611, 722, 667, 944, 667, 667, 611, 278, 278, 278, 469, 556,
+            333, 556, 556, 500, 556, 556, 278, 556, 556, 222, 222, 500, 222, 833, 556, 556,
+            556, 556, 333, 500, 278, 556, 500, 722, 500, 500, 500, 334, 260, 334, 584 }),
+        HELVETICA_BOLD("Helvetica-Bold", new short[] {
+            278, 333, 474, 556, 556, 889, 722, 238, 333, 333, 389, 584, 278, 333, 278, 278,
+            556, 556, 556, 556, 556, 556, 556, 556, 556, 556, 333, 333, 584, 584, 584, 611,
+            975, 722, 722, 722, 722, 667, 611, 778, 722, 278, 556, 722, 611, 833, 722, 778,
+            667, 778, 722, 667, 611, 722, 667, 944, 667, 667, 611, 333, 278, 333, 584, 556,
+            333, 556, 611, 556, 611, 556, 333, 611, 611, 278, 278, 556, 278, 889, 611, 611,
+            611, 611, 389, 556, 333, 611, 556, 778, 556, 556, 500, 389, 280, 389, 584 }),
+        COURIER("Courier", null),
+        COURIER_BOLD("Courier-Bold", null);
+        
+        private final String baseFont;
+        private final short[] widths;
+        
+        Font(String baseFont, short[] widths) {
+            this.baseFont = baseFont;
+            this.widths = widths;
+        }
+        
+        public String getBaseFont() { return baseFont; }
+        
+        /**
+         * Width of a character in thousandths of the font size
+         */
+        public int width(char ch) {
+            if (widths == null) {
+                return 600;
+            }
+            if (ch >= 32 && ch <= 126) {
+                return widths[ch - 32];
+            }
+            if (ch == '…') {
+                return 1000;
+            }
+            char base = baseLetter(ch);
+            return base >= 32 && base <= 126 ? widths[base - 32] : 556;
+        }
+    }
+    
+    private static final int CATALOG = 1;
+    private static final int PAGES = 2;
+    private static final int RESOURCES = 3;
+    private static final int INFO = 4;
+    private static final int FIRST_FONT = 5;
+    private static final int FIRST_PAGE = FIRST_FONT + Font.values().length;
+    private static final byte[] HEADER = {'%', 'P', 'D', 'F', '-', '1', '.', '4', '\n', '%', (byte) 0xE2, (byte) 0xE3, (byte) 0xCF, (byte) 0xD3, '\n'};
+    
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final float pageWidth;
+    private final float pageHeight;
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private long position;
+    private long[] offsets = new long[64];
+    private String title = "";
+    
+    private byte[] content = new byte[16 * 1024];
+    private int contentLength;
+    private byte[] compressed = new byte[16 * 1024];
+    private boolean pageOpen;
+    private int pageCount;
+    private Font currentFont;
+    private float currentSize;
+    private float currentLineWidth;
+    private boolean closed;
+    
+    /**
+     * Write A4 portrait pages
+     */
+    public PdfWriter(WritableByteChannel channel) throws IOException {
+        this(channel, A4_WIDTH, A4_HEIGHT);
+    }
+    
+    public PdfWriter(WritableByteChannel channel, float pageWidth, float pageHeight) throws IOException {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(DEFAULT_BUFFER_SIZE);
+        this.pageWidth = pageWidth;
+        this.pageHeight = pageHeight;
+        writeBytes(HEADER, 0, HEADER.length);
+        for (Font font : Font.values()) {
+            beginObject(FIRST_FONT + font.ordinal());
+            writeAscii("<< /Type /Font /Subtype /Type1 /BaseFont /" + font.baseFont + " /Encoding /WinAnsiEncoding >>\nendobj\n");
+        }
+    }
+    
+    /**
+     * Title shown by PDF viewers; set before closing
+     */
+    public void setTitle(String title) {
+        this.title = title != null ? title : "";
+    }
+    
+    public float getPageWidth() { return pageWidth; }
+    public float getPageHeight() { return pageHeight; }
+    
+    /**
+     * Pages started so far, including the one being drawn
+     */
+    public int getPageCount() { return pageCount; }
+    
+    /**
+     * Finish the current page, if any, and start drawing on a new one
+     */
+    public PdfWriter newPage() throws IOException {
+        checkOpen();
+        finishPage();
+        pageOpen = true;
+        pageCount++;
+        contentLength = 0;
+        currentFont = null;
+        currentSize = 0;
+        currentLineWidth = 1;
+        return this;
+    }
+    
+    /**
+     * Write text with its left end at x
+     */
+    public PdfWriter text(float x, float y, Font font, float size, String text) throws IOException {
+        if (text == null || text.isEmpty()) {
+            return this;
+        }
+        ensurePage();
+        append("BT ");
+        if (font != currentFont || size != currentSize) {
+            append('/').append('F').appendNumber(font.ordinal() + 1).append(' ').appendNumber(size).append(" Tf ");
+            currentFont = font;
+            currentSize = size;
+        }
+        appendNumber(x).append(' ').appendNumber(pageHeight - y).append(" Td (");
+        appendEscaped(text);
+        append(") Tj ET\n");
+        return this;
+    }
+    
+    /**
+     * Write text with its right end at x
+     */
+    public PdfWriter textRight(float x, float y, Font font, float size, String text) throws IOException {
+        return text(x - textWidth(font, size, text), y, font, size, text);
+    }
+    
+    /**
+     * Draw a straight line
+     */
+    public PdfWriter line(float x1, float y1, float x2, float y2, float lineWidth) throws IOException {
+        ensurePage();
+        setLineWidth(lineWidth);
+        appendNumber(x1).append(' ').appendNumber(pageHeight - y1).append(" m ")
+            .appendNumber(x2).append(' ').appendNumber(pageHeight - y2).append(" l S\n");
+        return this;
+    }
+    
+    /**
+     * Draw the outline of a rectangle whose top-left corner is at x, y
+     */
+    public PdfWriter rectangle(float x, float y, float width, float height, float lineWidth) throws IOException {
+        ensurePage();
+        setLineWidth(lineWidth);
+        appendRectangle(x, y, width, height).append(" S\n");
+        return this;
+    }
+    
+    /**
+     * Fill a rectangle whose top-left corner is at x, y in a shade of grey, from 0 (black) to 1 (white)
+     */
+    public PdfWriter fillRectangle(float x, float y, float width, float height, float gray) throws IOException {
+        ensurePage();
+        appendNumber(gray).append(" g ");
+        appendRectangle(x, y, width, height).append(" f 0 g\n");
+        return this;
+    }
+    
+    /**
+     * Width of text in points
+     */
+    public static float textWidth(Font font, float size, String text) {
+        if (text == null) {
+            return 0;
+        }
+        long total = 0;
+        for (int i = 0; i < text.length(); i++) {
+            total += font.width(text.charAt(i));
+        }
+        return total * size / 1000f;
+    }
+    
+    /**
+     * Text cut short with an ellipsis so that it is no wider than maxWidth
+     */
+    public static String fit(Font font, float size, String text, float maxWidth) {
+        if (text == null || textWidth(font, size, text) <= maxWidth) {
+            return text;
+        }
+        float available = maxWidth - textWidth(font, size, "…");
+        float width = 0;
+        int end = 0;
+        while (end < text.length()) {
+            float next = font.width(text.charAt(end)) * size / 1000f;
+            if (width + next > available) {
+                break;
+            }
+            width += next;
+            end++;
+        }
+        return text.substring(0, end) + "…";
+    }
+    
+    /**
+     * Finish the last page and write the page tree, the shared resources and the cross-reference table
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (pageCount == 0) {
+                newPage();
+            }
+            finishPage();
+            
+            beginObject(RESOURCES);
+            StringBuilder resources = new StringBuilder("<< /ProcSet [/PDF /Text] /Font <<");
+            for (Font font : Font.values()) {
+                resources.append(" /F").append(font.ordinal() + 1).append(' ').append(FIRST_FONT + font.ordinal()).append(" 0 R");
+            }
+            writeAscii(resources.append(" >> >>\nendobj\n").toString());
+            
+            beginObject(PAGES);
+            writeAscii("<< /Type /Pages /Count " + pageCount + " /MediaBox [0 0 " + number(pageWidth) + " " + number(pageHeight) + "] /Kids [");
+            for (int page = 0; page < pageCount; page++) {
+                writeAscii((page % 10 == 0 ? "\n" : " ") + (FIRST_PAGE + page * 2 + 1) + " 0 R");
+            }
+            writeAscii("\n] >>\nendobj\n");
+            
+            beginObject(CATALOG);
+            writeAscii("<< /Type /Catalog /Pages " + PAGES + " 0 R >>\nendobj\n");
+            
+            beginObject(INFO);
+            writeAscii("<< /Producer (Philippine Payroll Management System) /Title (");
+            contentLength = 0;
+            appendEscaped(title);
+            writeBytes(content, 0, contentLength);
+            writeAscii(") >>\nendobj\n");
+            
+            int objectCount = FIRST_PAGE + pageCount * 2;
+            long xref = position;
+            writeAscii("xref\n0 " + objectCount + "\n0000000000 65535 f \n");
+            for (int object = 1; object < objectCount; object++) {
+                writeDigits(offsets[object], 10);
+                writeAscii(" 00000 n \n");
+            }
+            writeAscii("trailer\n<< /Size " + objectCount + " /Root " + CATALOG + " 0 R /Info " + INFO + " 0 R >>\nstartxref\n"
+                       + xref + "\n%%EOF\n");
+            flushBuffer();
+        } finally {
+            closed = true;
+            deflater.end();
+            channel.close();
+        }
+    }
+    
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("PDF writer is closed");
+        }
+    }
+    
+    private void ensurePage() throws IOException {
+        if (!pageOpen) {
+            newPage();
+        }
+    }
+    
+    private void setLineWidth(float lineWidth) {
+        if (lineWidth != currentLineWidth) {
+            appendNumber(lineWidth).append(" w\n");
+            currentLineWidth = lineWidth;
+        }
+    }
+    
+    /**
+     * Compress the page's drawing and write it with the page object that refers to it
+     */
+    private void finishPage() throws IOException {
+        if (!pageOpen) {
+            return;
+        }
+        pageOpen = false;
+        deflater.reset();
+        deflater.setInput(content, 0, contentLength);
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+        
+        int contentObject = FIRST_PAGE + (pageCount - 1) * 2;
+        beginObject(contentObject);
+        writeAscii("<< /Length " + length + " /Filter /FlateDecode >>\nstream\n");
+        writeBytes(compressed, 0, length);
+        writeAscii("\nendstream\nendobj\n");
+        
+        beginObject(contentObject + 1);
+        writeAscii("<< /Type /Page /Parent " + PAGES + " 0 R /Resources " + RESOURCES + " 0 R /Contents "
+                   + contentObject + " 0 R >>\nendobj\n");
+    }
+    
+    private void beginObject(int object) throws IOException {
+        if (object >= offsets.length) {
+            offsets = Arrays.copyOf(offsets, Math.max(object + 1, offsets.length * 2));
+        }
+        offsets[object] = position;
+        writeAscii(object + " 0 obj\n");
+    }
+    
+    /**
+     * Append the body of a PDF string: WinAnsi codes, with delimiters and codes outside printable ASCII escaped
+     */
+    private void appendEscaped(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            int code = encode(text.charAt(i));
+            if (code == '(' || code == ')' || code == '\\') {
+                append('\\').append((char) code);
+            } else if (code < 32 || code > 126) {
+                append('\\').append((char) ('0' + (code >> 6))).append((char) ('0' + (code >> 3 & 7))).append((char) ('0' + (code & 7)));
+            } else {
+                append((char) code);
+            }
+        }
+    }
+    
+    private PdfWriter appendRectangle(float x, float y, float width, float height) {
+        return appendNumber(x).append(' ').appendNumber(pageHeight - y - height).append(' ')
+            .appendNumber(width).append(' ').appendNumber(height).append(" re");
+    }
+    
+    private PdfWriter append(char ch) {
+        if (contentLength == content.length) {
+            content = Arrays.copyOf(content, content.length * 2);
+        }
+        content[contentLength++] = (byte) ch;
+        return this;
+    }
+    
+    private PdfWriter append(String ascii) {
+        for (int i = 0; i < ascii.length(); i++) {
+            append(ascii.charAt(i));
+        }
+        return this;
+    }
+    
+    /**
+     * Append a number with at most two decimals, without creating a string
+     */
+    private PdfWriter appendNumber(float value) {
+        long hundredths = Math.round(value * 100.0);
+        if (hundredths < 0) {
+            append('-');
+            hundredths = -hundredths;
+        }
+        appendWhole(hundredths / 100);
+        int fraction = (int) (hundredths % 100);
+        if (fraction != 0) {
+            append('.').append((char) ('0' + fraction / 10));
+            if (fraction % 10 != 0) {
+                append((char) ('0' + fraction % 10));
+            }
+        }
+        return this;
+    }
+    
+    private PdfWriter appendNumber(int value) {
+        appendWhole(value);
+        return this;
+    }
+    
+    private void appendWhole(long value) {
+        if (value >= 10) {
+            appendWhole(value / 10);
+        }
+        append((char) ('0' + value % 10));
+    }
+    
+    private static String number(float value) {
+        return BigDecimal.valueOf(Math.round(value * 100.0), 2).stripTrailingZeros().toPlainString();
+    }
+    
+    /**
+     * WinAnsi code of a character: Latin-1 as is, the typographic characters WinAnsi adds, accented
+     * letters outside Latin-1 without their accents, anything else '?'
+     */
+    static int encode(char ch) {
+        if (ch < 0x80 || (ch >= 0xA0 && ch <= 0xFF)) {
+            return ch;
+        }
+        switch (ch) {
+            case '€': return 0x80;
+            case '…': return 0x85;
+            case '‘': return 0x91;
+            case '’': return 0x92;
+            case '“': return 0x93;
+            case '”': return 0x94;
+            case '•': return 0x95;
+            case '–': return 0x96;
+            case '—': return 0x97;
+            default:
+                char base = baseLetter(ch);
+                return base < 0x80 ? base : '?';
+        }
+    }
+    
+    private static char baseLetter(char ch) {
+        String decomposed = Normalizer.normalize(String.valueOf(ch), Normalizer.Form.NFD);
+        return decomposed.isEmpty() ? '?' : decomposed.charAt(0);
+    }
+    
+    private void writeAscii(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            if (!buffer.hasRemaining()) {
+                flushBuffer();
+            }
+            buffer.put((byte) text.charAt(i));
+        }
+        position += text.length();
+    }
+    
+    private void writeDigits(long value, int width) throws IOException {
+        long divisor = 1;
+        for (int i = 1; i < width; i++) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            if (!buffer.hasRemaining()) {
+                flushBuffer();
+            }
+            buffer.put((byte) ('0' + value / divisor % 10));
+        }
+        position += width;
+    }
+    
+    private void writeBytes(byte[] bytes, int offset, int length) throws IOException {
+        int written = 0;
+        while (written < length) {
+            if (!buffer.hasRemaining()) {
+                flushBuffer();
+            }
+            int chunk = Math.min(buffer.remaining(), length - written);
+            buffer.put(bytes, offset + written, chunk);
+            written += chunk;
+        }
+        position += length;
+    }
+    
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
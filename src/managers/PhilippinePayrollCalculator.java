@@ -1,8 +1,19 @@
 package managers;
 
+import models.Money;
+import models.PayFrequency;
+
+import java.time.LocalDate;
+
 /**
  * Philippine Payroll Calculator utility class
  * Handles calculations specific to Philippine labor laws and regulations
+ * 
+ * SSS, PhilHealth and Pag-IBIG rates come from the effective-dated schedules in
+ * ContributionTableRegistry. Batch calculations should resolve a schedule once per
+ * period with ContributionTableRegistry.forDate rather than calling these per employee.
+ * Withholding tax likewise comes from the per-frequency tables in WithholdingTaxRegistry.
+ * Peso results are rounded half-up to the centavo (see Money).
  */
 public class PhilippinePayrollCalculator {
     
@@ -16,6 +27,7 @@ public class PhilippinePayrollCalculator {
     
     // Tax brackets (2024 TRAIN Law)
     public static final double TAX_EXEMPT_THRESHOLD = 250000.0; // Annual
+    public static final double THIRTEENTH_MONTH_EXEMPTION = 90000.0; // Annual cap on tax-exempt 13th-month pay and other benefits
     
     /**
      * Calculate overtime pay based on Philippine labor code
@@ -28,14 +40,14 @@ public class PhilippinePayrollCalculator {
         if (isHoliday) {
             if (isSpecialHoliday) {
                 // Special holiday overtime: 130% of hourly rate
-                return hourlyRate * 1.3 * overtimeHours;
+                return Money.round(hourlyRate * 1.3 * overtimeHours);
             } else {
                 // Regular holiday overtime: 200% of hourly rate
-                return hourlyRate * 2.0 * overtimeHours;
+                return Money.round(hourlyRate * 2.0 * overtimeHours);
             }
         } else {
             // Regular overtime: 125% of hourly rate
-            return hourlyRate * 1.25 * overtimeHours;
+            return Money.round(hourlyRate * 1.25 * overtimeHours);
         }
     }
     
@@ -46,156 +58,122 @@ public class PhilippinePayrollCalculator {
         if (isRegularHoliday) {
             if (workedOnHoliday) {
                 // Worked on regular holiday: 200% of daily rate
-                return dailyRate * 2.0;
+                return Money.round(dailyRate * 2.0);
             } else {
                 // Regular holiday (no work): 100% of daily rate
-                return dailyRate;
+                return Money.round(dailyRate);
             }
         } else {
             // Special holiday (worked): 130% of daily rate
             if (workedOnHoliday) {
-                return dailyRate * 1.3;
+                return Money.round(dailyRate * 1.3);
             }
         }
         return 0.0;
     }
     
+    /**
+     * Overtime pay for hours worked on a day classified by a HolidayCalendar
+     */
+    public static double calculateOvertimePay(double basicSalary, double overtimeHours, HolidayCalendar.DayType dayType) {
+        return calculateOvertimePay(basicSalary, overtimeHours, dayType.isHoliday(),
+                                    dayType == HolidayCalendar.DayType.SPECIAL_HOLIDAY);
+    }
+    
+    /**
+     * Holiday pay for a day classified by a HolidayCalendar; ordinary days earn none
+     */
+    public static double calculateHolidayPay(double dailyRate, HolidayCalendar.DayType dayType, boolean workedOnHoliday) {
+        if (!dayType.isHoliday()) {
+            return 0.0;
+        }
+        return calculateHolidayPay(dailyRate, dayType == HolidayCalendar.DayType.REGULAR_HOLIDAY, workedOnHoliday);
+    }
+    
     /**
      * Calculate night differential (minimum 10% of hourly rate)
      */
     public static double calculateNightDifferential(double basicSalary, double nightHours) {
         double hourlyRate = basicSalary / (STANDARD_WORKING_DAYS_PER_MONTH * STANDARD_WORKING_HOURS_PER_DAY);
-        return hourlyRate * 0.10 * nightHours; // 10% minimum night differential
+        return Money.round(hourlyRate * 0.10 * nightHours); // 10% minimum night differential
     }
     
     /**
-     * Calculate SSS contribution based on 2024 rates
+     * Calculate SSS contribution using the schedule in effect today
      */
     public static SSContribution calculateSSSContribution(double monthlySalary) {
-        // SSS contribution table (simplified - should be updated with actual table)
-        double totalContribution = 0.0;
-        double employeeShare = 0.0;
-        double employerShare = 0.0;
-        
-        if (monthlySalary <= 4000) {
-            totalContribution = 180.0;
-            employeeShare = 60.0;
-            employerShare = 120.0;
-        } else if (monthlySalary <= 4750) {
-            totalContribution = 247.50;
-            employeeShare = 82.50;
-            employerShare = 165.0;
-        } else if (monthlySalary <= 5500) {
-            totalContribution = 315.0;
-            employeeShare = 105.0;
-            employerShare = 210.0;
-        } else if (monthlySalary <= 6250) {
-            totalContribution = 382.50;
-            employeeShare = 127.50;
-            employerShare = 255.0;
-        } else if (monthlySalary <= 7000) {
-            totalContribution = 450.0;
-            employeeShare = 150.0;
-            employerShare = 300.0;
-        } else if (monthlySalary <= 7750) {
-            totalContribution = 517.50;
-            employeeShare = 172.50;
-            employerShare = 345.0;
-        } else if (monthlySalary <= 8500) {
-            totalContribution = 585.0;
-            employeeShare = 195.0;
-            employerShare = 390.0;
-        } else if (monthlySalary <= 9250) {
-            totalContribution = 652.50;
-            employeeShare = 217.50;
-            employerShare = 435.0;
-        } else if (monthlySalary <= 10000) {
-            totalContribution = 720.0;
-            employeeShare = 240.0;
-            employerShare = 480.0;
-        } else {
-            // Maximum contribution for salaries above 30,000
-            totalContribution = 1800.0;
-            employeeShare = 600.0;
-            employerShare = 1200.0;
-        }
-        
-        return new SSContribution(totalContribution, employeeShare, employerShare);
+        return calculateSSSContribution(monthlySalary, LocalDate.now());
+    }
+    
+    /**
+     * Calculate SSS contribution using the schedule in effect on a date
+     */
+    public static SSContribution calculateSSSContribution(double monthlySalary, LocalDate asOf) {
+        return ContributionTableRegistry.getDefault().forDate(asOf).sss(monthlySalary);
     }
     
     /**
-     * Calculate PhilHealth contribution based on 2024 rates
+     * Calculate PhilHealth contribution using the schedule in effect today
      */
     public static PhilHealthContribution calculatePhilHealthContribution(double monthlySalary) {
-        // PhilHealth contribution: 5% of monthly salary (split equally)
-        // Minimum: PHP 500, Maximum: PHP 5,000
-        double contributionBase = Math.min(Math.max(monthlySalary, 10000), 100000);
-        double totalContribution = contributionBase * 0.05;
-        
-        // Split equally between employer and employee
-        double employeeShare = totalContribution / 2;
-        double employerShare = totalContribution / 2;
-        
-        return new PhilHealthContribution(totalContribution, employeeShare, employerShare);
+        return calculatePhilHealthContribution(monthlySalary, LocalDate.now());
+    }
+    
+    /**
+     * Calculate PhilHealth contribution using the schedule in effect on a date
+     */
+    public static PhilHealthContribution calculatePhilHealthContribution(double monthlySalary, LocalDate asOf) {
+        return ContributionTableRegistry.getDefault().forDate(asOf).philHealth(monthlySalary);
     }
     
     /**
-     * Calculate Pag-IBIG contribution based on 2024 rates
+     * Calculate Pag-IBIG contribution using the schedule in effect today
      */
     public static PagIBIGContribution calculatePagIBIGContribution(double monthlySalary) {
-        double employeeRate = (monthlySalary <= 1500) ? 0.01 : 0.02; // 1% or 2%
-        double employeeShare = monthlySalary * employeeRate;
-        
-        // Employee share capped at PHP 100
-        employeeShare = Math.min(employeeShare, 100.0);
-        
-        // Employer matches employee contribution
-        double employerShare = employeeShare;
-        double totalContribution = employeeShare + employerShare;
-        
-        return new PagIBIGContribution(totalContribution, employeeShare, employerShare);
+        return calculatePagIBIGContribution(monthlySalary, LocalDate.now());
     }
     
     /**
-     * Calculate withholding tax based on TRAIN Law (2024)
+     * Calculate Pag-IBIG contribution using the schedule in effect on a date
+     */
+    public static PagIBIGContribution calculatePagIBIGContribution(double monthlySalary, LocalDate asOf) {
+        return ContributionTableRegistry.getDefault().forDate(asOf).pagIbig(monthlySalary);
+    }
+    
+    /**
+     * Calculate annual withholding tax using the table in effect today
      */
     public static double calculateWithholdingTax(double annualTaxableIncome) {
-        if (annualTaxableIncome <= 250000) {
-            return 0.0; // Tax exempt
-        } else if (annualTaxableIncome <= 400000) {
-            return (annualTaxableIncome - 250000) * 0.15; // 15%
-        } else if (annualTaxableIncome <= 800000) {
-            return 22500 + (annualTaxableIncome - 400000) * 0.20; // 20%
-        } else if (annualTaxableIncome <= 2000000) {
-            return 102500 + (annualTaxableIncome - 800000) * 0.25; // 25%
-        } else if (annualTaxableIncome <= 8000000) {
-            return 402500 + (annualTaxableIncome - 2000000) * 0.30; // 30%
-        } else {
-            return 2202500 + (annualTaxableIncome - 8000000) * 0.35; // 35%
-        }
+        return calculateWithholdingTax(annualTaxableIncome, PayFrequency.ANNUALLY, LocalDate.now());
     }
     
     /**
-     * Calculate monthly withholding tax
+     * Calculate monthly withholding tax using the table in effect today
      */
     public static double calculateMonthlyWithholdingTax(double monthlyTaxableIncome) {
-        double annualTaxableIncome = monthlyTaxableIncome * 12;
-        double annualTax = calculateWithholdingTax(annualTaxableIncome);
-        return annualTax / 12;
+        return calculateWithholdingTax(monthlyTaxableIncome, PayFrequency.MONTHLY, LocalDate.now());
+    }
+    
+    /**
+     * Calculate withholding tax on one pay period's taxable compensation, using the
+     * table for the pay frequency in effect on a date
+     */
+    public static double calculateWithholdingTax(double taxableCompensation, PayFrequency frequency, LocalDate asOf) {
+        return Money.round(WithholdingTaxRegistry.getDefault().getTable(frequency, asOf).taxOn(taxableCompensation));
     }
     
     /**
      * Calculate 13th month pay
      */
     public static double calculate13thMonthPay(double totalBasicSalaryForYear) {
-        return totalBasicSalaryForYear / 12;
+        return Money.of(totalBasicSalaryForYear).dividedBy(12, Money.DEFAULT_ROUNDING).doubleValue();
     }
     
     /**
      * Calculate Service Incentive Leave monetization
      */
     public static double calculateSILMonetization(double dailyRate, int unusedLeaveDays) {
-        return dailyRate * unusedLeaveDays;
+        return Money.of(dailyRate).times(unusedLeaveDays).doubleValue();
     }
     
     /**
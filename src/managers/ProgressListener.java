@@ -0,0 +1,19 @@
+package managers;
+
+/**
+ * Callback for long-running background jobs (imports, exports, payroll runs)
+ */
+@FunctionalInterface
+public interface ProgressListener {
+    /**
+     * Report progress of a job
+     * @param completed Number of items processed so far
+     * @param total Total number of items, or -1 if unknown (e.g. while streaming a file)
+     */
+    void onProgress(long completed, long total);
+
+    /**
+     * Listener that ignores all progress updates
+     */
+    ProgressListener NONE = (completed, total) -> { };
+}
@@ -0,0 +1,304 @@
+package managers;
+
+import models.Employee;
+import models.Money;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Layout of a monthly contribution remittance file for one government agency: a header naming the
+ * employer and the applicable month, one record per member with the employee and employer shares,
+ * and a trailer with the record count and contribution totals.
+ *
+ * Records are written as they arrive, like a {@link DisbursementFormat}, so a format only ever sees
+ * one entry; the batch passed to the trailer holds the totals of every entry written.
+ */
+public interface RemittanceFormat {
+    /**
+     * Agencies contributions are remitted to, with the member number each one identifies employees by
+     */
+    enum Agency {
+        SSS("SSS", "SSS number"),
+        PHILHEALTH("PhilHealth", "PhilHealth number"),
+        PAGIBIG("Pag-IBIG", "Pag-IBIG number");
+        
+        private final String displayName;
+        private final String memberNumberName;
+        
+        Agency(String displayName, String memberNumberName) {
+            this.displayName = displayName;
+            this.memberNumberName = memberNumberName;
+        }
+        
+        public String getDisplayName() { return displayName; }
+        
+        /**
+         * Name of the member number, e.g. "SSS number"
+         */
+        public String getMemberNumberName() { return memberNumberName; }
+        
+        /**
+         * The employee's member number with this agency, or an empty string
+         */
+        public String memberNumber(Employee employee) {
+            String number;
+            switch (this) {
+                case SSS: number = employee.getSssNumber(); break;
+                case PHILHEALTH: number = employee.getPhilHealthNumber(); break;
+                default: number = employee.getPagIbigNumber(); break;
+            }
+            return number != null ? number.trim() : "";
+        }
+    }
+    
+    Agency getAgency();
+    
+    /**
+     * Name of the format, e.g. "SSS R-3"
+     */
+    String getName();
+    
+    /**
+     * File name extension, without the dot
+     */
+    String getExtension();
+    
+    Charset getCharset();
+    
+    String getLineSeparator();
+    
+    void writeHeader(DisbursementWriter out, Batch batch) throws IOException;
+    
+    void writeEntry(DisbursementWriter out, Batch batch, Entry entry) throws IOException;
+    
+    void writeTrailer(DisbursementWriter out, Batch batch) throws IOException;
+    
+    /**
+     * SSS contribution collection list modelled on the R-3 file: 80-character records in US-ASCII with
+     * CRLF line ends; amounts are in centavos, zero-filled on the left, text is space-filled on the right:
+     *
+     * <pre>
+     * Header   1-2 '00'  3-12 employer number  13-42 employer name  43-48 applicable month MMyyyy
+     * Detail   1-2 '20'  3-12 SS number  13-32 last name  33-52 first name  53-61 employee share
+     *          62-70 employer share  71-80 employee ID
+     * Trailer  1-2 '99'  3-8 record count  9-23 employee share total  24-38 employer share total
+     *          39-53 grand total
+     * </pre>
+     */
+    static RemittanceFormat sssR3() {
+        return new FixedWidth(Agency.SSS, "SSS R-3");
+    }
+    
+    /**
+     * PhilHealth remittance report modelled on the RF-1 upload, UTF-8 CSV with LF line ends:
+     *
+     * <pre>
+     * RF1,employer number,employer name,yyyy-MM
+     * PIN,last name,first name,employee ID,personal share,employer share,total
+     * TOTAL,record count,personal share total,employer share total,grand total
+     * </pre>
+     *
+     * Amounts are in pesos with two decimals.
+     */
+    static RemittanceFormat philHealthRf1() {
+        return new Csv(Agency.PHILHEALTH, "PhilHealth RF-1", "RF1", "rf1");
+    }
+    
+    /**
+     * Pag-IBIG member contribution remittance form modelled on the MCRF upload, in the same CSV layout
+     * as {@link #philHealthRf1()} with an MCRF header tag and the MID number in the first column
+     */
+    static RemittanceFormat pagIbigMcrf() {
+        return new Csv(Agency.PAGIBIG, "Pag-IBIG MCRF", "MCRF", "mcrf");
+    }
+    
+    /**
+     * One agency's remittance for one month, with running contribution totals
+     */
+    final class Batch {
+        private final Agency agency;
+        private final String employerNumber;
+        private final String employerName;
+        private final YearMonth period;
+        private long recordCount;
+        private long employeeShareCentavos;
+        private long employerShareCentavos;
+        
+        public Batch(Agency agency, String employerNumber, String employerName, YearMonth period) {
+            this.agency = agency;
+            this.employerNumber = employerNumber != null ? employerNumber : "";
+            this.employerName = employerName != null ? employerName : "";
+            this.period = period;
+        }
+        
+        /**
+         * Count an entry into the totals
+         */
+        void add(Entry entry) {
+            recordCount++;
+            employeeShareCentavos += entry.getEmployeeShareCentavos();
+            employerShareCentavos += entry.getEmployerShareCentavos();
+        }
+        
+        public Agency getAgency() { return agency; }
+        public String getEmployerNumber() { return employerNumber; }
+        public String getEmployerName() { return employerName; }
+        public YearMonth getPeriod() { return period; }
+        public long getRecordCount() { return recordCount; }
+        public long getEmployeeShareCentavos() { return employeeShareCentavos; }
+        public long getEmployerShareCentavos() { return employerShareCentavos; }
+        public long getTotalCentavos() { return employeeShareCentavos + employerShareCentavos; }
+        public Money getTotalAmount() { return Money.ofCentavos(getTotalCentavos()); }
+    }
+    
+    /**
+     * One member's contributions for the month
+     */
+    final class Entry {
+        private final long sequence;
+        private final String employeeId;
+        private final String memberNumber;
+        private final String lastName;
+        private final String firstName;
+        private final long employeeShareCentavos;
+        private final long employerShareCentavos;
+        
+        public Entry(long sequence, String employeeId, String memberNumber, String lastName, String firstName,
+                     long employeeShareCentavos, long employerShareCentavos) {
+            this.sequence = sequence;
+            this.employeeId = employeeId;
+            this.memberNumber = memberNumber;
+            this.lastName = lastName;
+            this.firstName = firstName;
+            this.employeeShareCentavos = employeeShareCentavos;
+            this.employerShareCentavos = employerShareCentavos;
+        }
+        
+        public long getSequence() { return sequence; }
+        public String getEmployeeId() { return employeeId; }
+        public String getMemberNumber() { return memberNumber; }
+        public String getLastName() { return lastName; }
+        public String getFirstName() { return firstName; }
+        public long getEmployeeShareCentavos() { return employeeShareCentavos; }
+        public long getEmployerShareCentavos() { return employerShareCentavos; }
+        public long getTotalCentavos() { return employeeShareCentavos + employerShareCentavos; }
+    }
+    
+    /**
+     * See {@link RemittanceFormat#philHealthRf1()}
+     */
+    class Csv implements RemittanceFormat {
+        private final Agency agency;
+        private final String name;
+        private final String headerTag;
+        private final String fileSuffix;
+        
+        public Csv(Agency agency, String name, String headerTag, String fileSuffix) {
+            this.agency = agency;
+            this.name = name;
+            this.headerTag = headerTag;
+            this.fileSuffix = fileSuffix;
+        }
+        
+        @Override public Agency getAgency() { return agency; }
+        @Override public String getName() { return name; }
+        @Override public String getExtension() { return fileSuffix + ".csv"; }
+        @Override public Charset getCharset() { return StandardCharsets.UTF_8; }
+        @Override public String getLineSeparator() { return "\n"; }
+        
+        @Override
+        public void writeHeader(DisbursementWriter out, Batch batch) throws IOException {
+            out.write(headerTag).write(',')
+               .write(CsvWriter.escape(batch.getEmployerNumber())).write(',')
+               .write(CsvWriter.escape(batch.getEmployerName())).write(',')
+               .write(batch.getPeriod().toString()).endRecord();
+        }
+        
+        @Override
+        public void writeEntry(DisbursementWriter out, Batch batch, Entry entry) throws IOException {
+            out.write(CsvWriter.escape(entry.getMemberNumber())).write(',')
+               .write(CsvWriter.escape(entry.getLastName())).write(',')
+               .write(CsvWriter.escape(entry.getFirstName())).write(',')
+               .write(CsvWriter.escape(entry.getEmployeeId())).write(',')
+               .write(pesos(entry.getEmployeeShareCentavos())).write(',')
+               .write(pesos(entry.getEmployerShareCentavos())).write(',')
+               .write(pesos(entry.getTotalCentavos())).endRecord();
+        }
+        
+        @Override
+        public void writeTrailer(DisbursementWriter out, Batch batch) throws IOException {
+            out.write("TOTAL,").write(Long.toString(batch.getRecordCount())).write(',')
+               .write(pesos(batch.getEmployeeShareCentavos())).write(',')
+               .write(pesos(batch.getEmployerShareCentavos())).write(',')
+               .write(pesos(batch.getTotalCentavos())).endRecord();
+        }
+        
+        private static String pesos(long centavos) {
+            return BigDecimal.valueOf(centavos, 2).toPlainString();
+        }
+    }
+    
+    /**
+     * See {@link RemittanceFormat#sssR3()}
+     */
+    class FixedWidth implements RemittanceFormat {
+        public static final int RECORD_LENGTH = 80;
+        private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("MMyyyy");
+        
+        private final Agency agency;
+        private final String name;
+        
+        public FixedWidth(Agency agency, String name) {
+            this.agency = agency;
+            this.name = name;
+        }
+        
+        @Override public Agency getAgency() { return agency; }
+        @Override public String getName() { return name; }
+        @Override public String getExtension() { return "r3.txt"; }
+        @Override public Charset getCharset() { return StandardCharsets.US_ASCII; }
+        @Override public String getLineSeparator() { return "\r\n"; }
+        
+        @Override
+        public void writeHeader(DisbursementWriter out, Batch batch) throws IOException {
+            out.write("00")
+               .writeDigits(batch.getEmployerNumber(), 10)
+               .writeLeft(upper(batch.getEmployerName()), 30)
+               .write(batch.getPeriod().format(MONTH))
+               .pad(' ', RECORD_LENGTH - 48)
+               .endRecord();
+        }
+        
+        @Override
+        public void writeEntry(DisbursementWriter out, Batch batch, Entry entry) throws IOException {
+            out.write("20")
+               .writeDigits(entry.getMemberNumber(), 10)
+               .writeLeft(upper(entry.getLastName()), 20)
+               .writeLeft(upper(entry.getFirstName()), 20)
+               .writeNumber(entry.getEmployeeShareCentavos(), 9)
+               .writeNumber(entry.getEmployerShareCentavos(), 9)
+               .writeLeft(entry.getEmployeeId(), 10)
+               .endRecord();
+        }
+        
+        @Override
+        public void writeTrailer(DisbursementWriter out, Batch batch) throws IOException {
+            out.write("99")
+               .writeNumber(batch.getRecordCount(), 6)
+               .writeNumber(batch.getEmployeeShareCentavos(), 15)
+               .writeNumber(batch.getEmployerShareCentavos(), 15)
+               .writeNumber(batch.getTotalCentavos(), 15)
+               .pad(' ', RECORD_LENGTH - 53)
+               .endRecord();
+        }
+        
+        private static String upper(String text) {
+            return text != null ? text.toUpperCase() : "";
+        }
+    }
+}
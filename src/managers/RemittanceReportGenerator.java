@@ -0,0 +1,414 @@
+package managers;
+
+import models.Employee;
+import models.Money;
+import models.Payroll;
+import database.DatabaseDAO;
+import database.MySQLDatabaseDAO;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes the monthly SSS, PhilHealth and Pag-IBIG contribution remittance files from finalized payrolls.
+ *
+ * Employees' member numbers are loaded once; the month's payrolls are then streamed from the database
+ * in employee order in a single pass. The employee and employer shares of each employee's payrolls
+ * are summed as they arrive, and when the next employee starts the sums are written to each agency's
+ * file, so memory use does not grow with the number of employees. Each file ends with the record
+ * count and the employee share, employer share and grand totals to remit.
+ *
+ * Only FINALIZED payrolls are counted. An employee without a member number for an agency is left out
+ * of that agency's file, since the agency cannot post the contribution, and counted in the result
+ * by reason together with the amount held back.
+ *
+ * The employer number and name written in each file's header come from {@code employers.csv} in the
+ * remittance directory, which also holds the employer's BIR TIN for the year-end certificates:
+ *
+ * <pre>
+ * agency,employer_number,employer_name
+ * SSS,0312345678,Example Company Inc.
+ * BIR,123-456-789-000,Example Company Inc.
+ * </pre>
+ */
+public class RemittanceReportGenerator {
+    public static final String DEFAULT_DIRECTORY = System.getProperty("payroll.remittance.dir", "config/remittance");
+    public static final String EMPLOYERS_FILE = "employers.csv";
+    static final String BIR = "BIR";
+    public static final int PROGRESS_INTERVAL = 1000;
+    
+    static final String SKIP_NOT_FINALIZED = "Not finalized";
+    static final String SKIP_UNKNOWN_EMPLOYEE = "Unknown employee";
+    
+    private static final RemittanceFormat.Agency[] AGENCIES = RemittanceFormat.Agency.values();
+    
+    private final DatabaseDAO databaseDAO;
+    private final PayrollManager payrollManager;
+    private final Map<RemittanceFormat.Agency, RemittanceFormat> formats = new EnumMap<>(RemittanceFormat.Agency.class);
+    private final Map<String, String[]> employers;
+    
+    public RemittanceReportGenerator(PayrollManager payrollManager) {
+        this(new MySQLDatabaseDAO(), payrollManager);
+    }
+    
+    /**
+     * @param payrollManager Flushed before reading so that payrolls just finalized are included; may be null
+     */
+    public RemittanceReportGenerator(DatabaseDAO databaseDAO, PayrollManager payrollManager) {
+        this.databaseDAO = databaseDAO;
+        this.payrollManager = payrollManager;
+        setFormat(RemittanceFormat.sssR3());
+        setFormat(RemittanceFormat.philHealthRf1());
+        setFormat(RemittanceFormat.pagIbigMcrf());
+        this.employers = loadEmployers(Paths.get(DEFAULT_DIRECTORY));
+    }
+    
+    /**
+     * Use another layout for the format's agency
+     */
+    public void setFormat(RemittanceFormat format) {
+        formats.put(format.getAgency(), format);
+    }
+    
+    /**
+     * Set the employer number and name written in an agency's file header
+     */
+    public void setEmployer(RemittanceFormat.Agency agency, String employerNumber, String employerName) {
+        employers.put(agency.name(), new String[] {employerNumber, employerName});
+    }
+    
+    /**
+     * Read employer numbers and names from a directory's employers.csv, keyed by agency name (SSS,
+     * PHILHEALTH, PAGIBIG or BIR). Lines that cannot be parsed are reported and skipped; a missing file
+     * leaves every header without an employer.
+     */
+    static Map<String, String[]> loadEmployers(Path directory) {
+        Map<String, String[]> employers = new HashMap<>();
+        Path file = directory.resolve(EMPLOYERS_FILE);
+        if (!Files.isRegularFile(file)) {
+            return employers;
+        }
+        try {
+            int lineNumber = 0;
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                lineNumber++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#") || trimmed.toLowerCase(Locale.ROOT).startsWith("agency,")) {
+                    continue;
+                }
+                String[] fields = trimmed.split(",", 3);
+                String agency = fields[0].trim().toUpperCase(Locale.ROOT).replace("-", "");
+                if (!BIR.equals(agency) && !isAgency(agency)) {
+                    System.err.println("Error loading " + file + " line " + lineNumber + ": unknown agency " + fields[0].trim());
+                    continue;
+                }
+                employers.put(agency, new String[] {fields.length > 1 ? fields[1].trim() : "",
+                                                    fields.length > 2 ? fields[2].trim() : ""});
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading remittance employers from " + file + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+        return employers;
+    }
+    
+    private static boolean isAgency(String name) {
+        for (RemittanceFormat.Agency agency : AGENCIES) {
+            if (agency.name().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Write one remittance file per agency for a payroll month into a directory, named
+     * {@code <yyyy-MM>-<agency>-<form>.<ext>}. Existing files of the same name are overwritten.
+     * @param listener Progress callback, invoked every PROGRESS_INTERVAL payrolls (total is unknown, -1)
+     */
+    public Result generate(YearMonth period, Path directory, ProgressListener listener) throws IOException {
+        ProgressListener progress = listener != null ? listener : ProgressListener.NONE;
+        long startTime = System.currentTimeMillis();
+        Result result = new Result(period);
+        
+        if (payrollManager != null && !payrollManager.flush()) {
+            throw new IOException("Could not save pending payroll changes before reading " + period);
+        }
+        Files.createDirectories(directory);
+        
+        // The payroll stream holds the connection, so member numbers are read before it starts
+        Map<Integer, Employee> employees = new HashMap<>();
+        for (Employee employee : databaseDAO.getAllEmployees()) {
+            employees.put(employee.getEmployeeId(), employee);
+        }
+        
+        OpenFile[] files = new OpenFile[AGENCIES.length];
+        boolean completed = false;
+        try {
+            for (RemittanceFormat.Agency agency : AGENCIES) {
+                files[agency.ordinal()] = openFile(agency, period, directory);
+            }
+            Accumulator accumulator = new Accumulator(files, result);
+            long streamed = databaseDAO.streamPayrollByPeriod(Date.valueOf(period.atDay(1)), Date.valueOf(period.atEndOfMonth()),
+                payroll -> {
+                    try {
+                        accumulator.add(payroll, employees);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    if (++result.payrollsRead % PROGRESS_INTERVAL == 0) {
+                        progress.onProgress(result.payrollsRead, -1);
+                    }
+                });
+            if (streamed < 0) {
+                throw new IOException("Database error while reading " + period + " payrolls after " + result.payrollsRead + " rows");
+            }
+            accumulator.finishEmployee();
+            for (OpenFile file : files) {
+                file.format.writeTrailer(file.writer, file.batch);
+            }
+            completed = true;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            closeAll(files, completed);
+        }
+        
+        for (OpenFile file : files) {
+            result.files.add(new AgencyFile(file.path, file.format.getName(), file.batch));
+        }
+        progress.onProgress(result.payrollsRead, result.payrollsRead);
+        result.elapsedMillis = System.currentTimeMillis() - startTime;
+        return result;
+    }
+    
+    private OpenFile openFile(RemittanceFormat.Agency agency, YearMonth period, Path directory) throws IOException {
+        RemittanceFormat format = formats.get(agency);
+        String[] employer = employers.getOrDefault(agency.name(), new String[] {"", ""});
+        Path path = directory.resolve(period + "-" + agency.name().toLowerCase(Locale.ROOT) + "-" + format.getExtension());
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                               StandardOpenOption.WRITE);
+        OpenFile file = new OpenFile(path, format, new DisbursementWriter(channel, format.getCharset(), format.getLineSeparator()),
+                                     new RemittanceFormat.Batch(agency, employer[0], employer[1], period));
+        format.writeHeader(file.writer, file.batch);
+        return file;
+    }
+    
+    /**
+     * Close every file; if generation failed part way, delete them so no incomplete file is uploaded
+     */
+    private static void closeAll(OpenFile[] files, boolean completed) throws IOException {
+        IOException failure = null;
+        for (OpenFile file : files) {
+            if (file == null) {
+                continue;
+            }
+            try {
+                file.writer.close();
+            } catch (IOException e) {
+                failure = failure != null ? failure : e;
+            }
+            if (!completed || failure != null) {
+                Files.deleteIfExists(file.path);
+            }
+        }
+        if (failure != null && completed) {
+            throw failure;
+        }
+    }
+    
+    /**
+     * Sums the shares of the employee whose payrolls are being read, and writes them out when the
+     * stream moves on to the next employee. Shares are indexed by agency ordinal.
+     */
+    private static final class Accumulator {
+        private final OpenFile[] files;
+        private final Result result;
+        private final long[] employeeShares = new long[AGENCIES.length];
+        private final long[] employerShares = new long[AGENCIES.length];
+        private Employee current;
+        
+        Accumulator(OpenFile[] files, Result result) {
+            this.files = files;
+            this.result = result;
+        }
+        
+        void add(Payroll payroll, Map<Integer, Employee> employees) throws IOException {
+            if (!payroll.isFinalized()) {
+                result.skip(SKIP_NOT_FINALIZED, 0);
+                return;
+            }
+            if (current == null || current.getEmployeeId() != payroll.getEmployeeId()) {
+                finishEmployee();
+                current = employees.get(payroll.getEmployeeId());
+                if (current == null) {
+                    result.skip(SKIP_UNKNOWN_EMPLOYEE, payroll.getEmployeeContributionsAmount().getCentavos()
+                                                       + payroll.getEmployerContributionsAmount().getCentavos());
+                    return;
+                }
+            }
+            employeeShares[RemittanceFormat.Agency.SSS.ordinal()] += Money.toCentavos(payroll.getSssContribution());
+            employerShares[RemittanceFormat.Agency.SSS.ordinal()] += Money.toCentavos(payroll.getSssEmployerContribution());
+            employeeShares[RemittanceFormat.Agency.PHILHEALTH.ordinal()] += Money.toCentavos(payroll.getPhilHealthContribution());
+            employerShares[RemittanceFormat.Agency.PHILHEALTH.ordinal()] += Money.toCentavos(payroll.getPhilHealthEmployerContribution());
+            employeeShares[RemittanceFormat.Agency.PAGIBIG.ordinal()] += Money.toCentavos(payroll.getPagIbigContribution());
+            employerShares[RemittanceFormat.Agency.PAGIBIG.ordinal()] += Money.toCentavos(payroll.getPagIbigEmployerContribution());
+        }
+        
+        /**
+         * Write the current employee's summed shares to each agency's file that is owed something
+         */
+        void finishEmployee() throws IOException {
+            if (current == null) {
+                return;
+            }
+            String employeeId = String.format("EMP%03d", current.getEmployeeId());
+            for (RemittanceFormat.Agency agency : AGENCIES) {
+                int i = agency.ordinal();
+                long employeeShare = employeeShares[i];
+                long employerShare = employerShares[i];
+                employeeShares[i] = 0;
+                employerShares[i] = 0;
+                if (employeeShare == 0 && employerShare == 0) {
+                    continue;
+                }
+                String memberNumber = agency.memberNumber(current);
+                if (memberNumber.isEmpty()) {
+                    result.skip("No " + agency.getMemberNumberName(), employeeShare + employerShare);
+                    continue;
+                }
+                OpenFile file = files[i];
+                RemittanceFormat.Entry entry = new RemittanceFormat.Entry(
+                    file.batch.getRecordCount() + 1, employeeId, memberNumber, current.getLastName(), current.getFirstName(),
+                    employeeShare, employerShare);
+                file.batch.add(entry);
+                file.format.writeEntry(file.writer, file.batch, entry);
+            }
+            result.employees++;
+            current = null;
+        }
+    }
+    
+    private static final class OpenFile {
+        final Path path;
+        final RemittanceFormat format;
+        final DisbursementWriter writer;
+        final RemittanceFormat.Batch batch;
+        
+        OpenFile(Path path, RemittanceFormat format, DisbursementWriter writer, RemittanceFormat.Batch batch) {
+            this.path = path;
+            this.format = format;
+            this.writer = writer;
+            this.batch = batch;
+        }
+    }
+    
+    /**
+     * One agency's file with its contribution totals
+     */
+    public static final class AgencyFile {
+        private final Path path;
+        private final String format;
+        private final RemittanceFormat.Agency agency;
+        private final long records;
+        private final long employeeShareCentavos;
+        private final long employerShareCentavos;
+        
+        AgencyFile(Path path, String format, RemittanceFormat.Batch batch) {
+            this.path = path;
+            this.format = format;
+            this.agency = batch.getAgency();
+            this.records = batch.getRecordCount();
+            this.employeeShareCentavos = batch.getEmployeeShareCentavos();
+            this.employerShareCentavos = batch.getEmployerShareCentavos();
+        }
+        
+        public Path getPath() { return path; }
+        public String getFormat() { return format; }
+        public RemittanceFormat.Agency getAgency() { return agency; }
+        public long getRecords() { return records; }
+        public Money getEmployeeShare() { return Money.ofCentavos(employeeShareCentavos); }
+        public Money getEmployerShare() { return Money.ofCentavos(employerShareCentavos); }
+        public Money getTotalAmount() { return Money.ofCentavos(employeeShareCentavos + employerShareCentavos); }
+        
+        @Override
+        public String toString() {
+            return String.format("%s (%s): %d members, EE %s, ER %s, total %s", agency.getDisplayName(), format, records,
+                                 getEmployeeShare().format(), getEmployerShare().format(), getTotalAmount().format());
+        }
+    }
+    
+    /**
+     * Files written for one payroll month and the contributions left out of them
+     */
+    public static class Result {
+        private final YearMonth period;
+        private final List<AgencyFile> files = new ArrayList<>();
+        private final Map<String, Long> skipped = new TreeMap<>();
+        private final Map<String, Long> skippedCentavos = new TreeMap<>();
+        private long payrollsRead;
+        private long employees;
+        private long elapsedMillis;
+        
+        Result(YearMonth period) {
+            this.period = period;
+        }
+        
+        void skip(String reason, long centavos) {
+            skipped.merge(reason, 1L, Long::sum);
+            skippedCentavos.merge(reason, centavos, Long::sum);
+        }
+        
+        public YearMonth getPeriod() { return period; }
+        public List<AgencyFile> getFiles() { return Collections.unmodifiableList(files); }
+        public long getPayrollsRead() { return payrollsRead; }
+        
+        /**
+         * Employees with finalized payrolls in the month
+         */
+        public long getEmployees() { return employees; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        
+        /**
+         * Payrolls or member contributions not remitted, counted by reason
+         */
+        public Map<String, Long> getSkipped() { return Collections.unmodifiableMap(skipped); }
+        
+        /**
+         * Employee and employer shares not remitted, by reason
+         */
+        public Money getSkippedAmount(String reason) {
+            return Money.ofCentavos(skippedCentavos.getOrDefault(reason, 0L));
+        }
+        
+        public Money getTotalAmount() {
+            Money total = Money.ZERO;
+            for (AgencyFile file : files) {
+                total = total.plus(file.getTotalAmount());
+            }
+            return total;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("Remittance %s: %d payrolls read, %d employees, %d files, %s, skipped %s in %d ms",
+                                 period, payrollsRead, employees, files.size(), getTotalAmount().format(), skipped, elapsedMillis);
+        }
+    }
+}
@@ -3,26 +3,74 @@ package managers;
 import models.SalaryComponent;
 import models.EmployeeSalaryComponent;
 import models.Employee;
+import models.Money;
+import models.PayFrequency;
 import database.DatabaseDAO;
 import database.MySQLDatabaseDAO;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
  * Manages salary components and employee salary component assignments
+ *
+ * An employee's component amounts are worked out in one pass over their assignments into an immutable
+ * ComponentBreakdown, cached by employee, base salary and as-of date. The totals, breakdown map and
+ * payroll calculation methods all read from it. Cached breakdowns are dropped when a component or one
+ * of the employee's assignments is changed through this manager, or the employee's hire date through
+ * an EmployeeManager the {@link #getCacheInvalidator cache invalidator} is registered with.
  */
 public class SalaryComponentManager {
+    private static final int MAX_CACHED_BREAKDOWNS_PER_EMPLOYEE = 16;
+    
     private DatabaseDAO databaseDAO;
     
+    private final List<CompensationChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    private final CompensationChangeListener cacheInvalidator = new BreakdownCacheInvalidator();
+    
+    // Cached breakdowns per employee, and the employee of each assignment seen while calculating them
+    private final ConcurrentHashMap<Integer, ConcurrentHashMap<BreakdownKey, ComponentBreakdown>> breakdownCache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Integer> assignmentEmployees = new ConcurrentHashMap<>();
+    private final AtomicLong cacheGeneration = new AtomicLong();
+    
     public SalaryComponentManager() {
-        this.databaseDAO = new MySQLDatabaseDAO();
+        this(new MySQLDatabaseDAO());
     }
     
     public SalaryComponentManager(DatabaseDAO databaseDAO) {
         this.databaseDAO = databaseDAO;
+        // Registered first, so the cache is invalidated before any other listener reacts to a change
+        changeListeners.add(cacheInvalidator);
+    }
+    
+    /**
+     * Listener dropping cached breakdowns, for changes saved elsewhere: register it with the
+     * EmployeeManager, ahead of listeners that read breakdowns, so a new hire date is used
+     */
+    public CompensationChangeListener getCacheInvalidator() {
+        return cacheInvalidator;
+    }
+    
+    /**
+     * Be told about saved changes to components and assignments, e.g. to recalculate draft payrolls
+     */
+    public void addChangeListener(CompensationChangeListener listener) {
+        changeListeners.add(listener);
+    }
+    
+    public void removeChangeListener(CompensationChangeListener listener) {
+        changeListeners.remove(listener);
     }
     
     // Salary Component Management
@@ -46,6 +94,7 @@ public class SalaryComponentManager {
     
     public boolean addSalaryComponent(SalaryComponent component) {
         try {
+            SalaryFormula.validate(component);
             return databaseDAO.insertSalaryComponent(component);
         } catch (Exception e) {
             e.printStackTrace();
@@ -55,7 +104,14 @@ public class SalaryComponentManager {
     
     public boolean updateSalaryComponent(SalaryComponent component) {
         try {
-            return databaseDAO.updateSalaryComponent(component);
+            SalaryFormula.validate(component);
+            boolean updated = databaseDAO.updateSalaryComponent(component);
+            if (updated) {
+                for (CompensationChangeListener listener : changeListeners) {
+                    listener.salaryComponentChanged(component.getId());
+                }
+            }
+            return updated;
         } catch (Exception e) {
             e.printStackTrace();
             return false;
@@ -64,7 +120,13 @@ public class SalaryComponentManager {
     
     public boolean deleteSalaryComponent(int id) {
         try {
-            return databaseDAO.deleteSalaryComponent(id);
+            boolean deleted = databaseDAO.deleteSalaryComponent(id);
+            if (deleted) {
+                for (CompensationChangeListener listener : changeListeners) {
+                    listener.salaryComponentChanged(id);
+                }
+            }
+            return deleted;
         } catch (Exception e) {
             e.printStackTrace();
             return false;
@@ -83,7 +145,13 @@ public class SalaryComponentManager {
     
     public boolean addEmployeeSalaryComponent(EmployeeSalaryComponent empComponent) {
         try {
-            return databaseDAO.insertEmployeeSalaryComponent(empComponent);
+            boolean inserted = databaseDAO.insertEmployeeSalaryComponent(empComponent);
+            if (inserted) {
+                for (CompensationChangeListener listener : changeListeners) {
+                    listener.employeeComponentChanged(empComponent);
+                }
+            }
+            return inserted;
         } catch (Exception e) {
             e.printStackTrace();
             return false;
@@ -92,7 +160,13 @@ public class SalaryComponentManager {
     
     public boolean updateEmployeeSalaryComponent(EmployeeSalaryComponent empComponent) {
         try {
-            return databaseDAO.updateEmployeeSalaryComponent(empComponent);
+            boolean updated = databaseDAO.updateEmployeeSalaryComponent(empComponent);
+            if (updated) {
+                for (CompensationChangeListener listener : changeListeners) {
+                    listener.employeeComponentChanged(empComponent);
+                }
+            }
+            return updated;
         } catch (Exception e) {
             e.printStackTrace();
             return false;
@@ -101,7 +175,13 @@ public class SalaryComponentManager {
     
     public boolean deleteEmployeeSalaryComponent(int id) {
         try {
-            return databaseDAO.deleteEmployeeSalaryComponent(id);
+            boolean deleted = databaseDAO.deleteEmployeeSalaryComponent(id);
+            if (deleted) {
+                for (CompensationChangeListener listener : changeListeners) {
+                    listener.employeeComponentRemoved(id);
+                }
+            }
+            return deleted;
         } catch (Exception e) {
             e.printStackTrace();
             return false;
@@ -110,58 +190,128 @@ public class SalaryComponentManager {
     
     // Payroll Calculation Methods
     public PayrollCalculationResult calculatePayroll(Employee employee, BigDecimal baseSalary) {
-        List<EmployeeSalaryComponent> components = getEmployeeSalaryComponents(employee.getEmployeeIdString());
-        
-        BigDecimal totalEarnings = baseSalary;
-        BigDecimal totalDeductions = BigDecimal.ZERO;
-        BigDecimal totalAllowances = BigDecimal.ZERO;
-        BigDecimal totalBonuses = BigDecimal.ZERO;
+        return calculatePayroll(employee, Money.of(baseSalary));
+    }
+    
+    public PayrollCalculationResult calculatePayroll(Employee employee, Money baseSalary) {
+        ComponentBreakdown breakdown = getComponentBreakdown(employee.getEmployeeId(), baseSalary.getCentavos(), LocalDate.now());
+        return new PayrollCalculationResult(
+            baseSalary, breakdown.getTotalEarnings(), breakdown.getTotalDeductions(), 
+            breakdown.getTotalAllowances(), breakdown.getTotalBonuses(), breakdown.getNetPay(), 
+            breakdown.getEarningCalculations(), breakdown.getDeductionCalculations()
+        );
+    }
+    
+    /**
+     * Component amounts of an employee's assignments in effect today
+     */
+    public ComponentBreakdown getComponentBreakdown(int employeeId, double baseSalary) {
+        return getComponentBreakdown(employeeId, Money.toCentavos(baseSalary), LocalDate.now());
+    }
+    
+    /**
+     * Component amounts of an employee's assignments in effect on a date, calculated once per
+     * employee, base salary and date and then served from the cache
+     * @param baseSalary Base salary in centavos
+     */
+    public ComponentBreakdown getComponentBreakdown(int employeeId, long baseSalary, LocalDate asOf) {
+        BreakdownKey key = new BreakdownKey(baseSalary, asOf);
+        ConcurrentHashMap<BreakdownKey, ComponentBreakdown> cached = breakdownCache.get(employeeId);
+        ComponentBreakdown breakdown = cached != null ? cached.get(key) : null;
+        if (breakdown != null) {
+            return breakdown;
+        }
         
-        List<ComponentCalculation> earningCalculations = new ArrayList<>();
-        List<ComponentCalculation> deductionCalculations = new ArrayList<>();
+        long generation = cacheGeneration.get();
+        List<EmployeeSalaryComponent> assignments = getEmployeeSalaryComponents(String.format("EMP%03d", employeeId));
+        breakdown = ComponentBreakdown.calculate(baseSalary, asOf, assignments, hireDateIfNeeded(employeeId, assignments));
+        for (EmployeeSalaryComponent assignment : assignments) {
+            assignmentEmployees.put(assignment.getId(), employeeId);
+        }
+        if (cacheGeneration.get() != generation) {
+            // Something changed while the assignments were being read; do not cache what may be stale
+            return breakdown;
+        }
         
-        // Process each component
-        for (EmployeeSalaryComponent empComponent : components) {
-            if (!empComponent.isCurrentlyActive()) continue;
-            
-            SalaryComponent component = empComponent.getSalaryComponent();
-            if (component == null) continue;
-            
-            BigDecimal calculatedAmount = calculateComponentAmount(empComponent, baseSalary);
-            ComponentCalculation calc = new ComponentCalculation(component, calculatedAmount, empComponent.isPercentage());
-            
-            if (component.isEarning()) {
-                totalEarnings = totalEarnings.add(calculatedAmount);
-                earningCalculations.add(calc);
-                
-                if ("ALLOWANCE".equals(component.getType())) {
-                    totalAllowances = totalAllowances.add(calculatedAmount);
-                } else if ("BONUS".equals(component.getType())) {
-                    totalBonuses = totalBonuses.add(calculatedAmount);
-                }
-            } else if (component.isDeduction()) {
-                totalDeductions = totalDeductions.add(calculatedAmount);
-                deductionCalculations.add(calc);
+        cached = breakdownCache.computeIfAbsent(employeeId, id -> new ConcurrentHashMap<>());
+        if (cached.size() >= MAX_CACHED_BREAKDOWNS_PER_EMPLOYEE) {
+            // Old as-of dates and base salaries are rarely asked for again
+            cached.clear();
+        }
+        cached.put(key, breakdown);
+        if (cacheGeneration.get() != generation) {
+            cached.remove(key, breakdown);
+        }
+        return breakdown;
+    }
+    
+    /**
+     * The employee's hire date if one of the assignments has a formula that depends on tenure
+     */
+    private LocalDate hireDateIfNeeded(int employeeId, List<EmployeeSalaryComponent> assignments) {
+        for (EmployeeSalaryComponent assignment : assignments) {
+            SalaryFormula formula = SalaryFormula.forComponent(assignment.getSalaryComponent());
+            if (formula != null && formula.usesTenure()) {
+                Employee employee = databaseDAO.getEmployeeById(String.format("EMP%03d", employeeId));
+                return employee != null ? employee.getHireDate() : null;
             }
         }
-        
-        BigDecimal netPay = totalEarnings.subtract(totalDeductions);
-        
-        return new PayrollCalculationResult(
-            baseSalary, totalEarnings, totalDeductions, totalAllowances, 
-            totalBonuses, netPay, earningCalculations, deductionCalculations
-        );
+        return null;
+    }
+    
+    /**
+     * Amount of one assigned component in centavos: a fixed amount, or a percentage of the
+     * base salary rounded half-up to the centavo
+     */
+    static long calculateComponentAmount(EmployeeSalaryComponent empComponent, long baseSalaryCentavos) {
+        if (empComponent.getSalaryComponent() != null && empComponent.getSalaryComponent().hasFormula()) {
+            return calculateComponentAmount(empComponent, new FormulaContext().reset(baseSalaryCentavos, null, LocalDate.now()));
+        }
+        return fixedOrPercentageAmount(empComponent, baseSalaryCentavos);
+    }
+    
+    /**
+     * Amount of one assigned component in centavos for the employee loaded in a formula context, for
+     * the context's pay period. Components with a formula are evaluated with the assignment's amount as
+     * {@code amount} and the result rounded half-up to the centavo; others are a fixed amount or
+     * percentage of base salary. Monthly amounts are prorated to a shorter period, except that a formula
+     * reading the period's attendance is evaluated for the period, with base and a fixed amount prorated.
+     * @throws IllegalArgumentException if the formula is invalid or does not give a finite amount
+     */
+    static long calculateComponentAmount(EmployeeSalaryComponent empComponent, FormulaContext context) {
+        PayFrequency frequency = context.getFrequency();
+        SalaryFormula formula = SalaryFormula.forComponent(empComponent.getSalaryComponent());
+        if (formula == null) {
+            return PayrollBatchKernel.prorate(fixedOrPercentageAmount(empComponent, context.getBaseSalary()), frequency);
+        }
+        boolean forPeriod = frequency != PayFrequency.MONTHLY && formula.usesAttendance();
+        BigDecimal amount = empComponent.getCustomAmount();
+        double amountValue = amount != null ? amount.doubleValue() : 0;
+        if (forPeriod && !empComponent.isPercentage()) {
+            amountValue = amountValue * 12 / frequency.getPeriodsPerYear();
+        }
+        context.setAmount(amountValue).setPeriodBase(forPeriod);
+        double result = formula.evaluate(context);
+        if (Double.isNaN(result) || Double.isInfinite(result)) {
+            throw new IllegalArgumentException("Formula of " + empComponent.getSalaryComponent().getName()
+                                             + " did not give an amount: " + formula);
+        }
+        long centavos = Money.toCentavos(result);
+        return forPeriod ? centavos : PayrollBatchKernel.prorate(centavos, frequency);
     }
     
-    private BigDecimal calculateComponentAmount(EmployeeSalaryComponent empComponent, BigDecimal baseSalary) {
+    private static long fixedOrPercentageAmount(EmployeeSalaryComponent empComponent, long baseSalaryCentavos) {
         BigDecimal amount = empComponent.getCustomAmount();
+        if (amount == null) {
+            return 0;
+        }
         
         if (empComponent.isPercentage()) {
             // Calculate percentage of base salary
-            return baseSalary.multiply(amount).divide(BigDecimal.valueOf(100));
+            return Money.percentOf(baseSalaryCentavos, Money.toBasisPoints(amount), Money.DEFAULT_ROUNDING);
         } else {
             // Fixed amount
-            return amount;
+            return Money.toCentavos(amount, Money.DEFAULT_ROUNDING);
         }
     }
     
@@ -208,72 +358,19 @@ public class SalaryComponentManager {
     }
     
     public double calculateTotalAllowances(int employeeId, double baseSalary) {
-        String employeeIdStr = String.format("EMP%03d", employeeId);
-        List<EmployeeSalaryComponent> components = getEmployeeSalaryComponents(employeeIdStr);
-        
-        double total = 0.0;
-        for (EmployeeSalaryComponent empComponent : components) {
-            if (empComponent.isCurrentlyActive() && empComponent.getSalaryComponent() != null) {
-                SalaryComponent component = empComponent.getSalaryComponent();
-                if ("ALLOWANCE".equals(component.getType())) {
-                    BigDecimal amount = calculateComponentAmount(empComponent, BigDecimal.valueOf(baseSalary));
-                    total += amount.doubleValue();
-                }
-            }
-        }
-        return total;
+        return getComponentBreakdown(employeeId, baseSalary).getTotalAllowances().doubleValue();
     }
     
     public double calculateTotalDeductions(int employeeId, double baseSalary) {
-        String employeeIdStr = String.format("EMP%03d", employeeId);
-        List<EmployeeSalaryComponent> components = getEmployeeSalaryComponents(employeeIdStr);
-        
-        double total = 0.0;
-        for (EmployeeSalaryComponent empComponent : components) {
-            if (empComponent.isCurrentlyActive() && empComponent.getSalaryComponent() != null) {
-                SalaryComponent component = empComponent.getSalaryComponent();
-                if ("DEDUCTION".equals(component.getType())) {
-                    BigDecimal amount = calculateComponentAmount(empComponent, BigDecimal.valueOf(baseSalary));
-                    total += amount.doubleValue();
-                }
-            }
-        }
-        return total;
+        return getComponentBreakdown(employeeId, baseSalary).getTotalDeductions().doubleValue();
     }
     
     public double calculateTotalBonuses(int employeeId, double baseSalary) {
-        String employeeIdStr = String.format("EMP%03d", employeeId);
-        List<EmployeeSalaryComponent> components = getEmployeeSalaryComponents(employeeIdStr);
-        
-        double total = 0.0;
-        for (EmployeeSalaryComponent empComponent : components) {
-            if (empComponent.isCurrentlyActive() && empComponent.getSalaryComponent() != null) {
-                SalaryComponent component = empComponent.getSalaryComponent();
-                if ("BONUS".equals(component.getType())) {
-                    BigDecimal amount = calculateComponentAmount(empComponent, BigDecimal.valueOf(baseSalary));
-                    total += amount.doubleValue();
-                }
-            }
-        }
-        return total;
+        return getComponentBreakdown(employeeId, baseSalary).getTotalBonuses().doubleValue();
     }
     
     public java.util.Map<String, Double> getSalaryBreakdown(int employeeId, double baseSalary) {
-        String employeeIdStr = String.format("EMP%03d", employeeId);
-        List<EmployeeSalaryComponent> components = getEmployeeSalaryComponents(employeeIdStr);
-        
-        java.util.Map<String, Double> breakdown = new java.util.HashMap<>();
-        breakdown.put("Base Salary", baseSalary);
-        
-        for (EmployeeSalaryComponent empComponent : components) {
-            if (empComponent.isCurrentlyActive() && empComponent.getSalaryComponent() != null) {
-                SalaryComponent component = empComponent.getSalaryComponent();
-                BigDecimal amount = calculateComponentAmount(empComponent, BigDecimal.valueOf(baseSalary));
-                breakdown.put(component.getName(), amount.doubleValue());
-            }
-        }
-        
-        return breakdown;
+        return getComponentBreakdown(employeeId, baseSalary).toSalaryBreakdown();
     }
     
     public SalaryComponent createSalaryComponent(String name, String type, double amount, 
@@ -295,7 +392,7 @@ public class SalaryComponentManager {
         Employee employee = new Employee(employeeId, "Dummy", "Employee", "dummy@email.com", 
                                         "Unknown", "Unknown", baseSalary, java.time.LocalDate.now());
         
-        return calculatePayroll(employee, BigDecimal.valueOf(baseSalary));
+        return calculatePayroll(employee, Money.of(baseSalary));
     }
     
     public String getPayrollCalculationSummary(PayrollCalculationResult result) {
@@ -313,24 +410,203 @@ public class SalaryComponentManager {
     public boolean isMinimumWageCompliant(PayrollCalculationResult result) {
         // Philippine minimum wage compliance check
         double minimumWage = 570.00; // Daily minimum wage in NCR (example)
-        double dailyRate = result.getNetPay().doubleValue() / 22; // Assuming 22 working days
+        double dailyRate = result.getNetPay().dividedBy(22, Money.DEFAULT_ROUNDING).doubleValue(); // Assuming 22 working days
         return dailyRate >= minimumWage;
     }
     
+    /**
+     * Drops cached breakdowns that a saved change may have made stale
+     */
+    private final class BreakdownCacheInvalidator implements CompensationChangeListener {
+        @Override
+        public void salaryComponentChanged(int salaryComponentId) {
+            cacheGeneration.incrementAndGet();
+            // A component's name, type or status shows up in every breakdown that includes it
+            breakdownCache.clear();
+        }
+        
+        @Override
+        public void employeeComponentChanged(EmployeeSalaryComponent assignment) {
+            cacheGeneration.incrementAndGet();
+            int employeeId = PayrollRunEngine.parseEmployeeId(assignment.getEmployeeId());
+            Integer previousEmployee = assignmentEmployees.get(assignment.getId());
+            if (previousEmployee != null) {
+                breakdownCache.remove(previousEmployee);
+            }
+            if (employeeId > 0) {
+                breakdownCache.remove(employeeId);
+            } else {
+                breakdownCache.clear();
+            }
+        }
+        
+        @Override
+        public void employeeComponentRemoved(int assignmentId) {
+            cacheGeneration.incrementAndGet();
+            Integer employeeId = assignmentEmployees.remove(assignmentId);
+            if (employeeId != null) {
+                breakdownCache.remove(employeeId);
+            } else {
+                breakdownCache.clear();
+            }
+        }
+        
+        @Override
+        public void baseSalaryChanged(int employeeId) {
+            cacheGeneration.incrementAndGet();
+            // Breakdowns are keyed by base salary, so nothing is stale; free the old ones
+            breakdownCache.remove(employeeId);
+        }
+        
+        @Override
+        public void hireDateChanged(int employeeId) {
+            cacheGeneration.incrementAndGet();
+            // Tenure in formulas is counted from the hire date, which the breakdowns are not keyed by
+            breakdownCache.remove(employeeId);
+        }
+    }
+    
+    private static final class BreakdownKey {
+        private final long baseSalary;
+        private final LocalDate asOf;
+        
+        BreakdownKey(long baseSalary, LocalDate asOf) {
+            this.baseSalary = baseSalary;
+            this.asOf = asOf;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof BreakdownKey)) return false;
+            BreakdownKey other = (BreakdownKey) obj;
+            return baseSalary == other.baseSalary && asOf.equals(other.asOf);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(baseSalary, asOf);
+        }
+    }
+    
+    /**
+     * Amounts of an employee's salary components for one base salary and date, from a single pass over
+     * their assignments: totals per component type, each component's amount and the payroll calculation
+     * lists. Immutable, so cached instances can be shared between threads.
+     */
+    public static final class ComponentBreakdown {
+        private final long baseSalary;
+        private final LocalDate asOf;
+        private final Map<String, Long> totalsByType;
+        private final Map<String, Long> componentAmounts;
+        private final List<ComponentCalculation> earningCalculations;
+        private final List<ComponentCalculation> deductionCalculations;
+        
+        private ComponentBreakdown(long baseSalary, LocalDate asOf, Map<String, Long> totalsByType, Map<String, Long> componentAmounts,
+                                   List<ComponentCalculation> earningCalculations, List<ComponentCalculation> deductionCalculations) {
+            this.baseSalary = baseSalary;
+            this.asOf = asOf;
+            this.totalsByType = Collections.unmodifiableMap(totalsByType);
+            this.componentAmounts = Collections.unmodifiableMap(componentAmounts);
+            this.earningCalculations = Collections.unmodifiableList(earningCalculations);
+            this.deductionCalculations = Collections.unmodifiableList(deductionCalculations);
+        }
+        
+        static ComponentBreakdown calculate(long baseSalary, LocalDate asOf, List<EmployeeSalaryComponent> assignments, LocalDate hireDate) {
+            FormulaContext context = new FormulaContext().reset(baseSalary, hireDate, asOf);
+            Map<String, Long> totalsByType = new HashMap<>();
+            Map<String, Long> componentAmounts = new LinkedHashMap<>();
+            List<ComponentCalculation> earningCalculations = new ArrayList<>();
+            List<ComponentCalculation> deductionCalculations = new ArrayList<>();
+            
+            for (EmployeeSalaryComponent assignment : assignments) {
+                SalaryComponent component = assignment.getSalaryComponent();
+                if (component == null || !assignment.isActiveOn(asOf)) continue;
+                
+                long amount = calculateComponentAmount(assignment, context);
+                totalsByType.merge(component.getType(), amount, Long::sum);
+                componentAmounts.put(component.getName(), amount);
+                
+                ComponentCalculation calc = new ComponentCalculation(component, Money.ofCentavos(amount), assignment.isPercentage());
+                if (component.isEarning()) {
+                    earningCalculations.add(calc);
+                } else if (component.isDeduction()) {
+                    deductionCalculations.add(calc);
+                }
+            }
+            return new ComponentBreakdown(baseSalary, asOf, totalsByType, componentAmounts, earningCalculations, deductionCalculations);
+        }
+        
+        /**
+         * Total of the components of one type (ALLOWANCE, BONUS, EARNING or DEDUCTION)
+         */
+        public Money getTotal(String type) {
+            return Money.ofCentavos(totalsByType.getOrDefault(type, 0L));
+        }
+        
+        public Money getTotalAllowances() { return getTotal("ALLOWANCE"); }
+        public Money getTotalBonuses() { return getTotal("BONUS"); }
+        public Money getTotalDeductions() { return getTotal("DEDUCTION"); }
+        
+        /**
+         * Base salary plus every earning component
+         */
+        public Money getTotalEarnings() {
+            long earnings = baseSalary;
+            for (ComponentCalculation calc : earningCalculations) {
+                earnings += calc.getCalculatedAmount().getCentavos();
+            }
+            return Money.ofCentavos(earnings);
+        }
+        
+        public Money getNetPay() {
+            return getTotalEarnings().minus(getTotalDeductions());
+        }
+        
+        public Money getBaseSalary() { return Money.ofCentavos(baseSalary); }
+        public LocalDate getAsOf() { return asOf; }
+        public List<ComponentCalculation> getEarningCalculations() { return earningCalculations; }
+        public List<ComponentCalculation> getDeductionCalculations() { return deductionCalculations; }
+        
+        /**
+         * Amount of each component by name, in assignment order
+         */
+        public Map<String, Money> getComponentAmounts() {
+            Map<String, Money> amounts = new LinkedHashMap<>();
+            for (Map.Entry<String, Long> entry : componentAmounts.entrySet()) {
+                amounts.put(entry.getKey(), Money.ofCentavos(entry.getValue()));
+            }
+            return amounts;
+        }
+        
+        /**
+         * The breakdown in the form Payroll.setSalaryBreakdown takes: "Base Salary" and each component
+         * by name, in pesos. A new map on every call, so callers may keep or change it.
+         */
+        public Map<String, Double> toSalaryBreakdown() {
+            Map<String, Double> breakdown = new HashMap<>();
+            breakdown.put("Base Salary", Money.toPesos(baseSalary));
+            for (Map.Entry<String, Long> entry : componentAmounts.entrySet()) {
+                breakdown.put(entry.getKey(), Money.toPesos(entry.getValue()));
+            }
+            return breakdown;
+        }
+    }
+    
     // Inner classes for calculation results
     public static class PayrollCalculationResult {
-        private final BigDecimal baseSalary;
-        private final BigDecimal totalEarnings;
-        private final BigDecimal totalDeductions;
-        private final BigDecimal totalAllowances;
-        private final BigDecimal totalBonuses;
-        private final BigDecimal netPay;
+        private final Money baseSalary;
+        private final Money totalEarnings;
+        private final Money totalDeductions;
+        private final Money totalAllowances;
+        private final Money totalBonuses;
+        private final Money netPay;
         private final List<ComponentCalculation> earningCalculations;
         private final List<ComponentCalculation> deductionCalculations;
         
-        public PayrollCalculationResult(BigDecimal baseSalary, BigDecimal totalEarnings, 
-                                       BigDecimal totalDeductions, BigDecimal totalAllowances,
-                                       BigDecimal totalBonuses, BigDecimal netPay,
+        public PayrollCalculationResult(Money baseSalary, Money totalEarnings, 
+                                       Money totalDeductions, Money totalAllowances,
+                                       Money totalBonuses, Money netPay,
                                        List<ComponentCalculation> earningCalculations,
                                        List<ComponentCalculation> deductionCalculations) {
             this.baseSalary = baseSalary;
@@ -344,22 +620,22 @@ public class SalaryComponentManager {
         }
         
         // Getters
-        public BigDecimal getBaseSalary() { return baseSalary; }
-        public BigDecimal getTotalEarnings() { return totalEarnings; }
-        public BigDecimal getTotalDeductions() { return totalDeductions; }
-        public BigDecimal getTotalAllowances() { return totalAllowances; }
-        public BigDecimal getTotalBonuses() { return totalBonuses; }
-        public BigDecimal getNetPay() { return netPay; }
+        public Money getBaseSalary() { return baseSalary; }
+        public Money getTotalEarnings() { return totalEarnings; }
+        public Money getTotalDeductions() { return totalDeductions; }
+        public Money getTotalAllowances() { return totalAllowances; }
+        public Money getTotalBonuses() { return totalBonuses; }
+        public Money getNetPay() { return netPay; }
         public List<ComponentCalculation> getEarningCalculations() { return earningCalculations; }
         public List<ComponentCalculation> getDeductionCalculations() { return deductionCalculations; }
     }
     
     public static class ComponentCalculation {
         private final SalaryComponent component;
-        private final BigDecimal calculatedAmount;
+        private final Money calculatedAmount;
         private final boolean isPercentage;
         
-        public ComponentCalculation(SalaryComponent component, BigDecimal calculatedAmount, boolean isPercentage) {
+        public ComponentCalculation(SalaryComponent component, Money calculatedAmount, boolean isPercentage) {
             this.component = component;
             this.calculatedAmount = calculatedAmount;
             this.isPercentage = isPercentage;
@@ -367,11 +643,11 @@ public class SalaryComponentManager {
         
         // Getters
         public SalaryComponent getComponent() { return component; }
-        public BigDecimal getCalculatedAmount() { return calculatedAmount; }
+        public Money getCalculatedAmount() { return calculatedAmount; }
         public boolean isPercentage() { return isPercentage; }
         
         public String getFormattedAmount() {
-            return String.format("₱%.2f", calculatedAmount.doubleValue());
+            return String.format("₱%.2f", calculatedAmount.toBigDecimal());
         }
     }
 }
@@ -0,0 +1,466 @@
+package managers;
+
+import models.SalaryComponent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A salary component amount formula, parsed once and compiled to a tree of lambdas
+ *
+ * <pre>
+ * min(base * 10%, 5000)
+ * dailyRate × daysPresent
+ * tier(tenureYears, 0, 1000, 2, 1500, 5, 2500)
+ * daysAbsent > 3 ? 0 : amount
+ * </pre>
+ *
+ * Formulas work in pesos on the variables of a FormulaContext (base, amount, dailyRate, hourlyRate,
+ * workingDays, daysPresent, daysAbsent, tenureYears, tenureMonths) with + - * / (or ×), a trailing %
+ * on a number (10% is 0.10), comparisons, && || ! and ?:, and the functions min, max, abs, floor,
+ * ceil, round(x) or round(x, places), clamp(x, low, high), if(condition, then, else) and
+ * tier(x, threshold1, value1, threshold2, value2, ...), which gives the value of the highest threshold
+ * x has reached, or 0 below the first. Conditions are true when non-zero.
+ *
+ * Variable names are resolved to context slots and constant parts folded when the formula is
+ * compiled, so evaluating it only reads the context's array and allocates nothing. Compiled formulas
+ * are immutable and cached per component ID and version; see {@link #forComponent}.
+ */
+public final class SalaryFormula {
+    @FunctionalInterface
+    private interface Node {
+        double eval(double[] vars);
+    }
+    
+    private static final class Constant implements Node {
+        private final double value;
+        
+        Constant(double value) {
+            this.value = value;
+        }
+        
+        @Override
+        public double eval(double[] vars) {
+            return value;
+        }
+    }
+    
+    @FunctionalInterface
+    private interface BinaryOperator {
+        double apply(double left, double right);
+    }
+    
+    // Compiled formulas by component ID; an entry is replaced when the component's version changes
+    private static final ConcurrentHashMap<Integer, SalaryFormula> COMPILED = new ConcurrentHashMap<>();
+    
+    private final String source;
+    private final int version;
+    private final Node root;
+    private final int variablesUsed;
+    
+    private SalaryFormula(String source, int version, Node root, int variablesUsed) {
+        this.source = source;
+        this.version = version;
+        this.root = root;
+        this.variablesUsed = variablesUsed;
+    }
+    
+    /**
+     * Parse and compile a formula
+     * @throws IllegalArgumentException if the formula is not valid, with the position of the error
+     */
+    public static SalaryFormula compile(String source) {
+        return compile(source, 0);
+    }
+    
+    private static SalaryFormula compile(String source, int version) {
+        if (source == null || source.trim().isEmpty()) {
+            throw new IllegalArgumentException("Formula is empty");
+        }
+        Parser parser = new Parser(source);
+        Node root = parser.parseFormula();
+        return new SalaryFormula(source, version, root, parser.variablesUsed);
+    }
+    
+    /**
+     * The compiled formula of a component, or null if it has none. Each version of a saved component
+     * is compiled once; components not saved yet (ID 0) are compiled on every call.
+     * @throws IllegalArgumentException if the component's formula is not valid
+     */
+    public static SalaryFormula forComponent(SalaryComponent component) {
+        if (component == null || !component.hasFormula()) {
+            return null;
+        }
+        if (component.getId() <= 0) {
+            return compile(component.getFormula());
+        }
+        SalaryFormula cached = COMPILED.get(component.getId());
+        if (cached != null && cached.version == component.getVersion() && cached.source.equals(component.getFormula())) {
+            return cached;
+        }
+        SalaryFormula compiled = compile(component.getFormula(), component.getVersion());
+        COMPILED.put(component.getId(), compiled);
+        return compiled;
+    }
+    
+    /**
+     * Check a component's formula, if it has one
+     * @throws IllegalArgumentException if the formula is not valid
+     */
+    public static void validate(SalaryComponent component) {
+        if (component != null && component.hasFormula()) {
+            compile(component.getFormula());
+        }
+    }
+    
+    /**
+     * Amount in pesos for the employee loaded in the context
+     */
+    public double evaluate(FormulaContext context) {
+        return root.eval(context.values());
+    }
+    
+    /**
+     * Whether the formula reads tenureYears or tenureMonths, which need the employee's hire date
+     */
+    public boolean usesTenure() {
+        return (variablesUsed & ((1 << FormulaContext.TENURE_YEARS) | (1 << FormulaContext.TENURE_MONTHS))) != 0;
+    }
+    
+    /**
+     * Whether the formula reads workingDays, daysPresent or daysAbsent, which are counted over the pay period
+     */
+    public boolean usesAttendance() {
+        return (variablesUsed & ((1 << FormulaContext.WORKING_DAYS) | (1 << FormulaContext.DAYS_PRESENT)
+                                 | (1 << FormulaContext.DAYS_ABSENT))) != 0;
+    }
+    
+    public String getSource() {
+        return source;
+    }
+    
+    @Override
+    public String toString() {
+        return source;
+    }
+    
+    /**
+     * Recursive descent parser that builds the lambda tree directly
+     */
+    private static final class Parser {
+        private final String text;
+        private int pos;
+        private int variablesUsed;
+        
+        Parser(String text) {
+            this.text = text;
+        }
+        
+        Node parseFormula() {
+            Node node = parseConditional();
+            skipSpaces();
+            if (pos < text.length()) {
+                throw error("Unexpected '" + text.charAt(pos) + "'");
+            }
+            return node;
+        }
+        
+        private Node parseConditional() {
+            Node condition = parseOr();
+            if (!accept("?")) {
+                return condition;
+            }
+            Node whenTrue = parseConditional();
+            expect(":");
+            Node whenFalse = parseConditional();
+            return choose(condition, whenTrue, whenFalse);
+        }
+        
+        private Node parseOr() {
+            Node node = parseAnd();
+            while (accept("||")) {
+                Node left = node;
+                Node right = parseAnd();
+                node = fold(vars -> left.eval(vars) != 0 || right.eval(vars) != 0 ? 1 : 0, left, right);
+            }
+            return node;
+        }
+        
+        private Node parseAnd() {
+            Node node = parseComparison();
+            while (accept("&&")) {
+                Node left = node;
+                Node right = parseComparison();
+                node = fold(vars -> left.eval(vars) != 0 && right.eval(vars) != 0 ? 1 : 0, left, right);
+            }
+            return node;
+        }
+        
+        private Node parseComparison() {
+            Node left = parseSum();
+            if (accept("<=")) {
+                return binary(left, parseSum(), (a, b) -> a <= b ? 1 : 0);
+            } else if (accept(">=")) {
+                return binary(left, parseSum(), (a, b) -> a >= b ? 1 : 0);
+            } else if (accept("==")) {
+                return binary(left, parseSum(), (a, b) -> a == b ? 1 : 0);
+            } else if (accept("!=")) {
+                return binary(left, parseSum(), (a, b) -> a != b ? 1 : 0);
+            } else if (accept("<")) {
+                return binary(left, parseSum(), (a, b) -> a < b ? 1 : 0);
+            } else if (accept(">")) {
+                return binary(left, parseSum(), (a, b) -> a > b ? 1 : 0);
+            }
+            return left;
+        }
+        
+        private Node parseSum() {
+            Node node = parseProduct();
+            while (true) {
+                if (accept("+")) {
+                    node = binary(node, parseProduct(), (a, b) -> a + b);
+                } else if (accept("-")) {
+                    node = binary(node, parseProduct(), (a, b) -> a - b);
+                } else {
+                    return node;
+                }
+            }
+        }
+        
+        private Node parseProduct() {
+            Node node = parseUnary();
+            while (true) {
+                if (accept("*") || accept("×")) {
+                    node = binary(node, parseUnary(), (a, b) -> a * b);
+                } else if (accept("/")) {
+                    node = binary(node, parseUnary(), (a, b) -> a / b);
+                } else {
+                    return node;
+                }
+            }
+        }
+        
+        private Node parseUnary() {
+            if (accept("-")) {
+                Node operand = parseUnary();
+                return fold(vars -> -operand.eval(vars), operand);
+            }
+            if (accept("!")) {
+                Node operand = parseUnary();
+                return fold(vars -> operand.eval(vars) == 0 ? 1 : 0, operand);
+            }
+            return parsePrimary();
+        }
+        
+        private Node parsePrimary() {
+            skipSpaces();
+            if (pos >= text.length()) {
+                throw error("Unexpected end of formula");
+            }
+            char c = text.charAt(pos);
+            if (accept("(")) {
+                Node node = parseConditional();
+                expect(")");
+                return node;
+            }
+            if (Character.isDigit(c) || c == '.') {
+                return parseNumber();
+            }
+            if (Character.isLetter(c) || c == '_') {
+                int start = pos;
+                while (pos < text.length() && (Character.isLetterOrDigit(text.charAt(pos)) || text.charAt(pos) == '_')) {
+                    pos++;
+                }
+                String name = text.substring(start, pos);
+                if (accept("(")) {
+                    return parseFunction(name, start);
+                }
+                int slot = FormulaContext.slotOf(name);
+                if (slot < 0) {
+                    pos = start;
+                    throw error("Unknown variable '" + name + "' (use one of " + String.join(", ", FormulaContext.VARIABLES) + ")");
+                }
+                variablesUsed |= 1 << slot;
+                return vars -> vars[slot];
+            }
+            throw error("Unexpected '" + c + "'");
+        }
+        
+        private Node parseNumber() {
+            int start = pos;
+            while (pos < text.length() && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.')) {
+                pos++;
+            }
+            double value;
+            try {
+                value = Double.parseDouble(text.substring(start, pos));
+            } catch (NumberFormatException e) {
+                pos = start;
+                throw error("Invalid number");
+            }
+            if (accept("%")) {
+                value /= 100;
+            }
+            return new Constant(value);
+        }
+        
+        private Node parseFunction(String name, int start) {
+            List<Node> args = new ArrayList<>();
+            if (!accept(")")) {
+                do {
+                    args.add(parseConditional());
+                } while (accept(","));
+                expect(")");
+            }
+            Node[] a = args.toArray(new Node[0]);
+            switch (name) {
+                case "min":
+                    requireAtLeast(name, a, 1, start);
+                    return reduce(a, Math::min);
+                case "max":
+                    requireAtLeast(name, a, 1, start);
+                    return reduce(a, Math::max);
+                case "abs":
+                    requireExactly(name, a, 1, start);
+                    return fold(vars -> Math.abs(a[0].eval(vars)), a);
+                case "floor":
+                    requireExactly(name, a, 1, start);
+                    return fold(vars -> Math.floor(a[0].eval(vars)), a);
+                case "ceil":
+                    requireExactly(name, a, 1, start);
+                    return fold(vars -> Math.ceil(a[0].eval(vars)), a);
+                case "round":
+                    if (a.length == 1) {
+                        return fold(vars -> roundHalfUp(a[0].eval(vars), 0), a);
+                    }
+                    requireExactly(name, a, 2, start);
+                    return fold(vars -> roundHalfUp(a[0].eval(vars), (int) a[1].eval(vars)), a);
+                case "clamp":
+                    requireExactly(name, a, 3, start);
+                    return fold(vars -> Math.max(a[1].eval(vars), Math.min(a[2].eval(vars), a[0].eval(vars))), a);
+                case "if":
+                    requireExactly(name, a, 3, start);
+                    return choose(a[0], a[1], a[2]);
+                case "tier":
+                    if (a.length < 3 || a.length % 2 == 0) {
+                        pos = start;
+                        throw error("tier needs a value followed by threshold, amount pairs");
+                    }
+                    return tier(a);
+                default:
+                    pos = start;
+                    throw error("Unknown function '" + name + "' (use min, max, abs, floor, ceil, round, clamp, if or tier)");
+            }
+        }
+        
+        private static Node tier(Node[] a) {
+            Node value = a[0];
+            int tiers = (a.length - 1) / 2;
+            Node[] thresholds = new Node[tiers];
+            Node[] amounts = new Node[tiers];
+            for (int i = 0; i < tiers; i++) {
+                thresholds[i] = a[1 + 2 * i];
+                amounts[i] = a[2 + 2 * i];
+            }
+            return fold(vars -> {
+                double x = value.eval(vars);
+                int reached = -1;
+                for (int i = 0; i < thresholds.length; i++) {
+                    if (x >= thresholds[i].eval(vars)) {
+                        reached = i;
+                    }
+                }
+                return reached >= 0 ? amounts[reached].eval(vars) : 0;
+            }, a);
+        }
+        
+        private static Node choose(Node condition, Node whenTrue, Node whenFalse) {
+            if (condition instanceof Constant) {
+                return ((Constant) condition).value != 0 ? whenTrue : whenFalse;
+            }
+            return vars -> condition.eval(vars) != 0 ? whenTrue.eval(vars) : whenFalse.eval(vars);
+        }
+        
+        private static Node reduce(Node[] operands, BinaryOperator operator) {
+            if (operands.length == 1) {
+                return operands[0];
+            }
+            if (operands.length == 2) {
+                return binary(operands[0], operands[1], operator);
+            }
+            return fold(vars -> {
+                double result = operands[0].eval(vars);
+                for (int i = 1; i < operands.length; i++) {
+                    result = operator.apply(result, operands[i].eval(vars));
+                }
+                return result;
+            }, operands);
+        }
+        
+        private static Node binary(Node left, Node right, BinaryOperator operator) {
+            return fold(vars -> operator.apply(left.eval(vars), right.eval(vars)), left, right);
+        }
+        
+        /**
+         * Replace a node whose operands are all constant by its value
+         */
+        private static Node fold(Node node, Node... operands) {
+            for (Node operand : operands) {
+                if (!(operand instanceof Constant)) {
+                    return node;
+                }
+            }
+            return new Constant(node.eval(null));
+        }
+        
+        private static double roundHalfUp(double value, int places) {
+            double scale = Math.pow(10, places);
+            return Math.signum(value) * Math.floor(Math.abs(value) * scale + 0.5) / scale;
+        }
+        
+        private void requireExactly(String name, Node[] args, int count, int start) {
+            if (args.length != count) {
+                pos = start;
+                throw error(name + " takes " + count + " argument" + (count == 1 ? "" : "s"));
+            }
+        }
+        
+        private void requireAtLeast(String name, Node[] args, int count, int start) {
+            if (args.length < count) {
+                pos = start;
+                throw error(name + " needs at least " + count + " argument" + (count == 1 ? "" : "s"));
+            }
+        }
+        
+        private boolean accept(String token) {
+            skipSpaces();
+            if (text.startsWith(token, pos)) {
+                // "<" must not match the start of "<=", and "!" not the start of "!="
+                if (token.length() == 1 && "<>!".indexOf(token.charAt(0)) >= 0
+                        && pos + 1 < text.length() && text.charAt(pos + 1) == '=') {
+                    return false;
+                }
+                pos += token.length();
+                return true;
+            }
+            return false;
+        }
+        
+        private void expect(String token) {
+            if (!accept(token)) {
+                throw error("Expected '" + token + "'");
+            }
+        }
+        
+        private void skipSpaces() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+        
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + (pos + 1) + " in formula: " + text);
+        }
+    }
+}
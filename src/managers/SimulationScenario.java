@@ -0,0 +1,155 @@
+package managers;
+
+import models.Money;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A named set of what-if rules applied on top of a CompensationSnapshot: percentage raises, new
+ * salary components and headcount changes, each for one department or everyone and each starting
+ * in a given month.
+ *
+ * <pre>
+ * new SimulationScenario("Engineering raise and rice allowance")
+ *     .raise("Engineering", 6.0, YearMonth.of(2025, 7))
+ *     .addComponent("Rice Allowance", CompensationSnapshot.Category.ALLOWANCE, null, 2000.0, YearMonth.of(2025, 7))
+ * </pre>
+ *
+ * Rules are added while the scenario is set up; the simulator reads a copy, so a scenario can be
+ * evaluated many times and concurrently with others.
+ */
+public class SimulationScenario {
+    private final String name;
+    private final List<Raise> raises = new ArrayList<>();
+    private final List<NewComponent> components = new ArrayList<>();
+    private final List<HeadcountChange> headcountChanges = new ArrayList<>();
+    
+    public SimulationScenario(String name) {
+        this.name = name;
+    }
+    
+    /**
+     * The snapshot as it is, for comparing other scenarios against
+     */
+    public static SimulationScenario baseline() {
+        return new SimulationScenario("Baseline");
+    }
+    
+    /**
+     * Raise base salaries by a percentage from a month on. Raises compound in the order they are added.
+     * @param department Department to raise, or null for everyone
+     */
+    public SimulationScenario raise(String department, double percent, YearMonth from) {
+        raises.add(new Raise(department, Money.toBasisPoints(percent), from));
+        return this;
+    }
+    
+    /**
+     * Give everyone in a department (or everyone, if null) a new fixed monthly component from a month on
+     * @param monthlyAmount Amount in pesos per month
+     */
+    public SimulationScenario addComponent(String componentName, CompensationSnapshot.Category category,
+                                           String department, double monthlyAmount, YearMonth from) {
+        components.add(new NewComponent(new CompensationSnapshot.Assignment(componentName, category, false,
+                                        Money.toCentavos(monthlyAmount), from.atDay(1), null), department));
+        return this;
+    }
+    
+    /**
+     * Give everyone in a department (or everyone, if null) a new component worth a percentage of base salary
+     */
+    public SimulationScenario addPercentageComponent(String componentName, CompensationSnapshot.Category category,
+                                                     String department, double percent, YearMonth from) {
+        components.add(new NewComponent(new CompensationSnapshot.Assignment(componentName, category, true,
+                                        Money.toBasisPoints(percent), from.atDay(1), null), department));
+        return this;
+    }
+    
+    /**
+     * Hire people into a department from a month on
+     * @param monthlySalary Base salary of each new hire, in pesos
+     */
+    public SimulationScenario hire(String department, int count, double monthlySalary, YearMonth from) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Hire count must be positive: " + count);
+        }
+        headcountChanges.add(new HeadcountChange(department, count, Money.toCentavos(monthlySalary), from));
+        return this;
+    }
+    
+    /**
+     * Reduce a department's headcount from a month on. The most recently hired employees
+     * (highest employee IDs) in the snapshot leave first.
+     */
+    public SimulationScenario reduceHeadcount(String department, int count, YearMonth from) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Reduction count must be positive: " + count);
+        }
+        headcountChanges.add(new HeadcountChange(department, -count, 0, from));
+        return this;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    List<Raise> getRaises() {
+        return Collections.unmodifiableList(new ArrayList<>(raises));
+    }
+    
+    List<NewComponent> getComponents() {
+        return Collections.unmodifiableList(new ArrayList<>(components));
+    }
+    
+    List<HeadcountChange> getHeadcountChanges() {
+        return Collections.unmodifiableList(new ArrayList<>(headcountChanges));
+    }
+    
+    @Override
+    public String toString() {
+        return name;
+    }
+    
+    static boolean matches(String ruleDepartment, String department) {
+        return ruleDepartment == null || ruleDepartment.equalsIgnoreCase(department);
+    }
+    
+    static final class Raise {
+        final String department;
+        final long basisPoints;
+        final YearMonth from;
+        
+        Raise(String department, long basisPoints, YearMonth from) {
+            this.department = department;
+            this.basisPoints = basisPoints;
+            this.from = from;
+        }
+    }
+    
+    static final class NewComponent {
+        final CompensationSnapshot.Assignment assignment;
+        final String department;
+        
+        NewComponent(CompensationSnapshot.Assignment assignment, String department) {
+            this.assignment = assignment;
+            this.department = department;
+        }
+    }
+    
+    static final class HeadcountChange {
+        final String department;
+        final int count;
+        final long monthlySalary;
+        final YearMonth from;
+        
+        HeadcountChange(String department, int count, long monthlySalary, YearMonth from) {
+            this.department = department;
+            this.count = count;
+            this.monthlySalary = monthlySalary;
+            this.from = from;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package managers;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Row-oriented writer for tabular exports (CSV, XLSX).
+ * Implementations write rows as they arrive and never hold the table in memory.
+ */
+public interface TableWriter extends Closeable {
+    /**
+     * Start a new table (sheet) and write its header row
+     */
+    void startTable(String name, String[] headers) throws IOException;
+
+    /**
+     * Write one data row. Numbers are written as numeric cells, null as an empty cell,
+     * everything else as text.
+     */
+    void writeRow(Object... values) throws IOException;
+}
@@ -0,0 +1,207 @@
+package managers;
+
+import models.PayFrequency;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Effective-dated BIR withholding tax tables per pay frequency.
+ *
+ * Tables are read from CSV files named {@code <frequency>-<yyyy-MM-dd>.csv} (for example
+ * {@code semi_monthly-2023-01-01.csv}) in the withholding tax directory. Each line is one bracket:
+ * {@code over,rate} - the compensation level the bracket starts at and the rate on the excess.
+ * The base tax of each bracket is precomputed when the table is loaded.
+ *
+ * A frequency without its own table for a date (e.g. BIWEEKLY, which BIR does not publish) uses the
+ * annual table scaled to the number of pay periods in a year. Built-in annual brackets matching the
+ * original hard-coded TRAIN rates apply before the earliest file.
+ */
+public class WithholdingTaxRegistry {
+    public static final String DEFAULT_DIRECTORY = System.getProperty("payroll.withholdingtax.dir", "config/withholding-tax");
+    
+    private static final Pattern FILE_NAME = Pattern.compile("([a-z_]+)-(\\d{4}-\\d{2}-\\d{2})\\.csv");
+    private static final LocalDate BUILT_IN_EFFECTIVE_DATE = LocalDate.of(1900, 1, 1);
+    
+    private static volatile WithholdingTaxRegistry defaultRegistry;
+    
+    private final Map<PayFrequency, NavigableMap<LocalDate, WithholdingTaxTable>> published = new EnumMap<>(PayFrequency.class);
+    private final Map<PayFrequency, NavigableMap<LocalDate, WithholdingTaxTable>> derived = new EnumMap<>(PayFrequency.class);
+    
+    private WithholdingTaxRegistry() {
+        register(new WithholdingTaxTable(PayFrequency.ANNUALLY, BUILT_IN_EFFECTIVE_DATE,
+            new double[] {0, 250000, 400000, 800000, 2000000, 8000000},
+            new double[] {0.0, 0.15, 0.20, 0.25, 0.30, 0.35}));
+    }
+    
+    /**
+     * Registry loaded from DEFAULT_DIRECTORY on first use
+     */
+    public static WithholdingTaxRegistry getDefault() {
+        WithholdingTaxRegistry registry = defaultRegistry;
+        if (registry == null) {
+            synchronized (WithholdingTaxRegistry.class) {
+                registry = defaultRegistry;
+                if (registry == null) {
+                    registry = load(Paths.get(DEFAULT_DIRECTORY));
+                    defaultRegistry = registry;
+                }
+            }
+        }
+        return registry;
+    }
+    
+    /**
+     * Re-read the tax table files, e.g. after a new schedule has been added
+     */
+    public static synchronized WithholdingTaxRegistry reloadDefault() {
+        defaultRegistry = load(Paths.get(DEFAULT_DIRECTORY));
+        return defaultRegistry;
+    }
+    
+    /**
+     * Load the built-in annual brackets plus every tax table file in a directory. Files that cannot
+     * be parsed are reported and skipped; a missing directory leaves only the built-in brackets.
+     */
+    public static WithholdingTaxRegistry load(Path directory) {
+        WithholdingTaxRegistry registry = new WithholdingTaxRegistry();
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.csv")) {
+                for (Path file : files) {
+                    Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                    if (!matcher.matches()) {
+                        continue;
+                    }
+                    try {
+                        PayFrequency frequency = PayFrequency.valueOf(matcher.group(1).toUpperCase());
+                        LocalDate effectiveDate = LocalDate.parse(matcher.group(2));
+                        registry.register(parse(frequency, effectiveDate, Files.readAllLines(file, StandardCharsets.UTF_8)));
+                    } catch (IOException | DateTimeParseException | IllegalArgumentException e) {
+                        System.err.println("Error loading withholding tax table " + file + ": " + e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error reading withholding tax tables from " + directory + ": " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+        registry.deriveFromAnnualTables();
+        return registry;
+    }
+    
+    /**
+     * Parse one tax table file
+     */
+    static WithholdingTaxTable parse(PayFrequency frequency, LocalDate effectiveDate, List<String> lines) {
+        List<double[]> rows = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : lines) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#") || trimmed.startsWith("over")) {
+                continue;
+            }
+            String[] fields = trimmed.split(",", -1);
+            if (fields.length != 2) {
+                throw new IllegalArgumentException("line " + lineNumber + ": expected 2 columns but found " + fields.length);
+            }
+            try {
+                rows.add(new double[] {Double.parseDouble(fields[0].trim()), Double.parseDouble(fields[1].trim())});
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+        
+        double[] lowerBounds = new double[rows.size()];
+        double[] rates = new double[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            lowerBounds[i] = rows.get(i)[0];
+            rates[i] = rows.get(i)[1];
+        }
+        return new WithholdingTaxTable(frequency, effectiveDate, lowerBounds, rates);
+    }
+    
+    private void register(WithholdingTaxTable table) {
+        published.computeIfAbsent(table.getFrequency(), key -> new TreeMap<>()).put(table.getEffectiveDate(), table);
+    }
+    
+    private void deriveFromAnnualTables() {
+        for (WithholdingTaxTable annual : published.get(PayFrequency.ANNUALLY).values()) {
+            for (PayFrequency frequency : PayFrequency.values()) {
+                derived.computeIfAbsent(frequency, key -> new TreeMap<>())
+                       .put(annual.getEffectiveDate(), WithholdingTaxTable.derive(annual, frequency));
+            }
+        }
+    }
+    
+    /**
+     * The table for a pay frequency in effect on a date. A published table for the frequency wins
+     * over the scaled annual table unless the annual table is more recent.
+     */
+    public WithholdingTaxTable getTable(PayFrequency frequency, LocalDate date) {
+        Map.Entry<LocalDate, WithholdingTaxTable> scaled = derived.get(frequency).floorEntry(date);
+        if (scaled == null) {
+            scaled = derived.get(frequency).firstEntry();
+        }
+        NavigableMap<LocalDate, WithholdingTaxTable> versions = published.get(frequency);
+        Map.Entry<LocalDate, WithholdingTaxTable> own = versions != null ? versions.floorEntry(date) : null;
+        if (own != null && !own.getKey().isBefore(scaled.getKey())) {
+            return own.getValue();
+        }
+        return scaled.getValue();
+    }
+    
+    /**
+     * The tables of every pay frequency in effect on a date
+     */
+    public TaxTables forDate(LocalDate date) {
+        PayFrequency[] frequencies = PayFrequency.values();
+        WithholdingTaxTable[] tables = new WithholdingTaxTable[frequencies.length];
+        for (PayFrequency frequency : frequencies) {
+            tables[frequency.ordinal()] = getTable(frequency, date);
+        }
+        return new TaxTables(date, tables);
+    }
+    
+    /**
+     * Withholding tax tables of every pay frequency resolved for one date
+     */
+    public static final class TaxTables {
+        private final LocalDate asOf;
+        private final WithholdingTaxTable[] tables;
+        
+        TaxTables(LocalDate asOf, WithholdingTaxTable[] tables) {
+            this.asOf = asOf;
+            this.tables = tables;
+        }
+        
+        public WithholdingTaxTable table(PayFrequency frequency) {
+            return tables[frequency.ordinal()];
+        }
+        
+        /**
+         * Withholding tax on one pay period's taxable compensation
+         */
+        public double taxOn(double taxableCompensation, PayFrequency frequency) {
+            return tables[frequency.ordinal()].taxOn(taxableCompensation);
+        }
+        
+        public LocalDate getAsOf() {
+            return asOf;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package managers;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streaming XLSX (Office Open XML spreadsheet) writer with no external dependencies.
+ *
+ * Each sheet is written as a zip entry while rows arrive, using inline strings so no
+ * shared-string table has to be kept in memory. The workbook parts that list the sheets
+ * are written when the writer is closed.
+ */
+public class XlsxWriter implements TableWriter {
+    private static final String SHEET_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String PKG_REL_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+    private final ZipOutputStream zip;
+    private final Writer out;
+    private final List<String> sheetNames = new ArrayList<>();
+    private String[] columnRefs = new String[0];
+    private boolean sheetOpen;
+    private int rowNumber;
+
+    public XlsxWriter(OutputStream output) {
+        this.zip = new ZipOutputStream(output, StandardCharsets.UTF_8);
+        this.out = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public void startTable(String name, String[] headers) throws IOException {
+        closeSheet();
+        sheetNames.add(sanitizeSheetName(name, sheetNames.size() + 1));
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheetNames.size() + ".xml"));
+        out.write(XML_HEADER);
+        out.write("<worksheet xmlns=\"" + SHEET_NS + "\"><sheetData>");
+        sheetOpen = true;
+        rowNumber = 0;
+
+        columnRefs = new String[headers.length];
+        for (int i = 0; i < headers.length; i++) {
+            columnRefs[i] = columnName(i);
+        }
+        writeRow((Object[]) headers);
+    }
+
+    @Override
+    public void writeRow(Object... values) throws IOException {
+        if (!sheetOpen) {
+            throw new IllegalStateException("startTable must be called before writeRow");
+        }
+        rowNumber++;
+        String row = Integer.toString(rowNumber);
+        out.write("<row r=\"");
+        out.write(row);
+        out.write("\">");
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            String ref = (i < columnRefs.length ? columnRefs[i] : columnName(i)) + row;
+            if (value instanceof Number) {
+                double number = ((Number) value).doubleValue();
+                if (Double.isNaN(number) || Double.isInfinite(number)) {
+                    continue;
+                }
+                out.write("<c r=\"");
+                out.write(ref);
+                out.write("\"><v>");
+                out.write(value instanceof Double || value instanceof Float
+                          ? java.math.BigDecimal.valueOf(number).toPlainString() : value.toString());
+                out.write("</v></c>");
+            } else {
+                out.write("<c r=\"");
+                out.write(ref);
+                out.write("\" t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                writeEscaped(value.toString());
+                out.write("</t></is></c>");
+            }
+        }
+        out.write("</row>");
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeSheet();
+        if (sheetNames.isEmpty()) {
+            startTable("Sheet1", new String[0]);
+            closeSheet();
+        }
+        writeEntry("[Content_Types].xml", contentTypes());
+        writeEntry("_rels/.rels", XML_HEADER
+            + "<Relationships xmlns=\"" + PKG_REL_NS + "\">"
+            + "<Relationship Id=\"rId1\" Type=\"" + REL_NS + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+            + "</Relationships>");
+        writeEntry("xl/workbook.xml", workbook());
+        writeEntry("xl/_rels/workbook.xml.rels", workbookRelationships());
+        writeEntry("xl/styles.xml", XML_HEADER
+            + "<styleSheet xmlns=\"" + SHEET_NS + "\">"
+            + "<fonts count=\"1\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+            + "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill><fill><patternFill patternType=\"gray125\"/></fill></fills>"
+            + "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+            + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+            + "<cellXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/></cellXfs>"
+            + "</styleSheet>");
+        out.close();
+    }
+
+    private void closeSheet() throws IOException {
+        if (!sheetOpen) {
+            return;
+        }
+        out.write("</sheetData></worksheet>");
+        out.flush();
+        zip.closeEntry();
+        sheetOpen = false;
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        out.write(content);
+        out.flush();
+        zip.closeEntry();
+    }
+
+    private String contentTypes() {
+        StringBuilder xml = new StringBuilder(XML_HEADER);
+        xml.append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">");
+        xml.append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>");
+        xml.append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>");
+        xml.append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>");
+        xml.append("<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+        for (int i = 1; i <= sheetNames.size(); i++) {
+            xml.append("<Override PartName=\"/xl/worksheets/sheet").append(i)
+               .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        xml.append("</Types>");
+        return xml.toString();
+    }
+
+    private String workbook() {
+        StringBuilder xml = new StringBuilder(XML_HEADER);
+        xml.append("<workbook xmlns=\"").append(SHEET_NS).append("\" xmlns:r=\"").append(REL_NS).append("\"><sheets>");
+        for (int i = 1; i <= sheetNames.size(); i++) {
+            xml.append("<sheet name=\"").append(escapeXml(sheetNames.get(i - 1)))
+               .append("\" sheetId=\"").append(i).append("\" r:id=\"rId").append(i).append("\"/>");
+        }
+        xml.append("</sheets></workbook>");
+        return xml.toString();
+    }
+
+    private String workbookRelationships() {
+        StringBuilder xml = new StringBuilder(XML_HEADER);
+        xml.append("<Relationships xmlns=\"").append(PKG_REL_NS).append("\">");
+        for (int i = 1; i <= sheetNames.size(); i++) {
+            xml.append("<Relationship Id=\"rId").append(i).append("\" Type=\"").append(REL_NS)
+               .append("/worksheet\" Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+        }
+        xml.append("<Relationship Id=\"rId").append(sheetNames.size() + 1).append("\" Type=\"").append(REL_NS)
+           .append("/styles\" Target=\"styles.xml\"/>");
+        xml.append("</Relationships>");
+        return xml.toString();
+    }
+
+    private void writeEscaped(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            switch (ch) {
+                case '<': out.write("&lt;"); break;
+                case '>': out.write("&gt;"); break;
+                case '&': out.write("&amp;"); break;
+                case '"': out.write("&quot;"); break;
+                default:
+                    // Control characters other than tab/newline are not allowed in XML 1.0
+                    if (ch >= 0x20 || ch == '\t' || ch == '\n' || ch == '\r') {
+                        out.write(ch);
+                    }
+            }
+        }
+    }
+
+    private static String escapeXml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    /**
+     * Spreadsheet column name for a zero-based index (0 -> A, 25 -> Z, 26 -> AA)
+     */
+    static String columnName(int index) {
+        StringBuilder name = new StringBuilder();
+        int n = index + 1;
+        while (n > 0) {
+            int remainder = (n - 1) % 26;
+            name.insert(0, (char) ('A' + remainder));
+            n = (n - 1) / 26;
+        }
+        return name.toString();
+    }
+
+    private static String sanitizeSheetName(String name, int index) {
+        String cleaned = name == null ? "" : name.replaceAll("[\\[\\]:*?/\\\\]", " ").trim();
+        if (cleaned.isEmpty()) {
+            cleaned = "Sheet" + index;
+        }
+        return cleaned.length() > 31 ? cleaned.substring(0, 31) : cleaned;
+    }
+}
@@ -0,0 +1,524 @@
+package managers;
+
+import models.Employee;
+import models.Money;
+import models.PayFrequency;
+import models.YearEndCertificate;
+import models.YearToDate;
+import database.DatabaseDAO;
+import database.MySQLDatabaseDAO;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Year-end reports: the alphalist of employees and one certificate of compensation and tax withheld
+ * (BIR Form 2316) per employee.
+ *
+ * Each employee's figures come from the year-to-date ledger, which holds the totals of every payroll
+ * finalized in the year, plus the 13th-month pay earned. Employees are split into chunks that are
+ * computed in parallel; each chunk writes its employees' 2316 documents itself, and the chunks' lines
+ * are appended to the alphalist in employee order as they complete. Only a bounded number of chunks
+ * is in flight at a time, so memory does not grow with the number of employees.
+ *
+ * After each chunk the alphalist is flushed and a checkpoint records the last employee written, the
+ * alphalist length and the running totals. A generation that fails or is cancelled part way leaves
+ * the checkpoint behind, and the next generation for the same year and directory cuts the alphalist
+ * back to the checkpoint and carries on after that employee. The checkpoint is removed once the
+ * alphalist has its totals line.
+ */
+public class YearEndReportGenerator {
+    public static final int DEFAULT_CHUNK_SIZE = 250;
+    public static final String CHECKPOINT_SUFFIX = "-alphalist.checkpoint";
+    
+    static final String SKIP_UNKNOWN_EMPLOYEE = "Unknown employee";
+    
+    private static final String[] ALPHALIST_HEADER = {
+        "Seq", "TIN", "Last Name", "First Name", "Employee ID", "Employed From", "Employed To",
+        "Gross Compensation", "13th Month Pay", "Non-Taxable 13th Month and Other Benefits",
+        "SSS/PhilHealth/Pag-IBIG Contributions", "Total Non-Taxable", "Taxable Compensation",
+        "Tax Due", "Tax Withheld", "Adjustment"
+    };
+    private static final int TOTAL_COLUMNS = 9;
+    
+    private final DatabaseDAO databaseDAO;
+    private final YearToDateLedger ledger;
+    private final int parallelism;
+    private final int chunkSize;
+    private WithholdingTaxRegistry withholdingTaxTables = WithholdingTaxRegistry.getDefault();
+    private String employerTin;
+    private String employerName;
+    
+    public YearEndReportGenerator(PayrollManager payrollManager) {
+        this(new MySQLDatabaseDAO(), payrollManager.getYearToDateLedger(), Runtime.getRuntime().availableProcessors(),
+             DEFAULT_CHUNK_SIZE);
+    }
+    
+    public YearEndReportGenerator(DatabaseDAO databaseDAO, YearToDateLedger ledger, int parallelism, int chunkSize) {
+        this.databaseDAO = databaseDAO;
+        this.ledger = ledger;
+        this.parallelism = Math.max(1, parallelism);
+        this.chunkSize = Math.max(1, chunkSize);
+        String[] employer = RemittanceReportGenerator.loadEmployers(Paths.get(RemittanceReportGenerator.DEFAULT_DIRECTORY))
+                                                     .getOrDefault(RemittanceReportGenerator.BIR, new String[] {"", ""});
+        this.employerTin = employer[0];
+        this.employerName = employer[1];
+    }
+    
+    /**
+     * Use a specific set of withholding tax tables instead of the default registry
+     */
+    public void setWithholdingTaxTables(WithholdingTaxRegistry withholdingTaxTables) {
+        this.withholdingTaxTables = withholdingTaxTables;
+    }
+    
+    /**
+     * Set the employer TIN and name printed on the certificates
+     */
+    public void setEmployer(String employerTin, String employerName) {
+        this.employerTin = employerTin != null ? employerTin : "";
+        this.employerName = employerName != null ? employerName : "";
+    }
+    
+    /**
+     * Write the alphalist {@code <year>-alphalist.csv} and the 2316 documents {@code <year>-2316/<employee ID>.txt}
+     * for a year into a directory, resuming an earlier generation of the same year that did not finish.
+     * @param listener Progress callback (employees written, employees in the year)
+     * @param cancelled Polled after each chunk; once it returns true generation stops and can be resumed later
+     */
+    public Result generate(int year, Path directory, ProgressListener listener, BooleanSupplier cancelled) throws IOException {
+        ProgressListener progress = listener != null ? listener : ProgressListener.NONE;
+        BooleanSupplier isCancelled = cancelled != null ? cancelled : () -> false;
+        long startTime = System.currentTimeMillis();
+        Result result = new Result(year);
+        
+        Path alphalist = directory.resolve(year + "-alphalist.csv");
+        Path certificates = directory.resolve(year + "-2316");
+        Path checkpointFile = directory.resolve(year + CHECKPOINT_SUFFIX);
+        Files.createDirectories(certificates);
+        
+        Checkpoint checkpoint = Checkpoint.read(checkpointFile);
+        if (checkpoint != null && !Files.isRegularFile(alphalist)) {
+            checkpoint = null;
+        }
+        result.resumed = checkpoint != null;
+        
+        List<YearToDate> totals = ledger.getYear(year);
+        totals.sort(Comparator.comparingInt(YearToDate::getEmployeeId));
+        result.employeesInYear = totals.size();
+        List<YearToDate> remaining = new ArrayList<>();
+        for (YearToDate employeeTotals : totals) {
+            if (checkpoint == null || employeeTotals.getEmployeeId() > checkpoint.lastEmployeeId) {
+                remaining.add(employeeTotals);
+            }
+        }
+        Map<Integer, Employee> employees = loadEmployees(remaining);
+        WithholdingTaxTable annualTable = withholdingTaxTables.getTable(PayFrequency.ANNUALLY, LocalDate.of(year, 12, 31));
+        
+        if (checkpoint == null) {
+            checkpoint = new Checkpoint(year);
+        }
+        result.alreadyWritten = checkpoint.employees;
+        progress.onProgress(checkpoint.employees, checkpoint.employees + remaining.size());
+        
+        try (FileChannel channel = FileChannel.open(alphalist, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.truncate(checkpoint.alphalistBytes);
+            channel.position(checkpoint.alphalistBytes);
+            CsvWriter out = new CsvWriter(new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel),
+                                                                                    StandardCharsets.UTF_8)));
+            if (checkpoint.alphalistBytes == 0) {
+                out.writeRecord(ALPHALIST_HEADER);
+            }
+            
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                // Chunks complete in submission order, so alphalist lines stay in employee order
+                ArrayDeque<Future<List<YearEndCertificate>>> inFlight = new ArrayDeque<>();
+                int next = 0;
+                while (next < remaining.size() || !inFlight.isEmpty()) {
+                    while (next < remaining.size() && inFlight.size() < parallelism * 2) {
+                        List<YearToDate> chunk = remaining.subList(next, Math.min(next + chunkSize, remaining.size()));
+                        inFlight.add(pool.submit(() -> certifyChunk(chunk, employees, annualTable, certificates, result)));
+                        next += chunk.size();
+                    }
+                    List<YearEndCertificate> certified = inFlight.poll().get();
+                    for (YearEndCertificate certificate : certified) {
+                        writeAlphalistLine(out, checkpoint, certificate, employees.get(certificate.getEmployeeId()));
+                    }
+                    if (!certified.isEmpty()) {
+                        checkpoint.lastEmployeeId = certified.get(certified.size() - 1).getEmployeeId();
+                    }
+                    out.flush();
+                    checkpoint.alphalistBytes = channel.position();
+                    checkpoint.write(checkpointFile);
+                    result.written += certified.size();
+                    progress.onProgress(checkpoint.employees, checkpoint.employees + remaining.size() - result.written);
+                    
+                    if (isCancelled.getAsBoolean() && (next < remaining.size() || !inFlight.isEmpty())) {
+                        result.cancelled = true;
+                        break;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.cancelled = true;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() instanceof UncheckedIOException ? e.getCause().getCause() : e.getCause();
+                throw cause instanceof IOException ? (IOException) cause : new IOException("Year-end generation failed", cause);
+            } finally {
+                pool.shutdownNow();
+            }
+            
+            if (!result.cancelled) {
+                writeTotalsLine(out, checkpoint);
+                out.flush();
+            }
+        }
+        if (!result.cancelled) {
+            Files.deleteIfExists(checkpointFile);
+        }
+        
+        result.alphalist = alphalist;
+        result.certificates = certificates;
+        result.employees = checkpoint.employees;
+        result.totals = checkpoint.totals.clone();
+        result.elapsedMillis = System.currentTimeMillis() - startTime;
+        return result;
+    }
+    
+    /**
+     * Employees of the year's totals, including those who have since left. The stream holds the
+     * connection, so this runs before any chunk is computed.
+     */
+    private Map<Integer, Employee> loadEmployees(List<YearToDate> totals) throws IOException {
+        Map<Integer, Employee> employees = new HashMap<>();
+        for (YearToDate employeeTotals : totals) {
+            employees.put(employeeTotals.getEmployeeId(), null);
+        }
+        long streamed = databaseDAO.streamEmployees(employee -> {
+            if (employees.containsKey(employee.getEmployeeId())) {
+                employees.put(employee.getEmployeeId(), employee);
+            }
+        });
+        if (streamed < 0) {
+            throw new IOException("Database error while reading employees");
+        }
+        return employees;
+    }
+    
+    /**
+     * Compute and write the 2316 documents of one chunk of employees (runs on a pool thread)
+     */
+    private List<YearEndCertificate> certifyChunk(List<YearToDate> chunk, Map<Integer, Employee> employees,
+                                                  WithholdingTaxTable annualTable, Path certificates, Result result) {
+        List<YearEndCertificate> certified = new ArrayList<>(chunk.size());
+        StringBuilder document = new StringBuilder(4096);
+        for (YearToDate totals : chunk) {
+            Employee employee = employees.get(totals.getEmployeeId());
+            if (employee == null) {
+                result.skip(SKIP_UNKNOWN_EMPLOYEE);
+                continue;
+            }
+            YearEndCertificate certificate = certify(totals, employee, annualTable);
+            document.setLength(0);
+            render2316(document, certificate, employee);
+            Path file = certificates.resolve(String.format("EMP%03d.txt", employee.getEmployeeId()));
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.append(document);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            certified.add(certificate);
+        }
+        return certified;
+    }
+    
+    YearEndCertificate certify(YearToDate totals, Employee employee, WithholdingTaxTable annualTable) {
+        int year = totals.getYear();
+        long thirteenthMonthPay = Money.toCentavos(
+            PhilippinePayrollCalculator.calculate13thMonthPay(totals.getBasicPay().doubleValue()));
+        long nonTaxableBenefits = Math.min(thirteenthMonthPay, Money.toCentavos(PhilippinePayrollCalculator.THIRTEENTH_MONTH_EXEMPTION));
+        long taxable = totals.getTaxableIncome().getCentavos() + thirteenthMonthPay - nonTaxableBenefits;
+        long taxDue = Money.toCentavos(annualTable.taxOn(Money.toPesos(taxable)));
+        
+        LocalDate from = LocalDate.of(year, 1, 1);
+        LocalDate hired = employee.getJoiningDate() != null ? employee.getJoiningDate() : employee.getHireDate();
+        if (hired != null && hired.isAfter(from)) {
+            from = hired;
+        }
+        LocalDate to = LocalDate.of(year, 12, 31);
+        if (employee.getExitDate() != null && employee.getExitDate().isBefore(to)) {
+            to = employee.getExitDate();
+        }
+        return new YearEndCertificate(totals, thirteenthMonthPay, nonTaxableBenefits, taxDue, from, to);
+    }
+    
+    private static void writeAlphalistLine(CsvWriter out, Checkpoint checkpoint, YearEndCertificate certificate,
+                                           Employee employee) throws IOException {
+        long[] amounts = amounts(certificate);
+        for (int i = 0; i < TOTAL_COLUMNS; i++) {
+            checkpoint.totals[i] += amounts[i];
+        }
+        checkpoint.employees++;
+        String[] line = new String[ALPHALIST_HEADER.length];
+        line[0] = Long.toString(checkpoint.employees);
+        line[1] = employee.getTin();
+        line[2] = employee.getLastName();
+        line[3] = employee.getFirstName();
+        line[4] = String.format("EMP%03d", employee.getEmployeeId());
+        line[5] = certificate.getEmployedFrom().toString();
+        line[6] = certificate.getEmployedTo().toString();
+        for (int i = 0; i < TOTAL_COLUMNS; i++) {
+            line[7 + i] = pesos(amounts[i]);
+        }
+        out.writeRecord(line);
+    }
+    
+    private static void writeTotalsLine(CsvWriter out, Checkpoint checkpoint) throws IOException {
+        String[] line = new String[ALPHALIST_HEADER.length];
+        line[0] = "TOTAL";
+        line[1] = Long.toString(checkpoint.employees);
+        for (int i = 2; i < 7; i++) {
+            line[i] = "";
+        }
+        for (int i = 0; i < TOTAL_COLUMNS; i++) {
+            line[7 + i] = pesos(checkpoint.totals[i]);
+        }
+        out.writeRecord(line);
+    }
+    
+    /**
+     * The alphalist's amount columns, in header order
+     */
+    private static long[] amounts(YearEndCertificate certificate) {
+        return new long[] {
+            certificate.getGrossCompensationCentavos(),
+            certificate.getThirteenthMonthPayCentavos(),
+            certificate.getNonTaxableBenefitsCentavos(),
+            certificate.getContributionsCentavos(),
+            certificate.getNonTaxableCentavos(),
+            certificate.getTaxableCentavos(),
+            certificate.getTaxDueCentavos(),
+            certificate.getTaxWithheldCentavos(),
+            certificate.getAdjustmentCentavos()
+        };
+    }
+    
+    private void render2316(StringBuilder out, YearEndCertificate certificate, Employee employee) {
+        String rule = "───────────────────────────────────────────────────────────────────────────────\n";
+        out.append("═══════════════════════════════════════════════════════════════════════════════\n");
+        out.append("                 CERTIFICATE OF COMPENSATION PAYMENT / TAX WITHHELD\n");
+        out.append("                          BIR Form No. 2316 - Year ").append(certificate.getYear()).append('\n');
+        out.append("═══════════════════════════════════════════════════════════════════════════════\n\n");
+        
+        out.append("PART I - EMPLOYEE INFORMATION\n").append(rule);
+        field(out, "Employee Name", employee.getLastName() + ", " + employee.getFirstName());
+        field(out, "Employee ID", String.format("EMP%03d", employee.getEmployeeId()));
+        field(out, "TIN", employee.getTin());
+        field(out, "Period of Employment", certificate.getEmployedFrom() + " to " + certificate.getEmployedTo());
+        out.append('\n');
+        
+        out.append("PART II - EMPLOYER INFORMATION\n").append(rule);
+        field(out, "Employer Name", employerName);
+        field(out, "Employer TIN", employerTin);
+        out.append('\n');
+        
+        out.append("PART IV-A - SUMMARY\n").append(rule);
+        amount(out, "Gross Compensation Income", certificate.getGrossCompensationCentavos());
+        amount(out, "Less: Total Non-Taxable/Exempt Compensation", certificate.getNonTaxableCentavos());
+        amount(out, "Taxable Compensation Income", certificate.getTaxableCentavos());
+        amount(out, "Tax Due", certificate.getTaxDueCentavos());
+        amount(out, "Amount of Taxes Withheld", certificate.getTaxWithheldCentavos());
+        long adjustment = certificate.getAdjustmentCentavos();
+        amount(out, adjustment >= 0 ? "Tax Still to be Withheld" : "Tax to be Refunded", Math.abs(adjustment));
+        out.append('\n');
+        
+        out.append("PART IV-B - DETAILS OF COMPENSATION\n").append(rule);
+        out.append("Non-Taxable/Exempt Compensation\n");
+        amount(out, "  13th Month Pay and Other Benefits", certificate.getNonTaxableBenefitsCentavos());
+        amount(out, "  SSS, PhilHealth, Pag-IBIG Contributions", certificate.getContributionsCentavos());
+        long other = certificate.getNonTaxableCentavos() - certificate.getNonTaxableBenefitsCentavos()
+                     - certificate.getContributionsCentavos();
+        if (other != 0) {
+            amount(out, "  Other Non-Taxable Compensation", other);
+        }
+        out.append("Taxable Compensation\n");
+        amount(out, "  Salaries and Other Compensation", certificate.getTotals().getTaxableIncome().getCentavos());
+        amount(out, "  13th Month Pay in Excess of the Exemption",
+               certificate.getThirteenthMonthPayCentavos() - certificate.getNonTaxableBenefitsCentavos());
+        out.append('\n');
+        out.append(String.format("%-44s : %d\n", "Finalized Payrolls", certificate.getTotals().getPayrollCount()));
+        out.append("═══════════════════════════════════════════════════════════════════════════════\n");
+    }
+    
+    private static void field(StringBuilder out, String label, String value) {
+        out.append(String.format("%-44s : %s\n", label, value != null ? value : ""));
+    }
+    
+    private static void amount(StringBuilder out, String label, long centavos) {
+        out.append(String.format("%-44s : ₱ %,14.2f\n", label, BigDecimal.valueOf(centavos, 2)));
+    }
+    
+    private static String pesos(long centavos) {
+        return BigDecimal.valueOf(centavos, 2).toPlainString();
+    }
+    
+    /**
+     * How far a generation got: the last employee in the alphalist, its length in bytes up to that
+     * employee's line and the running totals of its amount columns
+     */
+    private static final class Checkpoint {
+        final int year;
+        int lastEmployeeId;
+        long employees;
+        long alphalistBytes;
+        long[] totals = new long[TOTAL_COLUMNS];
+        
+        Checkpoint(int year) {
+            this.year = year;
+        }
+        
+        static Checkpoint read(Path file) throws IOException {
+            if (!Files.isRegularFile(file)) {
+                return null;
+            }
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            }
+            try {
+                Checkpoint checkpoint = new Checkpoint(Integer.parseInt(properties.getProperty("year")));
+                checkpoint.lastEmployeeId = Integer.parseInt(properties.getProperty("lastEmployeeId"));
+                checkpoint.employees = Long.parseLong(properties.getProperty("employees"));
+                checkpoint.alphalistBytes = Long.parseLong(properties.getProperty("alphalistBytes"));
+                String[] totals = properties.getProperty("totals").split(",");
+                for (int i = 0; i < TOTAL_COLUMNS; i++) {
+                    checkpoint.totals[i] = Long.parseLong(totals[i]);
+                }
+                return checkpoint;
+            } catch (RuntimeException e) {
+                System.err.println("Error reading year-end checkpoint " + file + ", starting over: " + e.getMessage());
+                return null;
+            }
+        }
+        
+        /**
+         * Replace the checkpoint file in one step, so a crash leaves either the old or the new one
+         */
+        void write(Path file) throws IOException {
+            Properties properties = new Properties();
+            properties.setProperty("year", Integer.toString(year));
+            properties.setProperty("lastEmployeeId", Integer.toString(lastEmployeeId));
+            properties.setProperty("employees", Long.toString(employees));
+            properties.setProperty("alphalistBytes", Long.toString(alphalistBytes));
+            StringBuilder joined = new StringBuilder();
+            for (int i = 0; i < TOTAL_COLUMNS; i++) {
+                joined.append(i > 0 ? "," : "").append(totals[i]);
+            }
+            properties.setProperty("totals", joined.toString());
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                properties.store(out, "Year-end generation checkpoint");
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+    
+    /**
+     * Outcome of a year-end generation
+     */
+    public static class Result {
+        private final int year;
+        private final Map<String, Long> skipped = new ConcurrentHashMap<>();
+        private Path alphalist;
+        private Path certificates;
+        private boolean resumed;
+        private boolean cancelled;
+        private long employeesInYear;
+        private long alreadyWritten;
+        private long written;
+        private long employees;
+        private long[] totals = new long[TOTAL_COLUMNS];
+        private long elapsedMillis;
+        
+        Result(int year) {
+            this.year = year;
+        }
+        
+        void skip(String reason) {
+            skipped.merge(reason, 1L, Long::sum);
+        }
+        
+        public int getYear() { return year; }
+        public Path getAlphalist() { return alphalist; }
+        
+        /**
+         * Directory holding one 2316 document per employee
+         */
+        public Path getCertificates() { return certificates; }
+        public boolean isResumed() { return resumed; }
+        
+        /**
+         * True if generation stopped early; generating the year again into the same directory resumes it
+         */
+        public boolean isCancelled() { return cancelled; }
+        public long getEmployeesInYear() { return employeesInYear; }
+        
+        /**
+         * Employees written by an earlier, interrupted generation
+         */
+        public long getAlreadyWritten() { return alreadyWritten; }
+        
+        /**
+         * Employees written by this generation
+         */
+        public long getWritten() { return written; }
+        
+        /**
+         * Employees in the alphalist so far
+         */
+        public long getEmployees() { return employees; }
+        public Map<String, Long> getSkipped() { return new TreeMap<>(skipped); }
+        public Money getGrossCompensation() { return Money.ofCentavos(totals[0]); }
+        public Money getTaxableCompensation() { return Money.ofCentavos(totals[5]); }
+        public Money getTaxDue() { return Money.ofCentavos(totals[6]); }
+        public Money getTaxWithheld() { return Money.ofCentavos(totals[7]); }
+        public long getElapsedMillis() { return elapsedMillis; }
+        
+        @Override
+        public String toString() {
+            return String.format("Year-end %d: %d employees (%d this run%s), gross %s, taxable %s, due %s, withheld %s%s in %d ms",
+                                 year, employees, written, resumed ? ", resumed" : "", getGrossCompensation().format(),
+                                 getTaxableCompensation().format(), getTaxDue().format(), getTaxWithheld().format(),
+                                 cancelled ? ", cancelled" : "", elapsedMillis);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package managers;
+
+import models.Money;
+import models.PayFrequency;
+import models.Payroll;
+import models.YearToDate;
+import database.DatabaseDAO;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Year-to-date totals of every employee's finalized payrolls, per tax year
+ *
+ * The totals live in the payroll_ytd table and are incremented in the same transaction that finalizes
+ * a payroll (see PayrollManager.finalizePayrolls), so they never need rebuilding from payroll rows.
+ * A year is read from the table once, the first time it is asked for, and kept in memory; after that
+ * every lookup - and the 13th-month pay, annual tax true-up and BIR 2316 figures derived from it -
+ * is a single map read.
+ */
+public class YearToDateLedger {
+    private final DatabaseDAO databaseDAO;
+    private final ConcurrentHashMap<Integer, ConcurrentHashMap<Integer, YearToDate>> totalsByYear = new ConcurrentHashMap<>();
+    private volatile WithholdingTaxRegistry withholdingTaxTables = WithholdingTaxRegistry.getDefault();
+    
+    public YearToDateLedger(DatabaseDAO databaseDAO) {
+        this.databaseDAO = databaseDAO;
+    }
+    
+    /**
+     * Use a specific set of withholding tax tables instead of the default registry
+     */
+    public void setWithholdingTaxTables(WithholdingTaxRegistry withholdingTaxTables) {
+        this.withholdingTaxTables = withholdingTaxTables;
+    }
+    
+    /**
+     * Totals of one employee in one tax year (all zero if nothing has been finalized yet)
+     */
+    public YearToDate get(int employeeId, int year) {
+        YearToDate totals = loadYear(year).get(employeeId);
+        return totals != null ? totals : YearToDate.empty(employeeId, year);
+    }
+    
+    /**
+     * Totals of every employee with a finalized payroll in a tax year
+     */
+    public List<YearToDate> getYear(int year) {
+        return new ArrayList<>(loadYear(year).values());
+    }
+    
+    /**
+     * 13th-month pay earned so far in a year: one twelfth of the basic pay of its finalized payrolls
+     */
+    public Money getThirteenthMonthPay(int employeeId, int year) {
+        return Money.of(PhilippinePayrollCalculator.calculate13thMonthPay(get(employeeId, year).getBasicPay().doubleValue()));
+    }
+    
+    /**
+     * Tax due on the year's taxable compensation under the annual table
+     */
+    public Money getAnnualTaxDue(int employeeId, int year) {
+        WithholdingTaxTable annualTable = withholdingTaxTables.getTable(PayFrequency.ANNUALLY, LocalDate.of(year, 12, 31));
+        return Money.of(annualTable.taxOn(get(employeeId, year).getTaxableIncome().doubleValue()));
+    }
+    
+    /**
+     * Annualization true-up: tax due for the year less tax already withheld. Positive amounts are still
+     * to be withheld (usually from the last payroll of the year), negative amounts are to be refunded.
+     */
+    public Money getTaxTrueUp(int employeeId, int year) {
+        return getAnnualTaxDue(employeeId, year).minus(get(employeeId, year).getTaxWithheld());
+    }
+    
+    /**
+     * Forget every loaded year, so the next lookup reads the table again
+     */
+    public synchronized void invalidate() {
+        totalsByYear.clear();
+    }
+    
+    /**
+     * Save payrolls as finalized and add them to the ledger. The database transaction and the update of
+     * the years in memory happen under the same lock as loading a year, so a year being read while
+     * payrolls are finalized counts each of them exactly once. Years not loaded yet need no update:
+     * the rows they will be read from already include these payrolls.
+     * @param payrolls Payrolls to finalize, with their status already set to FINALIZED
+     * @return IDs of the payrolls finalized by this call, or null if the database rejected the batch
+     */
+    synchronized List<Integer> finalizePayrolls(List<Payroll> payrolls) {
+        List<Integer> finalized = databaseDAO.finalizePayrolls(payrolls);
+        if (finalized == null) {
+            return null;
+        }
+        Set<Integer> finalizedIds = new HashSet<>(finalized);
+        for (Payroll payroll : payrolls) {
+            if (!finalizedIds.contains(payroll.getPayrollId())) {
+                continue;
+            }
+            ConcurrentHashMap<Integer, YearToDate> year = totalsByYear.get(YearToDate.yearOf(payroll));
+            if (year != null) {
+                year.compute(payroll.getEmployeeId(),
+                             (employeeId, totals) -> totals != null ? totals.plus(payroll) : YearToDate.of(payroll));
+            }
+        }
+        return finalized;
+    }
+    
+    private ConcurrentHashMap<Integer, YearToDate> loadYear(int year) {
+        ConcurrentHashMap<Integer, YearToDate> totals = totalsByYear.get(year);
+        if (totals != null) {
+            return totals;
+        }
+        // Serialized with finalizePayrolls (see there)
+        synchronized (this) {
+            totals = totalsByYear.get(year);
+            if (totals == null) {
+                List<YearToDate> stored = databaseDAO.getYearToDate(year);
+                if (stored == null) {
+                    return new ConcurrentHashMap<>();
+                }
+                totals = new ConcurrentHashMap<>();
+                for (YearToDate row : stored) {
+                    totals.put(row.getEmployeeId(), row);
+                }
+                totalsByYear.put(year, totals);
+            }
+            return totals;
+        }
+    }
+}
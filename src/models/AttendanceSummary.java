@@ -0,0 +1,76 @@
+package models;
+
+import java.time.YearMonth;
+
+/**
+ * Hours one employee worked in one pay period, aggregated from paired time-clock punches
+ *
+ * Amounts are whole minutes so totals stay exact however many shifts go into them. Regular and
+ * overtime minutes split each work day at the standard 8 hours; night differential (22:00-06:00)
+ * and holiday minutes overlap them, since those premiums are paid on top of the hour's base rate.
+ * Instances are immutable.
+ */
+public final class AttendanceSummary {
+    private final int employeeId;
+    private final YearMonth period;
+    private final int daysPresent;
+    private final int regularMinutes;
+    private final int overtimeMinutes;
+    private final int nightDifferentialMinutes;
+    private final int regularHolidayMinutes;
+    private final int specialHolidayMinutes;
+    private final int regularHolidaysWorked;
+    private final int specialHolidaysWorked;
+    private final int unpairedPunches;
+    
+    public AttendanceSummary(int employeeId, YearMonth period, int daysPresent, int regularMinutes, int overtimeMinutes,
+                             int nightDifferentialMinutes, int regularHolidayMinutes, int specialHolidayMinutes,
+                             int regularHolidaysWorked, int specialHolidaysWorked, int unpairedPunches) {
+        this.employeeId = employeeId;
+        this.period = period;
+        this.daysPresent = daysPresent;
+        this.regularMinutes = regularMinutes;
+        this.overtimeMinutes = overtimeMinutes;
+        this.nightDifferentialMinutes = nightDifferentialMinutes;
+        this.regularHolidayMinutes = regularHolidayMinutes;
+        this.specialHolidayMinutes = specialHolidayMinutes;
+        this.regularHolidaysWorked = regularHolidaysWorked;
+        this.specialHolidaysWorked = specialHolidaysWorked;
+        this.unpairedPunches = unpairedPunches;
+    }
+    
+    public int getEmployeeId() { return employeeId; }
+    public YearMonth getPeriod() { return period; }
+    
+    /**
+     * Days with at least one shift starting on them
+     */
+    public int getDaysPresent() { return daysPresent; }
+    
+    public int getRegularMinutes() { return regularMinutes; }
+    public int getOvertimeMinutes() { return overtimeMinutes; }
+    public int getNightDifferentialMinutes() { return nightDifferentialMinutes; }
+    public int getRegularHolidayMinutes() { return regularHolidayMinutes; }
+    public int getSpecialHolidayMinutes() { return specialHolidayMinutes; }
+    public int getRegularHolidaysWorked() { return regularHolidaysWorked; }
+    public int getSpecialHolidaysWorked() { return specialHolidaysWorked; }
+    
+    /**
+     * Punches that could not be paired into a shift (a missing in or out punch)
+     */
+    public int getUnpairedPunches() { return unpairedPunches; }
+    
+    public double getRegularHours() { return regularMinutes / 60.0; }
+    public double getOvertimeHours() { return overtimeMinutes / 60.0; }
+    public double getNightDifferentialHours() { return nightDifferentialMinutes / 60.0; }
+    public double getRegularHolidayHours() { return regularHolidayMinutes / 60.0; }
+    public double getSpecialHolidayHours() { return specialHolidayMinutes / 60.0; }
+    
+    @Override
+    public String toString() {
+        return String.format("AttendanceSummary{employee=%d, period=%s, days=%d, regular=%.2fh, overtime=%.2fh, night=%.2fh, "
+                           + "regularHoliday=%.2fh, specialHoliday=%.2fh, unpaired=%d}",
+                           employeeId, period, daysPresent, getRegularHours(), getOvertimeHours(), getNightDifferentialHours(),
+                           getRegularHolidayHours(), getSpecialHolidayHours(), unpairedPunches);
+    }
+}
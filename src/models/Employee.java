@@ -73,6 +73,12 @@ import java.util.ArrayList;
     private String paymentMethod;     // BANK_TRANSFER, CASH, CHECK
     private String paymentFrequency;  // WEEKLY, BIWEEKLY, MONTHLY
     
+    // Government Membership Numbers
+    private String sssNumber;
+    private String philHealthNumber;
+    private String pagIbigNumber;
+    private String tin;
+    
     // Document Storage
     private List<EmployeeDocument> documents;
     
@@ -199,6 +205,10 @@ import java.util.ArrayList;
         this.routingNumber = "";
         this.paymentMethod = "BANK_TRANSFER";
         this.paymentFrequency = "MONTHLY";
+        this.sssNumber = "";
+        this.philHealthNumber = "";
+        this.pagIbigNumber = "";
+        this.tin = "";
     }
     
     // Getters and setters
@@ -316,6 +326,18 @@ import java.util.ArrayList;
     public String getPaymentFrequency() { return paymentFrequency; }
     public void setPaymentFrequency(String paymentFrequency) { this.paymentFrequency = paymentFrequency; }
     
+    public String getSssNumber() { return sssNumber; }
+    public void setSssNumber(String sssNumber) { this.sssNumber = sssNumber; }
+    
+    public String getPhilHealthNumber() { return philHealthNumber; }
+    public void setPhilHealthNumber(String philHealthNumber) { this.philHealthNumber = philHealthNumber; }
+    
+    public String getPagIbigNumber() { return pagIbigNumber; }
+    public void setPagIbigNumber(String pagIbigNumber) { this.pagIbigNumber = pagIbigNumber; }
+    
+    public String getTin() { return tin; }
+    public void setTin(String tin) { this.tin = tin; }
+    
     // Document Management
     public List<EmployeeDocument> getDocuments() { return documents; }
     public void setDocuments(List<EmployeeDocument> documents) { this.documents = documents; }
@@ -156,14 +156,20 @@ public class EmployeeSalaryComponent {
     }
     
     public boolean isCurrentlyActive() {
+        return isActiveOn(LocalDate.now());
+    }
+    
+    /**
+     * Whether the assignment is active and in effect on a given date
+     */
+    public boolean isActiveOn(LocalDate date) {
         if (!isActive) return false;
         
-        LocalDate today = LocalDate.now();
-        if (effectiveDate != null && effectiveDate.isAfter(today)) {
+        if (effectiveDate != null && effectiveDate.isAfter(date)) {
             return false;
         }
         
-        if (endDate != null && endDate.isBefore(today)) {
+        if (endDate != null && endDate.isBefore(date)) {
             return false;
         }
         
@@ -0,0 +1,246 @@
+package models;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Immutable peso amount stored as a whole number of centavos.
+ *
+ * Sums and differences are exact. Anything that can produce a fraction of a centavo (rates,
+ * percentages, division, conversion from double or BigDecimal) takes or documents an explicit
+ * rounding mode. The static methods work on raw centavo values and allocate nothing, for hot
+ * loops such as batch payroll runs; the instance methods wrap them for ordinary code.
+ */
+public final class Money implements Comparable<Money> {
+    public static final Money ZERO = new Money(0);
+    public static final RoundingMode DEFAULT_ROUNDING = RoundingMode.HALF_UP;
+    
+    private static final long CENTAVOS_PER_PESO = 100;
+    // Percentages are carried as hundredths of a percent (12.34% = 1234), so a percentage of an
+    // amount is one integer multiply and one rounded integer divide
+    private static final long PERCENT_SCALE = 10_000;
+    // Fraction of a centavo below a half that toCentavos(double) still rounds up, see there
+    private static final double HALF_CENTAVO_TOLERANCE = 1e-7;
+    
+    private final long centavos;
+    
+    private Money(long centavos) {
+        this.centavos = centavos;
+    }
+    
+    public static Money ofCentavos(long centavos) {
+        return centavos == 0 ? ZERO : new Money(centavos);
+    }
+    
+    /**
+     * Peso amount from a double, rounded half-up (away from zero) to the centavo
+     */
+    public static Money of(double pesos) {
+        return ofCentavos(toCentavos(pesos));
+    }
+    
+    /**
+     * Peso amount from a BigDecimal, rounded to the centavo with the given mode
+     */
+    public static Money of(BigDecimal pesos, RoundingMode rounding) {
+        return ofCentavos(toCentavos(pesos, rounding));
+    }
+    
+    public static Money of(BigDecimal pesos) {
+        return of(pesos, DEFAULT_ROUNDING);
+    }
+    
+    // ---- Allocation-free operations on centavo values ----
+    
+    /**
+     * Round a peso amount to centavos, half-up (away from zero).
+     *
+     * Amounts computed in double arithmetic land a few ulps off the decimal result: 1.005 * 100 is
+     * 100.49999999999999, and 91431.45 / 22 (exactly 4155.975) is 4155.974999999999. An amount up to
+     * HALF_CENTAVO_TOLERANCE of a centavo below a half is therefore taken to be the half and rounded
+     * up, so both of these round the way the decimal amount does (1.01 and 4155.98). No amount of
+     * money is that close to a half centavo without being one. This is deliberately not the rounding
+     * of String.format("%.2f"), which rounds the double's shortest decimal form and gives 4155.97;
+     * text that shows a total next to its parts should add up centavo amounts from this method rather
+     * than format a double sum.
+     */
+    public static long toCentavos(double pesos) {
+        if (Double.isNaN(pesos) || Double.isInfinite(pesos)) {
+            throw new ArithmeticException("Not a finite amount: " + pesos);
+        }
+        double scaled = pesos * CENTAVOS_PER_PESO;
+        double rounded = Math.floor(Math.abs(scaled) + 0.5 + HALF_CENTAVO_TOLERANCE);
+        return (long) Math.copySign(rounded, scaled);
+    }
+    
+    public static long toCentavos(BigDecimal pesos, RoundingMode rounding) {
+        return pesos.movePointRight(2).setScale(0, rounding).longValueExact();
+    }
+    
+    public static double toPesos(long centavos) {
+        return centavos / (double) CENTAVOS_PER_PESO;
+    }
+    
+    /**
+     * Round a peso amount to the centavo and return it as a double
+     */
+    public static double round(double pesos) {
+        return toPesos(toCentavos(pesos));
+    }
+    
+    /**
+     * Convert a percentage such as 12.5 to hundredths of a percent (1250), rounded half-up
+     */
+    public static long toBasisPoints(BigDecimal percent) {
+        return percent.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+    
+    public static long toBasisPoints(double percent) {
+        return toCentavos(percent);
+    }
+    
+    /**
+     * A percentage (in hundredths of a percent) of an amount, rounded with the given mode
+     */
+    public static long percentOf(long centavos, long basisPoints, RoundingMode rounding) {
+        return divide(Math.multiplyExact(centavos, basisPoints), PERCENT_SCALE, rounding);
+    }
+    
+    /**
+     * An amount multiplied by a rate such as 0.0275, rounded half-up to the centavo
+     */
+    public static long multiply(long centavos, double rate) {
+        return toCentavos(toPesos(centavos) * rate);
+    }
+    
+    /**
+     * Integer division with explicit rounding
+     */
+    public static long divide(long dividend, long divisor, RoundingMode rounding) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        
+        int sign = (dividend < 0) == (divisor < 0) ? 1 : -1;
+        long twiceRemainder = Math.abs(remainder) * 2;
+        long absDivisor = Math.abs(divisor);
+        boolean awayFromZero;
+        switch (rounding) {
+            case UP:
+                awayFromZero = true;
+                break;
+            case DOWN:
+                awayFromZero = false;
+                break;
+            case CEILING:
+                awayFromZero = sign > 0;
+                break;
+            case FLOOR:
+                awayFromZero = sign < 0;
+                break;
+            case HALF_UP:
+                awayFromZero = twiceRemainder >= absDivisor;
+                break;
+            case HALF_DOWN:
+                awayFromZero = twiceRemainder > absDivisor;
+                break;
+            case HALF_EVEN:
+                awayFromZero = twiceRemainder > absDivisor || (twiceRemainder == absDivisor && (quotient & 1) != 0);
+                break;
+            default:
+                throw new ArithmeticException("Rounding necessary: " + dividend + " / " + divisor);
+        }
+        return awayFromZero ? quotient + sign : quotient;
+    }
+    
+    // ---- Instance operations ----
+    
+    public Money plus(Money other) {
+        return ofCentavos(Math.addExact(centavos, other.centavos));
+    }
+    
+    public Money minus(Money other) {
+        return ofCentavos(Math.subtractExact(centavos, other.centavos));
+    }
+    
+    public Money times(long factor) {
+        return ofCentavos(Math.multiplyExact(centavos, factor));
+    }
+    
+    public Money times(double rate) {
+        return ofCentavos(multiply(centavos, rate));
+    }
+    
+    public Money percent(BigDecimal percent, RoundingMode rounding) {
+        return ofCentavos(percentOf(centavos, toBasisPoints(percent), rounding));
+    }
+    
+    public Money dividedBy(long divisor, RoundingMode rounding) {
+        return ofCentavos(divide(centavos, divisor, rounding));
+    }
+    
+    public Money negate() {
+        return ofCentavos(-centavos);
+    }
+    
+    public Money max(Money other) {
+        return centavos >= other.centavos ? this : other;
+    }
+    
+    public Money min(Money other) {
+        return centavos <= other.centavos ? this : other;
+    }
+    
+    public boolean isZero() {
+        return centavos == 0;
+    }
+    
+    public boolean isNegative() {
+        return centavos < 0;
+    }
+    
+    public boolean isPositive() {
+        return centavos > 0;
+    }
+    
+    public long getCentavos() {
+        return centavos;
+    }
+    
+    public double doubleValue() {
+        return toPesos(centavos);
+    }
+    
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+    
+    /**
+     * Amount with thousands separators and the peso sign, e.g. ₱12,345.60
+     */
+    public String format() {
+        return String.format("₱%,.2f", toBigDecimal());
+    }
+    
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(centavos, other.centavos);
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Money && ((Money) obj).centavos == centavos;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Long.hashCode(centavos);
+    }
+    
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
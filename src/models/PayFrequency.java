@@ -0,0 +1,45 @@
+package models;
+
+/**
+ * How often an employee is paid, with the number of pay periods in a year
+ */
+public enum PayFrequency {
+    DAILY(261),
+    WEEKLY(52),
+    BIWEEKLY(26),
+    SEMI_MONTHLY(24),
+    MONTHLY(12),
+    QUARTERLY(4),
+    ANNUALLY(1);
+    
+    private final int periodsPerYear;
+    
+    PayFrequency(int periodsPerYear) {
+        this.periodsPerYear = periodsPerYear;
+    }
+    
+    public int getPeriodsPerYear() {
+        return periodsPerYear;
+    }
+    
+    /**
+     * Parse an Employee.paymentFrequency value; unknown or missing values are treated as MONTHLY
+     */
+    public static PayFrequency fromString(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return MONTHLY;
+        }
+        String normalized = value.trim().toUpperCase().replace('-', '_').replace(' ', '_');
+        if ("SEMIMONTHLY".equals(normalized)) {
+            return SEMI_MONTHLY;
+        }
+        if ("ANNUAL".equals(normalized)) {
+            return ANNUALLY;
+        }
+        try {
+            return valueOf(normalized);
+        } catch (IllegalArgumentException e) {
+            return MONTHLY;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package models;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+/**
+ * One pay period in a pay calendar: the days it covers, the day attendance for it is cut off, and
+ * the day it is paid. Instances are immutable.
+ *
+ * Payrolls are kept per pay period under the period's key (see {@link #getKey}), and every period
+ * belongs to the month its last day falls in. The period that closes its month (no later period of
+ * the same frequency ends in that month) is the one the month's statutory contributions are
+ * deducted in.
+ */
+public final class PayPeriod implements Comparable<PayPeriod> {
+    private static final DateTimeFormatter LABEL_FORMAT = DateTimeFormatter.ofPattern("MMM d, yyyy");
+    private static final String RANGE_SEPARATOR = "--";
+    
+    private final PayFrequency frequency;
+    private final LocalDate start;
+    private final LocalDate end;
+    private final LocalDate cutoff;
+    private final LocalDate payDate;
+    private final boolean closesMonth;
+    
+    public PayPeriod(PayFrequency frequency, LocalDate start, LocalDate end, LocalDate cutoff, LocalDate payDate,
+                     boolean closesMonth) {
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("Pay period ends before it starts: " + start + " to " + end);
+        }
+        this.frequency = frequency;
+        this.start = start;
+        this.end = end;
+        this.cutoff = cutoff;
+        this.payDate = payDate;
+        this.closesMonth = closesMonth;
+    }
+    
+    /**
+     * A calendar month as a monthly pay period, cut off and paid on its last day
+     */
+    public static PayPeriod ofMonth(YearMonth month) {
+        return new PayPeriod(PayFrequency.MONTHLY, month.atDay(1), month.atEndOfMonth(), month.atEndOfMonth(),
+                             month.atEndOfMonth(), true);
+    }
+    
+    /**
+     * The pay period covering a stored date range, with the frequency its shape belongs to: a
+     * calendar month, a half month (1st to 15th, 16th to month end), or one or two weeks from a
+     * Monday. A second half of a leap February that starts on a Monday reads as a half month. A
+     * range of no calendar's shape is read as the month it starts in, as payrolls were stored before
+     * they were kept per period. Cutoff and pay date are the last day.
+     */
+    public static PayPeriod of(LocalDate start, LocalDate end) {
+        long days = ChronoUnit.DAYS.between(start, end) + 1;
+        boolean sameMonth = YearMonth.from(start).equals(YearMonth.from(end));
+        boolean monthEnd = end.equals(YearMonth.from(end).atEndOfMonth());
+        PayFrequency frequency;
+        if (sameMonth && start.getDayOfMonth() == 1 && monthEnd) {
+            return ofMonth(YearMonth.from(start));
+        } else if (sameMonth && (start.getDayOfMonth() == 1 && end.getDayOfMonth() == 15
+                                 || start.getDayOfMonth() == 16 && monthEnd)) {
+            frequency = PayFrequency.SEMI_MONTHLY;
+        } else if (start.getDayOfWeek() == DayOfWeek.MONDAY && days == 7) {
+            frequency = PayFrequency.WEEKLY;
+        } else if (start.getDayOfWeek() == DayOfWeek.MONDAY && days == 14) {
+            frequency = PayFrequency.BIWEEKLY;
+        } else {
+            return ofMonth(YearMonth.from(start));
+        }
+        boolean closesMonth = !YearMonth.from(end.plusDays(days)).equals(YearMonth.from(end));
+        return new PayPeriod(frequency, start, end, end, end, closesMonth);
+    }
+    
+    /**
+     * The pay period of a key returned by {@link #getKey}
+     * @throws IllegalArgumentException if the key is neither {@code yyyy-MM} nor {@code yyyy-MM-dd--yyyy-MM-dd}
+     */
+    public static PayPeriod parse(String key) {
+        String trimmed = key == null ? "" : key.trim();
+        try {
+            int separator = trimmed.indexOf(RANGE_SEPARATOR);
+            if (separator < 0) {
+                return ofMonth(YearMonth.parse(trimmed));
+            }
+            LocalDate start = LocalDate.parse(trimmed.substring(0, separator));
+            LocalDate end = LocalDate.parse(trimmed.substring(separator + RANGE_SEPARATOR.length()));
+            if (end.isBefore(start)) {
+                throw new IllegalArgumentException("Pay period ends before it starts: " + key);
+            }
+            return of(start, end);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Pay period must be YYYY-MM or YYYY-MM-DD--YYYY-MM-DD: " + key);
+        }
+    }
+    
+    public PayFrequency getFrequency() { return frequency; }
+    public LocalDate getStart() { return start; }
+    public LocalDate getEnd() { return end; }
+    
+    /**
+     * Last day whose attendance counts towards this period; the payroll is calculated after it
+     */
+    public LocalDate getCutoff() { return cutoff; }
+    
+    public LocalDate getPayDate() { return payDate; }
+    
+    /**
+     * Month whose payroll this period belongs to
+     */
+    public YearMonth getPayrollMonth() { return YearMonth.from(end); }
+    
+    /**
+     * Whether this is the last period of its frequency ending in its payroll month
+     */
+    public boolean closesMonth() { return closesMonth; }
+    
+    /**
+     * Key payrolls of this period are stored under: {@code yyyy-MM} for a calendar month, otherwise
+     * {@code yyyy-MM-dd--yyyy-MM-dd}
+     */
+    public String getKey() {
+        if (start.getDayOfMonth() == 1 && end.equals(YearMonth.from(start).atEndOfMonth())) {
+            return YearMonth.from(start).toString();
+        }
+        return start + RANGE_SEPARATOR + end;
+    }
+    
+    public boolean contains(LocalDate date) {
+        return !date.isBefore(start) && !date.isAfter(end);
+    }
+    
+    /**
+     * Display label, e.g. "Apr 7, 2025 - Apr 13, 2025"
+     */
+    public String getLabel() {
+        return start.format(LABEL_FORMAT) + " - " + end.format(LABEL_FORMAT);
+    }
+    
+    @Override
+    public int compareTo(PayPeriod other) {
+        int byCutoff = cutoff.compareTo(other.cutoff);
+        if (byCutoff != 0) {
+            return byCutoff;
+        }
+        int byStart = start.compareTo(other.start);
+        return byStart != 0 ? byStart : frequency.compareTo(other.frequency);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PayPeriod)) return false;
+        PayPeriod other = (PayPeriod) o;
+        return frequency == other.frequency && start.equals(other.start) && end.equals(other.end);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(frequency, start, end);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("PayPeriod{%s %s to %s, cutoff=%s, payDate=%s%s}",
+                             frequency, start, end, cutoff, payDate, closesMonth ? ", closes " + getPayrollMonth() : "");
+    }
+}
@@ -7,24 +7,32 @@ import java.util.HashMap;
 
 /**
  * Payroll class representing a payroll record
+ * 
+ * Pay amounts are held as whole centavos (see Money) so gross, tax and net pay are exact;
+ * the double getters and setters convert at the boundary, rounding half-up to the centavo.
  */
 public class Payroll {
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_FINALIZED = "FINALIZED"; // Counted in the year-to-date ledger; no longer editable
+    
+    private static final long FLAT_TAX_BASIS_POINTS = 2000; // 20.00%
+    
     private int payrollId;
     private int employeeId;
     private String payPeriod;
-    private double basePay;
-    private double overtime;
-    private double bonuses;
-    private double deductions;
-    private double grossPay;
-    private double taxes;
-    private double netPay;
+    private long basePay;
+    private long overtime;
+    private long bonuses;
+    private long deductions;
+    private long grossPay;
+    private long taxes;
+    private long netPay;
     private LocalDate payDate;
     
     // Salary components breakdown
-    private double totalAllowances;
-    private double totalCustomDeductions;
-    private double totalCustomBonuses;
+    private long totalAllowances;
+    private long totalCustomDeductions;
+    private long totalCustomBonuses;
     private Map<String, Double> salaryBreakdown;
     
     // Additional fields for database compatibility
@@ -38,20 +46,27 @@ public class Payroll {
     private double taxDeduction;
     private String status;
     
+    // Philippine statutory deductions (employee shares reduce net pay, employer shares are for remittance)
+    private long sssContribution;
+    private long philHealthContribution;
+    private long pagIbigContribution;
+    private long sssEmployerContribution;
+    private long philHealthEmployerContribution;
+    private long pagIbigEmployerContribution;
+    private boolean statutoryWithholding;
+    private long withholdingTax;
+    
     public Payroll(int payrollId, int employeeId, String payPeriod, double basePay, 
                   double overtime, double bonuses, double deductions, LocalDate payDate) {
         this.payrollId = payrollId;
         this.employeeId = employeeId;
         this.payPeriod = payPeriod;
-        this.basePay = basePay;
-        this.overtime = overtime;
-        this.bonuses = bonuses;
-        this.deductions = deductions;
+        this.basePay = Money.toCentavos(basePay);
+        this.overtime = Money.toCentavos(overtime);
+        this.bonuses = Money.toCentavos(bonuses);
+        this.deductions = Money.toCentavos(deductions);
         this.payDate = payDate;
-        this.status = "PENDING";
-        this.totalAllowances = 0.0;
-        this.totalCustomDeductions = 0.0;
-        this.totalCustomBonuses = 0.0;
+        this.status = STATUS_PENDING;
         this.salaryBreakdown = new HashMap<>();
         calculatePay();
     }
@@ -59,33 +74,69 @@ public class Payroll {
     // Constructor for database operations
     public Payroll(String employeeId, java.util.Date payPeriodStart, java.util.Date payPeriodEnd, 
                   double basicSalary, double overtimeHours, double overtimeRate, double bonus, double deductions) {
-        this.employeeId = Integer.parseInt(employeeId);
+        // Database rows store the formatted ID (e.g., "EMP001" -> 1)
+        this.employeeId = Integer.parseInt(employeeId.startsWith("EMP") ? employeeId.substring(3) : employeeId);
         this.payPeriodStart = payPeriodStart;
         this.payPeriodEnd = payPeriodEnd;
         this.basicSalary = basicSalary;
-        this.basePay = basicSalary;
+        this.basePay = Money.toCentavos(basicSalary);
         this.overtimeHours = overtimeHours;
         this.overtimeRate = overtimeRate;
-        this.overtime = overtimeHours * overtimeRate;
+        this.overtime = Money.toCentavos(overtimeHours * overtimeRate);
         this.bonus = bonus;
-        this.bonuses = bonus;
-        this.deductions = deductions;
-        this.status = "PENDING";
-        this.totalAllowances = 0.0;
-        this.totalCustomDeductions = 0.0;
-        this.totalCustomBonuses = 0.0;
+        this.bonuses = Money.toCentavos(bonus);
+        this.deductions = Money.toCentavos(deductions);
+        this.status = STATUS_PENDING;
         this.salaryBreakdown = new HashMap<>();
         calculatePay();
     }
     
+    // Copy constructor (independent snapshot of another payroll's state)
+    public Payroll(Payroll other) {
+        this.payrollId = other.payrollId;
+        this.employeeId = other.employeeId;
+        this.payPeriod = other.payPeriod;
+        this.basePay = other.basePay;
+        this.overtime = other.overtime;
+        this.bonuses = other.bonuses;
+        this.deductions = other.deductions;
+        this.grossPay = other.grossPay;
+        this.taxes = other.taxes;
+        this.netPay = other.netPay;
+        this.payDate = other.payDate;
+        this.totalAllowances = other.totalAllowances;
+        this.totalCustomDeductions = other.totalCustomDeductions;
+        this.totalCustomBonuses = other.totalCustomBonuses;
+        this.salaryBreakdown = other.salaryBreakdown != null ? new HashMap<>(other.salaryBreakdown) : new HashMap<>();
+        this.id = other.id;
+        this.payPeriodStart = other.payPeriodStart != null ? new java.util.Date(other.payPeriodStart.getTime()) : null;
+        this.payPeriodEnd = other.payPeriodEnd != null ? new java.util.Date(other.payPeriodEnd.getTime()) : null;
+        this.basicSalary = other.basicSalary;
+        this.overtimeHours = other.overtimeHours;
+        this.overtimeRate = other.overtimeRate;
+        this.bonus = other.bonus;
+        this.taxDeduction = other.taxDeduction;
+        this.status = other.status;
+        this.sssContribution = other.sssContribution;
+        this.philHealthContribution = other.philHealthContribution;
+        this.pagIbigContribution = other.pagIbigContribution;
+        this.sssEmployerContribution = other.sssEmployerContribution;
+        this.philHealthEmployerContribution = other.philHealthEmployerContribution;
+        this.pagIbigEmployerContribution = other.pagIbigEmployerContribution;
+        this.statutoryWithholding = other.statutoryWithholding;
+        this.withholdingTax = other.withholdingTax;
+    }
+    
     private void calculatePay() {
         // Calculate gross pay including all components
-        double totalEarnings = basePay + overtime + bonuses + totalAllowances + totalCustomBonuses;
-        double totalDeductions = deductions + totalCustomDeductions;
+        long totalEarnings = basePay + overtime + bonuses + totalAllowances + totalCustomBonuses;
+        long totalDeductions = deductions + totalCustomDeductions + sssContribution + philHealthContribution + pagIbigContribution;
         
         this.grossPay = totalEarnings;
-        this.taxes = grossPay * 0.2; // 20% tax rate
-        this.taxDeduction = taxes;
+        // 20% tax rate unless withheld per BIR table
+        this.taxes = statutoryWithholding ? withholdingTax 
+                                          : Money.percentOf(grossPay, FLAT_TAX_BASIS_POINTS, Money.DEFAULT_ROUNDING);
+        this.taxDeduction = Money.toPesos(taxes);
         this.netPay = grossPay - taxes - totalDeductions;
     }
     
@@ -96,14 +147,44 @@ public class Payroll {
         this.salaryBreakdown = breakdown;
         
         // Extract totals from breakdown
-        this.totalAllowances = breakdown.getOrDefault("totalAllowances", 0.0);
-        this.totalCustomDeductions = breakdown.getOrDefault("totalDeductions", 0.0);
-        this.totalCustomBonuses = breakdown.getOrDefault("totalBonuses", 0.0);
+        this.totalAllowances = Money.toCentavos(breakdown.getOrDefault("totalAllowances", 0.0));
+        this.totalCustomDeductions = Money.toCentavos(breakdown.getOrDefault("totalDeductions", 0.0));
+        this.totalCustomBonuses = Money.toCentavos(breakdown.getOrDefault("totalBonuses", 0.0));
         
         // Recalculate pay with new components
         calculatePay();
     }
     
+    /**
+     * Apply statutory deductions: employee contribution shares and BIR withholding tax
+     * (replaces the flat 20% tax)
+     */
+    public void setStatutoryDeductions(double sss, double philHealth, double pagIbig, double withholdingTax) {
+        setStatutoryDeductions(Money.of(sss), Money.of(philHealth), Money.of(pagIbig), Money.of(withholdingTax));
+    }
+    
+    public void setStatutoryDeductions(Money sss, Money philHealth, Money pagIbig, Money withholdingTax) {
+        this.sssContribution = sss.getCentavos();
+        this.philHealthContribution = philHealth.getCentavos();
+        this.pagIbigContribution = pagIbig.getCentavos();
+        this.statutoryWithholding = true;
+        this.withholdingTax = withholdingTax.getCentavos();
+        calculatePay();
+    }
+    
+    /**
+     * Set employer contribution shares (not deducted from pay, kept for remittance)
+     */
+    public void setEmployerContributions(double sss, double philHealth, double pagIbig) {
+        setEmployerContributions(Money.of(sss), Money.of(philHealth), Money.of(pagIbig));
+    }
+    
+    public void setEmployerContributions(Money sss, Money philHealth, Money pagIbig) {
+        this.sssEmployerContribution = sss.getCentavos();
+        this.philHealthEmployerContribution = philHealth.getCentavos();
+        this.pagIbigEmployerContribution = pagIbig.getCentavos();
+    }
+    
     /**
      * Get detailed salary breakdown
      */
@@ -118,9 +199,9 @@ public class Payroll {
     public void setEmployeeId(int employeeId) { this.employeeId = employeeId; }
     public String getPayPeriod() { return payPeriod; }
     public void setPayPeriod(String payPeriod) { this.payPeriod = payPeriod; }
-    public double getBasePay() { return basePay; }
-    public void setBasePay(double basePay) { this.basePay = basePay; calculatePay(); }
-    public double getOvertime() { return overtime; }
+    public double getBasePay() { return Money.toPesos(basePay); }
+    public void setBasePay(double basePay) { this.basePay = Money.toCentavos(basePay); calculatePay(); }
+    public double getOvertime() { return Money.toPesos(overtime); }
     
     // Database compatibility getters and setters
     public int getId() { return id; }
@@ -141,26 +222,44 @@ public class Payroll {
     public void setTaxDeduction(double taxDeduction) { this.taxDeduction = taxDeduction; }
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
-    public void setOvertime(double overtime) { this.overtime = overtime; calculatePay(); }
-    public double getBonuses() { return bonuses; }
-    public void setBonuses(double bonuses) { this.bonuses = bonuses; calculatePay(); }
-    public double getDeductions() { return deductions; }
-    public void setDeductions(double deductions) { this.deductions = deductions; calculatePay(); }
-    public double getGrossPay() { return grossPay; }
-    public double getTaxes() { return taxes; }
-    public double getNetPay() { return netPay; }
+    public void setOvertime(double overtime) { this.overtime = Money.toCentavos(overtime); calculatePay(); }
+    public double getBonuses() { return Money.toPesos(bonuses); }
+    public void setBonuses(double bonuses) { this.bonuses = Money.toCentavos(bonuses); calculatePay(); }
+    public double getDeductions() { return Money.toPesos(deductions); }
+    public void setDeductions(double deductions) { this.deductions = Money.toCentavos(deductions); calculatePay(); }
+    public double getGrossPay() { return Money.toPesos(grossPay); }
+    public double getTaxes() { return Money.toPesos(taxes); }
+    public double getNetPay() { return Money.toPesos(netPay); }
+    
+    // Exact amounts
+    public Money getBasePayAmount() { return Money.ofCentavos(basePay); }
+    public Money getGrossPayAmount() { return Money.ofCentavos(grossPay); }
+    public Money getTaxesAmount() { return Money.ofCentavos(taxes); }
+    public Money getNetPayAmount() { return Money.ofCentavos(netPay); }
+    public Money getEmployeeContributionsAmount() { return Money.ofCentavos(sssContribution + philHealthContribution + pagIbigContribution); }
+    public Money getEmployerContributionsAmount() { return Money.ofCentavos(sssEmployerContribution + philHealthEmployerContribution + pagIbigEmployerContribution); }
     public LocalDate getPayDate() { return payDate; }
     public void setPayDate(LocalDate payDate) { this.payDate = payDate; }
     
     // New getters and setters for salary components
-    public double getTotalAllowances() { return totalAllowances; }
-    public void setTotalAllowances(double totalAllowances) { this.totalAllowances = totalAllowances; calculatePay(); }
+    public double getTotalAllowances() { return Money.toPesos(totalAllowances); }
+    public void setTotalAllowances(double totalAllowances) { this.totalAllowances = Money.toCentavos(totalAllowances); calculatePay(); }
+    
+    public double getTotalCustomDeductions() { return Money.toPesos(totalCustomDeductions); }
+    public void setTotalCustomDeductions(double totalCustomDeductions) { this.totalCustomDeductions = Money.toCentavos(totalCustomDeductions); calculatePay(); }
     
-    public double getTotalCustomDeductions() { return totalCustomDeductions; }
-    public void setTotalCustomDeductions(double totalCustomDeductions) { this.totalCustomDeductions = totalCustomDeductions; calculatePay(); }
+    public double getTotalCustomBonuses() { return Money.toPesos(totalCustomBonuses); }
+    public void setTotalCustomBonuses(double totalCustomBonuses) { this.totalCustomBonuses = Money.toCentavos(totalCustomBonuses); calculatePay(); }
     
-    public double getTotalCustomBonuses() { return totalCustomBonuses; }
-    public void setTotalCustomBonuses(double totalCustomBonuses) { this.totalCustomBonuses = totalCustomBonuses; calculatePay(); }
+    public double getSssContribution() { return Money.toPesos(sssContribution); }
+    public double getPhilHealthContribution() { return Money.toPesos(philHealthContribution); }
+    public double getPagIbigContribution() { return Money.toPesos(pagIbigContribution); }
+    public double getSssEmployerContribution() { return Money.toPesos(sssEmployerContribution); }
+    public double getPhilHealthEmployerContribution() { return Money.toPesos(philHealthEmployerContribution); }
+    public double getPagIbigEmployerContribution() { return Money.toPesos(pagIbigEmployerContribution); }
+    public double getEmployeeContributions() { return Money.toPesos(sssContribution + philHealthContribution + pagIbigContribution); }
+    public boolean hasStatutoryDeductions() { return statutoryWithholding; }
+    public boolean isFinalized() { return STATUS_FINALIZED.equals(status); }
     
     /**
      * Get formatted salary breakdown as string
@@ -172,26 +271,26 @@ public class Payroll {
         
         StringBuilder sb = new StringBuilder();
         sb.append("Salary Breakdown:\n");
-        sb.append(String.format("Base Salary: $%.2f\n", basePay));
+        sb.append(String.format("Base Salary: $%.2f\n", getBasePay()));
         
         if (totalAllowances > 0) {
-            sb.append(String.format("Total Allowances: $%.2f\n", totalAllowances));
+            sb.append(String.format("Total Allowances: $%.2f\n", getTotalAllowances()));
         }
         if (totalCustomBonuses > 0) {
-            sb.append(String.format("Total Bonuses: $%.2f\n", totalCustomBonuses));
+            sb.append(String.format("Total Bonuses: $%.2f\n", getTotalCustomBonuses()));
         }
         if (overtime > 0) {
-            sb.append(String.format("Overtime: $%.2f\n", overtime));
+            sb.append(String.format("Overtime: $%.2f\n", getOvertime()));
         }
         
-        sb.append(String.format("Gross Pay: $%.2f\n", grossPay));
-        sb.append(String.format("Tax Deduction: $%.2f\n", taxes));
+        sb.append(String.format("Gross Pay: $%.2f\n", getGrossPay()));
+        sb.append(String.format("Tax Deduction: $%.2f\n", getTaxes()));
         
         if (totalCustomDeductions > 0) {
-            sb.append(String.format("Other Deductions: $%.2f\n", totalCustomDeductions));
+            sb.append(String.format("Other Deductions: $%.2f\n", getTotalCustomDeductions()));
         }
         
-        sb.append(String.format("Net Pay: $%.2f", netPay));
+        sb.append(String.format("Net Pay: $%.2f", getNetPay()));
         
         return sb.toString();
     }
@@ -199,7 +298,7 @@ public class Payroll {
     @Override
     public String toString() {
         return String.format("Payroll ID: %d | Employee ID: %d | Period: %s | Gross: $%.2f | Taxes: $%.2f | Net: $%.2f | Date: %s",
-                payrollId, employeeId, payPeriod, grossPay, taxes, netPay, 
+                payrollId, employeeId, payPeriod, getGrossPay(), getTaxes(), getNetPay(), 
                 payDate.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
     }
 }
@@ -0,0 +1,124 @@
+package models;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Journal entry for a batch payroll run. The employees a run has finished are recorded
+ * alongside it so that an interrupted run can be resumed without paying anyone twice.
+ */
+public class PayrollRun {
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_CANCELLED = "CANCELLED";
+    public static final String STATUS_FAILED = "FAILED";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    
+    private int runId;
+    private PayPeriod period;
+    private LocalDate payDate;
+    private String status;
+    private long totalEmployees;
+    private long processedEmployees;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+    
+    // Constructors
+    public PayrollRun() {
+        this.status = STATUS_RUNNING;
+        this.startedAt = LocalDateTime.now();
+        this.updatedAt = startedAt;
+    }
+    
+    public PayrollRun(PayPeriod period, LocalDate payDate) {
+        this();
+        this.period = period;
+        this.payDate = payDate;
+    }
+    
+    /**
+     * A run that was not completed can be picked up again
+     */
+    public boolean isResumable() {
+        return !STATUS_COMPLETED.equals(status);
+    }
+    
+    // Getters and Setters
+    public int getRunId() {
+        return runId;
+    }
+    
+    public void setRunId(int runId) {
+        this.runId = runId;
+    }
+    
+    public PayPeriod getPeriod() {
+        return period;
+    }
+    
+    public void setPeriod(PayPeriod period) {
+        this.period = period;
+    }
+    
+    public LocalDate getPayDate() {
+        return payDate;
+    }
+    
+    public void setPayDate(LocalDate payDate) {
+        this.payDate = payDate;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public long getTotalEmployees() {
+        return totalEmployees;
+    }
+    
+    public void setTotalEmployees(long totalEmployees) {
+        this.totalEmployees = totalEmployees;
+    }
+    
+    public long getProcessedEmployees() {
+        return processedEmployees;
+    }
+    
+    public void setProcessedEmployees(long processedEmployees) {
+        this.processedEmployees = processedEmployees;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("Run #%d %s [%s] %d/%d", runId, period != null ? period.getKey() : null, status,
+                             processedEmployees, totalEmployees);
+    }
+}
@@ -13,6 +13,8 @@ public class SalaryComponent {
     private String type; // EARNING, DEDUCTION, ALLOWANCE, BONUS
     private BigDecimal amount;
     private boolean isPercentage;
+    private String formula; // Optional amount formula (see managers.SalaryFormula); overrides amount and percentage
+    private int version;    // Incremented each time the component is saved
     private boolean isActive;
     private LocalDate createdDate;
     private LocalDate lastModified;
@@ -26,6 +28,7 @@ public class SalaryComponent {
         this.isActive = true;
         this.isPercentage = false;
         this.amount = BigDecimal.ZERO;
+        this.version = 1;
     }
     
     public SalaryComponent(String name, String type, BigDecimal amount, String description) {
@@ -93,6 +96,26 @@ public class SalaryComponent {
         isPercentage = percentage;
     }
     
+    public String getFormula() {
+        return formula;
+    }
+    
+    public void setFormula(String formula) {
+        this.formula = formula;
+    }
+    
+    public boolean hasFormula() {
+        return formula != null && !formula.trim().isEmpty();
+    }
+    
+    public int getVersion() {
+        return version;
+    }
+    
+    public void setVersion(int version) {
+        this.version = version;
+    }
+    
     public boolean isActive() {
         return isActive;
     }
@@ -135,6 +158,9 @@ public class SalaryComponent {
     
     // Utility methods
     public String getFormattedAmount() {
+        if (hasFormula()) {
+            return "= " + formula.trim();
+        }
         if (isPercentage) {
             return String.format("%.2f%%", amount.doubleValue());
         } else {
@@ -0,0 +1,69 @@
+package models;
+
+import java.time.LocalDate;
+
+/**
+ * One employee's certificate of compensation and tax withheld (BIR Form 2316) for a calendar year,
+ * and the employee's line in the year-end alphalist
+ *
+ * Built from the employee's year-to-date totals plus the 13th-month pay earned in the year. The
+ * 13th-month pay is exempt up to the annual cap on 13th-month pay and other benefits; mandatory
+ * contributions are exempt in full. Amounts are whole centavos; instances are immutable.
+ */
+public final class YearEndCertificate {
+    private final YearToDate totals;
+    private final long thirteenthMonthPay;
+    private final long nonTaxableBenefits;
+    private final long taxDue;
+    private final LocalDate employedFrom;
+    private final LocalDate employedTo;
+    
+    /**
+     * @param nonTaxableBenefits Part of the 13th-month pay that is exempt
+     * @param taxDue Tax due on the year's taxable compensation under the annual table
+     */
+    public YearEndCertificate(YearToDate totals, long thirteenthMonthPay, long nonTaxableBenefits, long taxDue,
+                              LocalDate employedFrom, LocalDate employedTo) {
+        this.totals = totals;
+        this.thirteenthMonthPay = thirteenthMonthPay;
+        this.nonTaxableBenefits = nonTaxableBenefits;
+        this.taxDue = taxDue;
+        this.employedFrom = employedFrom;
+        this.employedTo = employedTo;
+    }
+    
+    public int getEmployeeId() { return totals.getEmployeeId(); }
+    public int getYear() { return totals.getYear(); }
+    public YearToDate getTotals() { return totals; }
+    public LocalDate getEmployedFrom() { return employedFrom; }
+    public LocalDate getEmployedTo() { return employedTo; }
+    
+    /**
+     * Payroll gross pay plus 13th-month pay
+     */
+    public long getGrossCompensationCentavos() { return totals.getGrossPay().getCentavos() + thirteenthMonthPay; }
+    public long getThirteenthMonthPayCentavos() { return thirteenthMonthPay; }
+    public long getNonTaxableBenefitsCentavos() { return nonTaxableBenefits; }
+    public long getContributionsCentavos() { return totals.getEmployeeContributions().getCentavos(); }
+    
+    /**
+     * Exempt 13th-month pay plus everything the payrolls left out of the taxable base
+     */
+    public long getNonTaxableCentavos() { return nonTaxableBenefits + totals.getNonTaxableCompensation().getCentavos(); }
+    public long getTaxableCentavos() { return getGrossCompensationCentavos() - getNonTaxableCentavos(); }
+    public long getTaxDueCentavos() { return taxDue; }
+    public long getTaxWithheldCentavos() { return totals.getTaxWithheld().getCentavos(); }
+    
+    /**
+     * Tax due less tax withheld: positive if still to be withheld, negative if to be refunded
+     */
+    public long getAdjustmentCentavos() { return taxDue - getTaxWithheldCentavos(); }
+    
+    @Override
+    public String toString() {
+        return String.format("YearEndCertificate{employee=%d, year=%d, gross=%s, taxable=%s, due=%s, withheld=%s}",
+                             getEmployeeId(), getYear(), Money.ofCentavos(getGrossCompensationCentavos()).format(),
+                             Money.ofCentavos(getTaxableCentavos()).format(), Money.ofCentavos(taxDue).format(),
+                             totals.getTaxWithheld().format());
+    }
+}
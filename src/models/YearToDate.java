@@ -0,0 +1,134 @@
+package models;
+
+/**
+ * Year-to-date totals of one employee's finalized payrolls in one calendar year
+ *
+ * A payroll counts towards the year of its pay date (BIR treats compensation as earned when paid),
+ * or of its pay period when it has no pay date. Amounts are whole centavos; instances are immutable,
+ * so a ledger can hand them out to any thread.
+ */
+public final class YearToDate {
+    private final int employeeId;
+    private final int year;
+    private final int payrollCount;
+    private final long basicPay;
+    private final long grossPay;
+    private final long taxableIncome;
+    private final long taxWithheld;
+    private final long sssContribution;
+    private final long philHealthContribution;
+    private final long pagIbigContribution;
+    private final long sssEmployerContribution;
+    private final long philHealthEmployerContribution;
+    private final long pagIbigEmployerContribution;
+    
+    public YearToDate(int employeeId, int year, int payrollCount, long basicPay, long grossPay, long taxableIncome,
+                      long taxWithheld, long sssContribution, long philHealthContribution, long pagIbigContribution,
+                      long sssEmployerContribution, long philHealthEmployerContribution, long pagIbigEmployerContribution) {
+        this.employeeId = employeeId;
+        this.year = year;
+        this.payrollCount = payrollCount;
+        this.basicPay = basicPay;
+        this.grossPay = grossPay;
+        this.taxableIncome = taxableIncome;
+        this.taxWithheld = taxWithheld;
+        this.sssContribution = sssContribution;
+        this.philHealthContribution = philHealthContribution;
+        this.pagIbigContribution = pagIbigContribution;
+        this.sssEmployerContribution = sssEmployerContribution;
+        this.philHealthEmployerContribution = philHealthEmployerContribution;
+        this.pagIbigEmployerContribution = pagIbigEmployerContribution;
+    }
+    
+    /**
+     * Totals of an employee with nothing finalized yet in the year
+     */
+    public static YearToDate empty(int employeeId, int year) {
+        return new YearToDate(employeeId, year, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+    }
+    
+    /**
+     * What one payroll adds to its employee's totals
+     */
+    public static YearToDate of(Payroll payroll) {
+        return empty(payroll.getEmployeeId(), yearOf(payroll)).plus(payroll);
+    }
+    
+    /**
+     * Calendar year a payroll is counted in
+     */
+    public static int yearOf(Payroll payroll) {
+        if (payroll.getPayDate() != null) {
+            return payroll.getPayDate().getYear();
+        }
+        return PayPeriod.parse(payroll.getPayPeriod()).getPayrollMonth().getYear();
+    }
+    
+    /**
+     * These totals with one more payroll added
+     */
+    public YearToDate plus(Payroll payroll) {
+        long sss = Money.toCentavos(payroll.getSssContribution());
+        long philHealth = Money.toCentavos(payroll.getPhilHealthContribution());
+        long pagIbig = Money.toCentavos(payroll.getPagIbigContribution());
+        long gross = payroll.getGrossPayAmount().getCentavos();
+        // Same taxable base the withholding was computed on: mandatory employee contributions are exempt
+        long taxable = Math.max(0, gross - sss - philHealth - pagIbig);
+        return new YearToDate(employeeId, year, payrollCount + 1,
+                              basicPay + payroll.getBasePayAmount().getCentavos(),
+                              grossPay + gross,
+                              taxableIncome + taxable,
+                              taxWithheld + payroll.getTaxesAmount().getCentavos(),
+                              sssContribution + sss,
+                              philHealthContribution + philHealth,
+                              pagIbigContribution + pagIbig,
+                              sssEmployerContribution + Money.toCentavos(payroll.getSssEmployerContribution()),
+                              philHealthEmployerContribution + Money.toCentavos(payroll.getPhilHealthEmployerContribution()),
+                              pagIbigEmployerContribution + Money.toCentavos(payroll.getPagIbigEmployerContribution()));
+    }
+    
+    /**
+     * These totals combined with another set for the same employee and year
+     */
+    public YearToDate plus(YearToDate other) {
+        return new YearToDate(employeeId, year, payrollCount + other.payrollCount,
+                              basicPay + other.basicPay,
+                              grossPay + other.grossPay,
+                              taxableIncome + other.taxableIncome,
+                              taxWithheld + other.taxWithheld,
+                              sssContribution + other.sssContribution,
+                              philHealthContribution + other.philHealthContribution,
+                              pagIbigContribution + other.pagIbigContribution,
+                              sssEmployerContribution + other.sssEmployerContribution,
+                              philHealthEmployerContribution + other.philHealthEmployerContribution,
+                              pagIbigEmployerContribution + other.pagIbigEmployerContribution);
+    }
+    
+    public int getEmployeeId() { return employeeId; }
+    public int getYear() { return year; }
+    public int getPayrollCount() { return payrollCount; }
+    public Money getBasicPay() { return Money.ofCentavos(basicPay); }
+    public Money getGrossPay() { return Money.ofCentavos(grossPay); }
+    public Money getTaxableIncome() { return Money.ofCentavos(taxableIncome); }
+    public Money getTaxWithheld() { return Money.ofCentavos(taxWithheld); }
+    public Money getSssContribution() { return Money.ofCentavos(sssContribution); }
+    public Money getPhilHealthContribution() { return Money.ofCentavos(philHealthContribution); }
+    public Money getPagIbigContribution() { return Money.ofCentavos(pagIbigContribution); }
+    public Money getSssEmployerContribution() { return Money.ofCentavos(sssEmployerContribution); }
+    public Money getPhilHealthEmployerContribution() { return Money.ofCentavos(philHealthEmployerContribution); }
+    public Money getPagIbigEmployerContribution() { return Money.ofCentavos(pagIbigEmployerContribution); }
+    public Money getEmployeeContributions() { return Money.ofCentavos(sssContribution + philHealthContribution + pagIbigContribution); }
+    public Money getEmployerContributions() { return Money.ofCentavos(sssEmployerContribution + philHealthEmployerContribution + pagIbigEmployerContribution); }
+    
+    /**
+     * Compensation that was not taxed (mandatory contributions and anything else excluded from the taxable base)
+     */
+    public Money getNonTaxableCompensation() { return Money.ofCentavos(grossPay - taxableIncome); }
+    
+    @Override
+    public String toString() {
+        return String.format("YearToDate{employee=%d, year=%d, payrolls=%d, gross=%s, taxable=%s, tax=%s}",
+                           employeeId, year, payrollCount, getGrossPay().format(), getTaxableIncome().format(),
+                           getTaxWithheld().format());
+    }
+}
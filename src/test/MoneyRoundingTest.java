@@ -0,0 +1,61 @@
+package test;
+
+import models.Money;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Checks how Money rounds double amounts to the centavo, including amounts that double arithmetic
+ * leaves just below a half centavo
+ */
+public class MoneyRoundingTest {
+    private static int failures = 0;
+    
+    public static void main(String[] args) {
+        System.out.println("Starting Money Rounding Test...");
+        
+        // Test 1: Halves written as decimals round up, though their doubles are slightly below
+        check("1.005", Money.toCentavos(1.005), 101);
+        check("2.675", Money.toCentavos(2.675), 268);
+        check("-2.675", Money.toCentavos(-2.675), -268);
+        
+        // Test 2: Results of arithmetic that are exactly a half centavo in decimal round up
+        check("91431.45 / 22 (4155.975)", Money.toCentavos(91431.45 / 22), 415598);
+        check("0.1 + 0.2 + 0.005", Money.toCentavos(0.1 + 0.2 + 0.005), 31);
+        
+        // Test 3: Amounts genuinely below a half, by more than the tolerance, round down
+        check("1.00499999", Money.toCentavos(1.00499999), 100);
+        check("0.0049", Money.toCentavos(0.0049), 0);
+        check("-1.00499999", Money.toCentavos(-1.00499999), -100);
+        
+        // Test 4: Amounts away from a half agree with BigDecimal half-up rounding
+        java.util.Random random = new java.util.Random(42);
+        int disagreements = 0;
+        for (int i = 0; i < 1_000_000; i++) {
+            double pesos = random.nextInt(1_000_000_000) / 1000.0 + 0.0001 + random.nextDouble() * 0.0008;
+            long expected = BigDecimal.valueOf(pesos).setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+            if (Money.toCentavos(pesos) != expected) {
+                disagreements++;
+            }
+        }
+        check("random amounts off a half centavo", disagreements, 0);
+        
+        // Test 5: Centavos convert back to the same pesos
+        check("round trip", Money.toCentavos(Money.toPesos(123456789)), 123456789);
+        
+        if (failures == 0) {
+            System.out.println("\nAll tests completed successfully!");
+        } else {
+            System.out.println("\n" + failures + " checks failed");
+        }
+    }
+    
+    private static void check(String name, long actual, long expected) {
+        if (actual == expected) {
+            System.out.println("✓ PASSED: " + name + " = " + actual);
+        } else {
+            failures++;
+            System.out.println("✗ FAILED: " + name + " = " + actual + ", expected " + expected);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package test;
+
+import managers.ContributionTableRegistry;
+import managers.PayrollBatchKernel;
+import managers.PayrollRunEngine;
+import managers.WithholdingTaxRegistry;
+import managers.WithholdingTaxTable;
+import models.Employee;
+import models.EmployeeSalaryComponent;
+import models.PayFrequency;
+import models.Payroll;
+import models.SalaryComponent;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the columnar batch kernel against the per-employee calculation,
+ * for correctness and speed
+ */
+public class PayrollKernelBenchmark {
+    private static final int EMPLOYEES = 100_000;
+    private static final int BATCH_SIZE = 500;
+    private static final int ROUNDS = 5;
+    
+    public static void main(String[] args) {
+        System.out.println("Starting Payroll Kernel Benchmark...");
+        
+        YearMonth period = YearMonth.of(2025, 3);
+        LocalDate payDate = period.atEndOfMonth();
+        ContributionTableRegistry.Schedule contributions = ContributionTableRegistry.getDefault().forDate(period.atDay(1));
+        WithholdingTaxTable taxTable = WithholdingTaxRegistry.getDefault().getTable(PayFrequency.MONTHLY, period.atDay(1));
+        
+        SalaryComponent[] componentTypes = {
+            new SalaryComponent(1, "Transportation", "ALLOWANCE", BigDecimal.ZERO, "", false, true),
+            new SalaryComponent(2, "Performance", "BONUS", BigDecimal.ZERO, "", true, true),
+            new SalaryComponent(3, "Commission", "EARNING", BigDecimal.ZERO, "", false, true),
+            new SalaryComponent(4, "Loan", "DEDUCTION", BigDecimal.ZERO, "", false, true)
+        };
+        
+        Random random = new Random(42);
+        List<Employee> employees = new ArrayList<>(EMPLOYEES);
+        List<List<EmployeeSalaryComponent>> components = new ArrayList<>(EMPLOYEES);
+        for (int i = 1; i <= EMPLOYEES; i++) {
+            double salary = 12000 + random.nextInt(200000) + random.nextInt(100) / 100.0;
+            employees.add(new Employee(i, "First" + i, "Last" + i, "emp" + i + "@company.com", "IT", "Developer",
+                                       salary, LocalDate.of(2020, 1, 1)));
+            List<EmployeeSalaryComponent> assigned = new ArrayList<>();
+            for (SalaryComponent type : componentTypes) {
+                if (random.nextBoolean()) {
+                    EmployeeSalaryComponent assignment = new EmployeeSalaryComponent(String.format("EMP%03d", i), type.getId(),
+                        type.isPercentage() ? BigDecimal.valueOf(random.nextInt(1500), 2) : BigDecimal.valueOf(random.nextInt(500000), 2));
+                    assignment.setPercentage(type.isPercentage());
+                    assignment.setSalaryComponent(type);
+                    assigned.add(assignment);
+                }
+            }
+            components.add(assigned);
+        }
+        
+        // Test 1: Both paths produce the same payroll
+        List<Payroll> expected = perEmployee(employees, components, contributions, taxTable, period, payDate);
+        List<Payroll> actual = columnar(employees, components, contributions, taxTable, period, payDate);
+        int mismatches = 0;
+        for (int i = 0; i < EMPLOYEES; i++) {
+            Payroll a = expected.get(i);
+            Payroll b = actual.get(i);
+            if (!a.getGrossPayAmount().equals(b.getGrossPayAmount()) || !a.getNetPayAmount().equals(b.getNetPayAmount())
+                    || !a.getTaxesAmount().equals(b.getTaxesAmount())
+                    || !a.getEmployeeContributionsAmount().equals(b.getEmployeeContributionsAmount())
+                    || !a.getEmployerContributionsAmount().equals(b.getEmployerContributionsAmount())) {
+                mismatches++;
+            }
+        }
+        if (mismatches == 0) {
+            System.out.println("✓ Test 1 PASSED: Kernel matches the per-employee calculation for " + EMPLOYEES + " employees");
+        } else {
+            System.out.println("✗ Test 1 FAILED: " + mismatches + " employees differ");
+        }
+        
+        // Test 2: Overtime and night differential
+        PayrollBatchKernel kernel = new PayrollBatchKernel(1);
+        int row = kernel.add(employees.get(0), new ArrayList<>());
+        kernel.setHours(row, 10, 8);
+        kernel.compute(contributions, taxTable);
+        Payroll withHours = kernel.toPayrolls(period, payDate).get(0);
+        System.out.println(String.format("  Base %.2f with 10 OT hours and 8 night hours: premium pay %.2f, net %.2f",
+                                         withHours.getBasePay(), withHours.getOvertime(), withHours.getNetPay()));
+        
+        // Test 3: Speed. Payroll objects dominate the allocation, so the kernel is timed both with and
+        // without the write-back; collect garbage between measurements to keep the rounds comparable
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.gc();
+            long start = System.nanoTime();
+            List<Payroll> perEmployee = perEmployee(employees, components, contributions, taxTable, period, payDate);
+            long perEmployeeNanos = System.nanoTime() - start;
+            
+            System.gc();
+            start = System.nanoTime();
+            List<Payroll> batched = columnar(employees, components, contributions, taxTable, period, payDate);
+            long columnarNanos = System.nanoTime() - start;
+            
+            System.gc();
+            start = System.nanoTime();
+            long totalNet = computeOnly(employees, components, contributions, taxTable);
+            long computeNanos = System.nanoTime() - start;
+            
+            System.out.println(String.format("  Round %d: per-employee %.0f ns, kernel %.0f ns, kernel without write-back %.0f ns per employee"
+                                             + " (%d / %d payrolls, net %d)",
+                                             round, (double) perEmployeeNanos / EMPLOYEES, (double) columnarNanos / EMPLOYEES,
+                                             (double) computeNanos / EMPLOYEES, perEmployee.size(), batched.size(), totalNet));
+        }
+        
+        System.out.println("Payroll Kernel Benchmark completed!");
+    }
+    
+    private static List<Payroll> perEmployee(List<Employee> employees, List<List<EmployeeSalaryComponent>> components,
+                                             ContributionTableRegistry.Schedule contributions, WithholdingTaxTable taxTable,
+                                             YearMonth period, LocalDate payDate) {
+        List<Payroll> payrolls = new ArrayList<>(employees.size());
+        for (int i = 0; i < employees.size(); i++) {
+            payrolls.add(PayrollRunEngine.calculate(employees.get(i), components.get(i), contributions, taxTable, period, payDate));
+        }
+        return payrolls;
+    }
+    
+    private static long computeOnly(List<Employee> employees, List<List<EmployeeSalaryComponent>> components,
+                                    ContributionTableRegistry.Schedule contributions, WithholdingTaxTable taxTable) {
+        long totalNet = 0;
+        PayrollBatchKernel kernel = new PayrollBatchKernel(BATCH_SIZE);
+        for (int from = 0; from < employees.size(); from += BATCH_SIZE) {
+            kernel.clear();
+            int to = Math.min(from + BATCH_SIZE, employees.size());
+            for (int i = from; i < to; i++) {
+                kernel.add(employees.get(i), components.get(i));
+            }
+            kernel.compute(contributions, taxTable);
+            totalNet += kernel.getTotalNetPay();
+        }
+        return totalNet;
+    }
+    
+    private static List<Payroll> columnar(List<Employee> employees, List<List<EmployeeSalaryComponent>> components,
+                                          ContributionTableRegistry.Schedule contributions, WithholdingTaxTable taxTable,
+                                          YearMonth period, LocalDate payDate) {
+        List<Payroll> payrolls = new ArrayList<>(employees.size());
+        PayrollBatchKernel kernel = new PayrollBatchKernel(BATCH_SIZE);
+        for (int from = 0; from < employees.size(); from += BATCH_SIZE) {
+            kernel.clear();
+            int to = Math.min(from + BATCH_SIZE, employees.size());
+            for (int i = from; i < to; i++) {
+                kernel.add(employees.get(i), components.get(i));
+            }
+            kernel.compute(contributions, taxTable);
+            payrolls.addAll(kernel.toPayrolls(period, payDate));
+        }
+        return payrolls;
+    }
+}
@@ -0,0 +1,98 @@
+package test;
+
+import managers.WithholdingTaxRegistry;
+import managers.WithholdingTaxTable;
+import models.PayFrequency;
+import java.time.LocalDate;
+
+/**
+ * Compares the precomputed withholding tax tables against the original
+ * annualize-and-ladder calculation, for correctness and speed
+ */
+public class WithholdingTaxBenchmark {
+    private static final int SAMPLES = 1_000_000;
+    private static final int ROUNDS = 5;
+    
+    public static void main(String[] args) {
+        System.out.println("Starting Withholding Tax Benchmark...");
+        
+        WithholdingTaxRegistry registry = WithholdingTaxRegistry.getDefault();
+        LocalDate asOf = LocalDate.of(2025, 1, 1);
+        WithholdingTaxTable monthly = registry.getTable(PayFrequency.MONTHLY, asOf);
+        System.out.println("Using " + monthly);
+        
+        double[] incomes = new double[SAMPLES];
+        java.util.Random random = new java.util.Random(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            incomes[i] = random.nextDouble() * 250000;
+        }
+        
+        // Test 1: Both methods agree (the published monthly brackets are rounded to the peso,
+        // so allow a few pesos of difference near the bracket edges)
+        double maxDifference = 0.0;
+        for (double income : incomes) {
+            maxDifference = Math.max(maxDifference, Math.abs(monthly.taxOn(income) - legacyMonthlyWithholdingTax(income)));
+        }
+        if (maxDifference < 5.0) {
+            System.out.println("✓ Test 1 PASSED: Tables match the original calculation (max difference " 
+                             + String.format("%.4f", maxDifference) + ")");
+        } else {
+            System.out.println("✗ Test 1 FAILED: Max difference " + maxDifference);
+        }
+        
+        // Test 2: Other frequencies
+        System.out.println(String.format("  Semi-monthly tax on 25,000: %.2f", 
+                                         registry.getTable(PayFrequency.SEMI_MONTHLY, asOf).taxOn(25000)));
+        System.out.println(String.format("  Weekly tax on 10,000: %.2f", 
+                                         registry.getTable(PayFrequency.WEEKLY, asOf).taxOn(10000)));
+        System.out.println(String.format("  Biweekly tax on 20,000: %.2f", 
+                                         registry.getTable(PayFrequency.BIWEEKLY, asOf).taxOn(20000)));
+        System.out.println(String.format("  Daily tax on 1,500: %.2f", 
+                                         registry.getTable(PayFrequency.DAILY, asOf).taxOn(1500)));
+        
+        // Test 3: Speed
+        for (int round = 1; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            double legacyTotal = 0.0;
+            for (double income : incomes) {
+                legacyTotal += legacyMonthlyWithholdingTax(income);
+            }
+            long legacyNanos = System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            double tableTotal = 0.0;
+            for (double income : incomes) {
+                tableTotal += monthly.taxOn(income);
+            }
+            long tableNanos = System.nanoTime() - start;
+            
+            System.out.println(String.format("  Round %d: original %.1f ns/call, table %.1f ns/call (totals %.0f / %.0f)", 
+                                             round, (double) legacyNanos / SAMPLES, (double) tableNanos / SAMPLES, 
+                                             legacyTotal, tableTotal));
+        }
+        
+        System.out.println("Withholding Tax Benchmark completed!");
+    }
+    
+    /**
+     * The original calculation: annualize, apply the hard-coded TRAIN ladder, divide by 12
+     */
+    private static double legacyMonthlyWithholdingTax(double monthlyTaxableIncome) {
+        double annualTaxableIncome = monthlyTaxableIncome * 12;
+        double annualTax;
+        if (annualTaxableIncome <= 250000) {
+            annualTax = 0.0;
+        } else if (annualTaxableIncome <= 400000) {
+            annualTax = (annualTaxableIncome - 250000) * 0.15;
+        } else if (annualTaxableIncome <= 800000) {
+            annualTax = 22500 + (annualTaxableIncome - 400000) * 0.20;
+        } else if (annualTaxableIncome <= 2000000) {
+            annualTax = 102500 + (annualTaxableIncome - 800000) * 0.25;
+        } else if (annualTaxableIncome <= 8000000) {
+            annualTax = 402500 + (annualTaxableIncome - 2000000) * 0.30;
+        } else {
+            annualTax = 2202500 + (annualTaxableIncome - 8000000) * 0.35;
+        }
+        return annualTax / 12;
+    }
+}